@@ -0,0 +1,140 @@
+package com.jarom.funbankapp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator for comparing the platform and virtual
+ * thread modes of a running server. Registers a throwaway user, then keeps
+ * {@code concurrency} clients hammering an authenticated endpoint for the
+ * given duration and prints throughput and latency percentiles.
+ *
+ * Run with {@code ./gradlew loadTest -PloadTest.args="http://localhost:8080 /api/accounts 500 30"}
+ * (base URL, path, concurrent clients, seconds).
+ */
+public class HttpLoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String path = args.length > 1 ? args[1] : "/api/accounts";
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(clients)
+                    .build();
+            String token = register(http, baseUrl);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+
+            // Short warm-up so JIT and pool start-up don't land in the numbers
+            run(clients, http, request, concurrency, Math.min(5, seconds));
+            Result result = run(clients, http, request, concurrency, seconds);
+            result.print(path, concurrency, seconds);
+        }
+    }
+
+    private static Result run(ExecutorService clients, HttpClient http, HttpRequest request,
+                              int concurrency, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<Worker>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> new Worker().loop(http, request, deadline)));
+        }
+        Result result = new Result();
+        for (Future<Worker> future : futures) {
+            result.add(future.get());
+        }
+        return result;
+    }
+
+    private static String register(HttpClient http, String baseUrl) throws Exception {
+        String username = "load_" + Long.toString(System.nanoTime(), 36);
+        String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\","
+                + "\"password\":\"LoadTest1!pass\"}";
+        HttpResponse<String> response = http.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Registration failed: " + response.statusCode() + " " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static final class Worker {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        Worker loop(HttpClient http, HttpRequest request, long deadline) {
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 400) {
+                        errors++;
+                    }
+                } catch (Exception e) {
+                    errors++;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+            return this;
+        }
+    }
+
+    private static final class Result {
+        private long[] latencies = new long[0];
+        private long errors;
+
+        void add(Worker worker) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + worker.count);
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            errors += worker.errors;
+        }
+
+        void print(String path, int concurrency, int seconds) {
+            Arrays.sort(latencies);
+            System.out.printf("GET %s, %d clients, %ds%n", path, concurrency, seconds);
+            System.out.printf("  requests:   %d (%d errors)%n", latencies.length, errors);
+            System.out.printf("  throughput: %.1f req/s%n", latencies.length / (double) seconds);
+            System.out.printf("  p50: %.1f ms  p99: %.1f ms  max: %.1f ms%n",
+                    percentile(0.50), percentile(0.99), percentile(1.0));
+        }
+
+        private double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(p * latencies.length) - 1);
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.jarom.funbankapp.repository;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.jarom.funbankapp.config.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Fires 10k virtual threads at the repository layer per invocation, each
+ * doing an ownership lookup and a full account read against an in-memory H2
+ * behind a 10-connection Hikari pool, with and without the connection guard.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=RepositoryVirtualThreadBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class RepositoryVirtualThreadBenchmark {
+
+    private static final int USERS = 100;
+
+    @Param({"10000"})
+    public int threads;
+
+    @Param({"false", "true"})
+    public boolean guarded;
+
+    private HikariDataSource pool;
+    private AccountRepository accountRepository;
+
+    @Setup
+    public void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:vtbench;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(10);
+        pool.setConnectionTimeout(60_000);
+        DataSource dataSource = guarded ? new ConcurrencyLimitedDataSource(pool, 10, 60_000) : pool;
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS accounts");
+        jdbcTemplate.execute("CREATE TABLE accounts (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "user_id BIGINT NOT NULL, account_number VARCHAR(20), name VARCHAR(100) NOT NULL, "
+                + "account_type VARCHAR(50), color VARCHAR(20), balance DECIMAL(15,2) DEFAULT 0.00, "
+                + "created_at TIMESTAMP NULL, updated_at TIMESTAMP NULL)");
+        jdbcTemplate.execute("CREATE INDEX idx_accounts_user_id ON accounts (user_id)");
+        for (long userId = 0; userId < USERS; userId++) {
+            for (int i = 0; i < 5; i++) {
+                jdbcTemplate.update("INSERT INTO accounts (user_id, name, account_type, balance) VALUES (?, ?, ?, ?)",
+                        userId, "Account " + i, "checking", 100 * i);
+            }
+        }
+        accountRepository = new AccountRepositoryImpl(jdbcTemplate);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public long tenThousandVirtualThreads() {
+        LongAdder rows = new LongAdder();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < threads; i++) {
+                long userId = i % USERS;
+                executor.submit(() -> {
+                    rows.add(accountRepository.findIdsByUserId(userId).size());
+                    rows.add(accountRepository.findByUserId(userId).size());
+                });
+            }
+        }
+        return rows.sum();
+    }
+}
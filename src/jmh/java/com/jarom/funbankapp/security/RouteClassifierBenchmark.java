@@ -0,0 +1,58 @@
+package com.jarom.funbankapp.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jarom.funbankapp.config.RateLimitProperties;
+import com.jarom.funbankapp.config.RouteProperties;
+
+/**
+ * Compares the trie lookup against the equals/startsWith chain the filters used before.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=RouteClassifierBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteClassifierBenchmark {
+
+    @Param({"/api/auth/login", "/api/health", "/swagger-ui/index.html", "/api/export/jobs/42/download"})
+    public String path;
+
+    private RouteClassifier classifier;
+
+    @Setup
+    public void setUp() {
+        classifier = new RouteClassifier(new RouteProperties(), new RateLimitProperties());
+    }
+
+    @Benchmark
+    public RouteClassifier.RouteRule trieClassify() {
+        return classifier.classify(path);
+    }
+
+    @Benchmark
+    public boolean stringChain() {
+        boolean isPublic = path.equals("/api/auth/register")
+                || path.equals("/api/auth/login")
+                || path.equals("/api/health")
+                || path.startsWith("/swagger-ui")
+                || path.startsWith("/v3/api-docs")
+                || path.equals("/swagger-ui.html");
+        boolean rateLimited = path.equals("/api/auth/login") || path.equals("/api/auth/register");
+        return isPublic ^ rateLimited;
+    }
+}
@@ -0,0 +1,82 @@
+package com.jarom.funbankapp.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jarom.funbankapp.dto.PayoffRiskRequest;
+import com.jarom.funbankapp.model.Debt;
+
+/**
+ * Times a 10,000-path payoff risk run over a 30-year horizon, on one thread
+ * and on every core. The budget barely covers the minimums, so most paths
+ * run the full 360 months; the target is well under a second.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=DebtPayoffMonteCarloBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DebtPayoffMonteCarloBenchmark {
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    @Param({"5", "20"})
+    public int debts;
+
+    private DebtPayoffMonteCarlo monteCarlo;
+    private DebtPayoffSimulator simulator;
+    private PayoffRiskRequest request;
+    private long budget;
+    private int[] order;
+
+    @Setup
+    public void setUp() {
+        List<Debt> list = new ArrayList<>();
+        for (int i = 0; i < debts; i++) {
+            Debt debt = new Debt();
+            debt.setId((long) i);
+            debt.setName("Debt " + i);
+            debt.setDebtType(i % 2 == 0 ? "credit_card" : "student_loan");
+            debt.setCurrentBalance(BigDecimal.valueOf(5_000 + 1_000L * i));
+            debt.setInterestRate(BigDecimal.valueOf(4 + i % 20));
+            // Roughly a 30-year amortization at each rate
+            debt.setMinimumPayment(BigDecimal.valueOf((5_000 + 1_000L * i) * (4 + i % 20 + 2) / 1_200 + 1));
+            list.add(debt);
+        }
+        simulator = new DebtPayoffSimulator(list);
+        budget = simulator.totalMinimumPayment();
+        order = simulator.avalancheOrder();
+        request = new PayoffRiskRequest();
+        request.setPaths(10_000);
+        request.setHorizonMonths(360);
+        monteCarlo = new DebtPayoffMonteCarlo(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        monteCarlo.destroy();
+    }
+
+    @Benchmark
+    public double tenThousandPaths() {
+        return monteCarlo.simulate(simulator, budget, order, request, 42L).getProbabilityPaidOff();
+    }
+}
@@ -0,0 +1,92 @@
+package com.jarom.funbankapp.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jarom.funbankapp.model.Debt;
+
+/**
+ * Times one payoff simulation and a full optimal-order solve. Each debt's
+ * minimum amortizes it over the horizon, so the budget of minimums plus a
+ * little extra runs close to the full horizon; the solver should stay
+ * within tens of milliseconds at 50 debts and 40 years.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=DebtPayoffOptimizerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DebtPayoffOptimizerBenchmark {
+
+    @Param({"5", "20", "50"})
+    public int debts;
+
+    @Param({"10", "40"})
+    public int years;
+
+    private DebtPayoffSimulator simulator;
+    private long budget;
+    private int[] avalanche;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int months = years * 12;
+        List<Debt> list = new ArrayList<>();
+        for (int i = 0; i < debts; i++) {
+            double balance = 1_000 + random.nextInt(50_000);
+            double rate = 2 + random.nextInt(2_300) / 100.0;
+            double monthlyRate = rate / 1_200;
+            double minimum = balance * monthlyRate / (1 - Math.pow(1 + monthlyRate, -months));
+            Debt debt = new Debt();
+            debt.setId((long) i);
+            debt.setName("Debt " + i);
+            debt.setCurrentBalance(BigDecimal.valueOf(balance).setScale(2, RoundingMode.HALF_UP));
+            debt.setInterestRate(BigDecimal.valueOf(rate));
+            // A cent over, so rounding can't leave a debt short of amortizing
+            debt.setMinimumPayment(BigDecimal.valueOf(minimum + 0.01).setScale(2, RoundingMode.UP));
+            list.add(debt);
+        }
+        simulator = new DebtPayoffSimulator(list);
+        budget = simulator.totalMinimumPayment() + simulator.totalMinimumPayment() / 50;
+        avalanche = simulator.avalancheOrder();
+    }
+
+    @Benchmark
+    public long simulate() {
+        return simulator.run(budget, avalanche, false).getTotalInterest();
+    }
+
+    @Benchmark
+    public long simulateWithSchedule() {
+        return simulator.run(budget, avalanche, true).getTotalInterest();
+    }
+
+    @Benchmark
+    public int[] solveInterest() {
+        return DebtPayoffOptimizer.solve(simulator, budget, DebtPayoffOptimizer.Objective.INTEREST);
+    }
+
+    @Benchmark
+    public int[] solveTime() {
+        return DebtPayoffOptimizer.solve(simulator, budget, DebtPayoffOptimizer.Objective.TIME);
+    }
+}
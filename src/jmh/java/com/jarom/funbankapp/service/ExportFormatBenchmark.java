@@ -0,0 +1,110 @@
+package com.jarom.funbankapp.service;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.repository.TransactionRepositoryImpl;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Streams a million-row transaction history from a file-backed H2 database
+ * into each export format and reports rows per second. The fork's heap is capped well below
+ * what the rows would need if they were held in memory, so an OOM here means
+ * something started buffering.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=ExportFormatBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx64m")
+public class ExportFormatBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    @Param({"CSV", "CSV_GZIP", "EXCEL", "PDF", "JSON", "PARQUET"})
+    public String format;
+
+    private Path dir;
+    private HikariDataSource pool;
+    private CSVExportService csvExportService;
+    private ExcelExportService excelExportService;
+    private PDFExportService pdfExportService;
+    private JSONExportService jsonExportService;
+    private ParquetExportService parquetExportService;
+    private ExportRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("exportbench");
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:file:" + dir.resolve("db") + ";CACHE_SIZE=8192");
+        pool.setUsername("sa");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(pool);
+        jdbcTemplate.execute("CREATE TABLE accounts (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, name VARCHAR(100))");
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT PRIMARY KEY, account_id BIGINT NOT NULL, "
+                + "amount DECIMAL(15,2), description VARCHAR(255), category VARCHAR(50), "
+                + "transaction_date TIMESTAMP, type VARCHAR(20))");
+        jdbcTemplate.execute("INSERT INTO accounts VALUES (1, 1, 'Main Checking'), (2, 1, 'Card, \"Rewards\"')");
+        jdbcTemplate.execute("INSERT INTO transactions SELECT X, MOD(X, 2) + 1, MOD(X, 10000) / 100.0, "
+                + "'Purchase #' || X, 'groceries', DATEADD('MINUTE', X, TIMESTAMP '2020-01-01 00:00:00'), 'withdraw' "
+                + "FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        jdbcTemplate.execute("CREATE INDEX idx_transactions_account ON transactions (account_id, transaction_date)");
+
+        TransactionRepositoryImpl transactionRepository = new TransactionRepositoryImpl(jdbcTemplate);
+        ExportCompression compression = new ExportCompression("gzip", 6);
+        csvExportService = new CSVExportServiceImpl(transactionRepository, null, null, null, null, compression, 1000);
+        excelExportService = new ExcelExportServiceImpl(transactionRepository, null, null, null, null, 1000);
+        pdfExportService = new PDFExportServiceImpl(transactionRepository, null, null, null, null, 1000);
+        jsonExportService = new JSONExportServiceImpl(transactionRepository, null, null, null, null, compression, 1000);
+        parquetExportService = new ParquetExportServiceImpl(transactionRepository, 1000, 65_536, 6);
+        request = new ExportRequest("transactions", format);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        pool.close();
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long exportMillionRows() {
+        // The ".gz" suffix is what switches compression on
+        String out = dir.resolve("out." + format.toLowerCase().replace('_', '.').replace("gzip", "gz")).toString();
+        switch (format) {
+            case "EXCEL":
+                return excelExportService.exportTransactions(1L, request, out, new ExportProgress(1L)).length();
+            case "PDF":
+                return pdfExportService.exportTransactions(1L, request, out, new ExportProgress(1L)).length();
+            case "JSON":
+                return jsonExportService.exportTransactions(1L, request, out, new ExportProgress(1L)).length();
+            case "PARQUET":
+                return parquetExportService.exportTransactions(1L, request, out, new ExportProgress(1L)).length();
+            default:
+                return csvExportService.exportTransactions(1L, request, out, new ExportProgress(1L)).length();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.jarom.funbankapp.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jarom.funbankapp.service.PdfReportWriter.Align;
+import com.jarom.funbankapp.service.PdfReportWriter.Column;
+
+/**
+ * Renders a statement of {@code rows} synthetic transactions to PDF and
+ * reports pages per second (the {@code pages} counter) alongside whole
+ * documents per second. No database is involved, so this isolates layout,
+ * compression and file output.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=PdfReportBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx64m")
+public class PdfReportBenchmark {
+
+    private static final Column[] COLUMNS = {
+            new Column("Date", 70, Align.LEFT),
+            new Column("Description", 170, Align.LEFT),
+            new Column("Amount", 70, Align.RIGHT),
+            new Column("Category", 80, Align.LEFT),
+            new Column("Account", 72, Align.LEFT),
+            new Column("Type", 50, Align.LEFT)
+    };
+    private static final String[] CATEGORIES = {"groceries", "utilities", "transportation", "entertainment", "income"};
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private Path dir;
+    private String[] descriptions;
+    private String[] amounts;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Pages {
+        public long pages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pages = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("pdfbench");
+        descriptions = new String[1000];
+        amounts = new String[1000];
+        for (int i = 0; i < descriptions.length; i++) {
+            descriptions[i] = "Card purchase #" + i + " at a merchant with a fairly long name";
+            amounts[i] = "-$" + (i % 250) + "." + (10 + i % 90);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(dir.resolve("report.pdf"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public int renderStatement(Pages pages) throws Exception {
+        try (PdfReportWriter pdf = new PdfReportWriter(dir.resolve("report.pdf"), "FunBank Transactions Report",
+                "Generated 2024-01-31 12:00")) {
+            pdf.section("Transactions", COLUMNS);
+            for (int i = 0; i < rows; i++) {
+                int k = i % 1000;
+                pdf.row("2024-01-" + (10 + i % 20), descriptions[k], amounts[k], CATEGORIES[i % CATEGORIES.length],
+                        "Main Checking", "withdraw");
+            }
+            pdf.close();
+            pages.pages += pdf.getPageCount();
+            return pdf.getPageCount();
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package com.jarom.funbankapp;
 
+import com.jarom.funbankapp.config.ExportRetentionProperties;
+import com.jarom.funbankapp.config.ExportSchedulerProperties;
 import com.jarom.funbankapp.config.JwtProperties;
+import com.jarom.funbankapp.config.PasswordHashingProperties;
+import com.jarom.funbankapp.config.RateLimitProperties;
+import com.jarom.funbankapp.config.RouteProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication
-@EnableConfigurationProperties(JwtProperties.class)
+@EnableConfigurationProperties({
+		JwtProperties.class,
+		RateLimitProperties.class,
+		PasswordHashingProperties.class,
+		RouteProperties.class,
+		ExportSchedulerProperties.class,
+		ExportRetentionProperties.class
+})
 public class FunBankAppApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(FunBankAppApplication.class, args);
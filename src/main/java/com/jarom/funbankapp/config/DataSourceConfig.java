@@ -0,0 +1,58 @@
+package com.jarom.funbankapp.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Wraps the auto-configured DataSource in a ConcurrencyLimitedDataSource
+ * when {@code app.datasource.guard.enabled} is set (it defaults to following
+ * {@code spring.threads.virtual.enabled}).
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceGuardPostProcessor(Environment environment) {
+        DataSourceGuardProperties properties = Binder.get(environment)
+                .bind(DataSourceGuardProperties.PREFIX, DataSourceGuardProperties.class)
+                .orElseGet(DataSourceGuardProperties::new);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!properties.isEnabled() || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                int maxConcurrent = properties.getMaxConcurrent();
+                if (maxConcurrent <= 0) {
+                    maxConcurrent = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                }
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, properties.getAcquireTimeoutMillis());
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceGuardMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource guarded) {
+                Gauge.builder("db.guard.active", guarded, ConcurrencyLimitedDataSource::getActiveCount)
+                        .description("Connections checked out through the guard")
+                        .register(registry);
+                Gauge.builder("db.guard.queued", guarded, ConcurrencyLimitedDataSource::getQueueLength)
+                        .description("Threads waiting for a connection permit")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.jarom.funbankapp.config;
+
+/**
+ * Settings for the connection checkout guard (see DataSourceConfig).
+ *
+ * With virtual threads the request count is no longer bounded by Tomcat's
+ * pool, so thousands of requests can wait on Hikari at once. The guard puts a
+ * fair semaphore in front of the pool and fails fast after
+ * {@code acquireTimeoutMillis}. {@code maxConcurrent} of 0 means "use the
+ * Hikari maximum pool size".
+ *
+ * Bound from {@code app.datasource.guard} by DataSourceConfig itself, since
+ * the DataSource is wrapped before regular beans are created.
+ */
+public class DataSourceGuardProperties {
+    public static final String PREFIX = "app.datasource.guard";
+
+    private boolean enabled = false;
+    private int maxConcurrent = 0;
+    private long acquireTimeoutMillis = 5000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public long getAcquireTimeoutMillis() {
+        return acquireTimeoutMillis;
+    }
+
+    public void setAcquireTimeoutMillis(long acquireTimeoutMillis) {
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+}
@@ -0,0 +1,69 @@
+package com.jarom.funbankapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the export retention sweeper. Finished jobs older than
+ * {@code days} are removed with their files every {@code sweepIntervalMinutes},
+ * {@code batchSize} rows at a time, deleting at most {@code deleteConcurrency}
+ * files at once. Files in the export directory that no job refers to are
+ * removed once they are {@code orphanGraceMinutes} old, which leaves running
+ * exports alone.
+ */
+@ConfigurationProperties(prefix = "app.export.retention")
+public class ExportRetentionProperties {
+    private boolean enabled = true;
+    private int days = 7;
+    private long sweepIntervalMinutes = 60;
+    private int batchSize = 500;
+    private int deleteConcurrency = 4;
+    private long orphanGraceMinutes = 60;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public void setDays(int days) {
+        this.days = days;
+    }
+
+    public long getSweepIntervalMinutes() {
+        return sweepIntervalMinutes;
+    }
+
+    public void setSweepIntervalMinutes(long sweepIntervalMinutes) {
+        this.sweepIntervalMinutes = sweepIntervalMinutes;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getDeleteConcurrency() {
+        return deleteConcurrency;
+    }
+
+    public void setDeleteConcurrency(int deleteConcurrency) {
+        this.deleteConcurrency = deleteConcurrency;
+    }
+
+    public long getOrphanGraceMinutes() {
+        return orphanGraceMinutes;
+    }
+
+    public void setOrphanGraceMinutes(long orphanGraceMinutes) {
+        this.orphanGraceMinutes = orphanGraceMinutes;
+    }
+}
@@ -0,0 +1,70 @@
+package com.jarom.funbankapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the export job scheduler. Exports are mostly waiting on the
+ * database and the disk, so the worker pool defaults to twice the core count.
+ * {@code queueCapacity} bounds jobs waiting across all users; a user can have
+ * at most {@code perUserInFlight} jobs running and {@code perUserQueued}
+ * waiting at once. {@code nodeId} names this instance in a multi-node
+ * deployment and must stay the same across its restarts; it defaults to the
+ * host name.
+ */
+@ConfigurationProperties(prefix = "app.export.scheduler")
+public class ExportSchedulerProperties {
+    private int workers = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    private int queueCapacity = 500;
+    private int perUserInFlight = 2;
+    private int perUserQueued = 20;
+    private boolean recoverOnStartup = true;
+    private String nodeId;
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getPerUserInFlight() {
+        return perUserInFlight;
+    }
+
+    public void setPerUserInFlight(int perUserInFlight) {
+        this.perUserInFlight = perUserInFlight;
+    }
+
+    public int getPerUserQueued() {
+        return perUserQueued;
+    }
+
+    public void setPerUserQueued(int perUserQueued) {
+        this.perUserQueued = perUserQueued;
+    }
+
+    public boolean isRecoverOnStartup() {
+        return recoverOnStartup;
+    }
+
+    public void setRecoverOnStartup(boolean recoverOnStartup) {
+        this.recoverOnStartup = recoverOnStartup;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+}
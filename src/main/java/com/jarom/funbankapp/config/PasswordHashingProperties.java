@@ -0,0 +1,39 @@
+package com.jarom.funbankapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the dedicated BCrypt pool. Hashing is CPU bound, so the pool
+ * defaults to one thread per core; requests beyond {@code queueCapacity}
+ * are rejected with 503 instead of piling up on request threads.
+ */
+@ConfigurationProperties(prefix = "app.security.password-hashing")
+public class PasswordHashingProperties {
+    private int strength = 10;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public void setStrength(int strength) {
+        this.strength = strength;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
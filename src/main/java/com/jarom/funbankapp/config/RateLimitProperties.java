@@ -0,0 +1,120 @@
+package com.jarom.funbankapp.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Rate limiting configuration.
+ *
+ * Routes use the same patterns as the public path list (see RouteClassifier);
+ * the most specific matching route applies. Per-user policies are keyed by
+ * the authenticated username and take precedence over the route policy.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int maxKeys = 10000;
+    private long keyTtlSeconds = 600;
+    private List<Route> routes = defaultRoutes();
+    private Map<String, Policy> users = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public long getKeyTtlSeconds() {
+        return keyTtlSeconds;
+    }
+
+    public void setKeyTtlSeconds(long keyTtlSeconds) {
+        this.keyTtlSeconds = keyTtlSeconds;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    public Map<String, Policy> getUsers() {
+        return users;
+    }
+
+    public void setUsers(Map<String, Policy> users) {
+        this.users = users;
+    }
+
+    private static List<Route> defaultRoutes() {
+        List<Route> defaults = new ArrayList<>();
+        defaults.add(new Route("/api/auth/login", 5, 60));
+        defaults.add(new Route("/api/auth/register", 5, 60));
+        return defaults;
+    }
+
+    public static class Policy {
+        private int capacity = 5;
+        private long refillPeriodSeconds = 60;
+
+        public Policy() {
+        }
+
+        public Policy(int capacity, long refillPeriodSeconds) {
+            this.capacity = capacity;
+            this.refillPeriodSeconds = refillPeriodSeconds;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public long getRefillPeriodSeconds() {
+            return refillPeriodSeconds;
+        }
+
+        public void setRefillPeriodSeconds(long refillPeriodSeconds) {
+            this.refillPeriodSeconds = refillPeriodSeconds;
+        }
+    }
+
+    public static class Route extends Policy {
+        private String path;
+
+        public Route() {
+        }
+
+        public Route(String path, int capacity, long refillPeriodSeconds) {
+            super(capacity, refillPeriodSeconds);
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+    }
+}
@@ -10,6 +10,8 @@ import com.jarom.funbankapp.repository.BudgetRepository;
 import com.jarom.funbankapp.repository.BudgetRepositoryImpl;
 import com.jarom.funbankapp.repository.CategoryRepository;
 import com.jarom.funbankapp.repository.CategoryRepositoryImpl;
+import com.jarom.funbankapp.repository.DataVersionRepository;
+import com.jarom.funbankapp.repository.DataVersionRepositoryImpl;
 import com.jarom.funbankapp.repository.DebtPaymentRepository;
 import com.jarom.funbankapp.repository.DebtPaymentRepositoryImpl;
 import com.jarom.funbankapp.repository.DebtReminderRepository;
@@ -20,6 +22,8 @@ import com.jarom.funbankapp.repository.DebtStrategyRepository;
 import com.jarom.funbankapp.repository.DebtStrategyRepositoryImpl;
 import com.jarom.funbankapp.repository.ExportJobRepository;
 import com.jarom.funbankapp.repository.ExportJobRepositoryImpl;
+import com.jarom.funbankapp.repository.ExportScheduleRepository;
+import com.jarom.funbankapp.repository.ExportScheduleRepositoryImpl;
 import com.jarom.funbankapp.repository.GoalRepository;
 import com.jarom.funbankapp.repository.GoalRepositoryImpl;
 import com.jarom.funbankapp.repository.TransactionRepository;
@@ -65,6 +69,16 @@ public class RepositoryConfig {
         return new ExportJobRepositoryImpl(jdbcTemplate);
     }
 
+    @Bean
+    public ExportScheduleRepository exportScheduleRepository(JdbcTemplate jdbcTemplate) {
+        return new ExportScheduleRepositoryImpl(jdbcTemplate);
+    }
+
+    @Bean
+    public DataVersionRepository dataVersionRepository(JdbcTemplate jdbcTemplate) {
+        return new DataVersionRepositoryImpl(jdbcTemplate);
+    }
+
     @Bean
     public DebtRepository debtRepository(JdbcTemplate jdbcTemplate) {
         return new DebtRepositoryImpl(jdbcTemplate);
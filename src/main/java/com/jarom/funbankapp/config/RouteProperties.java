@@ -0,0 +1,32 @@
+package com.jarom.funbankapp.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paths that bypass JWT authentication. Entries are exact paths, or a prefix
+ * followed by "/**" which also matches the bare prefix.
+ */
+@ConfigurationProperties(prefix = "app.security.routes")
+public class RouteProperties {
+    private List<String> publicPaths = new ArrayList<>(List.of(
+            "/api/auth/login",
+            "/api/auth/register",
+            "/api/health",
+            "/swagger-ui.html",
+            "/swagger-ui/**",
+            "/v3/api-docs/**",
+            "/v3/api-docs.yaml",
+            "/v3/api-docs.json"
+    ));
+
+    public List<String> getPublicPaths() {
+        return publicPaths;
+    }
+
+    public void setPublicPaths(List<String> publicPaths) {
+        this.publicPaths = publicPaths;
+    }
+}
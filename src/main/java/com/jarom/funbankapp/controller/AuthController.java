@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.jarom.funbankapp.dto.ApiResponse;
 import com.jarom.funbankapp.dto.LoginRequest;
+import com.jarom.funbankapp.exception.ServiceUnavailableException;
 import com.jarom.funbankapp.model.User;
 import com.jarom.funbankapp.repository.UserRepository;
 import com.jarom.funbankapp.security.JwtService;
@@ -55,7 +56,8 @@ public class AuthController {
             description = "User registered successfully",
             content = @Content(schema = @Schema(implementation = com.jarom.funbankapp.dto.ApiResponse.class))
         ),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Username or email already exists, or invalid data provided")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Username or email already exists, or invalid data provided"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Too many concurrent authentication requests")
     })
     public ResponseEntity<ApiResponse<Map<String, String>>> register(
         @Parameter(description = "User registration data", required = true)
@@ -91,6 +93,8 @@ public class AuthController {
             response.put("token", token);
 
             return ResponseEntity.ok(ApiResponse.success("User registered successfully", response));
+        } catch (ServiceUnavailableException e) {
+            return serviceUnavailable(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error("Registration failed: " + e.getMessage()));
         }
@@ -104,7 +108,8 @@ public class AuthController {
             description = "Login successful",
             content = @Content(schema = @Schema(implementation = com.jarom.funbankapp.dto.ApiResponse.class))       
         ),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid credentials")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid credentials"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Too many concurrent authentication requests")
     })
     public ResponseEntity<ApiResponse<Map<String, String>>> login(
         @Parameter(description = "Login credentials", required = true)
@@ -122,6 +127,8 @@ public class AuthController {
             response.put("token", token);
 
             return ResponseEntity.ok(ApiResponse.success("Login successful", response));   
+        } catch (ServiceUnavailableException e) {
+            return serviceUnavailable(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error("Login failed: " + e.getMessage()));
         }
@@ -148,4 +155,10 @@ public class AuthController {
             return ResponseEntity.status(401).body(ApiResponse.error("Token validation failed: " + e.getMessage()));
         }
     }
-} 
\ No newline at end of file
+
+    private <T> ResponseEntity<ApiResponse<T>> serviceUnavailable(ServiceUnavailableException e) {
+        return ResponseEntity.status(503)
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResponse.error(e.getMessage()));
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.jarom.funbankapp.dto.DebtDTO;
 import com.jarom.funbankapp.dto.DebtPaymentDTO;
+import com.jarom.funbankapp.dto.PayoffRiskRequest;
 import com.jarom.funbankapp.service.DebtService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -237,7 +238,7 @@ public class DebtController {
     @GetMapping("/payoff-timeline")
     @Operation(
         summary = "Calculate payoff timeline", 
-        description = "Calculates debt payoff timeline using different strategies (snowball or avalanche)."
+        description = "Calculates debt payoff timeline using different strategies (snowball, avalanche or optimal)."
     )
     @ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -258,6 +259,27 @@ public class DebtController {
         return ResponseEntity.ok(com.jarom.funbankapp.dto.ApiResponse.success("Payoff timeline calculated successfully", timeline));
     }
 
+    @PostMapping("/payoff-risk")
+    @Operation(
+        summary = "Simulate payoff risk", 
+        description = "Runs a Monte Carlo simulation of the payoff plan with random rate changes, missed payments and income shocks, and reports payoff date percentiles and the probability of being debt-free by a target date. The same seed and inputs always give the same result; without a seed one is drawn at random and returned with the result."
+    )
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Payoff risk simulated successfully",
+            content = @Content(schema = @Schema(implementation = com.jarom.funbankapp.dto.ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid parameters"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<com.jarom.funbankapp.dto.ApiResponse<Map<String, Object>>> simulatePayoffRisk(
+        @Valid @RequestBody PayoffRiskRequest request
+    ) {
+        Map<String, Object> risk = debtService.simulatePayoffRisk(request);
+        return ResponseEntity.ok(com.jarom.funbankapp.dto.ApiResponse.success("Payoff risk simulated successfully", risk));
+    }
+
     @GetMapping("/by-type")
     @Operation(
         summary = "Get debts by type", 
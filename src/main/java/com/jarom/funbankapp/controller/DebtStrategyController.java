@@ -1,5 +1,6 @@
 package com.jarom.funbankapp.controller;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.jarom.funbankapp.dto.DebtStrategyDTO;
@@ -227,6 +229,30 @@ public class DebtStrategyController {
         return ResponseEntity.ok(com.jarom.funbankapp.dto.ApiResponse.success("Avalanche strategy generated successfully", strategy));
     }
 
+    @GetMapping("/generate/optimal")
+    @Operation(
+        summary = "Generate optimal strategy", 
+        description = "Solves for the extra-payment order that minimizes total interest, or time to payoff, under the monthly payment amount and each debt's minimum payment."
+    )
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Optimal strategy generated successfully",
+            content = @Content(schema = @Schema(implementation = com.jarom.funbankapp.dto.ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid parameters"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "User not authenticated")
+    })
+    public ResponseEntity<com.jarom.funbankapp.dto.ApiResponse<Map<String, Object>>> generateOptimalStrategy(
+        @Parameter(description = "Monthly payment amount available for debt repayment", example = "1000.00")
+        @RequestParam BigDecimal monthlyPaymentAmount,
+        @Parameter(description = "What to minimize: interest or time", example = "interest")
+        @RequestParam(required = false) String objective
+    ) {
+        Map<String, Object> strategy = debtStrategyService.generateOptimalStrategy(monthlyPaymentAmount, objective);
+        return ResponseEntity.ok(com.jarom.funbankapp.dto.ApiResponse.success("Optimal strategy generated successfully", strategy));
+    }
+
     @GetMapping("/{strategyId}/effectiveness")
     @Operation(
         summary = "Calculate strategy effectiveness", 
@@ -252,7 +278,7 @@ public class DebtStrategyController {
     @GetMapping("/compare")
     @Operation(
         summary = "Compare strategies", 
-        description = "Compares different debt repayment strategies (snowball vs avalanche) for the user's debts."
+        description = "Simulates snowball, avalanche, highest payment ratio, custom priority, consolidation and optimal repayment at the same monthly budget and compares payoff time, total interest and interest saved against paying only the minimums."
     )
     @ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -260,10 +286,16 @@ public class DebtStrategyController {
             description = "Strategy comparison completed successfully",
             content = @Content(schema = @Schema(implementation = com.jarom.funbankapp.dto.ApiResponse.class))
         ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Monthly payment below the minimum payments"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "User not authenticated")
     })
-    public ResponseEntity<com.jarom.funbankapp.dto.ApiResponse<Map<String, Object>>> compareStrategies() {
-        Map<String, Object> comparison = debtStrategyService.compareStrategies();
+    public ResponseEntity<com.jarom.funbankapp.dto.ApiResponse<Map<String, Object>>> compareStrategies(
+        @Parameter(description = "Monthly payment amount available for debt repayment; defaults to the minimum payments", example = "1000.00")
+        @RequestParam(required = false) BigDecimal monthlyPaymentAmount,
+        @Parameter(description = "Annual interest rate of the consolidation loan, as a percentage", example = "9.99")
+        @RequestParam(required = false) BigDecimal consolidationRate
+    ) {
+        Map<String, Object> comparison = debtStrategyService.compareStrategies(monthlyPaymentAmount, consolidationRate);
         return ResponseEntity.ok(com.jarom.funbankapp.dto.ApiResponse.success("Strategy comparison completed successfully", comparison));
     }
 } 
\ No newline at end of file
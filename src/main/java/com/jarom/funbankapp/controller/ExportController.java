@@ -2,21 +2,33 @@ package com.jarom.funbankapp.controller;
 
 import com.jarom.funbankapp.dto.ApiResponse;
 import com.jarom.funbankapp.dto.ExportJobDTO;
+import com.jarom.funbankapp.dto.ExportProgressDTO;
 import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.dto.ExportScheduleDTO;
+import com.jarom.funbankapp.dto.ExportScheduleRequest;
+import com.jarom.funbankapp.exception.ResourceNotFoundException;
+import com.jarom.funbankapp.exception.UnauthorizedException;
+import com.jarom.funbankapp.repository.UserRepository;
+import com.jarom.funbankapp.service.ExportCompression;
+import com.jarom.funbankapp.service.ExportFileSender;
+import com.jarom.funbankapp.service.ExportScheduleService;
 import com.jarom.funbankapp.service.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -30,6 +42,18 @@ public class ExportController {
     @Autowired
     private ExportService exportService;
 
+    @Autowired
+    private ExportCompression exportCompression;
+
+    @Autowired
+    private ExportFileSender exportFileSender;
+
+    @Autowired
+    private ExportScheduleService exportScheduleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
     @PostMapping("/transactions")
     @Operation(summary = "Export transactions", description = "Export transactions by date range and filters")
     public ResponseEntity<ApiResponse<ExportJobDTO>> exportTransactions(
@@ -159,33 +183,19 @@ public class ExportController {
     }
 
     @GetMapping("/jobs/{jobId}/download")
-    @Operation(summary = "Download exported file", description = "Download the exported file when job is completed")
-    public ResponseEntity<Resource> downloadExportFile(
+    @Operation(summary = "Download exported file",
+            description = "Download the exported file when job is completed. Supports Range and If-Range for resuming.")
+    public void downloadExportFile(
             @Parameter(description = "Export job ID") @PathVariable Long jobId,
-            Authentication authentication) {
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         
         Long userId = getUserIdFromAuthentication(authentication);
         Resource file = exportService.downloadExportFile(userId, jobId);
-        
-        // Determine content type based on file extension
-        String contentType = "application/octet-stream";
-        String filename = file.getFilename();
-        if (filename != null) {
-            if (filename.endsWith(".pdf")) {
-                contentType = "application/pdf";
-            } else if (filename.endsWith(".csv")) {
-                contentType = "text/csv";
-            } else if (filename.endsWith(".xlsx")) {
-                contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-            } else if (filename.endsWith(".json")) {
-                contentType = "application/json";
-            }
-        }
-        
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(file);
+        // Exports are never rewritten in place, so job id and size identify the bytes
+        sendExportFile(file, String.valueOf(jobId), acceptEncoding, request, response);
     }
 
     @GetMapping("/jobs/{jobId}/status")
@@ -201,20 +211,122 @@ public class ExportController {
     }
 
     @GetMapping("/jobs/{jobId}/progress")
-    @Operation(summary = "Get job progress", description = "Get the progress percentage of an export job")
-    public ResponseEntity<ApiResponse<Integer>> getJobProgress(
+    @Operation(summary = "Get job progress",
+            description = "Get the progress of an export job: percent, rows written, rows per second and ETA")
+    public ResponseEntity<ApiResponse<ExportProgressDTO>> getJobProgress(
             @Parameter(description = "Export job ID") @PathVariable Long jobId,
             Authentication authentication) {
         
         Long userId = getUserIdFromAuthentication(authentication);
-        Integer progress = exportService.getExportJobProgress(userId, jobId);
+        ExportProgressDTO progress = exportService.getExportJobProgress(userId, jobId);
         
         return ResponseEntity.ok(ApiResponse.success("Job progress retrieved successfully", progress));
     }
 
+    @PostMapping("/schedules")
+    @Operation(summary = "Create recurring export",
+            description = "Run an export on a fixed interval. Incremental schedules export only transactions added "
+                    + "since the last successful run and append them to a rolling file.")
+    public ResponseEntity<ApiResponse<ExportScheduleDTO>> createSchedule(
+            @Parameter(description = "Export to repeat, its interval and mode") @Valid @RequestBody ExportScheduleRequest request,
+            Authentication authentication) {
+
+        Long userId = getUserIdFromAuthentication(authentication);
+        ExportScheduleDTO schedule = exportScheduleService.createSchedule(userId, request);
+
+        return ResponseEntity.ok(ApiResponse.success("Export schedule created successfully", schedule));
+    }
+
+    @GetMapping("/schedules")
+    @Operation(summary = "List recurring exports", description = "Get all recurring exports for the current user")
+    public ResponseEntity<ApiResponse<List<ExportScheduleDTO>>> getSchedules(Authentication authentication) {
+        Long userId = getUserIdFromAuthentication(authentication);
+        List<ExportScheduleDTO> schedules = exportScheduleService.getUserSchedules(userId);
+
+        return ResponseEntity.ok(ApiResponse.success("Export schedules retrieved successfully", schedules));
+    }
+
+    @DeleteMapping("/schedules/{scheduleId}")
+    @Operation(summary = "Delete recurring export", description = "Stop a recurring export and delete its rolling file")
+    public ResponseEntity<ApiResponse<String>> deleteSchedule(
+            @Parameter(description = "Export schedule ID") @PathVariable Long scheduleId,
+            Authentication authentication) {
+
+        Long userId = getUserIdFromAuthentication(authentication);
+        exportScheduleService.deleteSchedule(userId, scheduleId);
+
+        return ResponseEntity.ok(ApiResponse.success("Export schedule deleted successfully", "Schedule deleted"));
+    }
+
+    @GetMapping("/schedules/{scheduleId}/download")
+    @Operation(summary = "Download rolling export file",
+            description = "Download every delta of an incremental export in one file. The file only grows, so a "
+                    + "client can fetch just the new bytes with a Range request from the length it already has.")
+    public void downloadRollingFile(
+            @Parameter(description = "Export schedule ID") @PathVariable Long scheduleId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Long userId = getUserIdFromAuthentication(authentication);
+        Resource file = exportScheduleService.downloadRollingFile(userId, scheduleId);
+        // Appends change the size, so schedule id and size identify the bytes
+        sendExportFile(file, "schedule-" + scheduleId, acceptEncoding, request, response);
+    }
+
+    private void sendExportFile(Resource file, String version, String acceptEncoding,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Compressed exports are stored as e.g. "x.csv.gz"; the client sees "x.csv"
+        String storedName = file.getFilename();
+        String filename = exportCompression.downloadName(storedName);
+        String encoding = exportCompression.contentEncoding(storedName);
+
+        // Determine content type based on file extension
+        String contentType = "application/octet-stream";
+        if (filename != null) {
+            if (filename.endsWith(".pdf")) {
+                contentType = "application/pdf";
+            } else if (filename.endsWith(".csv")) {
+                contentType = "text/csv";
+            } else if (filename.endsWith(".xlsx")) {
+                contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+            } else if (filename.endsWith(".json")) {
+                contentType = "application/json";
+            } else if (filename.endsWith(".ndjson")) {
+                contentType = "application/x-ndjson";
+            } else if (filename.endsWith(".parquet")) {
+                contentType = "application/vnd.apache.parquet";
+            }
+        }
+        
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (encoding != null && !ExportCompression.accepts(acceptEncoding, encoding)) {
+            // Decompressed on the fly, so the length is unknown and ranges are not offered
+            try (InputStream in = exportCompression.decompress(file.getInputStream())) {
+                in.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+
+        // Stored bytes go out as they are; the client decompresses if needed
+        String etag = "\"" + version + "-" + file.contentLength() + (encoding != null ? "-" + encoding : "") + "\"";
+        if (encoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        exportFileSender.send(request, response, file.getFile().toPath(), etag);
+    }
+
     private Long getUserIdFromAuthentication(Authentication authentication) {
-        // This is a placeholder - in a real implementation, you would extract the user ID from the JWT token
-        // For now, we'll return a default user ID
-        return 1L;
+        if (authentication == null || authentication.getName() == null) {
+            throw new UnauthorizedException();
+        }
+        String username = authentication.getName();
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username))
+                .getId();
     }
 } 
\ No newline at end of file
@@ -98,7 +98,7 @@ public class UserController {
             user.setLastName(request.getLastName());
             user.setEmail(request.getEmail());
 
-            userRepository.updateUser(user);
+            userService.updateUser(user);
 
             UserDTO userDTO = new UserDTO();
             userDTO.setId(user.getId());
@@ -149,7 +149,7 @@ public class UserController {
                 user.setEmail(request.getEmail());
             }
 
-            userRepository.updateUser(user);
+            userService.updateUser(user);
 
             UserDTO userDTO = new UserDTO();
             userDTO.setId(user.getId());
@@ -40,7 +40,7 @@ public class DebtDTO {
     @Digits(integer = 10, fraction = 2, message = "Current balance must have at most 10 digits and 2 decimal places")
     private BigDecimal currentBalance;
     
-    @Schema(description = "Annual interest rate as a percentage")
+    @Schema(description = "Annual interest rate as a percentage, e.g. 18.99 for 18.99%")
     @DecimalMin(value = "0.00", message = "Interest rate cannot be negative")
     @Digits(integer = 3, fraction = 2, message = "Interest rate must have at most 3 digits and 2 decimal places")
     private BigDecimal interestRate;
@@ -20,9 +20,9 @@ public class DebtStrategyDTO {
     @Size(min = 1, max = 100, message = "Strategy name must be between 1 and 100 characters")
     private String name;
     
-    @Schema(description = "Type of strategy", example = "snowball", allowableValues = {"snowball", "avalanche", "hybrid", "custom"})
+    @Schema(description = "Type of strategy", example = "snowball", allowableValues = {"snowball", "avalanche", "hybrid", "optimal", "custom"})
     @NotBlank(message = "Strategy type is required")
-    @Pattern(regexp = "^(snowball|avalanche|hybrid|custom)$", message = "Invalid strategy type")
+    @Pattern(regexp = "^(snowball|avalanche|hybrid|optimal|custom)$", message = "Invalid strategy type")
     private String strategyType;
     
     @Schema(description = "Description of the strategy")
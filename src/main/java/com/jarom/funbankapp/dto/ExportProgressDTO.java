@@ -0,0 +1,95 @@
+package com.jarom.funbankapp.dto;
+
+/**
+ * DTO for export job progress
+ */
+public class ExportProgressDTO {
+    private Long jobId;
+    private String status;
+    private int percent; // 0-100
+    private long rowsWritten;
+    private long rowsTotal; // estimated before the export starts
+    private Long rowsPerSecond; // only while the job is running on this instance
+    private Long etaSeconds; // only while the job is running on this instance
+
+    // Default constructor
+    public ExportProgressDTO() {}
+
+    public ExportProgressDTO(Long jobId, String status, int percent, long rowsWritten, long rowsTotal) {
+        this.jobId = jobId;
+        this.status = status;
+        this.percent = percent;
+        this.rowsWritten = rowsWritten;
+        this.rowsTotal = rowsTotal;
+    }
+
+    // Getters and Setters
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getPercent() {
+        return percent;
+    }
+
+    public void setPercent(int percent) {
+        this.percent = percent;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public void setRowsWritten(long rowsWritten) {
+        this.rowsWritten = rowsWritten;
+    }
+
+    public long getRowsTotal() {
+        return rowsTotal;
+    }
+
+    public void setRowsTotal(long rowsTotal) {
+        this.rowsTotal = rowsTotal;
+    }
+
+    public Long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(Long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public Long getEtaSeconds() {
+        return etaSeconds;
+    }
+
+    public void setEtaSeconds(Long etaSeconds) {
+        this.etaSeconds = etaSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportProgressDTO{" +
+                "jobId=" + jobId +
+                ", status='" + status + '\'' +
+                ", percent=" + percent +
+                ", rowsWritten=" + rowsWritten +
+                ", rowsTotal=" + rowsTotal +
+                ", rowsPerSecond=" + rowsPerSecond +
+                ", etaSeconds=" + etaSeconds +
+                '}';
+    }
+}
@@ -17,8 +17,8 @@ public class ExportRequest {
     private String exportType;
     
     @NotBlank(message = "Export format is required")
-    @Pattern(regexp = "^(PDF|CSV|EXCEL|JSON)$", 
-             message = "Export format must be one of: PDF, CSV, EXCEL, JSON")
+    @Pattern(regexp = "^(PDF|CSV|EXCEL|JSON|PARQUET)$", 
+             message = "Export format must be one of: PDF, CSV, EXCEL, JSON, PARQUET")
     private String format;
     
     private LocalDate startDate;
@@ -26,6 +26,14 @@ public class ExportRequest {
     private Map<String, Object> filters; // Additional filters like categories, accounts, etc.
     private String fileName; // Optional custom filename
 
+    @Pattern(regexp = "^(compact|pretty|ndjson)$",
+             message = "JSON style must be one of: compact, pretty, ndjson")
+    private String jsonStyle; // JSON exports only; defaults to pretty
+
+    // Transaction id bounds for incremental exports, set by recurring export schedules
+    private Long afterTransactionId; // exclusive
+    private Long throughTransactionId; // inclusive
+
     // Default constructor
     public ExportRequest() {}
 
@@ -84,6 +92,30 @@ public class ExportRequest {
         this.fileName = fileName;
     }
 
+    public String getJsonStyle() {
+        return jsonStyle;
+    }
+
+    public void setJsonStyle(String jsonStyle) {
+        this.jsonStyle = jsonStyle;
+    }
+
+    public Long getAfterTransactionId() {
+        return afterTransactionId;
+    }
+
+    public void setAfterTransactionId(Long afterTransactionId) {
+        this.afterTransactionId = afterTransactionId;
+    }
+
+    public Long getThroughTransactionId() {
+        return throughTransactionId;
+    }
+
+    public void setThroughTransactionId(Long throughTransactionId) {
+        this.throughTransactionId = throughTransactionId;
+    }
+
     @Override
     public String toString() {
         return "ExportRequest{" +
@@ -93,6 +125,9 @@ public class ExportRequest {
                 ", endDate=" + endDate +
                 ", filters=" + filters +
                 ", fileName='" + fileName + '\'' +
+                ", jsonStyle='" + jsonStyle + '\'' +
+                ", afterTransactionId=" + afterTransactionId +
+                ", throughTransactionId=" + throughTransactionId +
                 '}';
     }
 } 
\ No newline at end of file
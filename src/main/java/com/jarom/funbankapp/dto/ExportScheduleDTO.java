@@ -0,0 +1,130 @@
+package com.jarom.funbankapp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for recurring export responses
+ */
+public class ExportScheduleDTO {
+    private Long id;
+    private String exportType;
+    private String format;
+    private int intervalMinutes;
+    private boolean incremental;
+    private LocalDateTime nextRunAt;
+    private LocalDateTime lastRunAt;
+    private LocalDateTime createdAt;
+    private Long lastJobId; // download a single run from the export job
+    private boolean running;
+    private long lastTransactionId; // incremental only: highest transaction id in the rolling file
+    private long rollingFileSize;
+    private String downloadUrl; // incremental only, once the first run has completed
+
+    // Default constructor
+    public ExportScheduleDTO() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getExportType() {
+        return exportType;
+    }
+
+    public void setExportType(String exportType) {
+        this.exportType = exportType;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public int getIntervalMinutes() {
+        return intervalMinutes;
+    }
+
+    public void setIntervalMinutes(int intervalMinutes) {
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getLastJobId() {
+        return lastJobId;
+    }
+
+    public void setLastJobId(Long lastJobId) {
+        this.lastJobId = lastJobId;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public long getLastTransactionId() {
+        return lastTransactionId;
+    }
+
+    public void setLastTransactionId(long lastTransactionId) {
+        this.lastTransactionId = lastTransactionId;
+    }
+
+    public long getRollingFileSize() {
+        return rollingFileSize;
+    }
+
+    public void setRollingFileSize(long rollingFileSize) {
+        this.rollingFileSize = rollingFileSize;
+    }
+
+    public String getDownloadUrl() {
+        return downloadUrl;
+    }
+
+    public void setDownloadUrl(String downloadUrl) {
+        this.downloadUrl = downloadUrl;
+    }
+}
@@ -0,0 +1,62 @@
+package com.jarom.funbankapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for creating a recurring export
+ */
+public class ExportScheduleRequest {
+
+    @Valid
+    @NotNull(message = "Export request is required")
+    private ExportRequest export;
+
+    @Min(value = 5, message = "Interval must be at least 5 minutes")
+    @Max(value = 44640, message = "Interval must be at most 31 days")
+    private int intervalMinutes = 1440; // nightly
+
+    // Export only transactions added since the last successful run, appending each delta to a rolling file
+    private boolean incremental;
+
+    private LocalDateTime firstRunAt; // Optional; defaults to now
+
+    // Default constructor
+    public ExportScheduleRequest() {}
+
+    // Getters and Setters
+    public ExportRequest getExport() {
+        return export;
+    }
+
+    public void setExport(ExportRequest export) {
+        this.export = export;
+    }
+
+    public int getIntervalMinutes() {
+        return intervalMinutes;
+    }
+
+    public void setIntervalMinutes(int intervalMinutes) {
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public LocalDateTime getFirstRunAt() {
+        return firstRunAt;
+    }
+
+    public void setFirstRunAt(LocalDateTime firstRunAt) {
+        this.firstRunAt = firstRunAt;
+    }
+}
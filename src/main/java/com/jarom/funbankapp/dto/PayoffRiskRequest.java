@@ -0,0 +1,173 @@
+package com.jarom.funbankapp.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for a Monte Carlo payoff risk simulation. Probabilities are per month.
+ */
+public class PayoffRiskRequest {
+
+    @NotNull(message = "Monthly payment amount is required")
+    @DecimalMin(value = "0.01", message = "Monthly payment amount must be positive")
+    private BigDecimal monthlyPaymentAmount;
+
+    @Pattern(regexp = "^(snowball|avalanche|optimal)$", message = "Strategy must be snowball, avalanche or optimal")
+    private String strategy = "avalanche";
+
+    @Min(value = 100, message = "At least 100 paths are required")
+    @Max(value = 100000, message = "At most 100000 paths are allowed")
+    private int paths = 10000;
+
+    @Min(value = 1, message = "Horizon must be at least 1 month")
+    @Max(value = 1200, message = "Horizon must be at most 1200 months")
+    private int horizonMonths = 360;
+
+    private LocalDate targetDate; // Optional; defaults to the payoff date with no shocks
+
+    private Long seed; // Optional, drawn at random if absent; the same seed and inputs give the same result
+
+    // Debt types whose rate follows the market, in any case; the rest are fixed
+    private List<String> variableRateTypes = List.of("credit_card");
+
+    @DecimalMin(value = "0.0", message = "Probabilities must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Probabilities must be between 0 and 1")
+    private double rateChangeProbability = 0.05;
+
+    // Standard deviation of a rate change, in percentage points
+    @DecimalMin(value = "0.0", message = "Rate change size cannot be negative")
+    @DecimalMax(value = "25.0", message = "Rate change size must be at most 25 points")
+    private double rateChangeStdDev = 1.0;
+
+    @DecimalMin(value = "0.0", message = "Probabilities must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Probabilities must be between 0 and 1")
+    private double missedPaymentProbability = 0.01;
+
+    @DecimalMin(value = "0.0", message = "Probabilities must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Probabilities must be between 0 and 1")
+    private double incomeShockProbability = 0.005;
+
+    @Min(value = 1, message = "An income shock lasts at least 1 month")
+    @Max(value = 60, message = "An income shock lasts at most 60 months")
+    private int incomeShockMonths = 6;
+
+    // Share of the monthly payment lost while an income shock lasts
+    @DecimalMin(value = "0.0", message = "Income shock severity must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Income shock severity must be between 0 and 1")
+    private double incomeShockSeverity = 0.5;
+
+    // Default constructor
+    public PayoffRiskRequest() {}
+
+    // Getters and Setters
+    public BigDecimal getMonthlyPaymentAmount() {
+        return monthlyPaymentAmount;
+    }
+
+    public void setMonthlyPaymentAmount(BigDecimal monthlyPaymentAmount) {
+        this.monthlyPaymentAmount = monthlyPaymentAmount;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    public int getPaths() {
+        return paths;
+    }
+
+    public void setPaths(int paths) {
+        this.paths = paths;
+    }
+
+    public int getHorizonMonths() {
+        return horizonMonths;
+    }
+
+    public void setHorizonMonths(int horizonMonths) {
+        this.horizonMonths = horizonMonths;
+    }
+
+    public LocalDate getTargetDate() {
+        return targetDate;
+    }
+
+    public void setTargetDate(LocalDate targetDate) {
+        this.targetDate = targetDate;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public List<String> getVariableRateTypes() {
+        return variableRateTypes;
+    }
+
+    public void setVariableRateTypes(List<String> variableRateTypes) {
+        this.variableRateTypes = variableRateTypes;
+    }
+
+    public double getRateChangeProbability() {
+        return rateChangeProbability;
+    }
+
+    public void setRateChangeProbability(double rateChangeProbability) {
+        this.rateChangeProbability = rateChangeProbability;
+    }
+
+    public double getRateChangeStdDev() {
+        return rateChangeStdDev;
+    }
+
+    public void setRateChangeStdDev(double rateChangeStdDev) {
+        this.rateChangeStdDev = rateChangeStdDev;
+    }
+
+    public double getMissedPaymentProbability() {
+        return missedPaymentProbability;
+    }
+
+    public void setMissedPaymentProbability(double missedPaymentProbability) {
+        this.missedPaymentProbability = missedPaymentProbability;
+    }
+
+    public double getIncomeShockProbability() {
+        return incomeShockProbability;
+    }
+
+    public void setIncomeShockProbability(double incomeShockProbability) {
+        this.incomeShockProbability = incomeShockProbability;
+    }
+
+    public int getIncomeShockMonths() {
+        return incomeShockMonths;
+    }
+
+    public void setIncomeShockMonths(int incomeShockMonths) {
+        this.incomeShockMonths = incomeShockMonths;
+    }
+
+    public double getIncomeShockSeverity() {
+        return incomeShockSeverity;
+    }
+
+    public void setIncomeShockSeverity(double incomeShockSeverity) {
+        this.incomeShockSeverity = incomeShockSeverity;
+    }
+}
@@ -39,7 +39,7 @@ public class Debt {
     private BigDecimal currentBalance;
     
     @Column("interest_rate")
-    @Schema(description = "Annual interest rate as a percentage")
+    @Schema(description = "Annual interest rate as a percentage, e.g. 18.99 for 18.99%")
     private BigDecimal interestRate;
     
     @Column("minimum_payment")
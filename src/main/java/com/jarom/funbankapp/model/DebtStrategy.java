@@ -26,7 +26,7 @@ public class DebtStrategy {
     private String name;
     
     @Column("strategy_type")
-    @Schema(description = "Type of strategy (snowball, avalanche, hybrid, custom)")
+    @Schema(description = "Type of strategy (snowball, avalanche, hybrid, optimal, custom)")
     private String strategyType;
     
     @Column("description")
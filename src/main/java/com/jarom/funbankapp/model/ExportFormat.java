@@ -7,7 +7,8 @@ public enum ExportFormat {
     PDF("pdf", "application/pdf", "Portable Document Format"),
     CSV("csv", "text/csv", "Comma Separated Values"),
     EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "Microsoft Excel"),
-    JSON("json", "application/json", "JavaScript Object Notation");
+    JSON("json", "application/json", "JavaScript Object Notation"),
+    PARQUET("parquet", "application/vnd.apache.parquet", "Apache Parquet");
 
     private final String extension;
     private final String mimeType;
@@ -18,6 +18,11 @@ public class ExportJob {
     private LocalDateTime completedAt;
     private String errorMessage;
     private String parameters; // JSON string for export parameters
+    private int progress; // 0-100, saved periodically while running
+    private long rowsWritten;
+    private long rowsTotal;
+    private String cacheKey; // hash of the request and the user's data version; see ExportResultCache
+    private String nodeId; // scheduler node that claimed the job; see ExportJobScheduler
 
     // Default constructor
     public ExportJob() {}
@@ -128,6 +133,46 @@ public class ExportJob {
         this.parameters = parameters;
     }
 
+    public int getProgress() {
+        return progress;
+    }
+
+    public void setProgress(int progress) {
+        this.progress = progress;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public void setRowsWritten(long rowsWritten) {
+        this.rowsWritten = rowsWritten;
+    }
+
+    public long getRowsTotal() {
+        return rowsTotal;
+    }
+
+    public void setRowsTotal(long rowsTotal) {
+        this.rowsTotal = rowsTotal;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
     @Override
     public String toString() {
         return "ExportJob{" +
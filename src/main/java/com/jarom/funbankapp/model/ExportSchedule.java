@@ -0,0 +1,175 @@
+package com.jarom.funbankapp.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A recurring export: the same export request run every
+ * {@code intervalMinutes}. Incremental schedules export only the
+ * transactions added since their last successful run and append each
+ * delta to a rolling file.
+ */
+public class ExportSchedule {
+    private Long id;
+    private Long userId;
+    private String exportType;
+    private String format;
+    private String parameters; // JSON ExportRequest each run starts from
+    private int intervalMinutes;
+    private boolean incremental;
+    private LocalDateTime nextRunAt;
+    private LocalDateTime lastRunAt;
+    private LocalDateTime createdAt;
+    private long lastTransactionId; // high-water mark: highest id already in the rolling file
+    private Long pendingJobId; // run in progress, not yet applied to the schedule
+    private Long pendingThroughId; // high-water mark once the pending run succeeds
+    private Long lastJobId;
+    private String rollingFilePath;
+    private long rollingFileSize;
+
+    // Default constructor
+    public ExportSchedule() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getExportType() {
+        return exportType;
+    }
+
+    public void setExportType(String exportType) {
+        this.exportType = exportType;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(String parameters) {
+        this.parameters = parameters;
+    }
+
+    public int getIntervalMinutes() {
+        return intervalMinutes;
+    }
+
+    public void setIntervalMinutes(int intervalMinutes) {
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getLastTransactionId() {
+        return lastTransactionId;
+    }
+
+    public void setLastTransactionId(long lastTransactionId) {
+        this.lastTransactionId = lastTransactionId;
+    }
+
+    public Long getPendingJobId() {
+        return pendingJobId;
+    }
+
+    public void setPendingJobId(Long pendingJobId) {
+        this.pendingJobId = pendingJobId;
+    }
+
+    public Long getPendingThroughId() {
+        return pendingThroughId;
+    }
+
+    public void setPendingThroughId(Long pendingThroughId) {
+        this.pendingThroughId = pendingThroughId;
+    }
+
+    public Long getLastJobId() {
+        return lastJobId;
+    }
+
+    public void setLastJobId(Long lastJobId) {
+        this.lastJobId = lastJobId;
+    }
+
+    public String getRollingFilePath() {
+        return rollingFilePath;
+    }
+
+    public void setRollingFilePath(String rollingFilePath) {
+        this.rollingFilePath = rollingFilePath;
+    }
+
+    public long getRollingFileSize() {
+        return rollingFileSize;
+    }
+
+    public void setRollingFileSize(long rollingFileSize) {
+        this.rollingFileSize = rollingFileSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportSchedule{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", exportType='" + exportType + '\'' +
+                ", format='" + format + '\'' +
+                ", intervalMinutes=" + intervalMinutes +
+                ", incremental=" + incremental +
+                ", nextRunAt=" + nextRunAt +
+                ", lastTransactionId=" + lastTransactionId +
+                ", pendingJobId=" + pendingJobId +
+                '}';
+    }
+}
@@ -12,6 +12,7 @@ public interface AccountRepository {
     
     // Read operations
     List<Account> findByUserId(Long userId);
+    List<Long> findIdsByUserId(Long userId);
     Optional<Account> findById(Long accountId);
     BigDecimal getBalance(Long accountId);
     
@@ -80,6 +80,12 @@ public class AccountRepositoryImpl implements AccountRepository {
         return jdbcTemplate.query(sql, accountRowMapper, userId);
     }
 
+    @Override
+    public List<Long> findIdsByUserId(Long userId) {
+        String sql = "SELECT id FROM accounts WHERE user_id = ?";
+        return jdbcTemplate.queryForList(sql, Long.class, userId);
+    }
+
     @Override
     public Optional<Account> findById(Long accountId) {
         String sql = "SELECT * FROM accounts WHERE id = ?";
@@ -95,13 +101,13 @@ public class AccountRepositoryImpl implements AccountRepository {
 
     @Override
     public void updateBalance(Long accountId, BigDecimal newBalance) {
-        String sql = "UPDATE accounts SET balance = ?, updated_at = NOW() WHERE id = ?";
+        String sql = "UPDATE accounts SET balance = ?, updated_at = NOW(), row_version = row_version + 1 WHERE id = ?";
         jdbcTemplate.update(sql, newBalance, accountId);
     }
 
     @Override
     public void updateAccount(Account account) {
-        String sql = "UPDATE accounts SET name = ?, account_type = ?, color = ?, balance = ?, updated_at = NOW() WHERE id = ?";
+        String sql = "UPDATE accounts SET name = ?, account_type = ?, color = ?, balance = ?, updated_at = NOW(), row_version = row_version + 1 WHERE id = ?";
         jdbcTemplate.update(sql, 
             account.getName(), 
             account.getAccountType(), 
@@ -69,7 +69,7 @@ public class BudgetRepositoryImpl implements BudgetRepository {
 
     @Override
     public void updateBudget(Budget budget) {
-        String sql = "UPDATE budgets SET name = ?, category = ?, amount = ?, period = ?, description = ?, start_date = ?, end_date = ?, updated_at = ? WHERE id = ?";
+        String sql = "UPDATE budgets SET name = ?, category = ?, amount = ?, period = ?, description = ?, start_date = ?, end_date = ?, updated_at = ?, row_version = row_version + 1 WHERE id = ?";
         jdbcTemplate.update(sql,
                 budget.getName(),
                 budget.getCategory(),
@@ -91,7 +91,7 @@ public class BudgetRepositoryImpl implements BudgetRepository {
 
     @Override
     public void updateSpent(Long budgetId, BigDecimal spent) {
-        String sql = "UPDATE budgets SET spent = ?, updated_at = ? WHERE id = ?";
+        String sql = "UPDATE budgets SET spent = ?, updated_at = ?, row_version = row_version + 1 WHERE id = ?";
         jdbcTemplate.update(sql, spent, new Timestamp(System.currentTimeMillis()), budgetId);
     }
 
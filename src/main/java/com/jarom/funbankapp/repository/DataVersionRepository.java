@@ -0,0 +1,23 @@
+package com.jarom.funbankapp.repository;
+
+import java.util.Collection;
+
+/**
+ * Reads a watermark of a user's data that changes whenever rows are added,
+ * changed or removed
+ */
+public interface DataVersionRepository {
+
+    String TRANSACTIONS = "transactions";
+    String ACCOUNTS = "accounts";
+    String DEBTS = "debts";
+    String BUDGETS = "budgets";
+    String GOALS = "goals";
+
+    /**
+     * Find the current data version of the given tables for a user. Equal
+     * versions mean no writes happened in between; the value has no other
+     * meaning.
+     */
+    String findDataVersion(Long userId, Collection<String> tables);
+}
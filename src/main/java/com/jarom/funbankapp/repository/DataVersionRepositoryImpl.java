@@ -0,0 +1,64 @@
+package com.jarom.funbankapp.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Implementation of DataVersionRepository using JDBC Template.
+ *
+ * A table's version is its row count, highest id and the sum of the rows'
+ * row_version for the user. Ids only grow, so an insert that survives moves
+ * the highest id, a delete otherwise moves the count, and every repository
+ * UPDATE bumps row_version, so an edit raises the sum. Unlike a change time
+ * this can't tie: two edits in the same clock tick still give two versions.
+ */
+@Repository
+public class DataVersionRepositoryImpl implements DataVersionRepository {
+
+    private static final Map<String, String> VERSION_QUERIES = Map.of(
+            TRANSACTIONS, "SELECT 'transactions', COUNT(*), MAX(t.id), SUM(t.row_version) " +
+                    "FROM transactions t JOIN accounts a ON t.account_id = a.id WHERE a.user_id = ?",
+            ACCOUNTS, versionQuery(ACCOUNTS),
+            DEBTS, versionQuery(DEBTS),
+            BUDGETS, versionQuery(BUDGETS),
+            GOALS, versionQuery(GOALS));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DataVersionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String findDataVersion(Long userId, Collection<String> tables) {
+        // One round trip for all tables
+        List<String> queries = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        for (String table : new TreeSet<>(tables)) {
+            String query = VERSION_QUERIES.get(table);
+            if (query == null) {
+                throw new IllegalArgumentException("No data version for table: " + table);
+            }
+            queries.add(query);
+            args.add(userId);
+        }
+
+        // Keyed by table so equal data gives an equal string whatever order the rows come back in
+        Map<String, String> versions = new TreeMap<>();
+        jdbcTemplate.query(String.join(" UNION ALL ", queries), rs -> {
+            versions.put(rs.getString(1), rs.getLong(2) + ":" + rs.getLong(3) + ":" + rs.getLong(4));
+        }, args.toArray());
+        return versions.toString();
+    }
+
+    private static String versionQuery(String table) {
+        return "SELECT '" + table + "', COUNT(*), MAX(id), SUM(row_version) FROM " + table + " WHERE user_id = ?";
+    }
+}
@@ -8,6 +8,7 @@ public interface DebtRepository {
     Debt save(Debt debt);
     Optional<Debt> findById(Long id);
     List<Debt> findByUserId(Long userId);
+    List<Long> findIdsByUserId(Long userId);
     List<Debt> findAll();
     void deleteById(Long id);
     void update(Debt debt);
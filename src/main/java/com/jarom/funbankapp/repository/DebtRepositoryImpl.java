@@ -123,6 +123,12 @@ public class DebtRepositoryImpl implements DebtRepository {
         return jdbcTemplate.query(sql, debtRowMapper, userId);
     }
 
+    @Override
+    public List<Long> findIdsByUserId(Long userId) {
+        String sql = "SELECT id FROM debts WHERE user_id = ?";
+        return jdbcTemplate.queryForList(sql, Long.class, userId);
+    }
+
     @Override
     public List<Debt> findAll() {
         String sql = "SELECT * FROM debts ORDER BY priority DESC, current_balance DESC";
@@ -139,7 +145,7 @@ public class DebtRepositoryImpl implements DebtRepository {
     public void update(Debt debt) {
         String sql = "UPDATE debts SET name = ?, debt_type = ?, current_balance = ?, original_amount = ?, " +
                     "interest_rate = ?, minimum_payment = ?, due_date = ?, priority = ?, notes = ?, " +
-                    "start_date = ?, end_date = ?, updated_at = ? WHERE id = ?";
+                    "start_date = ?, end_date = ?, updated_at = ?, row_version = row_version + 1 WHERE id = ?";
         
         jdbcTemplate.update(sql, 
             debt.getName(),
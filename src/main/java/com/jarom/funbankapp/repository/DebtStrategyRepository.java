@@ -8,6 +8,7 @@ public interface DebtStrategyRepository {
     DebtStrategy save(DebtStrategy strategy);
     Optional<DebtStrategy> findById(Long id);
     List<DebtStrategy> findByUserId(Long userId);
+    List<Long> findIdsByUserId(Long userId);
     List<DebtStrategy> findAll();
     void deleteById(Long id);
     void update(DebtStrategy strategy);
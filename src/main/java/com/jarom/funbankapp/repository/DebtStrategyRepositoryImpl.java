@@ -101,6 +101,12 @@ public class DebtStrategyRepositoryImpl implements DebtStrategyRepository {
         return jdbcTemplate.query(sql, debtStrategyRowMapper, userId);
     }
 
+    @Override
+    public List<Long> findIdsByUserId(Long userId) {
+        String sql = "SELECT id FROM debt_strategies WHERE user_id = ?";
+        return jdbcTemplate.queryForList(sql, Long.class, userId);
+    }
+
     @Override
     public List<DebtStrategy> findAll() {
         String sql = "SELECT * FROM debt_strategies ORDER BY is_active DESC, created_at DESC";
@@ -1,8 +1,11 @@
 package com.jarom.funbankapp.repository;
 
 import com.jarom.funbankapp.model.ExportJob;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository interface for ExportJob operations
@@ -28,26 +31,92 @@ public interface ExportJobRepository {
      * Find export jobs by status for a user
      */
     List<ExportJob> findByUserIdAndStatus(Long userId, String status);
+
+    /**
+     * Find export jobs in the given status across all users
+     */
+    List<ExportJob> findByStatus(String status);
     
     /**
      * Update export job status
      */
     boolean updateStatus(Long id, String status);
+
+    /**
+     * Update export job status only if it is currently one of
+     * {@code fromStatuses}. Returns false if the job had already moved on,
+     * e.g. a running job that was cancelled.
+     */
+    boolean transitionStatus(Long id, String status, String... fromStatuses);
     
+    /**
+     * Move a pending job to PROCESSING on behalf of the given scheduler node,
+     * recording the node and start time. Returns false if the job was no
+     * longer pending, e.g. another node claimed it or it was cancelled.
+     */
+    boolean claimJob(Long id, String nodeId);
+
+    /**
+     * Find PROCESSING jobs claimed by the given node, or by no recorded node
+     */
+    List<ExportJob> findProcessingByNode(String nodeId);
+
     /**
      * Update export job with file information
      */
     boolean updateFileInfo(Long id, String filePath, Long fileSize);
+
+    /**
+     * Mark a processing export job completed with its file and final row
+     * count, in one update. Returns false if the job is no longer
+     * processing, in which case nothing is changed.
+     */
+    boolean completeJob(Long id, String filePath, long fileSize, long rowsWritten);
     
     /**
-     * Update export job progress
+     * Update the progress of a processing export job: percent done and rows
+     * written out of the expected total. Returns false if the job is no
+     * longer processing.
      */
-    boolean updateProgress(Long id, Integer progress);
+    boolean updateProgress(Long id, int progress, long rowsWritten, long rowsTotal);
+    
+    /**
+     * Find the most recently completed export job for a user with the given
+     * cache key, created at or after {@code createdSince}
+     */
+    Optional<ExportJob> findLatestCompletedByCacheKey(Long userId, String cacheKey, LocalDateTime createdSince);
+
+    /**
+     * Find completed export jobs that have a cache key, oldest first
+     */
+    List<ExportJob> findCompletedWithCacheKey();
+
+    /**
+     * Clear the cache key of every job whose file is at the given path
+     */
+    int clearCacheKey(String filePath);
+
+    /**
+     * Find the next page of finished export jobs created before the cutoff,
+     * in (created_at, id) order after the given position
+     */
+    List<ExportJob> findExpiredJobs(LocalDateTime cutoff, LocalDateTime afterCreatedAt, Long afterId, int limit);
+
+    /**
+     * Of the given file paths, find those used by a job created at or after
+     * {@code createdSince}, or by any job if it is null
+     */
+    Set<String> findFilePathsInUse(Collection<String> filePaths, LocalDateTime createdSince);
     
     /**
      * Delete export job
      */
     boolean deleteById(Long id);
+
+    /**
+     * Delete export jobs in one statement
+     */
+    int deleteByIds(List<Long> ids);
     
     /**
      * Find export jobs that are older than specified days
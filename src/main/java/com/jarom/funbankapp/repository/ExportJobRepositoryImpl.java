@@ -3,9 +3,16 @@ package com.jarom.funbankapp.repository;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -50,14 +57,20 @@ public class ExportJobRepositoryImpl implements ExportJobRepository {
         
         exportJob.setErrorMessage(rs.getString("error_message"));
         exportJob.setParameters(rs.getString("parameters"));
+        exportJob.setProgress(rs.getInt("progress"));
+        exportJob.setRowsWritten(rs.getLong("rows_written"));
+        exportJob.setRowsTotal(rs.getLong("rows_total"));
+        exportJob.setCacheKey(rs.getString("cache_key"));
+        exportJob.setNodeId(rs.getString("node_id"));
         
         return exportJob;
     };
 
     @Override
     public ExportJob save(ExportJob exportJob) {
-        String sql = "INSERT INTO export_jobs (user_id, job_type, format, status, created_at, parameters) " +
-                    "VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO export_jobs (user_id, job_type, format, status, created_at, parameters, " +
+                    "file_path, file_size, completed_at, progress, rows_written, rows_total, cache_key) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
         KeyHolder keyHolder = new GeneratedKeyHolder();
         
@@ -69,6 +82,18 @@ public class ExportJobRepositoryImpl implements ExportJobRepository {
             ps.setString(4, exportJob.getStatus());
             ps.setTimestamp(5, Timestamp.valueOf(exportJob.getCreatedAt()));
             ps.setString(6, exportJob.getParameters());
+            // Set when the job links to an existing export instead of running
+            ps.setString(7, exportJob.getFilePath());
+            if (exportJob.getFileSize() != null) {
+                ps.setLong(8, exportJob.getFileSize());
+            } else {
+                ps.setNull(8, Types.BIGINT);
+            }
+            ps.setTimestamp(9, exportJob.getCompletedAt() != null ? Timestamp.valueOf(exportJob.getCompletedAt()) : null);
+            ps.setInt(10, exportJob.getProgress());
+            ps.setLong(11, exportJob.getRowsWritten());
+            ps.setLong(12, exportJob.getRowsTotal());
+            ps.setString(13, exportJob.getCacheKey());
             return ps;
         }, keyHolder);
         
@@ -95,6 +120,12 @@ public class ExportJobRepositoryImpl implements ExportJobRepository {
         return jdbcTemplate.query(sql, exportJobRowMapper, userId, status);
     }
 
+    @Override
+    public List<ExportJob> findByStatus(String status) {
+        String sql = "SELECT * FROM export_jobs WHERE status = ? ORDER BY id";
+        return jdbcTemplate.query(sql, exportJobRowMapper, status);
+    }
+
     @Override
     public boolean updateStatus(Long id, String status) {
         String sql = "UPDATE export_jobs SET status = ? WHERE id = ?";
@@ -102,6 +133,31 @@ public class ExportJobRepositoryImpl implements ExportJobRepository {
         return rowsAffected > 0;
     }
 
+    @Override
+    public boolean transitionStatus(Long id, String status, String... fromStatuses) {
+        String sql = "UPDATE export_jobs SET status = ? WHERE id = ? AND status IN (" + placeholders(fromStatuses.length) + ")";
+        List<Object> args = new ArrayList<>();
+        args.add(status);
+        args.add(id);
+        args.addAll(Arrays.asList(fromStatuses));
+        return jdbcTemplate.update(sql, args.toArray()) > 0;
+    }
+
+    @Override
+    public boolean claimJob(Long id, String nodeId) {
+        String sql = "UPDATE export_jobs SET status = 'PROCESSING', node_id = ?, started_at = ? " +
+                    "WHERE id = ? AND status = 'PENDING'";
+        return jdbcTemplate.update(sql, nodeId, Timestamp.valueOf(LocalDateTime.now()), id) > 0;
+    }
+
+    @Override
+    public List<ExportJob> findProcessingByNode(String nodeId) {
+        // Jobs claimed before node ids were recorded have none; they belong to whoever restarts first
+        String sql = "SELECT * FROM export_jobs WHERE status = 'PROCESSING' AND (node_id = ? OR node_id IS NULL) " +
+                    "ORDER BY id";
+        return jdbcTemplate.query(sql, exportJobRowMapper, nodeId);
+    }
+
     @Override
     public boolean updateFileInfo(Long id, String filePath, Long fileSize) {
         String sql = "UPDATE export_jobs SET file_path = ?, file_size = ?, completed_at = ? WHERE id = ?";
@@ -110,15 +166,69 @@ public class ExportJobRepositoryImpl implements ExportJobRepository {
     }
 
     @Override
-    public boolean updateProgress(Long id, Integer progress) {
-        // Note: This would require adding a progress column to the table
-        // For now, we'll use a placeholder implementation
-        String sql = "UPDATE export_jobs SET status = ? WHERE id = ?";
-        String status = progress == 100 ? "COMPLETED" : "PROCESSING";
-        int rowsAffected = jdbcTemplate.update(sql, status, id);
+    public boolean completeJob(Long id, String filePath, long fileSize, long rowsWritten) {
+        String sql = "UPDATE export_jobs SET status = 'COMPLETED', file_path = ?, file_size = ?, completed_at = ?, " +
+                    "progress = 100, rows_written = ?, rows_total = ? WHERE id = ? AND status = 'PROCESSING'";
+        int rowsAffected = jdbcTemplate.update(sql, filePath, fileSize, Timestamp.valueOf(LocalDateTime.now()),
+                rowsWritten, rowsWritten, id);
+        return rowsAffected > 0;
+    }
+
+    @Override
+    public boolean updateProgress(Long id, int progress, long rowsWritten, long rowsTotal) {
+        String sql = "UPDATE export_jobs SET progress = ?, rows_written = ?, rows_total = ? " +
+                    "WHERE id = ? AND status = 'PROCESSING'";
+        int rowsAffected = jdbcTemplate.update(sql, progress, rowsWritten, rowsTotal, id);
         return rowsAffected > 0;
     }
 
+    @Override
+    public Optional<ExportJob> findLatestCompletedByCacheKey(Long userId, String cacheKey, LocalDateTime createdSince) {
+        String sql = "SELECT * FROM export_jobs WHERE user_id = ? AND cache_key = ? AND status = 'COMPLETED' " +
+                    "AND created_at >= ? ORDER BY completed_at DESC, id DESC LIMIT 1";
+        List<ExportJob> results = jdbcTemplate.query(sql, exportJobRowMapper, userId, cacheKey,
+                Timestamp.valueOf(createdSince));
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    @Override
+    public List<ExportJob> findCompletedWithCacheKey() {
+        String sql = "SELECT * FROM export_jobs WHERE cache_key IS NOT NULL AND status = 'COMPLETED' " +
+                    "ORDER BY completed_at, id";
+        return jdbcTemplate.query(sql, exportJobRowMapper);
+    }
+
+    @Override
+    public int clearCacheKey(String filePath) {
+        String sql = "UPDATE export_jobs SET cache_key = NULL WHERE file_path = ?";
+        return jdbcTemplate.update(sql, filePath);
+    }
+
+    @Override
+    public List<ExportJob> findExpiredJobs(LocalDateTime cutoff, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        // Keyset paging over idx_export_jobs_created_at (created_at, id)
+        String sql = "SELECT * FROM export_jobs WHERE created_at < ? " +
+                    "AND (created_at > ? OR (created_at = ? AND id > ?)) " +
+                    "AND status IN ('COMPLETED', 'FAILED', 'CANCELLED') " +
+                    "ORDER BY created_at, id LIMIT ?";
+        Timestamp after = Timestamp.valueOf(afterCreatedAt);
+        return jdbcTemplate.query(sql, exportJobRowMapper, Timestamp.valueOf(cutoff), after, after, afterId, limit);
+    }
+
+    @Override
+    public Set<String> findFilePathsInUse(Collection<String> filePaths, LocalDateTime createdSince) {
+        if (filePaths.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<Object> args = new ArrayList<>(filePaths);
+        String sql = "SELECT DISTINCT file_path FROM export_jobs WHERE file_path IN (" + placeholders(filePaths.size()) + ")";
+        if (createdSince != null) {
+            sql += " AND created_at >= ?";
+            args.add(Timestamp.valueOf(createdSince));
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(sql, String.class, args.toArray()));
+    }
+
     @Override
     public boolean deleteById(Long id) {
         String sql = "DELETE FROM export_jobs WHERE id = ?";
@@ -126,6 +236,15 @@ public class ExportJobRepositoryImpl implements ExportJobRepository {
         return rowsAffected > 0;
     }
 
+    @Override
+    public int deleteByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String sql = "DELETE FROM export_jobs WHERE id IN (" + placeholders(ids.size()) + ")";
+        return jdbcTemplate.update(sql, ids.toArray());
+    }
+
     @Override
     public List<ExportJob> findOldJobs(int daysOld) {
         String sql = "SELECT * FROM export_jobs WHERE created_at < ? AND status IN ('COMPLETED', 'FAILED')";
@@ -138,4 +257,8 @@ public class ExportJobRepositoryImpl implements ExportJobRepository {
         String sql = "SELECT COUNT(*) FROM export_jobs WHERE user_id = ? AND status = ?";
         return jdbcTemplate.queryForObject(sql, Long.class, userId, status);
     }
-} 
\ No newline at end of file
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.jarom.funbankapp.repository;
+
+import com.jarom.funbankapp.model.ExportSchedule;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ExportSchedule operations
+ */
+public interface ExportScheduleRepository {
+
+    /**
+     * Save a new export schedule
+     */
+    ExportSchedule save(ExportSchedule schedule);
+
+    /**
+     * Find export schedule by ID
+     */
+    Optional<ExportSchedule> findById(Long id);
+
+    /**
+     * Find all export schedules for a user
+     */
+    List<ExportSchedule> findByUserId(Long userId);
+
+    /**
+     * Schedules that are due at {@code now} or have a run to settle, soonest
+     * first.
+     */
+    List<ExportSchedule> findRunnable(LocalDateTime now, int limit);
+
+    /**
+     * Moves a due schedule on to its next run. Returns false if another
+     * runner claimed it first or it still has a run in progress.
+     */
+    boolean claimRun(Long id, LocalDateTime dueAt, LocalDateTime nextRunAt, LocalDateTime lastRunAt);
+
+    /**
+     * Records the export job started for a claimed run and the high-water
+     * mark it exports through (null for full exports).
+     */
+    boolean startRun(Long id, Long jobId, Long throughId);
+
+    /**
+     * Clears the run started with {@code jobId}, saving the high-water mark
+     * and rolling file it leaves behind. Returns false if the run was already
+     * settled.
+     */
+    boolean finishRun(Long id, Long jobId, long lastTransactionId, String rollingFilePath, long rollingFileSize);
+
+    /**
+     * Delete export schedule
+     */
+    boolean deleteById(Long id);
+}
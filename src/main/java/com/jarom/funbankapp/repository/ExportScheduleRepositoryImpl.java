@@ -0,0 +1,134 @@
+package com.jarom.funbankapp.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.jarom.funbankapp.model.ExportSchedule;
+
+/**
+ * Implementation of ExportScheduleRepository using JDBC Template
+ */
+@Repository
+public class ExportScheduleRepositoryImpl implements ExportScheduleRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportScheduleRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    private final RowMapper<ExportSchedule> exportScheduleRowMapper = (rs, rowNum) -> {
+        ExportSchedule schedule = new ExportSchedule();
+        schedule.setId(rs.getLong("id"));
+        schedule.setUserId(rs.getLong("user_id"));
+        schedule.setExportType(rs.getString("export_type"));
+        schedule.setFormat(rs.getString("format"));
+        schedule.setParameters(rs.getString("parameters"));
+        schedule.setIntervalMinutes(rs.getInt("interval_minutes"));
+        schedule.setIncremental(rs.getBoolean("incremental"));
+        schedule.setNextRunAt(rs.getTimestamp("next_run_at").toLocalDateTime());
+        schedule.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+
+        Timestamp lastRunAt = rs.getTimestamp("last_run_at");
+        if (lastRunAt != null) {
+            schedule.setLastRunAt(lastRunAt.toLocalDateTime());
+        }
+
+        schedule.setLastTransactionId(rs.getLong("last_transaction_id"));
+        schedule.setPendingJobId(rs.getObject("pending_job_id", Long.class));
+        schedule.setPendingThroughId(rs.getObject("pending_through_id", Long.class));
+        schedule.setLastJobId(rs.getObject("last_job_id", Long.class));
+        schedule.setRollingFilePath(rs.getString("rolling_file_path"));
+        schedule.setRollingFileSize(rs.getLong("rolling_file_size"));
+
+        return schedule;
+    };
+
+    @Override
+    public ExportSchedule save(ExportSchedule schedule) {
+        String sql = "INSERT INTO export_schedules (user_id, export_type, format, parameters, interval_minutes, " +
+                    "incremental, next_run_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, schedule.getUserId());
+            ps.setString(2, schedule.getExportType());
+            ps.setString(3, schedule.getFormat());
+            ps.setString(4, schedule.getParameters());
+            ps.setInt(5, schedule.getIntervalMinutes());
+            ps.setBoolean(6, schedule.isIncremental());
+            ps.setTimestamp(7, Timestamp.valueOf(schedule.getNextRunAt()));
+            ps.setTimestamp(8, Timestamp.valueOf(schedule.getCreatedAt()));
+            return ps;
+        }, keyHolder);
+
+        schedule.setId(keyHolder.getKey().longValue());
+        return schedule;
+    }
+
+    @Override
+    public Optional<ExportSchedule> findById(Long id) {
+        String sql = "SELECT * FROM export_schedules WHERE id = ?";
+        List<ExportSchedule> results = jdbcTemplate.query(sql, exportScheduleRowMapper, id);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    @Override
+    public List<ExportSchedule> findByUserId(Long userId) {
+        String sql = "SELECT * FROM export_schedules WHERE user_id = ? ORDER BY id";
+        return jdbcTemplate.query(sql, exportScheduleRowMapper, userId);
+    }
+
+    @Override
+    public List<ExportSchedule> findRunnable(LocalDateTime now, int limit) {
+        String sql = "SELECT * FROM export_schedules WHERE next_run_at <= ? OR pending_job_id IS NOT NULL " +
+                    "ORDER BY next_run_at, id LIMIT ?";
+        return jdbcTemplate.query(sql, exportScheduleRowMapper, Timestamp.valueOf(now), limit);
+    }
+
+    @Override
+    public boolean claimRun(Long id, LocalDateTime dueAt, LocalDateTime nextRunAt, LocalDateTime lastRunAt) {
+        String sql = "UPDATE export_schedules SET next_run_at = ?, last_run_at = ? " +
+                    "WHERE id = ? AND next_run_at = ? AND pending_job_id IS NULL";
+        int rowsAffected = jdbcTemplate.update(sql, Timestamp.valueOf(nextRunAt), Timestamp.valueOf(lastRunAt),
+                id, Timestamp.valueOf(dueAt));
+        return rowsAffected > 0;
+    }
+
+    @Override
+    public boolean startRun(Long id, Long jobId, Long throughId) {
+        String sql = "UPDATE export_schedules SET pending_job_id = ?, pending_through_id = ?, last_job_id = ? " +
+                    "WHERE id = ?";
+        int rowsAffected = jdbcTemplate.update(sql, jobId, throughId, jobId, id);
+        return rowsAffected > 0;
+    }
+
+    @Override
+    public boolean finishRun(Long id, Long jobId, long lastTransactionId, String rollingFilePath,
+                             long rollingFileSize) {
+        String sql = "UPDATE export_schedules SET pending_job_id = NULL, pending_through_id = NULL, " +
+                    "last_transaction_id = ?, rolling_file_path = ?, rolling_file_size = ? " +
+                    "WHERE id = ? AND pending_job_id = ?";
+        int rowsAffected = jdbcTemplate.update(sql, lastTransactionId, rollingFilePath, rollingFileSize, id, jobId);
+        return rowsAffected > 0;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        String sql = "DELETE FROM export_schedules WHERE id = ?";
+        int rowsAffected = jdbcTemplate.update(sql, id);
+        return rowsAffected > 0;
+    }
+}
@@ -67,7 +67,7 @@ public class GoalRepositoryImpl implements GoalRepository {
 
     @Override
     public void updateGoal(Goal goal) {
-        String sql = "UPDATE goals SET name = ?, description = ?, target_amount = ?, current_amount = ?, deadline = ?, type = ?, status = ?, updated_at = ? WHERE id = ?";
+        String sql = "UPDATE goals SET name = ?, description = ?, target_amount = ?, current_amount = ?, deadline = ?, type = ?, status = ?, updated_at = ?, row_version = row_version + 1 WHERE id = ?";
         jdbcTemplate.update(sql,
                 goal.getName(),
                 goal.getDescription(),
@@ -95,7 +95,7 @@ public class GoalRepositoryImpl implements GoalRepository {
 
     @Override
     public void updateCurrentAmount(Long goalId, BigDecimal currentAmount) {
-        String sql = "UPDATE goals SET current_amount = ?, updated_at = ? WHERE id = ?";
+        String sql = "UPDATE goals SET current_amount = ?, updated_at = ?, row_version = row_version + 1 WHERE id = ?";
         jdbcTemplate.update(sql, currentAmount, new Timestamp(System.currentTimeMillis()), goalId);
     }
 } 
\ No newline at end of file
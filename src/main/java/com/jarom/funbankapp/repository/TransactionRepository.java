@@ -2,10 +2,14 @@ package com.jarom.funbankapp.repository;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.jdbc.core.RowCallbackHandler;
+
 import com.jarom.funbankapp.model.Transaction;
 
 public interface TransactionRepository {
@@ -19,6 +23,33 @@ public interface TransactionRepository {
     List<Transaction> findByAccountId(Long accountId);
     List<Transaction> getRecentTransactions(Long userId, int limit);
     Optional<Transaction> findById(Long transactionId);
+
+    /**
+     * Streams a user's transactions, oldest first, through a forward-only
+     * cursor. Rows reach the handler as they are fetched and are never
+     * collected, so the caller decides what, if anything, to keep. Either
+     * date bound may be null; both are inclusive. The id bounds, also
+     * optional, limit an incremental export to rows inserted between two
+     * runs: {@code afterId} is exclusive and {@code throughId} inclusive.
+     */
+    void streamForExport(Long userId, LocalDate startDate, LocalDate endDate, Long afterId, Long throughId,
+                         int fetchSize, RowCallbackHandler handler);
+
+    /**
+     * Number of rows {@link #streamForExport} would return for the same
+     * bounds, so exports can report progress against a total.
+     */
+    long countForExport(Long userId, LocalDate startDate, LocalDate endDate, Long afterId, Long throughId);
+
+    /**
+     * The highest transaction id above {@code afterId} such that every row
+     * from {@code afterId} up to it was created before {@code createdBefore},
+     * or {@code afterId} if there is none. Ids are taken before commit, so a
+     * row can show up after a higher id; rows older than a settle window
+     * are taken to have committed, which makes this a safe place for the
+     * next incremental export to start.
+     */
+    long findSettledMaxId(long afterId, LocalDateTime createdBefore);
     
     // Update operations
     Transaction save(Transaction transaction);
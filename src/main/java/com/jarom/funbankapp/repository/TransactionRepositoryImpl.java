@@ -1,13 +1,23 @@
 package com.jarom.funbankapp.repository;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
@@ -68,6 +78,85 @@ public class TransactionRepositoryImpl implements TransactionRepository {
         return jdbcTemplate.query(sql, transactionRowMapper, userId, limit);
     }
 
+    @Override
+    public void streamForExport(Long userId, LocalDate startDate, LocalDate endDate, Long afterId, Long throughId,
+                                int fetchSize, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT t.transaction_date, t.description, t.amount, t.category, a.name AS account_name, t.type ");
+        List<Object> args = appendExportFilter(sql, userId, startDate, endDate, afterId, throughId);
+        sql.append(" ORDER BY t.transaction_date, t.id");
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(streamingFetchSize(con, fetchSize));
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * MySQL Connector/J reads the whole result into the heap unless the URL
+     * sets useCursorFetch=true (then a positive size is the rows per round
+     * trip) or the fetch size is Integer.MIN_VALUE (rows one at a time).
+     * Without the flag, switch to the latter so exports still stream.
+     */
+    static int streamingFetchSize(Connection con, int fetchSize) throws SQLException {
+        DatabaseMetaData meta = con.getMetaData();
+        if ("MySQL".equalsIgnoreCase(meta.getDatabaseProductName())
+                && !meta.getURL().toLowerCase(Locale.ROOT).contains("usecursorfetch=true")) {
+            return Integer.MIN_VALUE;
+        }
+        return fetchSize;
+    }
+
+    @Override
+    public long countForExport(Long userId, LocalDate startDate, LocalDate endDate, Long afterId, Long throughId) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) ");
+        List<Object> args = appendExportFilter(sql, userId, startDate, endDate, afterId, throughId);
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public long findSettledMaxId(long afterId, LocalDateTime createdBefore) {
+        // Both sides are primary key range scans over the rows added since the last mark
+        String sql = "SELECT MAX(id) FROM transactions WHERE id > ? AND created_at < ? " +
+                    "AND id < COALESCE((SELECT MIN(id) FROM transactions WHERE id > ? AND created_at >= ?), " +
+                    Long.MAX_VALUE + ")";
+        Timestamp cutoff = Timestamp.valueOf(createdBefore);
+        Long maxId = jdbcTemplate.queryForObject(sql, Long.class, afterId, cutoff, afterId, cutoff);
+        return maxId != null ? maxId : afterId;
+    }
+
+    private static List<Object> appendExportFilter(StringBuilder sql, Long userId, LocalDate startDate,
+                                                   LocalDate endDate, Long afterId, Long throughId) {
+        sql.append("FROM transactions t " +
+                "JOIN accounts a ON t.account_id = a.id " +
+                "WHERE a.user_id = ?");
+        List<Object> args = new ArrayList<>(5);
+        args.add(userId);
+        if (startDate != null) {
+            sql.append(" AND t.transaction_date >= ?");
+            args.add(Timestamp.valueOf(startDate.atStartOfDay()));
+        }
+        if (endDate != null) {
+            sql.append(" AND t.transaction_date < ?");
+            args.add(Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+        }
+        if (afterId != null) {
+            sql.append(" AND t.id > ?");
+            args.add(afterId);
+        }
+        if (throughId != null) {
+            sql.append(" AND t.id <= ?");
+            args.add(throughId);
+        }
+        return args;
+    }
+
     @Override
     public Map<String, BigDecimal> getSpendingByCategory(Long userId, int days) {
         String sql = "SELECT COALESCE(t.category, t.description) as category, SUM(t.amount) as total " +
@@ -180,9 +269,9 @@ public class TransactionRepositoryImpl implements TransactionRepository {
             transaction.setId(id);
             transaction.setCreatedAt(new Timestamp(System.currentTimeMillis()));
         } else {
-            // Update existing transaction
+            // Update existing transaction; row_version moves the export data version
             String sql = "UPDATE transactions SET account_id = ?, type = ?, amount = ?, category = ?, " +
-                        "description = ?, transaction_date = ? WHERE id = ?";
+                        "description = ?, transaction_date = ?, updated_at = ?, row_version = row_version + 1 WHERE id = ?";
             jdbcTemplate.update(sql, 
                 transaction.getAccountId(), 
                 transaction.getType(), 
@@ -190,6 +279,7 @@ public class TransactionRepositoryImpl implements TransactionRepository {
                 transaction.getCategory(), 
                 transaction.getDescription(), 
                 transaction.getTransactionDate(), 
+                new Timestamp(System.currentTimeMillis()),
                 transaction.getId()
             );
         }
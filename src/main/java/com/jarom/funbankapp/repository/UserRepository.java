@@ -12,6 +12,7 @@ public interface UserRepository {
     // Read operations
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+    Optional<User> findByUsernameOrEmail(String usernameOrEmail);
     Optional<User> findById(Long id);
     
     // Update operations
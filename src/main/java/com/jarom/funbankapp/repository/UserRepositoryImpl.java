@@ -87,14 +87,24 @@ public class UserRepositoryImpl implements UserRepository {
 
     @Override
     public Optional<User> findByEmail(String email) {
-        String sql = "SELECT * FROM users WHERE email = ?";
+        String sql = "SELECT id, username, email, password_hash FROM users WHERE email = ?";
         List<User> results = jdbcTemplate.query(sql, userRowMapper, email);
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
+    @Override
+    public Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
+        String sql = "SELECT id, username, email, password_hash FROM users WHERE username = ? OR email = ?";
+        List<User> results = jdbcTemplate.query(sql, userRowMapper, usernameOrEmail, usernameOrEmail);
+        return results.stream()
+                .filter(user -> usernameOrEmail.equals(user.getUsername()))
+                .findFirst()
+                .or(() -> results.stream().findFirst());
+    }
+
     @Override
     public Optional<User> findById(Long id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
+        String sql = "SELECT id, username, email, password_hash FROM users WHERE id = ?";
         List<User> results = jdbcTemplate.query(sql, userRowMapper, id);
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
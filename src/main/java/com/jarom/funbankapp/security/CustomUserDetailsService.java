@@ -9,34 +9,38 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
-import java.util.Optional;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        // First try to find by username
-        Optional<User> userOpt = userRepository.findByUsername(usernameOrEmail);
-        
-        // If not found by username, try by email
-        if (userOpt.isEmpty()) {
-            userOpt = userRepository.findByEmail(usernameOrEmail);
+        UserDetailsCache.Entry cached = userDetailsCache.get(usernameOrEmail);
+        if (cached != null) {
+            return toUserDetails(cached.getUsername(), cached.getPasswordHash());
         }
-        
-        User user = userOpt.orElseThrow(() -> 
-            new UsernameNotFoundException("User not found: " + usernameOrEmail));
 
+        // Single lookup matching either column; a username match wins over an email match
+        User user = userRepository.findByUsernameOrEmail(usernameOrEmail)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + usernameOrEmail));
+
+        userDetailsCache.put(usernameOrEmail, user.getUsername(), user.getPassword());
+        return toUserDetails(user.getUsername(), user.getPassword());
+    }
+
+    private UserDetails toUserDetails(String username, String passwordHash) {
         return new org.springframework.security.core.userdetails.User(
-                user.getUsername(), // Use username as the principal name
-                user.getPassword(),
+                username, // Use username as the principal name
+                passwordHash,
                 Collections.singletonList(new SimpleGrantedAuthority("USER"))
         );
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,121 @@
+package com.jarom.funbankapp.security;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Node-local token buckets. Each bucket is updated with a CAS loop, so there
+ * is no lock on the request path. Buckets idle for longer than the key TTL are
+ * swept once the store reaches {@code maxKeys}; if it is still full after that,
+ * the least recently used buckets are dropped so memory stays bounded.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+    private final int maxKeys;
+    private final long keyTtlNanos;
+    private final LongSupplier clock;
+
+    public InMemoryRateLimitStore(int maxKeys, long keyTtlSeconds) {
+        this(maxKeys, keyTtlSeconds, System::nanoTime);
+    }
+
+    InMemoryRateLimitStore(int maxKeys, long keyTtlSeconds, LongSupplier clock) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys must be positive");
+        }
+        this.maxKeys = maxKeys;
+        this.keyTtlNanos = TimeUnit.SECONDS.toNanos(keyTtlSeconds);
+        this.clock = clock;
+    }
+
+    @Override
+    public RateLimitDecision tryConsume(String key, int capacity, long refillPeriodSeconds) {
+        long now = clock.getAsLong();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evict(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+        }
+        return bucket.tryConsume(capacity, refillPeriodSeconds, now);
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void evict(long now) {
+        // Only one thread sweeps at a time; the others carry on and may overshoot
+        // the bound by a handful of keys until the sweep completes.
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.entrySet().removeIf(e -> now - e.getValue().lastUpdated() > keyTtlNanos);
+
+            int target = Math.max(1, maxKeys - maxKeys / 10);
+            if (buckets.size() >= target) {
+                List<Map.Entry<String, Bucket>> entries = new ArrayList<>(buckets.entrySet());
+                entries.sort(Comparator.comparingLong(e -> e.getValue().lastUpdated()));
+                int excess = buckets.size() - target;
+                for (int i = 0; i < excess && i < entries.size(); i++) {
+                    buckets.remove(entries.get(i).getKey(), entries.get(i).getValue());
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static final class Bucket {
+        private final AtomicReference<State> state;
+
+        Bucket(int capacity, long now) {
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        long lastUpdated() {
+            return state.get().updatedAt;
+        }
+
+        RateLimitDecision tryConsume(int capacity, long refillPeriodSeconds, long now) {
+            double nanosPerToken = (double) TimeUnit.SECONDS.toNanos(refillPeriodSeconds) / capacity;
+            while (true) {
+                State current = state.get();
+                long elapsed = Math.max(0, now - current.updatedAt);
+                double tokens = Math.min(capacity, current.tokens + elapsed / nanosPerToken);
+
+                if (tokens < 1) {
+                    long waitNanos = (long) Math.ceil((1 - tokens) * nanosPerToken);
+                    long retryAfter = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+                    return new RateLimitDecision(false, 0, retryAfter);
+                }
+
+                State next = new State(tokens - 1, Math.max(now, current.updatedAt));
+                if (state.compareAndSet(current, next)) {
+                    return new RateLimitDecision(true, (int) next.tokens, 0);
+                }
+            }
+        }
+    }
+
+    private static final class State {
+        private final double tokens;
+        private final long updatedAt;
+
+        State(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
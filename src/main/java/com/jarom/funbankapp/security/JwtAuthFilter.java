@@ -4,6 +4,8 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,10 +21,14 @@ import java.util.Collections;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
+
     private final JwtService jwtService;
+    private final RouteClassifier routeClassifier;
 
-    public JwtAuthFilter(JwtService jwtService) {
+    public JwtAuthFilter(JwtService jwtService, RouteClassifier routeClassifier) {
         this.jwtService = jwtService;
+        this.routeClassifier = routeClassifier;
     }
 
     @Override
@@ -33,26 +39,21 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         // Skip JWT authentication for public endpoints
         String requestURI = request.getRequestURI();
-        if (requestURI.equals("/api/auth/register") || 
-            requestURI.equals("/api/auth/login") || 
-            requestURI.equals("/api/health") ||
-            requestURI.startsWith("/swagger-ui") ||
-            requestURI.startsWith("/v3/api-docs") ||
-            requestURI.equals("/swagger-ui.html")) {
-            System.out.println("🔓 Skipping JWT auth for: " + requestURI);
+        if (routeClassifier.classify(requestURI).isPublic()) {
+            logger.debug("Skipping JWT auth for: {}", requestURI);
             filterChain.doFilter(request, response);
             return;
         }
 
-        System.out.println("🔐 JwtAuthFilter triggered for: " + requestURI);
+        logger.debug("JwtAuthFilter triggered for: {}", requestURI);
 
         final String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             if (authHeader != null) {
-                System.out.println("⛔ Malformed Bearer token: " + authHeader);
+                logger.debug("Malformed Bearer token for: {}", requestURI);
             } else {
-                System.out.println("⛔ No Authorization header");
+                logger.debug("No Authorization header for: {}", requestURI);
             }
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("Unauthorized: No valid token provided");
@@ -60,14 +61,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        System.out.println("🔑 Extracted JWT: " + jwt.substring(0, Math.min(20, jwt.length())) + "...");
-        System.out.println("🔑 Full JWT length: " + jwt.length() + " characters");
 
         final String username = jwtService.extractUsername(jwt);
-        System.out.println("👤 Username extracted from token: " + username);
 
         if (username == null) {
-            System.out.println("❌ Invalid JWT token - username extraction failed");
+            logger.debug("Invalid JWT token - username extraction failed");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("Unauthorized: Invalid token");
             return;
@@ -80,9 +78,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
             SecurityContextHolder.getContext().setAuthentication(authToken);
-            System.out.println("✅ Authenticated user set in context: " + username);
+            logger.debug("Authenticated user set in context: {}", username);
         } else {
-            System.out.println("⚠️ User already authenticated");
+            logger.debug("User already authenticated");
         }
 
         filterChain.doFilter(request, response);
@@ -5,6 +5,8 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
@@ -14,6 +16,8 @@ import java.util.Date;
 @Service
 public class JwtService {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
+
     private final JwtProperties jwtProperties;
     private Key key;
 
@@ -23,24 +27,18 @@ public class JwtService {
 
     @PostConstruct
     public void init() {
-        System.out.println("🔧 JwtService.init() called");
-        System.out.println("🔧 jwtProperties: " + jwtProperties);
-        
         String secret = jwtProperties.getSecret();
-        System.out.println("🔧 JWT secret from properties: " + (secret != null ? "NOT NULL" : "NULL"));
-        System.out.println("🔧 JWT secret length: " + (secret != null ? secret.length() : "N/A"));
-        
         if (secret == null || secret.trim().isEmpty()) {
-            System.err.println("❌ JWT secret is null or empty!");
+            logger.error("JWT secret is null or empty");
             throw new IllegalStateException("JWT secret is not configured. Please set jwt.secret in application.properties");
         }
         
         try {
             byte[] decodedKey = Base64.getDecoder().decode(secret);
             this.key = Keys.hmacShaKeyFor(decodedKey);
-            System.out.println("✅ JWT key successfully initialized");
+            logger.info("JWT key successfully initialized");
         } catch (Exception e) {
-            System.err.println("❌ Error initializing JWT key: " + e.getMessage());
+            logger.error("Error initializing JWT key: {}", e.getMessage());
             throw e;
         }
     }
@@ -56,10 +54,6 @@ public class JwtService {
 
     public String extractUsername(String token) {
         try {
-            System.out.println("🔍 JWT Service - attempting to parse token: " + token.substring(0, Math.min(20, token.length())) + "...");
-            System.out.println("🔍 JWT Service - token length: " + token.length());
-            System.out.println("🔍 JWT Service - key initialized: " + (key != null));
-            
             String username = Jwts.parserBuilder()
                     .setSigningKey(key)
                     .build()
@@ -67,12 +61,9 @@ public class JwtService {
                     .getBody()
                     .getSubject();
             
-            System.out.println("✅ JWT Service - successfully extracted username: " + username);
             return username;
         } catch (Exception e) {
-            System.out.println("❌ JWT parsing failed: " + e.getMessage());
-            System.out.println("❌ Exception type: " + e.getClass().getSimpleName());
-            e.printStackTrace();
+            logger.debug("JWT parsing failed ({}): {}", e.getClass().getSimpleName(), e.getMessage());
             return null;
         }
     }
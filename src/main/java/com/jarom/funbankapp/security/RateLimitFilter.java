@@ -1,53 +1,83 @@
 package com.jarom.funbankapp.security;
 
+import com.jarom.funbankapp.config.RateLimitProperties;
+import com.jarom.funbankapp.config.RouteProperties;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.core.annotation.Order;
 
 import java.io.IOException;
-import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Order(0)
 @Component
 @Profile("!test")
 public class RateLimitFilter extends OncePerRequestFilter {
-    private static final int MAX_REQUESTS_PER_MINUTE = 5;
-    private final Map<String, RequestCounter> ipRequestCounts = new ConcurrentHashMap<>();
+
+    private final RateLimitProperties properties;
+    private final RouteClassifier routeClassifier;
+    private final RateLimitStore store;
+
+    public RateLimitFilter(RateLimitProperties properties, RouteProperties routeProperties,
+                           ObjectProvider<RouteClassifier> classifierProvider,
+                           ObjectProvider<RateLimitStore> storeProvider) {
+        this.properties = properties;
+        this.routeClassifier = classifierProvider.getIfAvailable(
+                () -> new RouteClassifier(routeProperties, properties));
+        this.store = storeProvider.getIfAvailable(
+                () -> new InMemoryRateLimitStore(properties.getMaxKeys(), properties.getKeyTtlSeconds()));
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        String path = request.getRequestURI();
-        if (path.equals("/api/auth/login") || path.equals("/api/auth/register")) {
-            String ip = request.getRemoteAddr();
-            RequestCounter counter = ipRequestCounts.computeIfAbsent(ip, k -> new RequestCounter());
-            synchronized (counter) {
-                long now = Instant.now().getEpochSecond();
-                if (now - counter.timestamp >= 60) {
-                    counter.timestamp = now;
-                    counter.count = 1;
-                } else {
-                    counter.count++;
-                }
-                if (counter.count > MAX_REQUESTS_PER_MINUTE) {
-                    response.setStatus(429);
-                    response.getWriter().write("Too many requests. Please try again later.");
-                    return;
-                }
-            }
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitProperties.Route route = routeClassifier.classify(request.getRequestURI()).getRateLimit();
+        String username = currentUsername();
+        RateLimitProperties.Policy userPolicy = username != null ? properties.getUsers().get(username) : null;
+
+        if (route == null && userPolicy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // A per-user policy is a single budget across every route; route policies
+        // are tracked per client (user when authenticated, otherwise IP).
+        String client = username != null ? "user:" + username : "ip:" + request.getRemoteAddr();
+        RateLimitProperties.Policy policy = userPolicy != null ? userPolicy : route;
+        String key = userPolicy != null ? client : route.getPath() + "|" + client;
+
+        RateLimitStore.RateLimitDecision decision =
+                store.tryConsume(key, policy.getCapacity(), policy.getRefillPeriodSeconds());
+        response.setHeader("X-RateLimit-Limit", String.valueOf(policy.getCapacity()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+
+        if (!decision.isAllowed()) {
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(decision.getRetryAfterSeconds()));
+            response.getWriter().write("Too many requests. Please try again later.");
+            return;
         }
         filterChain.doFilter(request, response);
     }
 
-    private static class RequestCounter {
-        long timestamp = Instant.now().getEpochSecond();
-        int count = 0;
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getName())) {
+            return null;
+        }
+        return authentication.getName();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.jarom.funbankapp.security;
+
+/**
+ * Backing state for the rate limiter. The default is {@link InMemoryRateLimitStore};
+ * a multi-node deployment can register its own bean (e.g. backed by Redis) so
+ * every node draws from the same buckets.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Take one token from the bucket identified by {@code key}, creating it
+     * full if it does not exist yet.
+     */
+    RateLimitDecision tryConsume(String key, int capacity, long refillPeriodSeconds);
+
+    /**
+     * Result of a single {@link #tryConsume} call.
+     */
+    final class RateLimitDecision {
+        private final boolean allowed;
+        private final int remaining;
+        private final long retryAfterSeconds;
+
+        public RateLimitDecision(boolean allowed, int remaining, long retryAfterSeconds) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public int getRemaining() {
+            return remaining;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
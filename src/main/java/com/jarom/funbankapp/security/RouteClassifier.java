@@ -0,0 +1,177 @@
+package com.jarom.funbankapp.security;
+
+import com.jarom.funbankapp.config.RateLimitProperties;
+import com.jarom.funbankapp.config.RouteProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps a request path to its {@link RouteRule} using a character trie built once
+ * from configuration. A lookup walks the path a single time and returns one of
+ * the rules created at startup, so it does not allocate.
+ *
+ * Patterns are exact paths, or "prefix/**" which matches the prefix itself and
+ * everything beneath it. When several patterns match, the longest one wins,
+ * independently for the public flag and for the rate limit.
+ */
+@Component
+public class RouteClassifier {
+
+    private final Node root = new Node();
+    // rules[isPublic ? 1 : 0][rateLimitIndex + 1]; index 0 means "not rate limited"
+    private final RouteRule[][] rules;
+
+    @Autowired
+    public RouteClassifier(RouteProperties routeProperties, RateLimitProperties rateLimitProperties) {
+        this(routeProperties.getPublicPaths(), rateLimitProperties.getRoutes());
+    }
+
+    RouteClassifier(List<String> publicPaths, List<RateLimitProperties.Route> rateLimitedRoutes) {
+        rules = new RouteRule[2][rateLimitedRoutes.size() + 1];
+        for (int p = 0; p < 2; p++) {
+            rules[p][0] = new RouteRule(p == 1, null);
+            for (int r = 0; r < rateLimitedRoutes.size(); r++) {
+                rules[p][r + 1] = new RouteRule(p == 1, rateLimitedRoutes.get(r));
+            }
+        }
+
+        for (String pattern : publicPaths) {
+            if (isPrefixPattern(pattern)) {
+                insert(stripPrefixPattern(pattern)).prefixPublic = true;
+            } else {
+                insert(pattern).isPublic = true;
+            }
+        }
+        for (int r = 0; r < rateLimitedRoutes.size(); r++) {
+            String pattern = rateLimitedRoutes.get(r).getPath();
+            // First declaration wins when the same pattern is configured twice
+            if (isPrefixPattern(pattern)) {
+                Node node = insert(stripPrefixPattern(pattern));
+                if (node.prefixRateLimitIndex < 0) {
+                    node.prefixRateLimitIndex = r;
+                }
+            } else {
+                Node node = insert(pattern);
+                if (node.rateLimitIndex < 0) {
+                    node.rateLimitIndex = r;
+                }
+            }
+        }
+    }
+
+    public RouteRule classify(String path) {
+        boolean isPublic = false;
+        int rateLimitIndex = -1;
+        Node node = root;
+        int length = path.length();
+
+        for (int i = 0; i <= length; i++) {
+            // A "prefix/**" rule only applies on a segment boundary, so "/docs/**"
+            // covers "/docs" and "/docs/a" but not "/docsearch".
+            if (i == length || path.charAt(i) == '/') {
+                if (node.prefixPublic) {
+                    isPublic = true;
+                }
+                if (node.prefixRateLimitIndex >= 0) {
+                    rateLimitIndex = node.prefixRateLimitIndex;
+                }
+            }
+            if (i == length) {
+                if (node.isPublic) {
+                    isPublic = true;
+                }
+                if (node.rateLimitIndex >= 0) {
+                    rateLimitIndex = node.rateLimitIndex;
+                }
+                break;
+            }
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                break;
+            }
+        }
+        return rules[isPublic ? 1 : 0][rateLimitIndex + 1];
+    }
+
+    private static boolean isPrefixPattern(String pattern) {
+        return pattern.endsWith("/**");
+    }
+
+    private static String stripPrefixPattern(String pattern) {
+        return pattern.substring(0, pattern.length() - 3);
+    }
+
+    private Node insert(String path) {
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.getOrCreateChild(path.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Classification of a route: whether it skips authentication, and which
+     * rate limit policy (if any) applies to it.
+     */
+    public static final class RouteRule {
+        private final boolean isPublic;
+        private final RateLimitProperties.Route rateLimit;
+
+        private RouteRule(boolean isPublic, RateLimitProperties.Route rateLimit) {
+            this.isPublic = isPublic;
+            this.rateLimit = rateLimit;
+        }
+
+        public boolean isPublic() {
+            return isPublic;
+        }
+
+        public boolean isAuthenticated() {
+            return !isPublic;
+        }
+
+        public boolean isRateLimited() {
+            return rateLimit != null;
+        }
+
+        public RateLimitProperties.Route getRateLimit() {
+            return rateLimit;
+        }
+    }
+
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private boolean isPublic;
+        private int rateLimitIndex = -1;
+        private boolean prefixPublic;
+        private int prefixRateLimitIndex = -1;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrCreateChild(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = c;
+            newChildren[insertAt] = new Node();
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+    }
+}
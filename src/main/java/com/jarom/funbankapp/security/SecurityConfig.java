@@ -2,6 +2,10 @@ package com.jarom.funbankapp.security;
 
 import java.util.Arrays;
 
+import com.jarom.funbankapp.config.PasswordHashingProperties;
+import com.jarom.funbankapp.config.RouteProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -23,9 +27,11 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final RouteProperties routeProperties;
 
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter) {
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter, RouteProperties routeProperties) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.routeProperties = routeProperties;
     }
 
     @Bean
@@ -33,14 +39,7 @@ public class SecurityConfig {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(
-                                "/api/auth/login",
-                                "/api/auth/register",
-                                "/api/health",
-                                "/swagger-ui.html",
-                                "/swagger-ui/**",
-                                "/v3/api-docs/**"
-                        ).permitAll()
+                        .requestMatchers(routeProperties.getPublicPaths().toArray(String[]::new)).permitAll()
                         .anyRequest().authenticated()
                 )
                 .csrf(csrf -> csrf.disable())
@@ -66,10 +65,14 @@ public class SecurityConfig {
         return source;
     }
 
-    //    Added hashing here.
+    //    Added hashing here. BCrypt runs on its own bounded pool, off the request threads.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(properties.getStrength()),
+                properties.getThreads(),
+                properties.getQueueCapacity(),
+                meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,83 @@
+package com.jarom.funbankapp.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived cache of login credentials, keyed by whatever the user typed
+ * (username or email). Only the username and password hash are kept; callers
+ * build a fresh UserDetails from them, because Spring Security erases the
+ * password on the UserDetails instance after a successful authentication.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public UserDetailsCache(@Value("${app.security.user-cache.ttl-seconds:60}") long ttlSeconds,
+                            @Value("${app.security.user-cache.max-entries:1000}") int maxEntries) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+    }
+
+    public Entry get(String login) {
+        Entry entry = entries.get(login);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt > ttlNanos) {
+            entries.remove(login, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    public void put(String login, String username, String passwordHash) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            long now = System.nanoTime();
+            entries.values().removeIf(e -> now - e.loadedAt > ttlNanos);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(login, new Entry(username, passwordHash, System.nanoTime()));
+    }
+
+    /**
+     * Drop every cached login (username and email keys alike) that resolves to this user.
+     */
+    public void evictUser(String username) {
+        if (username != null) {
+            entries.values().removeIf(e -> e.username.equals(username));
+        }
+    }
+
+    public static final class Entry {
+        private final String username;
+        private final String passwordHash;
+        private final long loadedAt;
+
+        private Entry(String username, String passwordHash, long loadedAt) {
+            this.username = username;
+            this.passwordHash = passwordHash;
+            this.loadedAt = loadedAt;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPasswordHash() {
+            return passwordHash;
+        }
+    }
+}
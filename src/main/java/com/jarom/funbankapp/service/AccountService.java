@@ -31,11 +31,14 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final OwnershipService ownershipService;
 
-    public AccountService(AccountRepository accountRepository, UserRepository userRepository, TransactionRepository transactionRepository) {
+    public AccountService(AccountRepository accountRepository, UserRepository userRepository, TransactionRepository transactionRepository,
+                          OwnershipService ownershipService) {
         this.accountRepository = accountRepository;
         this.userRepository = userRepository;
         this.transactionRepository = transactionRepository;
+        this.ownershipService = ownershipService;
     }
 
     /**
@@ -66,6 +69,7 @@ public class AccountService {
         
         // Save to database
         accountRepository.createAccount(account);
+        ownershipService.invalidate(user.getId(), OwnershipService.ResourceType.ACCOUNT);
         
         // Return DTO
         return convertToDTO(account);
@@ -196,6 +200,7 @@ public class AccountService {
         }
         
         accountRepository.deleteAccount(accountId);
+        ownershipService.invalidate(user.getId(), OwnershipService.ResourceType.ACCOUNT);
     }
 
     /**
@@ -323,8 +328,7 @@ public class AccountService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
-        Account account = accountRepository.findById(accountId).orElse(null);
-        return account != null && account.getUserId().equals(user.getId());
+        return ownershipService.ownsAccount(user.getId(), accountId);
     }
 
     /**
@@ -352,8 +356,7 @@ public class AccountService {
     // Private helper methods
 
     private boolean userOwnsAccount(User user, Long accountId) {
-        List<Account> accounts = accountRepository.findByUserId(user.getId());
-        return accounts.stream().anyMatch(account -> account.getId().equals(accountId));
+        return ownershipService.ownsAccount(user.getId(), accountId);
     }
 
     private void validateAccountType(AccountDTO.AccountType accountType) {
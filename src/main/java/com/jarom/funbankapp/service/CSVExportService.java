@@ -11,30 +11,30 @@ public interface CSVExportService {
     /**
      * Export data to CSV format
      */
-    File exportData(Long userId, ExportRequest request, String filePath);
+    File exportData(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export transactions to CSV
      */
-    File exportTransactions(Long userId, ExportRequest request, String filePath);
+    File exportTransactions(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export debts to CSV
      */
-    File exportDebts(Long userId, ExportRequest request, String filePath);
+    File exportDebts(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export budgets to CSV
      */
-    File exportBudgets(Long userId, ExportRequest request, String filePath);
+    File exportBudgets(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export goals to CSV
      */
-    File exportGoals(Long userId, ExportRequest request, String filePath);
+    File exportGoals(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export all financial data to CSV
      */
-    File exportAllData(Long userId, ExportRequest request, String filePath);
+    File exportAllData(Long userId, ExportRequest request, String filePath, ExportProgress progress);
 } 
\ No newline at end of file
@@ -1,14 +1,25 @@
 package com.jarom.funbankapp.service;
 
 import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.model.Budget;
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.model.Goal;
+import com.jarom.funbankapp.repository.BudgetRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.GoalRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
@@ -20,137 +31,241 @@ public class CSVExportServiceImpl implements CSVExportService {
 
     private static final Logger logger = LoggerFactory.getLogger(CSVExportServiceImpl.class);
 
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final TransactionRepository transactionRepository;
+    private final DebtRepository debtRepository;
+    private final BudgetRepository budgetRepository;
+    private final GoalRepository goalRepository;
+    private final ExportSectionLoader exportSectionLoader;
+    private final ExportCompression exportCompression;
+    private final int fetchSize;
+
+    public CSVExportServiceImpl(TransactionRepository transactionRepository, DebtRepository debtRepository,
+                                BudgetRepository budgetRepository, GoalRepository goalRepository,
+                                ExportSectionLoader exportSectionLoader, ExportCompression exportCompression,
+                                @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.transactionRepository = transactionRepository;
+        this.debtRepository = debtRepository;
+        this.budgetRepository = budgetRepository;
+        this.goalRepository = goalRepository;
+        this.exportSectionLoader = exportSectionLoader;
+        this.exportCompression = exportCompression;
+        this.fetchSize = fetchSize;
+    }
+
     @Override
-    public File exportData(Long userId, ExportRequest request, String filePath) {
+    public File exportData(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting data to CSV for user {}: type={}", userId, request.getExportType());
 
         switch (request.getExportType().toLowerCase()) {
             case "transactions":
-                return exportTransactions(userId, request, filePath);
+                return exportTransactions(userId, request, filePath, progress);
             case "debts":
-                return exportDebts(userId, request, filePath);
+                return exportDebts(userId, request, filePath, progress);
             case "budgets":
-                return exportBudgets(userId, request, filePath);
+                return exportBudgets(userId, request, filePath, progress);
             case "goals":
-                return exportGoals(userId, request, filePath);
+                return exportGoals(userId, request, filePath, progress);
             case "all":
-                return exportAllData(userId, request, filePath);
+                return exportAllData(userId, request, filePath, progress);
             default:
                 throw new RuntimeException("Unsupported export type: " + request.getExportType());
         }
     }
 
     @Override
-    public File exportTransactions(Long userId, ExportRequest request, String filePath) {
+    public File exportTransactions(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting transactions to CSV for user {}", userId);
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write CSV header
-            writer.write("Date,Description,Amount,Category,Account,Type\n");
+        long started = System.nanoTime();
+        try (CsvWriter csv = new CsvWriter(exportCompression.newChannel(Paths.get(filePath)))) {
+            csv.row("Date", "Description", "Amount", "Category", "Account", "Type");
 
-            // For now, write sample data
-            // In a real implementation, this would query the database
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            writer.write(String.format("%s,Sample Transaction,100.00,Groceries,Checking,Expense\n", timestamp));
-            writer.write(String.format("%s,Salary Deposit,2500.00,Income,Checking,Income\n", timestamp));
+            transactionRepository.streamForExport(userId, request.getStartDate(), request.getEndDate(),
+                    request.getAfterTransactionId(), request.getThroughTransactionId(), fetchSize, rs -> {
+                try {
+                    csv.field(format(rs.getTimestamp(1)))
+                            .field(rs.getString(2))
+                            .field(rs.getBigDecimal(3))
+                            .field(rs.getString(4))
+                            .field(rs.getString(5))
+                            .field(rs.getString(6))
+                            .endRow();
+                    progress.rowWritten();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
 
-            logger.info("Transactions exported successfully to: {}", filePath);
+            long rows = csv.getRowCount() - 1;
+            long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            logger.info("Transactions exported successfully to: {} ({} rows in {} ms, {} rows/s)",
+                    filePath, rows, elapsedMillis, rows * 1000 / elapsedMillis);
             return new File(filePath);
 
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             logger.error("Failed to export transactions to CSV", e);
             throw new RuntimeException("Failed to export transactions", e);
         }
     }
 
     @Override
-    public File exportDebts(Long userId, ExportRequest request, String filePath) {
+    public File exportDebts(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting debts to CSV for user {}", userId);
-
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write CSV header
-            writer.write("Debt Name,Original Amount,Current Balance,Interest Rate,Minimum Payment,Due Date,Type\n");
-
-            // For now, write sample data
-            // In a real implementation, this would query the debt management system
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            writer.write(String.format("Credit Card 1,5000.00,3200.00,18.99,150.00,%s,Credit Card\n", timestamp));
-            writer.write(String.format("Student Loan,25000.00,22000.00,5.50,200.00,%s,Student Loan\n", timestamp));
-
-            logger.info("Debts exported successfully to: {}", filePath);
-            return new File(filePath);
-
-        } catch (IOException e) {
-            logger.error("Failed to export debts to CSV", e);
-            throw new RuntimeException("Failed to export debts", e);
-        }
+        return write(filePath, "debts", csv -> {
+            csv.row("Name", "Type", "Original Amount", "Current Balance", "Interest Rate (%)", "Minimum Payment",
+                    "Due Day", "Priority", "Status");
+            List<Debt> debts = debtRepository.findByUserId(userId);
+            progress.expect(debts.size());
+            for (Debt debt : debts) {
+                csv.field(debt.getName())
+                        .field(debt.getDebtType())
+                        .field(debt.getOriginalAmount())
+                        .field(debt.getCurrentBalance())
+                        .field(debt.getInterestRate())
+                        .field(debt.getMinimumPayment());
+                if (debt.getDueDate() != null) {
+                    csv.field(debt.getDueDate());
+                } else {
+                    csv.field((String) null);
+                }
+                csv.field(debt.getPriority())
+                        .field(debt.getStatus())
+                        .endRow();
+                progress.rowWritten();
+            }
+        });
     }
 
     @Override
-    public File exportBudgets(Long userId, ExportRequest request, String filePath) {
+    public File exportBudgets(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting budgets to CSV for user {}", userId);
-
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write CSV header
-            writer.write("Category,Budget Amount,Spent Amount,Remaining,Percentage Used\n");
-
-            // For now, write sample data
-            writer.write("Groceries,500.00,320.00,180.00,64.00%\n");
-            writer.write("Entertainment,200.00,150.00,50.00,75.00%\n");
-            writer.write("Transportation,300.00,280.00,20.00,93.33%\n");
-
-            logger.info("Budgets exported successfully to: {}", filePath);
-            return new File(filePath);
-
-        } catch (IOException e) {
-            logger.error("Failed to export budgets to CSV", e);
-            throw new RuntimeException("Failed to export budgets", e);
-        }
+        return write(filePath, "budgets", csv -> {
+            csv.row("Name", "Category", "Period", "Amount", "Spent", "Remaining", "Start Date", "End Date");
+            List<Budget> budgets = budgetRepository.findByUserId(userId);
+            progress.expect(budgets.size());
+            for (Budget budget : budgets) {
+                BigDecimal spent = budget.getSpent() != null ? budget.getSpent() : BigDecimal.ZERO;
+                csv.field(budget.getName())
+                        .field(budget.getCategory())
+                        .field(budget.getPeriod())
+                        .field(budget.getAmount())
+                        .field(spent)
+                        .field(budget.getAmount() != null ? budget.getAmount().subtract(spent) : null)
+                        .field(format(budget.getStartDate()))
+                        .field(format(budget.getEndDate()))
+                        .endRow();
+                progress.rowWritten();
+            }
+        });
     }
 
     @Override
-    public File exportGoals(Long userId, ExportRequest request, String filePath) {
+    public File exportGoals(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting goals to CSV for user {}", userId);
-
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write CSV header
-            writer.write("Goal Name,Target Amount,Current Amount,Progress,Target Date,Status\n");
-
-            // For now, write sample data
-            String timestamp = LocalDateTime.now().plusMonths(6).format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            writer.write(String.format("Emergency Fund,10000.00,7500.00,75.00,%s,In Progress\n", timestamp));
-            writer.write(String.format("Vacation Fund,5000.00,3000.00,60.00,%s,In Progress\n", timestamp));
-
-            logger.info("Goals exported successfully to: {}", filePath);
-            return new File(filePath);
-
-        } catch (IOException e) {
-            logger.error("Failed to export goals to CSV", e);
-            throw new RuntimeException("Failed to export goals", e);
-        }
+        return write(filePath, "goals", csv -> {
+            csv.row("Name", "Type", "Target Amount", "Current Amount", "Progress (%)", "Deadline", "Status");
+            List<Goal> goals = goalRepository.findByUserId(userId);
+            progress.expect(goals.size());
+            for (Goal goal : goals) {
+                BigDecimal percent = null;
+                if (goal.getTargetAmount() != null && goal.getTargetAmount().signum() > 0
+                        && goal.getCurrentAmount() != null) {
+                    percent = goal.getCurrentAmount().multiply(BigDecimal.valueOf(100))
+                            .divide(goal.getTargetAmount(), 2, RoundingMode.HALF_UP);
+                }
+                csv.field(goal.getName())
+                        .field(goal.getType())
+                        .field(goal.getTargetAmount())
+                        .field(goal.getCurrentAmount())
+                        .field(percent)
+                        .field(format(goal.getDeadline()))
+                        .field(goal.getStatus())
+                        .endRow();
+                progress.rowWritten();
+            }
+        });
     }
 
     @Override
-    public File exportAllData(Long userId, ExportRequest request, String filePath) {
+    public File exportAllData(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting all financial data to CSV for user {}", userId);
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write comprehensive CSV header
-            writer.write("Data Type,Date,Description,Amount,Category,Account,Type,Status\n");
+        // Debts, budgets and goals load while the transactions stream
+        try (ExportSectionLoader.Sections sections = exportSectionLoader.load(userId, progress);
+             CsvWriter csv = new CsvWriter(exportCompression.newChannel(Paths.get(filePath)))) {
+            csv.row("Data Type", "Date", "Description", "Amount", "Category", "Account", "Type", "Status");
 
-            // For now, write sample data from all categories
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            writer.write(String.format("Transaction,%s,Grocery Shopping,85.50,Groceries,Checking,Expense,Completed\n", timestamp));
-            writer.write(String.format("Debt,%s,Credit Card Payment,150.00,Credit Card,Checking,Payment,Completed\n", timestamp));
-            writer.write(String.format("Budget,%s,Monthly Budget,2000.00,Monthly,Checking,Budget,Active\n", timestamp));
-            writer.write(String.format("Goal,%s,Emergency Fund,500.00,Savings,Savings,Goal,In Progress\n", timestamp));
+            transactionRepository.streamForExport(userId, request.getStartDate(), request.getEndDate(),
+                    request.getAfterTransactionId(), request.getThroughTransactionId(), fetchSize, rs -> {
+                try {
+                    csv.field("Transaction")
+                            .field(format(rs.getTimestamp(1)))
+                            .field(rs.getString(2))
+                            .field(rs.getBigDecimal(3))
+                            .field(rs.getString(4))
+                            .field(rs.getString(5))
+                            .field(rs.getString(6))
+                            .field((String) null)
+                            .endRow();
+                    progress.rowWritten();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
 
-            logger.info("All financial data exported successfully to: {}", filePath);
+            List<Debt> debts = sections.debts();
+            progress.expect(debts.size());
+            for (Debt debt : debts) {
+                csv.field("Debt").field(format(debt.getStartDate())).field(debt.getName())
+                        .field(debt.getCurrentBalance()).field(debt.getDebtType()).field((String) null)
+                        .field((String) null).field(debt.getStatus()).endRow();
+                progress.rowWritten();
+            }
+            List<Budget> budgets = sections.budgets();
+            progress.expect(budgets.size());
+            for (Budget budget : budgets) {
+                csv.field("Budget").field(format(budget.getStartDate())).field(budget.getName())
+                        .field(budget.getAmount()).field(budget.getCategory()).field((String) null)
+                        .field(budget.getPeriod()).field((String) null).endRow();
+                progress.rowWritten();
+            }
+            List<Goal> goals = sections.goals();
+            progress.expect(goals.size());
+            for (Goal goal : goals) {
+                csv.field("Goal").field(format(goal.getDeadline())).field(goal.getName())
+                        .field(goal.getTargetAmount()).field((String) null).field((String) null)
+                        .field(goal.getType()).field(goal.getStatus()).endRow();
+                progress.rowWritten();
+            }
+
+            logger.info("All financial data exported successfully to: {} ({} rows)", filePath, csv.getRowCount() - 1);
             return new File(filePath);
 
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             logger.error("Failed to export all data to CSV", e);
             throw new RuntimeException("Failed to export all data", e);
         }
     }
-} 
\ No newline at end of file
+
+    private static String format(Timestamp timestamp) {
+        return timestamp == null ? null : DATE_FORMAT.format(timestamp.toLocalDateTime());
+    }
+
+    private File write(String filePath, String section, CsvSection body) {
+        try (CsvWriter csv = new CsvWriter(exportCompression.newChannel(Paths.get(filePath)))) {
+            body.write(csv);
+            logger.info("{} exported successfully to: {} ({} rows)", section, filePath, csv.getRowCount() - 1);
+            return new File(filePath);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to export {} to CSV", section, e);
+            throw new RuntimeException("Failed to export " + section, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CsvSection {
+        void write(CsvWriter csv) throws IOException;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.jarom.funbankapp.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes RFC 4180 CSV straight to a channel.
+ *
+ * Each row is assembled in a reused char buffer, encoded to UTF-8 into a
+ * reused byte buffer, and only written to the channel when that fills up,
+ * so memory use stays the same however many rows go through it. Fields containing a comma, quote or line
+ * break are quoted, with embedded quotes doubled.
+ */
+public final class CsvWriter implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer out;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private CharBuffer row = CharBuffer.allocate(1024);
+    private boolean firstField = true;
+    private long rows;
+
+    public CsvWriter(Path path) throws IOException {
+        this(path, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvWriter(Path path, int bufferSize) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), bufferSize);
+    }
+
+    /**
+     * Writes to any channel, e.g. one that compresses. The writer closes it.
+     */
+    public CsvWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    private CsvWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        // Only a file channel can hand a direct buffer to the OS without copying it first
+        this.out = channel instanceof FileChannel ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Writes a whole row, typically the header.
+     */
+    public CsvWriter row(String... fields) throws IOException {
+        for (String field : fields) {
+            field(field);
+        }
+        return endRow();
+    }
+
+    public CsvWriter field(String value) {
+        separator();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (needsQuoting(value)) {
+            append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    append('"');
+                }
+                append(c);
+            }
+            append('"');
+        } else {
+            append(value);
+        }
+        return this;
+    }
+
+    public CsvWriter field(BigDecimal value) {
+        separator();
+        if (value != null) {
+            append(value.toPlainString());
+        }
+        return this;
+    }
+
+    public CsvWriter field(long value) {
+        separator();
+        append(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Terminates the current row with CRLF and hands it to the encoder.
+     */
+    public CsvWriter endRow() throws IOException {
+        append('\r');
+        append('\n');
+        row.flip();
+        while (true) {
+            CoderResult result = encoder.encode(row, out, false);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        // Rows end in CRLF, so the encoder never holds back half a surrogate pair
+        row.clear();
+        firstField = true;
+        rows++;
+        return this;
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+            if (channel instanceof FileChannel fileChannel) {
+                fileChannel.force(false);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void separator() {
+        if (firstField) {
+            firstField = false;
+        } else {
+            append(',');
+        }
+    }
+
+    private void append(char c) {
+        if (!row.hasRemaining()) {
+            grow(1);
+        }
+        row.put(c);
+    }
+
+    private void append(String s) {
+        if (row.remaining() < s.length()) {
+            grow(s.length());
+        }
+        row.put(s);
+    }
+
+    private void grow(int needed) {
+        CharBuffer bigger = CharBuffer.allocate(Math.max(row.capacity() * 2, row.position() + needed));
+        row.flip();
+        bigger.put(row);
+        row = bigger;
+    }
+
+    private void drain() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,289 @@
+package com.jarom.funbankapp.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.jarom.funbankapp.dto.PayoffRiskRequest;
+
+/**
+ * Monte Carlo payoff risk: the amortization of {@link DebtPayoffSimulator},
+ * run over many paths that each draw their own rate changes, missed
+ * payments and income shocks.
+ *
+ * Each month of a path may move the market rate, which every variable-rate
+ * debt follows by the same normally distributed step, floored at zero. A
+ * missed month pays nothing while interest still accrues. An income shock
+ * cuts the budget for a run of months; the minimums are paid from what is
+ * left, in the strategy's order, before any extra.
+ *
+ * Paths are split into ranges on a fork/join pool. Each range gets its own
+ * {@link SplittableRandom}, split from its parent's before the range is
+ * forked, so the tree of generators depends only on the seed and the path
+ * count, never on which thread ran what: a seed gives the same answer on
+ * any pool.
+ */
+@Component
+public class DebtPayoffMonteCarlo implements DisposableBean {
+
+    /** Paths one task runs before it is worth splitting further. */
+    private static final int PATHS_PER_TASK = 256;
+
+    private final ForkJoinPool pool;
+
+    public DebtPayoffMonteCarlo(@Value("${app.debt.monte-carlo.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Runs {@code request.getPaths()} paths of up to
+     * {@code request.getHorizonMonths()} months each.
+     */
+    public Result simulate(DebtPayoffSimulator simulator, long monthlyBudget, int[] order, PayoffRiskRequest request,
+                           long seed) {
+        if (monthlyBudget < simulator.totalMinimumPayment()) {
+            throw new IllegalArgumentException("Invalid monthly payment: " + DebtPayoffSimulator.fromCents(monthlyBudget)
+                    + " does not cover the minimum payments of "
+                    + DebtPayoffSimulator.fromCents(simulator.totalMinimumPayment()));
+        }
+        Model model = new Model(simulator, monthlyBudget, order, request);
+        int[] months = new int[request.getPaths()];
+        long[] interest = new long[request.getPaths()];
+        pool.invoke(new Paths(model, months, interest, 0, months.length, new SplittableRandom(seed)));
+        return new Result(months, interest);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    /** The inputs every path shares, converted once. */
+    private static final class Model {
+        private final int debts;
+        private final long[] balances;
+        private final long[] annualRates;
+        private final long[] minimumPayments;
+        private final boolean[] variableRate;
+        private final long totalBalance;
+        private final int[] order;
+        private final long budget;
+        private final long shockedBudget;
+        private final int horizon;
+        private final double rateChangeProbability;
+        private final double rateChangeStdDev;
+        private final double missedPaymentProbability;
+        private final double incomeShockProbability;
+        private final int incomeShockMonths;
+
+        private Model(DebtPayoffSimulator simulator, long budget, int[] order, PayoffRiskRequest request) {
+            this.debts = simulator.size();
+            this.balances = new long[debts];
+            this.annualRates = new long[debts];
+            this.minimumPayments = new long[debts];
+            this.variableRate = new boolean[debts];
+            List<String> variableTypes = request.getVariableRateTypes() != null ? request.getVariableRateTypes() : List.of();
+            for (int i = 0; i < debts; i++) {
+                balances[i] = simulator.balance(i);
+                annualRates[i] = simulator.annualRate(i);
+                minimumPayments[i] = simulator.minimumPayment(i);
+                String debtType = simulator.debt(i).getDebtType();
+                // Stored types are upper case (CREDIT_CARD), request types usually lower
+                variableRate[i] = variableTypes.stream().anyMatch(type -> type.equalsIgnoreCase(debtType));
+            }
+            this.totalBalance = simulator.totalBalance();
+            this.order = order;
+            this.budget = budget;
+            this.shockedBudget = Math.round(budget * (1 - request.getIncomeShockSeverity()));
+            this.horizon = request.getHorizonMonths();
+            this.rateChangeProbability = request.getRateChangeProbability();
+            // Percentage points to the rate's millionths
+            this.rateChangeStdDev = request.getRateChangeStdDev() * 10_000;
+            this.missedPaymentProbability = request.getMissedPaymentProbability();
+            this.incomeShockProbability = request.getIncomeShockProbability();
+            this.incomeShockMonths = request.getIncomeShockMonths();
+        }
+    }
+
+    private static final class Paths extends RecursiveAction {
+        private final Model model;
+        private final int[] months;
+        private final long[] interest;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        private Paths(Model model, int[] months, long[] interest, int from, int to, SplittableRandom random) {
+            this.model = model;
+            this.months = months;
+            this.interest = interest;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PATHS_PER_TASK) {
+                long[] balance = new long[model.debts];
+                long[] rate = new long[model.debts];
+                for (int path = from; path < to; path++) {
+                    run(path, balance, rate);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            SplittableRandom left = random.split();
+            invokeAll(new Paths(model, months, interest, from, middle, left),
+                    new Paths(model, months, interest, middle, to, random));
+        }
+
+        private void run(int path, long[] balance, long[] rate) {
+            Model m = model;
+            System.arraycopy(m.balances, 0, balance, 0, m.debts);
+            System.arraycopy(m.annualRates, 0, rate, 0, m.debts);
+            long remaining = m.totalBalance;
+            long totalInterest = 0;
+            int shockLeft = 0;
+            int month = 0;
+            while (remaining > 0 && month < m.horizon) {
+                month++;
+                if (m.rateChangeProbability > 0 && random.nextDouble() < m.rateChangeProbability) {
+                    long step = Math.round(random.nextGaussian() * m.rateChangeStdDev);
+                    for (int i = 0; i < m.debts; i++) {
+                        if (m.variableRate[i]) {
+                            rate[i] = Math.max(0, rate[i] + step);
+                        }
+                    }
+                }
+                if (shockLeft == 0 && m.incomeShockProbability > 0 && random.nextDouble() < m.incomeShockProbability) {
+                    shockLeft = m.incomeShockMonths;
+                }
+                long available = m.budget;
+                if (shockLeft > 0) {
+                    available = m.shockedBudget;
+                    shockLeft--;
+                }
+                if (m.missedPaymentProbability > 0 && random.nextDouble() < m.missedPaymentProbability) {
+                    available = 0;
+                }
+
+                long accrued = 0;
+                for (int i = 0; i < m.debts; i++) {
+                    if (balance[i] > 0) {
+                        long owed = DebtPayoffSimulator.monthlyInterest(balance[i], rate[i]);
+                        balance[i] += owed;
+                        accrued += owed;
+                    }
+                }
+                long paid = 0;
+                for (int k = 0; k < m.order.length && available > 0; k++) {
+                    int i = m.order[k];
+                    long payment = Math.min(Math.min(m.minimumPayments[i], balance[i]), available);
+                    balance[i] -= payment;
+                    available -= payment;
+                    paid += payment;
+                }
+                for (int k = 0; k < m.order.length && available > 0; k++) {
+                    int i = m.order[k];
+                    long payment = Math.min(available, balance[i]);
+                    balance[i] -= payment;
+                    available -= payment;
+                    paid += payment;
+                }
+                remaining += accrued - paid;
+                totalInterest += accrued;
+                if (remaining > DebtPayoffSimulator.RUNAWAY_FACTOR * m.totalBalance) {
+                    break;
+                }
+            }
+            months[path] = remaining == 0 ? month : 0;
+            interest[path] = totalInterest;
+        }
+    }
+
+    /**
+     * The paths' outcomes. Months count from 1; a path that wasn't debt-free
+     * by the horizon has no payoff month.
+     */
+    public static final class Result {
+
+        // Ascending, paths never paid off last
+        private final int[] sortedMonths;
+        private final long[] sortedInterest;
+        private final int paidOff;
+
+        private Result(int[] months, long[] interest) {
+            int paid = 0;
+            for (int i = 0; i < months.length; i++) {
+                if (months[i] == 0) {
+                    months[i] = Integer.MAX_VALUE;
+                } else {
+                    paid++;
+                }
+            }
+            Arrays.sort(months);
+            Arrays.sort(interest);
+            this.sortedMonths = months;
+            this.sortedInterest = interest;
+            this.paidOff = paid;
+        }
+
+        public int getPaths() {
+            return sortedMonths.length;
+        }
+
+        /** Share of paths debt-free within the horizon. */
+        public double getProbabilityPaidOff() {
+            return (double) paidOff / sortedMonths.length;
+        }
+
+        /** Share of paths debt-free by the end of month {@code month}. */
+        public double getProbabilityPaidOffBy(int month) {
+            // Paths never paid off sort last, so this counts only those that were
+            int low = 0;
+            int high = sortedMonths.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sortedMonths[middle] <= month) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return (double) low / sortedMonths.length;
+        }
+
+        /**
+         * The payoff month by which {@code percentile} of paths are debt-free
+         * (nearest rank), or 0 if that many never were within the horizon.
+         */
+        public int getPayoffMonthPercentile(double percentile) {
+            int month = sortedMonths[rank(percentile)];
+            return month == Integer.MAX_VALUE ? 0 : month;
+        }
+
+        /** Total interest at this percentile of paths, in cents. */
+        public long getInterestPercentile(double percentile) {
+            return sortedInterest[rank(percentile)];
+        }
+
+        public long getAverageInterest() {
+            long sum = 0;
+            for (long value : sortedInterest) {
+                sum += value;
+            }
+            return sum / sortedInterest.length;
+        }
+
+        private int rank(double percentile) {
+            return Math.max(0, (int) Math.ceil(percentile * sortedMonths.length) - 1);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.jarom.funbankapp.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.jarom.funbankapp.model.Debt;
+
+/**
+ * Month-by-month amortization of a user's debts under a fixed monthly budget.
+ *
+ * Each month every open debt accrues a twelfth of its annual rate, then gets
+ * its minimum payment, and whatever is left of the budget goes to the open
+ * debts in the given order. A paid-off debt's minimum stays in the budget,
+ * so it rolls over to the next debt in line.
+ *
+ * Money is held in long cents and rates in long millionths (percent to four
+ * decimals), so a run is a few array passes per month with no allocation
+ * beyond its own working arrays. The debts are read once, when the
+ * simulator is built; after that it is immutable and can run any number of
+ * orders and budgets, from any number of threads.
+ */
+public final class DebtPayoffSimulator {
+
+    /** Longest schedule simulated; a budget that hasn't cleared the debts in 100 years never will. */
+    public static final int MAX_MONTHS = 1200;
+
+    /** A balance that has grown to this many times its start is not going to be paid off. */
+    static final long RUNAWAY_FACTOR = 100;
+    private static final int RATE_DECIMALS = 4;
+    // Annual percent at four decimals to a monthly fraction
+    private static final long MONTHLY_RATE_DIVISOR = 12L * 100 * 10_000;
+
+    private final List<Debt> debts;
+    private final long[] balances;
+    private final long[] annualRates;
+    private final long[] minimumPayments;
+    private final int[] priorityRanks;
+    private final long totalBalance;
+    private final long totalMinimumPayment;
+
+    /**
+     * Takes the debts with a positive balance; a missing rate or minimum
+     * payment counts as zero.
+     *
+     * @throws IllegalArgumentException if a rate or minimum payment is negative
+     */
+    public DebtPayoffSimulator(List<Debt> debts) {
+        this.debts = debts.stream()
+                .filter(debt -> debt.getCurrentBalance() != null && debt.getCurrentBalance().signum() > 0)
+                .toList();
+        int count = this.debts.size();
+        this.balances = new long[count];
+        this.annualRates = new long[count];
+        this.minimumPayments = new long[count];
+        this.priorityRanks = new int[count];
+        long balance = 0;
+        long minimum = 0;
+        for (int i = 0; i < count; i++) {
+            Debt debt = this.debts.get(i);
+            balances[i] = toCents(debt.getCurrentBalance());
+            annualRates[i] = debt.getInterestRate() != null ? toRate(debt.getInterestRate()) : 0;
+            minimumPayments[i] = debt.getMinimumPayment() != null ? toCents(debt.getMinimumPayment()) : 0;
+            priorityRanks[i] = "high".equalsIgnoreCase(debt.getPriority()) ? 0
+                    : "low".equalsIgnoreCase(debt.getPriority()) ? 2 : 1;
+            if (annualRates[i] < 0 || minimumPayments[i] < 0) {
+                throw new IllegalArgumentException("Invalid debt " + debt.getId() + ": negative rate or minimum payment");
+            }
+            balance += balances[i];
+            minimum += minimumPayments[i];
+        }
+        this.totalBalance = balance;
+        this.totalMinimumPayment = minimum;
+    }
+
+    public int size() {
+        return debts.size();
+    }
+
+    /** The debt at simulator index {@code i}, as used in orders and results. */
+    public Debt debt(int i) {
+        return debts.get(i);
+    }
+
+    long balance(int i) {
+        return balances[i];
+    }
+
+    long annualRate(int i) {
+        return annualRates[i];
+    }
+
+    long minimumPayment(int i) {
+        return minimumPayments[i];
+    }
+
+    public long totalBalance() {
+        return totalBalance;
+    }
+
+    public long totalMinimumPayment() {
+        return totalMinimumPayment;
+    }
+
+    /** Smallest balance first; ties go to the higher rate. */
+    public int[] snowballOrder() {
+        return order(Comparator.<Integer>comparingLong(i -> balances[i])
+                .thenComparing(Comparator.<Integer>comparingLong(i -> annualRates[i]).reversed()));
+    }
+
+    /** Highest rate first; ties go to the smaller balance. */
+    public int[] avalancheOrder() {
+        return order(Comparator.<Integer>comparingLong(i -> annualRates[i]).reversed()
+                .thenComparingLong(i -> balances[i]));
+    }
+
+    /**
+     * Largest minimum payment for the balance first, so each payoff frees
+     * the most monthly cash for the debts after it.
+     */
+    public int[] paymentRatioOrder() {
+        return order(Comparator.<Integer>comparingDouble(i -> (double) minimumPayments[i] / balances[i]).reversed()
+                .thenComparingLong(i -> balances[i]));
+    }
+
+    /** The user's priorities, high to low, and the avalanche order within each. */
+    public int[] priorityOrder() {
+        return order(Comparator.<Integer>comparingInt(i -> priorityRanks[i])
+                .thenComparing(Comparator.<Integer>comparingLong(i -> annualRates[i]).reversed())
+                .thenComparingLong(i -> balances[i]));
+    }
+
+    private int[] order(Comparator<Integer> comparator) {
+        List<Integer> indexes = new ArrayList<>(balances.length);
+        for (int i = 0; i < balances.length; i++) {
+            indexes.add(i);
+        }
+        indexes.sort(comparator);
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Runs the schedule to payoff, to {@link #MAX_MONTHS}, or until the
+     * balance has run away from a budget that doesn't cover the interest.
+     *
+     * @param monthlyBudget cents paid each month, minimums included
+     * @param order simulator indexes in the order extra payments go to; an
+     *              empty order pays the minimums alone, nothing rolling over
+     * @param recordSchedule whether to keep the month-by-month totals
+     */
+    public Result run(long monthlyBudget, int[] order, boolean recordSchedule) {
+        if (monthlyBudget < totalMinimumPayment) {
+            throw new IllegalArgumentException("Invalid monthly payment: " + fromCents(monthlyBudget)
+                    + " does not cover the minimum payments of " + fromCents(totalMinimumPayment));
+        }
+        int count = balances.length;
+        long[] balance = balances.clone();
+        long[] interestByDebt = new long[count];
+        int[] payoffMonths = new int[count];
+        long[] schedulePayment = recordSchedule ? new long[MAX_MONTHS] : null;
+        long[] scheduleInterest = recordSchedule ? new long[MAX_MONTHS] : null;
+        long[] scheduleBalance = recordSchedule ? new long[MAX_MONTHS] : null;
+
+        long remaining = totalBalance;
+        long totalInterest = 0;
+        int month = 0;
+        while (remaining > 0 && month < MAX_MONTHS) {
+            month++;
+            long interest = 0;
+            long available = monthlyBudget;
+            for (int i = 0; i < count; i++) {
+                if (balance[i] == 0) {
+                    continue;
+                }
+                long accrued = monthlyInterest(balance[i], annualRates[i]);
+                balance[i] += accrued;
+                interestByDebt[i] += accrued;
+                interest += accrued;
+                long payment = Math.min(minimumPayments[i], balance[i]);
+                balance[i] -= payment;
+                available -= payment;
+            }
+            for (int k = 0; k < order.length && available > 0; k++) {
+                int i = order[k];
+                long payment = Math.min(available, balance[i]);
+                balance[i] -= payment;
+                available -= payment;
+            }
+
+            long paid = monthlyBudget - available;
+            remaining += interest - paid;
+            totalInterest += interest;
+            for (int i = 0; i < count; i++) {
+                if (balance[i] == 0 && payoffMonths[i] == 0) {
+                    payoffMonths[i] = month;
+                }
+            }
+            if (recordSchedule) {
+                schedulePayment[month - 1] = paid;
+                scheduleInterest[month - 1] = interest;
+                scheduleBalance[month - 1] = remaining;
+            }
+            if (remaining > RUNAWAY_FACTOR * totalBalance) {
+                break;
+            }
+        }
+        return new Result(month, remaining == 0, totalInterest, payoffMonths, interestByDebt, balance,
+                schedulePayment, scheduleInterest, scheduleBalance);
+    }
+
+    /** A month's interest in cents, rounded half up, on a balance at an annual rate in millionths. */
+    static long monthlyInterest(long balance, long annualRate) {
+        return (Math.multiplyExact(balance, annualRate) + MONTHLY_RATE_DIVISOR / 2) / MONTHLY_RATE_DIVISOR;
+    }
+
+    /** Converts an annual percentage to the millionths rates are held in. */
+    static long toRate(BigDecimal percent) {
+        return percent.setScale(RATE_DECIMALS, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * One run's outcome. Amounts are in cents; per-debt arrays are by
+     * simulator index.
+     */
+    public static final class Result {
+
+        private final int months;
+        private final boolean paidOff;
+        private final long totalInterest;
+        private final int[] payoffMonths;
+        private final long[] interestByDebt;
+        private final long[] remainingBalances;
+        private final long[] schedulePayment;
+        private final long[] scheduleInterest;
+        private final long[] scheduleBalance;
+
+        private Result(int months, boolean paidOff, long totalInterest, int[] payoffMonths, long[] interestByDebt,
+                       long[] remainingBalances, long[] schedulePayment, long[] scheduleInterest,
+                       long[] scheduleBalance) {
+            this.months = months;
+            this.paidOff = paidOff;
+            this.totalInterest = totalInterest;
+            this.payoffMonths = payoffMonths;
+            this.interestByDebt = interestByDebt;
+            this.remainingBalances = remainingBalances;
+            this.schedulePayment = schedulePayment;
+            this.scheduleInterest = scheduleInterest;
+            this.scheduleBalance = scheduleBalance;
+        }
+
+        /** Months simulated: to payoff, or as far as the run went if the debts were never cleared. */
+        public int getMonths() {
+            return months;
+        }
+
+        public boolean isPaidOff() {
+            return paidOff;
+        }
+
+        public long getTotalInterest() {
+            return totalInterest;
+        }
+
+        /** The month debt {@code i} was paid off in, counting from 1, or 0 if it never was. */
+        public int getPayoffMonth(int i) {
+            return payoffMonths[i];
+        }
+
+        public long getInterest(int i) {
+            return interestByDebt[i];
+        }
+
+        public long getRemainingBalance(int i) {
+            return remainingBalances[i];
+        }
+
+        public boolean hasSchedule() {
+            return schedulePayment != null;
+        }
+
+        /** Paid in month {@code month}, counting from 1; only with a recorded schedule. */
+        public long getPayment(int month) {
+            return schedulePayment[month - 1];
+        }
+
+        public long getInterestForMonth(int month) {
+            return scheduleInterest[month - 1];
+        }
+
+        /** Total owed at the end of month {@code month}. */
+        public long getBalanceAfter(int month) {
+            return scheduleBalance[month - 1];
+        }
+    }
+}
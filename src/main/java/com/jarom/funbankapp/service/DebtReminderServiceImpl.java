@@ -30,11 +30,14 @@ public class DebtReminderServiceImpl implements DebtReminderService {
     private final DebtReminderRepository debtReminderRepository;
     private final DebtRepository debtRepository;
     private final UserRepository userRepository;
+    private final OwnershipService ownershipService;
 
-    public DebtReminderServiceImpl(DebtReminderRepository debtReminderRepository, DebtRepository debtRepository, UserRepository userRepository) {
+    public DebtReminderServiceImpl(DebtReminderRepository debtReminderRepository, DebtRepository debtRepository, UserRepository userRepository,
+                                   OwnershipService ownershipService) {
         this.debtReminderRepository = debtReminderRepository;
         this.debtRepository = debtRepository;
         this.userRepository = userRepository;
+        this.ownershipService = ownershipService;
     }
 
     @Override
@@ -45,12 +48,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
         // Verify user owns the debt
-        Debt debt = debtRepository.findById(reminderDTO.getDebtId())
-                .orElseThrow(() -> new ResourceNotFoundException("Debt", "id", reminderDTO.getDebtId()));
-        
-        if (!debt.getUserId().equals(user.getId())) {
-            throw new UnauthorizedException("You don't own this debt");
-        }
+        verifyDebtOwnership(user, reminderDTO.getDebtId(), "You don't own this debt");
         
         // Validate reminder data
         validateReminderData(reminderDTO);
@@ -82,8 +80,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
         // Get all user's debts
-        List<Debt> userDebts = debtRepository.findByUserId(user.getId());
-        List<Long> debtIds = userDebts.stream().map(Debt::getId).collect(Collectors.toList());
+        OwnershipService.OwnedIds debtIds = ownershipService.ownedIds(user.getId(), OwnershipService.ResourceType.DEBT);
         
         // Get all reminders for user's debts
         List<DebtReminder> reminders = debtReminderRepository.findAll().stream()
@@ -102,12 +99,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
         // Verify user owns the debt
-        Debt debt = debtRepository.findById(debtId)
-                .orElseThrow(() -> new ResourceNotFoundException("Debt", "id", debtId));
-        
-        if (!debt.getUserId().equals(user.getId())) {
-            throw new UnauthorizedException("You don't own this debt");
-        }
+        verifyDebtOwnership(user, debtId, "You don't own this debt");
         
         List<DebtReminder> reminders = debtReminderRepository.findByDebtId(debtId);
         return reminders.stream()
@@ -125,12 +117,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("DebtReminder", "id", reminderId));
         
         // Verify user owns the debt
-        Debt debt = debtRepository.findById(reminder.getDebtId())
-                .orElseThrow(() -> new ResourceNotFoundException("Debt", "id", reminder.getDebtId()));
-        
-        if (!debt.getUserId().equals(user.getId())) {
-            throw new UnauthorizedException("You don't own this reminder");
-        }
+        verifyDebtOwnership(user, reminder.getDebtId(), "You don't own this reminder");
         
         return convertToDTO(reminder);
     }
@@ -146,12 +133,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("DebtReminder", "id", reminderId));
         
         // Verify user owns the debt
-        Debt debt = debtRepository.findById(reminder.getDebtId())
-                .orElseThrow(() -> new ResourceNotFoundException("Debt", "id", reminder.getDebtId()));
-        
-        if (!debt.getUserId().equals(user.getId())) {
-            throw new UnauthorizedException("You don't own this reminder");
-        }
+        verifyDebtOwnership(user, reminder.getDebtId(), "You don't own this reminder");
         
         // Validate reminder data
         validateReminderData(reminderDTO);
@@ -192,12 +174,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("DebtReminder", "id", reminderId));
         
         // Verify user owns the debt
-        Debt debt = debtRepository.findById(reminder.getDebtId())
-                .orElseThrow(() -> new ResourceNotFoundException("Debt", "id", reminder.getDebtId()));
-        
-        if (!debt.getUserId().equals(user.getId())) {
-            throw new UnauthorizedException("You don't own this reminder");
-        }
+        verifyDebtOwnership(user, reminder.getDebtId(), "You don't own this reminder");
         
         debtReminderRepository.deleteById(reminderId);
     }
@@ -213,12 +190,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("DebtReminder", "id", reminderId));
         
         // Verify user owns the debt
-        Debt debt = debtRepository.findById(reminder.getDebtId())
-                .orElseThrow(() -> new ResourceNotFoundException("Debt", "id", reminder.getDebtId()));
-        
-        if (!debt.getUserId().equals(user.getId())) {
-            throw new UnauthorizedException("You don't own this reminder");
-        }
+        verifyDebtOwnership(user, reminder.getDebtId(), "You don't own this reminder");
         
         reminder.setIsSent(true);
         reminder.setSentDate(new Timestamp(System.currentTimeMillis()));
@@ -236,8 +208,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
         // Get all user's debts
-        List<Debt> userDebts = debtRepository.findByUserId(user.getId());
-        List<Long> debtIds = userDebts.stream().map(Debt::getId).collect(Collectors.toList());
+        OwnershipService.OwnedIds debtIds = ownershipService.ownedIds(user.getId(), OwnershipService.ResourceType.DEBT);
         
         // Calculate date range
         LocalDateTime now = LocalDateTime.now();
@@ -265,8 +236,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
         // Get all user's debts
-        List<Debt> userDebts = debtRepository.findByUserId(user.getId());
-        List<Long> debtIds = userDebts.stream().map(Debt::getId).collect(Collectors.toList());
+        OwnershipService.OwnedIds debtIds = ownershipService.ownedIds(user.getId(), OwnershipService.ResourceType.DEBT);
         
         LocalDateTime now = LocalDateTime.now();
         
@@ -322,8 +292,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
         // Get all user's debts
-        List<Debt> userDebts = debtRepository.findByUserId(user.getId());
-        List<Long> debtIds = userDebts.stream().map(Debt::getId).collect(Collectors.toList());
+        OwnershipService.OwnedIds debtIds = ownershipService.ownedIds(user.getId(), OwnershipService.ResourceType.DEBT);
         
         // Get all reminders for user's debts
         List<DebtReminder> reminders = debtReminderRepository.findAll().stream()
@@ -347,15 +316,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
         return debtReminderRepository.findById(reminderId)
-                .map(reminder -> {
-                    try {
-                        Debt debt = debtRepository.findById(reminder.getDebtId())
-                                .orElse(null);
-                        return debt != null && debt.getUserId().equals(user.getId());
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
+                .map(reminder -> ownershipService.ownsDebt(user.getId(), reminder.getDebtId()))
                 .orElse(false);
     }
 
@@ -370,12 +331,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("DebtReminder", "id", reminderId));
         
         // Verify user owns the debt
-        Debt debt = debtRepository.findById(reminder.getDebtId())
-                .orElseThrow(() -> new ResourceNotFoundException("Debt", "id", reminder.getDebtId()));
-        
-        if (!debt.getUserId().equals(user.getId())) {
-            throw new UnauthorizedException("You don't own this reminder");
-        }
+        verifyDebtOwnership(user, reminder.getDebtId(), "You don't own this reminder");
         
         reminder.setIsActive(true);
         reminder.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
@@ -396,12 +352,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("DebtReminder", "id", reminderId));
         
         // Verify user owns the debt
-        Debt debt = debtRepository.findById(reminder.getDebtId())
-                .orElseThrow(() -> new ResourceNotFoundException("Debt", "id", reminder.getDebtId()));
-        
-        if (!debt.getUserId().equals(user.getId())) {
-            throw new UnauthorizedException("You don't own this reminder");
-        }
+        verifyDebtOwnership(user, reminder.getDebtId(), "You don't own this reminder");
         
         reminder.setIsActive(false);
         reminder.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
@@ -418,8 +369,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
         // Get all user's debts
-        List<Debt> userDebts = debtRepository.findByUserId(user.getId());
-        List<Long> debtIds = userDebts.stream().map(Debt::getId).collect(Collectors.toList());
+        OwnershipService.OwnedIds debtIds = ownershipService.ownedIds(user.getId(), OwnershipService.ResourceType.DEBT);
         
         // Get active reminders
         List<DebtReminder> reminders = debtReminderRepository.findAll().stream()
@@ -483,12 +433,7 @@ public class DebtReminderServiceImpl implements DebtReminderService {
                 .orElseThrow(() -> new ResourceNotFoundException("DebtReminder", "id", reminderId));
         
         // Verify user owns the debt
-        Debt debt = debtRepository.findById(reminder.getDebtId())
-                .orElseThrow(() -> new ResourceNotFoundException("Debt", "id", reminder.getDebtId()));
-        
-        if (!debt.getUserId().equals(user.getId())) {
-            throw new UnauthorizedException("You don't own this reminder");
-        }
+        verifyDebtOwnership(user, reminder.getDebtId(), "You don't own this reminder");
         
         // Snooze the reminder by updating the reminder date
         LocalDateTime currentReminderDate = reminder.getReminderDate().toLocalDateTime();
@@ -508,6 +453,17 @@ public class DebtReminderServiceImpl implements DebtReminderService {
         return authentication.getName();
     }
     
+    private void verifyDebtOwnership(User user, Long debtId, String message) {
+        if (ownershipService.ownsDebt(user.getId(), debtId)) {
+            return;
+        }
+        // Only hit the debts table on the failure path, to tell "missing" from "not yours"
+        if (debtRepository.findById(debtId).isEmpty()) {
+            throw new ResourceNotFoundException("Debt", "id", debtId);
+        }
+        throw new UnauthorizedException(message);
+    }
+    
     private void validateReminderData(DebtReminderDTO reminderDTO) {
         if (reminderDTO.getDebtId() == null) {
             throw new IllegalArgumentException("Debt ID is required");
@@ -6,6 +6,7 @@ import java.util.Map;
 
 import com.jarom.funbankapp.dto.DebtDTO;
 import com.jarom.funbankapp.dto.DebtPaymentDTO;
+import com.jarom.funbankapp.dto.PayoffRiskRequest;
 
 /**
  * Service layer for debt management operations
@@ -75,13 +76,23 @@ public interface DebtService {
     Map<String, Object> getDebtAnalysis();
     
     /**
-     * Calculate debt payoff timeline
-     * @param monthlyPaymentAmount amount available for debt repayment
-     * @param strategy repayment strategy (snowball, avalanche)
-     * @return payoff timeline data
+     * Calculate debt payoff timeline: a month-by-month simulation with interest
+     * accrual, minimum payments on every debt, and the rest of the budget going
+     * to the debts in strategy order
+     * @param monthlyPaymentAmount amount available for debt repayment, minimums included
+     * @param strategy repayment strategy (snowball, avalanche, optimal)
+     * @return payoff timeline data: schedule, total interest and payoff date
      */
     Map<String, Object> calculatePayoffTimeline(BigDecimal monthlyPaymentAmount, String strategy);
     
+    /**
+     * Simulate payoff risk over many random paths of rate changes, missed payments
+     * and income shocks
+     * @param request budget, strategy and the shock model
+     * @return payoff date percentiles and the probability of being debt-free by the target date
+     */
+    Map<String, Object> simulatePayoffRisk(PayoffRiskRequest request);
+    
     /**
      * Get debts by type
      * @param debtType type of debt to filter by
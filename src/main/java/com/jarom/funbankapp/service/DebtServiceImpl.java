@@ -3,12 +3,16 @@ package com.jarom.funbankapp.service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 import org.springframework.security.core.Authentication;
@@ -18,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.jarom.funbankapp.dto.DebtDTO;
 import com.jarom.funbankapp.dto.DebtPaymentDTO;
+import com.jarom.funbankapp.dto.PayoffRiskRequest;
 import com.jarom.funbankapp.exception.ResourceNotFoundException;
 import com.jarom.funbankapp.exception.UnauthorizedException;
 import com.jarom.funbankapp.model.Debt;
@@ -33,11 +38,16 @@ public class DebtServiceImpl implements DebtService {
     private final DebtRepository debtRepository;
     private final DebtPaymentRepository debtPaymentRepository;
     private final UserRepository userRepository;
+    private final OwnershipService ownershipService;
+    private final DebtPayoffMonteCarlo debtPayoffMonteCarlo;
 
-    public DebtServiceImpl(DebtRepository debtRepository, DebtPaymentRepository debtPaymentRepository, UserRepository userRepository) {
+    public DebtServiceImpl(DebtRepository debtRepository, DebtPaymentRepository debtPaymentRepository, UserRepository userRepository,
+                           OwnershipService ownershipService, DebtPayoffMonteCarlo debtPayoffMonteCarlo) {
         this.debtRepository = debtRepository;
         this.debtPaymentRepository = debtPaymentRepository;
         this.userRepository = userRepository;
+        this.ownershipService = ownershipService;
+        this.debtPayoffMonteCarlo = debtPayoffMonteCarlo;
     }
 
     @Override
@@ -69,6 +79,7 @@ public class DebtServiceImpl implements DebtService {
         
         // Save to database
         Debt savedDebt = debtRepository.save(debt);
+        ownershipService.invalidate(user.getId(), OwnershipService.ResourceType.DEBT);
         
         return convertToDTO(savedDebt);
     }
@@ -175,6 +186,7 @@ public class DebtServiceImpl implements DebtService {
         }
         
         debtRepository.deleteById(debtId);
+        ownershipService.invalidate(user.getId(), OwnershipService.ResourceType.DEBT);
     }
 
     @Override
@@ -320,63 +332,116 @@ public class DebtServiceImpl implements DebtService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
-        List<Debt> debts = debtRepository.findByUserId(user.getId());
+        if (monthlyPaymentAmount == null || monthlyPaymentAmount.signum() <= 0) {
+            throw new IllegalArgumentException("Monthly payment amount must be positive");
+        }
         
-        if (debts.isEmpty()) {
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(debtRepository.findByUserId(user.getId()));
+        if (simulator.size() == 0) {
             return Map.of("message", "No debts found");
         }
         
-        // Sort debts based on strategy
-        List<Debt> sortedDebts = new ArrayList<>(debts);
-        if ("snowball".equals(strategy)) {
-            // Sort by balance (lowest first)
-            sortedDebts.sort(Comparator.comparing(Debt::getCurrentBalance));
-        } else if ("avalanche".equals(strategy)) {
-            // Sort by interest rate (highest first)
-            sortedDebts.sort(Comparator.comparing(Debt::getInterestRate).reversed());
-        }
+        long budget = DebtPayoffSimulator.toCents(monthlyPaymentAmount);
+        int[] order = strategyOrder(simulator, strategy, budget);
+        DebtPayoffSimulator.Result result = simulator.run(budget, order, true);
+        LocalDate start = LocalDate.now();
         
         Map<String, Object> timeline = new HashMap<>();
-        timeline.put("strategy", strategy);
+        timeline.put("strategy", strategy.toLowerCase());
         timeline.put("monthlyPaymentAmount", monthlyPaymentAmount);
-        timeline.put("totalDebtAmount", getTotalDebtAmount());
-        
-        // Calculate payoff timeline (simplified calculation)
-        BigDecimal remainingPayment = monthlyPaymentAmount;
-        int totalMonths = 0;
+        timeline.put("totalDebtAmount", DebtPayoffSimulator.fromCents(simulator.totalBalance()));
+        timeline.put("totalMinimumPayment", DebtPayoffSimulator.fromCents(simulator.totalMinimumPayment()));
+        timeline.put("paidOff", result.isPaidOff());
+        timeline.put("totalMonthsToPayoff", result.getMonths());
+        timeline.put("payoffDate", result.isPaidOff() ? start.plusMonths(result.getMonths()) : null);
+        timeline.put("totalInterest", DebtPayoffSimulator.fromCents(result.getTotalInterest()));
+        
+        // Debts in the order they are paid off; any never paid off come last
         List<Map<String, Object>> payoffOrder = new ArrayList<>();
-        
-        for (Debt debt : sortedDebts) {
-            if (debt.getCurrentBalance().compareTo(BigDecimal.ZERO) <= 0) {
-                continue;
-            }
-            
-            BigDecimal debtBalance = debt.getCurrentBalance();
-            int monthsToPayoff = 0;
-            
-            while (debtBalance.compareTo(BigDecimal.ZERO) > 0 && remainingPayment.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal payment = remainingPayment.min(debtBalance);
-                debtBalance = debtBalance.subtract(payment);
-                remainingPayment = remainingPayment.subtract(payment);
-                monthsToPayoff++;
-            }
-            
+        for (int i : order) {
+            Debt debt = simulator.debt(i);
+            int payoffMonth = result.getPayoffMonth(i);
             Map<String, Object> debtPayoff = new HashMap<>();
             debtPayoff.put("debtId", debt.getId());
             debtPayoff.put("debtName", debt.getName());
-            debtPayoff.put("monthsToPayoff", monthsToPayoff);
-            debtPayoff.put("remainingBalance", debtBalance);
+            debtPayoff.put("monthsToPayoff", payoffMonth > 0 ? payoffMonth : null);
+            debtPayoff.put("payoffDate", payoffMonth > 0 ? start.plusMonths(payoffMonth) : null);
+            debtPayoff.put("interestPaid", DebtPayoffSimulator.fromCents(result.getInterest(i)));
+            debtPayoff.put("remainingBalance", DebtPayoffSimulator.fromCents(result.getRemainingBalance(i)));
             payoffOrder.add(debtPayoff);
-            
-            totalMonths += monthsToPayoff;
         }
-        
-        timeline.put("totalMonthsToPayoff", totalMonths);
+        payoffOrder.sort(Comparator.comparing(debtPayoff -> (Integer) debtPayoff.get("monthsToPayoff"),
+                Comparator.nullsLast(Comparator.naturalOrder())));
         timeline.put("payoffOrder", payoffOrder);
         
+        List<Map<String, Object>> schedule = new ArrayList<>(result.getMonths());
+        for (int month = 1; month <= result.getMonths(); month++) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("month", month);
+            entry.put("date", start.plusMonths(month));
+            entry.put("payment", DebtPayoffSimulator.fromCents(result.getPayment(month)));
+            entry.put("interest", DebtPayoffSimulator.fromCents(result.getInterestForMonth(month)));
+            entry.put("principal", DebtPayoffSimulator.fromCents(result.getPayment(month) - result.getInterestForMonth(month)));
+            entry.put("remainingBalance", DebtPayoffSimulator.fromCents(result.getBalanceAfter(month)));
+            schedule.add(entry);
+        }
+        timeline.put("schedule", schedule);
+        
         return timeline;
     }
 
+    @Override
+    public Map<String, Object> simulatePayoffRisk(PayoffRiskRequest request) {
+        String username = getCurrentUsername();
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(debtRepository.findByUserId(user.getId()));
+        if (simulator.size() == 0) {
+            return Map.of("message", "No debts found");
+        }
+        
+        long budget = DebtPayoffSimulator.toCents(request.getMonthlyPaymentAmount());
+        int[] order = strategyOrder(simulator, request.getStrategy(), budget);
+        // The plan with nothing going wrong, to measure the paths against
+        DebtPayoffSimulator.Result expected = simulator.run(budget, order, false);
+        // Without a seed draw one, and report it so the run can be repeated
+        long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+        DebtPayoffMonteCarlo.Result paths = debtPayoffMonteCarlo.simulate(simulator, budget, order, request, seed);
+        
+        LocalDate start = LocalDate.now();
+        LocalDate targetDate = request.getTargetDate();
+        if (targetDate == null && expected.isPaidOff()) {
+            targetDate = start.plusMonths(expected.getMonths());
+        }
+        
+        Map<String, Object> risk = new HashMap<>();
+        risk.put("strategy", request.getStrategy());
+        risk.put("monthlyPaymentAmount", request.getMonthlyPaymentAmount());
+        risk.put("totalDebtAmount", DebtPayoffSimulator.fromCents(simulator.totalBalance()));
+        risk.put("paths", paths.getPaths());
+        risk.put("horizonMonths", request.getHorizonMonths());
+        risk.put("seed", seed);
+        risk.put("expectedMonthsToPayoff", expected.isPaidOff() ? expected.getMonths() : null);
+        risk.put("expectedPayoffDate", expected.isPaidOff() ? start.plusMonths(expected.getMonths()) : null);
+        risk.put("probabilityPaidOffWithinHorizon", paths.getProbabilityPaidOff());
+        risk.put("targetDate", targetDate);
+        risk.put("probabilityDebtFreeByTarget", targetDate != null
+                ? paths.getProbabilityPaidOffBy((int) ChronoUnit.MONTHS.between(start, targetDate)) : null);
+        
+        // A percentile past the horizon has no date: that share of paths was still in debt
+        Map<String, Object> payoffDates = new LinkedHashMap<>();
+        for (int percentile : new int[] {10, 25, 50, 75, 90}) {
+            int month = paths.getPayoffMonthPercentile(percentile / 100.0);
+            payoffDates.put("p" + percentile, month > 0 ? start.plusMonths(month) : null);
+        }
+        risk.put("payoffDatePercentiles", payoffDates);
+        risk.put("averageTotalInterest", DebtPayoffSimulator.fromCents(paths.getAverageInterest()));
+        risk.put("medianTotalInterest", DebtPayoffSimulator.fromCents(paths.getInterestPercentile(0.5)));
+        risk.put("p90TotalInterest", DebtPayoffSimulator.fromCents(paths.getInterestPercentile(0.9)));
+        return risk;
+    }
+
     @Override
     public List<DebtDTO> getDebtsByType(String debtType) {
         String username = getCurrentUsername();
@@ -433,12 +498,24 @@ public class DebtServiceImpl implements DebtService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
-        return debtRepository.findById(debtId)
-                .map(debt -> debt.getUserId().equals(user.getId()))
-                .orElse(false);
+        return ownershipService.ownsDebt(user.getId(), debtId);
     }
 
     // Helper methods
+    // Extra payments go to the debts in strategy order
+    private int[] strategyOrder(DebtPayoffSimulator simulator, String strategy, long budget) {
+        if ("snowball".equalsIgnoreCase(strategy)) {
+            return simulator.snowballOrder();
+        }
+        if ("avalanche".equalsIgnoreCase(strategy)) {
+            return simulator.avalancheOrder();
+        }
+        if ("optimal".equalsIgnoreCase(strategy)) {
+            return DebtPayoffOptimizer.solve(simulator, budget, DebtPayoffOptimizer.Objective.INTEREST);
+        }
+        throw new IllegalArgumentException("Invalid strategy: " + strategy + " (expected snowball, avalanche or optimal)");
+    }
+
     private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         return authentication.getName();
@@ -0,0 +1,286 @@
+package com.jarom.funbankapp.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.repository.DataVersionRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+
+/**
+ * Runs a user's debts through every repayment scenario at one monthly
+ * budget and compares payoff time and interest.
+ *
+ * The scenarios and a minimum-payments-only baseline run side by side on a
+ * small shared pool, each through {@link DebtPayoffSimulator}. Outcomes are
+ * memoized per user, debts data version and budget, so moving the budget
+ * slider back to an earlier value, or asking again before any debt changes,
+ * costs one version query. Any write to the user's debts changes the
+ * version, which leaves the old entries to age out of the LRU.
+ */
+@Component
+public class DebtStrategyComparison implements DisposableBean {
+
+    public enum Scenario {
+        SNOWBALL("snowball", "Pay off debts starting with the smallest balance first"),
+        AVALANCHE("avalanche", "Pay off debts starting with the highest interest rate first"),
+        HIGHEST_PAYMENT_RATIO("highestPaymentRatio",
+                "Pay off debts with the largest minimum payment for their balance first, freeing cash soonest"),
+        CUSTOM_PRIORITY("customPriority", "Pay off debts in your priority order, highest interest rate first within a priority"),
+        CONSOLIDATION("consolidation", "Roll every debt into one loan at the consolidation rate"),
+        OPTIMAL("optimal", "Pay off debts in the order that costs the least interest");
+
+        private final String key;
+        private final String description;
+
+        Scenario(String key, String description) {
+            this.key = key;
+            this.description = description;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private final DebtRepository debtRepository;
+    private final DataVersionRepository dataVersionRepository;
+    private final BigDecimal defaultConsolidationRate;
+    private final int cacheSize;
+    private final ExecutorService executor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // In access order; guarded by lock
+    private final LinkedHashMap<String, Outcome> outcomes = new LinkedHashMap<>(16, 0.75f, true);
+
+    public DebtStrategyComparison(DebtRepository debtRepository, DataVersionRepository dataVersionRepository,
+                                  @Value("${app.debt.comparison.consolidation-rate:9.99}") BigDecimal defaultConsolidationRate,
+                                  @Value("${app.debt.comparison.cache-size:1000}") int cacheSize,
+                                  @Value("${app.debt.comparison.threads:4}") int threads) {
+        this.debtRepository = debtRepository;
+        this.dataVersionRepository = dataVersionRepository;
+        this.defaultConsolidationRate = defaultConsolidationRate;
+        this.cacheSize = cacheSize;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads),
+                Thread.ofPlatform().name("debt-comparison-", 0).daemon(true).factory());
+    }
+
+    /**
+     * Compares the scenarios for this user.
+     *
+     * @param monthlyPaymentAmount paid each month, minimums included; null
+     *                             for the minimum payments alone
+     * @param consolidationRate annual percent of the consolidation loan, or
+     *                          null for the configured rate
+     */
+    public Map<String, Object> compare(Long userId, BigDecimal monthlyPaymentAmount, BigDecimal consolidationRate) {
+        if (monthlyPaymentAmount != null && monthlyPaymentAmount.signum() <= 0) {
+            throw new IllegalArgumentException("Monthly payment amount must be positive");
+        }
+        BigDecimal rate = consolidationRate != null ? consolidationRate : defaultConsolidationRate;
+        if (rate.signum() < 0) {
+            throw new IllegalArgumentException("Invalid consolidation rate: " + rate);
+        }
+
+        String key = userId + "|" + dataVersionRepository.findDataVersion(userId, List.of(DataVersionRepository.DEBTS))
+                + "|" + (monthlyPaymentAmount != null ? DebtPayoffSimulator.toCents(monthlyPaymentAmount) : "minimum")
+                + "|" + rate.stripTrailingZeros().toPlainString();
+        Outcome outcome = cached(key);
+        if (outcome == null) {
+            outcome = simulate(debtRepository.findByUserId(userId), monthlyPaymentAmount, rate);
+            lock.lock();
+            try {
+                outcomes.put(key, outcome);
+                if (outcomes.size() > cacheSize) {
+                    outcomes.remove(outcomes.keySet().iterator().next());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return toMap(outcome, LocalDate.now());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private Outcome cached(String key) {
+        lock.lock();
+        try {
+            return outcomes.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Outcome simulate(List<Debt> debts, BigDecimal monthlyPaymentAmount, BigDecimal consolidationRate) {
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(debts);
+        if (simulator.size() == 0) {
+            return new Outcome(simulator, 0, null, null, null);
+        }
+        long budget = monthlyPaymentAmount != null
+                ? DebtPayoffSimulator.toCents(monthlyPaymentAmount) : simulator.totalMinimumPayment();
+        if (budget < simulator.totalMinimumPayment()) {
+            throw new IllegalArgumentException("Invalid monthly payment: " + DebtPayoffSimulator.fromCents(budget)
+                    + " does not cover the minimum payments of "
+                    + DebtPayoffSimulator.fromCents(simulator.totalMinimumPayment()));
+        }
+
+        Map<Scenario, int[]> orders = new EnumMap<>(Scenario.class);
+        orders.put(Scenario.SNOWBALL, simulator.snowballOrder());
+        orders.put(Scenario.AVALANCHE, simulator.avalancheOrder());
+        orders.put(Scenario.HIGHEST_PAYMENT_RATIO, simulator.paymentRatioOrder());
+        orders.put(Scenario.CUSTOM_PRIORITY, simulator.priorityOrder());
+
+        // One loan for the whole balance, its minimum what the debts' minimums came to
+        Debt loan = new Debt();
+        loan.setName("Consolidation loan");
+        loan.setCurrentBalance(DebtPayoffSimulator.fromCents(simulator.totalBalance()));
+        loan.setInterestRate(consolidationRate);
+        loan.setMinimumPayment(DebtPayoffSimulator.fromCents(simulator.totalMinimumPayment()));
+        DebtPayoffSimulator consolidated = new DebtPayoffSimulator(List.of(loan));
+
+        int[] folded = new int[simulator.size()];
+        Arrays.setAll(folded, i -> i);
+        orders.put(Scenario.CONSOLIDATION, folded);
+        // Filled in by its run; reading the run's result makes it visible here
+        int[] optimal = new int[simulator.size()];
+        orders.put(Scenario.OPTIMAL, optimal);
+
+        Map<Scenario, Future<DebtPayoffSimulator.Result>> runs = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            int[] order = orders.get(scenario);
+            if (scenario == Scenario.CONSOLIDATION) {
+                runs.put(scenario, executor.submit(() -> consolidated.run(budget, new int[] {0}, false)));
+            } else if (scenario == Scenario.OPTIMAL) {
+                runs.put(scenario, executor.submit(() -> {
+                    int[] solved = DebtPayoffOptimizer.solve(simulator, budget, DebtPayoffOptimizer.Objective.INTEREST);
+                    System.arraycopy(solved, 0, optimal, 0, solved.length);
+                    return simulator.run(budget, optimal, false);
+                }));
+            } else {
+                runs.put(scenario, executor.submit(() -> simulator.run(budget, order, false)));
+            }
+        }
+        // Each debt gets its minimum and nothing more; a paid-off debt's minimum is not reused
+        Future<DebtPayoffSimulator.Result> baseline = executor.submit(
+                () -> simulator.run(simulator.totalMinimumPayment(), new int[0], false));
+
+        Map<Scenario, DebtPayoffSimulator.Result> results = new EnumMap<>(Scenario.class);
+        try {
+            for (Scenario scenario : Scenario.values()) {
+                results.put(scenario, await(runs.get(scenario)));
+            }
+            return new Outcome(simulator, budget, orders, results, await(baseline));
+        } finally {
+            runs.values().forEach(run -> run.cancel(true));
+            baseline.cancel(true);
+        }
+    }
+
+    private static Map<String, Object> toMap(Outcome outcome, LocalDate start) {
+        DebtPayoffSimulator simulator = outcome.simulator;
+        Map<String, Object> comparison = new HashMap<>();
+        if (simulator.size() == 0) {
+            comparison.put("message", "No valid debts to compare strategies.");
+            return comparison;
+        }
+        comparison.put("monthlyPaymentAmount", DebtPayoffSimulator.fromCents(outcome.budget));
+        comparison.put("totalDebtAmount", DebtPayoffSimulator.fromCents(simulator.totalBalance()));
+        comparison.put("totalMinimumPayment", DebtPayoffSimulator.fromCents(simulator.totalMinimumPayment()));
+
+        DebtPayoffSimulator.Result baseline = outcome.baseline;
+        Map<String, Object> minimumsOnly = result(baseline, start);
+        minimumsOnly.put("description", "Pay only each debt's minimum payment");
+        comparison.put("minimumPaymentsOnly", minimumsOnly);
+
+        Scenario best = null;
+        for (Scenario scenario : Scenario.values()) {
+            DebtPayoffSimulator.Result result = outcome.results.get(scenario);
+            Map<String, Object> strategy = result(result, start);
+            strategy.put("strategyType", scenario.getKey());
+            strategy.put("description", scenario.getDescription());
+            strategy.put("debtOrder", Arrays.stream(outcome.orders.get(scenario))
+                    .mapToObj(i -> simulator.debt(i).getId())
+                    .toList());
+            strategy.put("totalDebts", simulator.size());
+            strategy.put("totalBalance", DebtPayoffSimulator.fromCents(simulator.totalBalance()));
+            // Only a baseline that pays off has a finite cost to save against
+            boolean comparable = result.isPaidOff() && baseline.isPaidOff();
+            strategy.put("interestSaved", comparable
+                    ? DebtPayoffSimulator.fromCents(baseline.getTotalInterest() - result.getTotalInterest()) : null);
+            strategy.put("monthsSaved", comparable ? baseline.getMonths() - result.getMonths() : null);
+            comparison.put(scenario.getKey(), strategy);
+
+            if (result.isPaidOff() && (best == null
+                    || result.getTotalInterest() < outcome.results.get(best).getTotalInterest())) {
+                best = scenario;
+            }
+        }
+        comparison.put("lowestInterestStrategy", best != null ? best.getKey() : null);
+        return comparison;
+    }
+
+    private static Map<String, Object> result(DebtPayoffSimulator.Result result, LocalDate start) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("paidOff", result.isPaidOff());
+        map.put("monthsToPayoff", result.isPaidOff() ? result.getMonths() : null);
+        map.put("payoffDate", result.isPaidOff() ? start.plusMonths(result.getMonths()) : null);
+        map.put("totalInterest", DebtPayoffSimulator.fromCents(result.getTotalInterest()));
+        return map;
+    }
+
+    private static DebtPayoffSimulator.Result await(Future<DebtPayoffSimulator.Result> run) {
+        try {
+            return run.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while comparing debt strategies");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Failed to simulate a debt strategy", e.getCause());
+        }
+    }
+
+    /** One comparison's simulation results, ready to be dated and rendered. */
+    private static final class Outcome {
+        private final DebtPayoffSimulator simulator;
+        private final long budget;
+        private final Map<Scenario, int[]> orders;
+        private final Map<Scenario, DebtPayoffSimulator.Result> results;
+        private final DebtPayoffSimulator.Result baseline;
+
+        private Outcome(DebtPayoffSimulator simulator, long budget, Map<Scenario, int[]> orders,
+                        Map<Scenario, DebtPayoffSimulator.Result> results, DebtPayoffSimulator.Result baseline) {
+            this.simulator = simulator;
+            this.budget = budget;
+            this.orders = orders;
+            this.results = results;
+            this.baseline = baseline;
+        }
+    }
+}
@@ -71,6 +71,15 @@ public interface DebtStrategyService {
      */
     Map<String, Object> generateAvalancheStrategy();
     
+    /**
+     * Generate the optimal strategy: the extra-payment order that minimizes total
+     * interest, or time to payoff, at the given monthly budget
+     * @param monthlyPaymentAmount amount available for debt repayment, minimums included
+     * @param objective what to minimize (interest, time); null for interest
+     * @return strategy recommendation data with its simulated payoff
+     */
+    Map<String, Object> generateOptimalStrategy(BigDecimal monthlyPaymentAmount, String objective);
+    
     /**
      * Calculate strategy effectiveness
      * @param strategyId the strategy ID
@@ -79,10 +88,13 @@ public interface DebtStrategyService {
     Map<String, Object> calculateStrategyEffectiveness(Long strategyId);
     
     /**
-     * Get strategy comparison
-     * @return comparison data for different strategies
+     * Compare repayment strategies by simulating each at the same monthly budget
+     * @param monthlyPaymentAmount amount available for debt repayment, minimums included;
+     *                             null for the minimum payments alone
+     * @param consolidationRate annual rate of the consolidation loan, or null for the default
+     * @return payoff months, total interest and interest saved against minimum payments, per strategy
      */
-    Map<String, Object> compareStrategies();
+    Map<String, Object> compareStrategies(BigDecimal monthlyPaymentAmount, BigDecimal consolidationRate);
     
     /**
      * Check if user owns the strategy
@@ -2,6 +2,8 @@ package com.jarom.funbankapp.service;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -29,11 +31,16 @@ public class DebtStrategyServiceImpl implements DebtStrategyService {
     private final DebtStrategyRepository debtStrategyRepository;
     private final DebtRepository debtRepository;
     private final UserRepository userRepository;
+    private final OwnershipService ownershipService;
+    private final DebtStrategyComparison debtStrategyComparison;
 
-    public DebtStrategyServiceImpl(DebtStrategyRepository debtStrategyRepository, DebtRepository debtRepository, UserRepository userRepository) {
+    public DebtStrategyServiceImpl(DebtStrategyRepository debtStrategyRepository, DebtRepository debtRepository, UserRepository userRepository,
+                                   OwnershipService ownershipService, DebtStrategyComparison debtStrategyComparison) {
         this.debtStrategyRepository = debtStrategyRepository;
         this.debtRepository = debtRepository;
         this.userRepository = userRepository;
+        this.ownershipService = ownershipService;
+        this.debtStrategyComparison = debtStrategyComparison;
     }
 
     @Override
@@ -60,6 +67,7 @@ public class DebtStrategyServiceImpl implements DebtStrategyService {
         
         // Save to database
         DebtStrategy savedStrategy = debtStrategyRepository.save(strategy);
+        ownershipService.invalidate(user.getId(), OwnershipService.ResourceType.DEBT_STRATEGY);
         
         return convertToDTO(savedStrategy);
     }
@@ -146,6 +154,7 @@ public class DebtStrategyServiceImpl implements DebtStrategyService {
         }
         
         debtStrategyRepository.deleteById(strategyId);
+        ownershipService.invalidate(user.getId(), OwnershipService.ResourceType.DEBT_STRATEGY);
     }
 
     @Override
@@ -256,6 +265,62 @@ public class DebtStrategyServiceImpl implements DebtStrategyService {
         return strategy;
     }
 
+    /**
+     * Snowball order for the given debts, as the strategy comparison runs
+     * it: smallest balance first, ties to the higher rate.
+     */
+    public Map<String, Object> generateSnowballStrategy(List<Debt> debts) {
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(debts);
+        return orderedStrategy(simulator, simulator.snowballOrder(), "snowball",
+                "Pay off debts starting with the smallest balance first");
+    }
+
+    /**
+     * Avalanche order for the given debts, as the strategy comparison runs
+     * it: highest rate first, ties to the smaller balance.
+     */
+    public Map<String, Object> generateAvalancheStrategy(List<Debt> debts) {
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(debts);
+        return orderedStrategy(simulator, simulator.avalancheOrder(), "avalanche",
+                "Pay off debts starting with the highest interest rate first");
+    }
+
+    @Override
+    public Map<String, Object> generateOptimalStrategy(BigDecimal monthlyPaymentAmount, String objective) {
+        String username = getCurrentUsername();
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        if (monthlyPaymentAmount == null || monthlyPaymentAmount.signum() <= 0) {
+            throw new IllegalArgumentException("Monthly payment amount must be positive");
+        }
+        DebtPayoffOptimizer.Objective goal = DebtPayoffOptimizer.objective(objective);
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(debtRepository.findByUserId(user.getId()));
+        if (simulator.size() == 0) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("message", "No valid debts to generate optimal strategy.");
+            return result;
+        }
+        long budget = DebtPayoffSimulator.toCents(monthlyPaymentAmount);
+        int[] order = DebtPayoffOptimizer.solve(simulator, budget, goal);
+        DebtPayoffSimulator.Result payoff = simulator.run(budget, order, false);
+        
+        Map<String, Object> strategy = new HashMap<>();
+        strategy.put("strategyType", "optimal");
+        strategy.put("objective", goal.name().toLowerCase());
+        strategy.put("description", goal == DebtPayoffOptimizer.Objective.TIME
+                ? "Pay off debts in the order that clears them soonest"
+                : "Pay off debts in the order that costs the least interest");
+        strategy.put("debtOrder", Arrays.stream(order).mapToObj(i -> simulator.debt(i).getId()).collect(Collectors.toList()));
+        strategy.put("totalDebts", simulator.size());
+        strategy.put("totalBalance", DebtPayoffSimulator.fromCents(simulator.totalBalance()));
+        strategy.put("monthlyPaymentAmount", monthlyPaymentAmount);
+        strategy.put("paidOff", payoff.isPaidOff());
+        strategy.put("monthsToPayoff", payoff.isPaidOff() ? payoff.getMonths() : null);
+        strategy.put("payoffDate", payoff.isPaidOff() ? LocalDate.now().plusMonths(payoff.getMonths()) : null);
+        strategy.put("totalInterest", DebtPayoffSimulator.fromCents(payoff.getTotalInterest()));
+        return strategy;
+    }
+
     @Override
     public Map<String, Object> calculateStrategyEffectiveness(Long strategyId) {
         String username = getCurrentUsername();
@@ -296,61 +361,11 @@ public class DebtStrategyServiceImpl implements DebtStrategyService {
     }
 
     @Override
-    public Map<String, Object> compareStrategies() {
+    public Map<String, Object> compareStrategies(BigDecimal monthlyPaymentAmount, BigDecimal consolidationRate) {
         String username = getCurrentUsername();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-        List<Debt> debts = debtRepository.findByUserId(user.getId());
-        // Filter out debts with nulls in critical fields
-        List<Debt> validDebts = debts.stream()
-            .filter(d -> d.getCurrentBalance() != null && d.getInterestRate() != null && d.getMinimumPayment() != null && d.getPriority() != null)
-            .toList();
-        if (validDebts.isEmpty()) {
-            Map<String, Object> result = new HashMap<>();
-            result.put("message", "No valid debts to compare strategies.");
-            return result;
-        }
-        // Use validDebts for strategy generation
-        Map<String, Object> snowball = generateSnowballStrategy(validDebts);
-        Map<String, Object> avalanche = generateAvalancheStrategy(validDebts);
-        Map<String, Object> comparison = new HashMap<>();
-        comparison.put("snowball", snowball);
-        comparison.put("avalanche", avalanche);
-        return comparison;
-    }
-
-    // Overload strategy methods to accept debts list
-    public Map<String, Object> generateSnowballStrategy(List<Debt> debts) {
-        // Sort by balance (lowest first) for snowball method
-        List<Debt> sortedDebts = debts.stream()
-                .filter(debt -> debt.getCurrentBalance() != null && debt.getCurrentBalance().compareTo(BigDecimal.ZERO) > 0)
-                .sorted(Comparator.comparing(Debt::getCurrentBalance))
-                .collect(Collectors.toList());
-        Map<String, Object> strategy = new HashMap<>();
-        strategy.put("strategyType", "snowball");
-        strategy.put("description", "Pay off debts starting with the smallest balance first");
-        strategy.put("debtOrder", sortedDebts.stream().map(Debt::getId).collect(Collectors.toList()));
-        strategy.put("totalDebts", sortedDebts.size());
-        strategy.put("totalBalance", sortedDebts.stream()
-                .map(Debt::getCurrentBalance)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-        return strategy;
-    }
-    public Map<String, Object> generateAvalancheStrategy(List<Debt> debts) {
-        // Sort by interest rate (highest first) for avalanche method
-        List<Debt> sortedDebts = debts.stream()
-                .filter(debt -> debt.getCurrentBalance() != null && debt.getCurrentBalance().compareTo(BigDecimal.ZERO) > 0 && debt.getInterestRate() != null)
-                .sorted(Comparator.comparing(Debt::getInterestRate).reversed())
-                .collect(Collectors.toList());
-        Map<String, Object> strategy = new HashMap<>();
-        strategy.put("strategyType", "avalanche");
-        strategy.put("description", "Pay off debts starting with the highest interest rate first");
-        strategy.put("debtOrder", sortedDebts.stream().map(Debt::getId).collect(Collectors.toList()));
-        strategy.put("totalDebts", sortedDebts.size());
-        strategy.put("totalBalance", sortedDebts.stream()
-                .map(Debt::getCurrentBalance)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-        return strategy;
+        return debtStrategyComparison.compare(user.getId(), monthlyPaymentAmount, consolidationRate);
     }
 
     @Override
@@ -359,12 +374,22 @@ public class DebtStrategyServiceImpl implements DebtStrategyService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
-        return debtStrategyRepository.findById(strategyId)
-                .map(strategy -> strategy.getUserId().equals(user.getId()))
-                .orElse(false);
+        return ownershipService.ownsStrategy(user.getId(), strategyId);
     }
 
     // Helper methods
+    private static Map<String, Object> orderedStrategy(DebtPayoffSimulator simulator, int[] order, String strategyType,
+                                                       String description) {
+        List<Long> debtOrder = Arrays.stream(order).mapToObj(i -> simulator.debt(i).getId()).toList();
+        Map<String, Object> strategy = new HashMap<>();
+        strategy.put("strategyType", strategyType);
+        strategy.put("description", description);
+        strategy.put("debtOrder", debtOrder);
+        strategy.put("totalDebts", order.length);
+        strategy.put("totalBalance", DebtPayoffSimulator.fromCents(simulator.totalBalance()));
+        return strategy;
+    }
+
     private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         return authentication.getName();
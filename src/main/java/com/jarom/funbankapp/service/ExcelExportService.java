@@ -11,30 +11,30 @@ public interface ExcelExportService {
     /**
      * Export data to Excel format
      */
-    File exportData(Long userId, ExportRequest request, String filePath);
+    File exportData(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export transactions to Excel
      */
-    File exportTransactions(Long userId, ExportRequest request, String filePath);
+    File exportTransactions(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export debts to Excel
      */
-    File exportDebts(Long userId, ExportRequest request, String filePath);
+    File exportDebts(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export budgets to Excel
      */
-    File exportBudgets(Long userId, ExportRequest request, String filePath);
+    File exportBudgets(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export goals to Excel
      */
-    File exportGoals(Long userId, ExportRequest request, String filePath);
+    File exportGoals(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export all financial data to Excel
      */
-    File exportAllData(Long userId, ExportRequest request, String filePath);
+    File exportAllData(Long userId, ExportRequest request, String filePath, ExportProgress progress);
 } 
\ No newline at end of file
@@ -1,172 +1,220 @@
 package com.jarom.funbankapp.service;
 
 import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.model.Budget;
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.model.Goal;
+import com.jarom.funbankapp.repository.BudgetRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.GoalRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
- * Implementation of Excel export service
- * Note: This is a placeholder implementation. In a real application,
- * you would use Apache POI to generate actual Excel files.
+ * Implementation of Excel export service. Workbooks are written as XLSX by
+ * {@link XlsxWriter}, with transactions streamed from the database row by
+ * row; the "all" export puts each data type on its own sheet.
  */
 @Service
 public class ExcelExportServiceImpl implements ExcelExportService {
 
     private static final Logger logger = LoggerFactory.getLogger(ExcelExportServiceImpl.class);
 
+    private final TransactionRepository transactionRepository;
+    private final DebtRepository debtRepository;
+    private final BudgetRepository budgetRepository;
+    private final GoalRepository goalRepository;
+    private final ExportSectionLoader exportSectionLoader;
+    private final int fetchSize;
+
+    public ExcelExportServiceImpl(TransactionRepository transactionRepository, DebtRepository debtRepository,
+                                  BudgetRepository budgetRepository, GoalRepository goalRepository,
+                                  ExportSectionLoader exportSectionLoader,
+                                  @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.transactionRepository = transactionRepository;
+        this.debtRepository = debtRepository;
+        this.budgetRepository = budgetRepository;
+        this.goalRepository = goalRepository;
+        this.exportSectionLoader = exportSectionLoader;
+        this.fetchSize = fetchSize;
+    }
+
     @Override
-    public File exportData(Long userId, ExportRequest request, String filePath) {
+    public File exportData(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting data to Excel for user {}: type={}", userId, request.getExportType());
 
         switch (request.getExportType().toLowerCase()) {
             case "transactions":
-                return exportTransactions(userId, request, filePath);
+                return exportTransactions(userId, request, filePath, progress);
             case "debts":
-                return exportDebts(userId, request, filePath);
+                return exportDebts(userId, request, filePath, progress);
             case "budgets":
-                return exportBudgets(userId, request, filePath);
+                return exportBudgets(userId, request, filePath, progress);
             case "goals":
-                return exportGoals(userId, request, filePath);
+                return exportGoals(userId, request, filePath, progress);
             case "all":
-                return exportAllData(userId, request, filePath);
+                return exportAllData(userId, request, filePath, progress);
             default:
                 throw new RuntimeException("Unsupported export type: " + request.getExportType());
         }
     }
 
     @Override
-    public File exportTransactions(Long userId, ExportRequest request, String filePath) {
+    public File exportTransactions(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting transactions to Excel for user {}", userId);
-
-        // For now, create a simple text file as placeholder
-        try (FileWriter writer = new FileWriter(filePath)) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            
-            writer.write("=== TRANSACTIONS WORKSHEET ===\n");
-            writer.write("Generated: " + timestamp + "\n");
-            writer.write("User ID: " + userId + "\n\n");
-            writer.write("Date\tDescription\tAmount\tCategory\tAccount\tType\n");
-            writer.write(timestamp + "\tSample Transaction\t100.00\tGroceries\tChecking\tExpense\n");
-            writer.write(timestamp + "\tSalary Deposit\t2500.00\tIncome\tChecking\tIncome\n");
-
-            logger.info("Transactions exported successfully to: {}", filePath);
-            return new File(filePath);
-
-        } catch (IOException e) {
-            logger.error("Failed to export transactions to Excel", e);
-            throw new RuntimeException("Failed to export transactions", e);
-        }
+        return write(filePath, "transactions", xlsx -> writeTransactionsSheet(xlsx, userId, request, progress));
     }
 
     @Override
-    public File exportDebts(Long userId, ExportRequest request, String filePath) {
+    public File exportDebts(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting debts to Excel for user {}", userId);
-
-        try (FileWriter writer = new FileWriter(filePath)) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            
-            writer.write("=== DEBTS WORKSHEET ===\n");
-            writer.write("Generated: " + timestamp + "\n");
-            writer.write("User ID: " + userId + "\n\n");
-            writer.write("Debt Name\tOriginal Amount\tCurrent Balance\tInterest Rate\tMin Payment\n");
-            writer.write("Credit Card 1\t5000.00\t3200.00\t18.99\t150.00\n");
-            writer.write("Student Loan\t25000.00\t22000.00\t5.50\t200.00\n");
-
-            logger.info("Debts exported successfully to: {}", filePath);
-            return new File(filePath);
-
-        } catch (IOException e) {
-            logger.error("Failed to export debts to Excel", e);
-            throw new RuntimeException("Failed to export debts", e);
-        }
+        return write(filePath, "debts", xlsx -> writeDebtsSheet(xlsx, debtRepository.findByUserId(userId), progress));
     }
 
     @Override
-    public File exportBudgets(Long userId, ExportRequest request, String filePath) {
+    public File exportBudgets(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting budgets to Excel for user {}", userId);
+        return write(filePath, "budgets", xlsx -> writeBudgetsSheet(xlsx, budgetRepository.findByUserId(userId), progress));
+    }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            
-            writer.write("=== BUDGETS WORKSHEET ===\n");
-            writer.write("Generated: " + timestamp + "\n");
-            writer.write("User ID: " + userId + "\n\n");
-            writer.write("Category\tBudget Amount\tSpent Amount\tRemaining\tPercentage Used\n");
-            writer.write("Groceries\t500.00\t320.00\t180.00\t64.00%\n");
-            writer.write("Entertainment\t200.00\t150.00\t50.00\t75.00%\n");
-
-            logger.info("Budgets exported successfully to: {}", filePath);
-            return new File(filePath);
+    @Override
+    public File exportGoals(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
+        logger.info("Exporting goals to Excel for user {}", userId);
+        return write(filePath, "goals", xlsx -> writeGoalsSheet(xlsx, goalRepository.findByUserId(userId), progress));
+    }
 
-        } catch (IOException e) {
-            logger.error("Failed to export budgets to Excel", e);
-            throw new RuntimeException("Failed to export budgets", e);
+    @Override
+    public File exportAllData(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
+        logger.info("Exporting all financial data to Excel for user {}", userId);
+        // Debts, budgets and goals load while the transactions stream
+        try (ExportSectionLoader.Sections sections = exportSectionLoader.load(userId, progress)) {
+            return write(filePath, "all data", xlsx -> {
+                writeTransactionsSheet(xlsx, userId, request, progress);
+                writeDebtsSheet(xlsx, sections.debts(), progress);
+                writeBudgetsSheet(xlsx, sections.budgets(), progress);
+                writeGoalsSheet(xlsx, sections.goals(), progress);
+            });
         }
     }
 
-    @Override
-    public File exportGoals(Long userId, ExportRequest request, String filePath) {
-        logger.info("Exporting goals to Excel for user {}", userId);
+    private File write(String filePath, String what, SheetWriter sheets) {
+        long started = System.nanoTime();
+        try (XlsxWriter xlsx = new XlsxWriter(Paths.get(filePath))) {
+            sheets.write(xlsx);
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            
-            writer.write("=== GOALS WORKSHEET ===\n");
-            writer.write("Generated: " + timestamp + "\n");
-            writer.write("User ID: " + userId + "\n\n");
-            writer.write("Goal Name\tTarget Amount\tCurrent Amount\tProgress\tTarget Date\n");
-            writer.write("Emergency Fund\t10000.00\t7500.00\t75.00%\t2024-12-31\n");
-            writer.write("Vacation Fund\t5000.00\t3000.00\t60.00%\t2024-06-30\n");
-
-            logger.info("Goals exported successfully to: {}", filePath);
+            long rows = xlsx.getRowCount();
+            long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            logger.info("Exported {} successfully to: {} ({} rows in {} ms, {} rows/s)",
+                    what, filePath, rows, elapsedMillis, rows * 1000 / elapsedMillis);
             return new File(filePath);
 
-        } catch (IOException e) {
-            logger.error("Failed to export goals to Excel", e);
-            throw new RuntimeException("Failed to export goals", e);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to export {} to Excel", what, e);
+            throw new RuntimeException("Failed to export " + what, e);
         }
     }
 
-    @Override
-    public File exportAllData(Long userId, ExportRequest request, String filePath) {
-        logger.info("Exporting all financial data to Excel for user {}", userId);
+    private void writeTransactionsSheet(XlsxWriter xlsx, Long userId, ExportRequest request, ExportProgress progress)
+            throws IOException {
+        xlsx.sheet("Transactions", "Date", "Description", "Amount", "Category", "Account", "Type");
+        transactionRepository.streamForExport(userId, request.getStartDate(), request.getEndDate(),
+                request.getAfterTransactionId(), request.getThroughTransactionId(), fetchSize, rs -> {
+            try {
+                xlsx.field(toLocalDateTime(rs.getTimestamp(1)))
+                        .field(rs.getString(2))
+                        .field(rs.getBigDecimal(3))
+                        .field(rs.getString(4))
+                        .field(rs.getString(5))
+                        .field(rs.getString(6))
+                        .endRow();
+                progress.rowWritten();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            
-            writer.write("=== COMPREHENSIVE FINANCIAL REPORT ===\n");
-            writer.write("Generated: " + timestamp + "\n");
-            writer.write("User ID: " + userId + "\n\n");
-            
-            writer.write("=== TRANSACTIONS SHEET ===\n");
-            writer.write("Date\tDescription\tAmount\tCategory\n");
-            writer.write(timestamp + "\tSample Transaction\t100.00\tGroceries\n\n");
-            
-            writer.write("=== DEBTS SHEET ===\n");
-            writer.write("Debt Name\tCurrent Balance\tInterest Rate\n");
-            writer.write("Credit Card 1\t3200.00\t18.99\n\n");
-            
-            writer.write("=== BUDGETS SHEET ===\n");
-            writer.write("Category\tBudget\tSpent\tRemaining\n");
-            writer.write("Groceries\t500.00\t320.00\t180.00\n\n");
-            
-            writer.write("=== GOALS SHEET ===\n");
-            writer.write("Goal Name\tTarget\tCurrent\tProgress\n");
-            writer.write("Emergency Fund\t10000.00\t7500.00\t75.00%\n");
-
-            logger.info("All financial data exported successfully to: {}", filePath);
-            return new File(filePath);
+    private void writeDebtsSheet(XlsxWriter xlsx, List<Debt> debts, ExportProgress progress) throws IOException {
+        xlsx.sheet("Debts", "Name", "Type", "Original Amount", "Current Balance", "Interest Rate (%)",
+                "Minimum Payment", "Due Day", "Priority", "Status");
+        progress.expect(debts.size());
+        for (Debt debt : debts) {
+            xlsx.field(debt.getName())
+                    .field(debt.getDebtType())
+                    .field(debt.getOriginalAmount())
+                    .field(debt.getCurrentBalance())
+                    .numberField(debt.getInterestRate())
+                    .field(debt.getMinimumPayment());
+            if (debt.getDueDate() != null) {
+                xlsx.field(debt.getDueDate());
+            } else {
+                xlsx.field((String) null);
+            }
+            xlsx.field(debt.getPriority())
+                    .field(debt.getStatus())
+                    .endRow();
+            progress.rowWritten();
+        }
+    }
+
+    private void writeBudgetsSheet(XlsxWriter xlsx, List<Budget> budgets, ExportProgress progress) throws IOException {
+        xlsx.sheet("Budgets", "Name", "Category", "Period", "Amount", "Spent", "Remaining", "Start Date", "End Date");
+        progress.expect(budgets.size());
+        for (Budget budget : budgets) {
+            BigDecimal spent = budget.getSpent() != null ? budget.getSpent() : BigDecimal.ZERO;
+            xlsx.field(budget.getName())
+                    .field(budget.getCategory())
+                    .field(budget.getPeriod())
+                    .field(budget.getAmount())
+                    .field(spent)
+                    .field(budget.getAmount() != null ? budget.getAmount().subtract(spent) : null)
+                    .field(toLocalDateTime(budget.getStartDate()))
+                    .field(toLocalDateTime(budget.getEndDate()))
+                    .endRow();
+            progress.rowWritten();
+        }
+    }
 
-        } catch (IOException e) {
-            logger.error("Failed to export all data to Excel", e);
-            throw new RuntimeException("Failed to export all data", e);
+    private void writeGoalsSheet(XlsxWriter xlsx, List<Goal> goals, ExportProgress progress) throws IOException {
+        xlsx.sheet("Goals", "Name", "Type", "Target Amount", "Current Amount", "Progress (%)", "Deadline", "Status");
+        progress.expect(goals.size());
+        for (Goal goal : goals) {
+            BigDecimal percent = null;
+            if (goal.getTargetAmount() != null && goal.getTargetAmount().signum() > 0 && goal.getCurrentAmount() != null) {
+                percent = goal.getCurrentAmount().multiply(BigDecimal.valueOf(100))
+                        .divide(goal.getTargetAmount(), 2, RoundingMode.HALF_UP);
+            }
+            xlsx.field(goal.getName())
+                    .field(goal.getType())
+                    .field(goal.getTargetAmount())
+                    .field(goal.getCurrentAmount())
+                    .numberField(percent)
+                    .field(toLocalDateTime(goal.getDeadline()))
+                    .field(goal.getStatus())
+                    .endRow();
+            progress.rowWritten();
         }
     }
-} 
\ No newline at end of file
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    @FunctionalInterface
+    private interface SheetWriter {
+        void write(XlsxWriter xlsx) throws IOException;
+    }
+}
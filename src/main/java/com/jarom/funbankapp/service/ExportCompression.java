@@ -0,0 +1,193 @@
+package com.jarom.funbankapp.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compresses text exports (CSV and JSON) while they are written, and helps
+ * the download endpoint serve them.
+ *
+ * Whether a stored file is compressed is recorded in its name (a ".gz"
+ * suffix), so files written before the codec was changed are still served
+ * correctly. XLSX and PDF are left alone since both formats already
+ * compress their contents internally.
+ */
+@Component
+public class ExportCompression {
+
+    public static final String GZIP = "gzip";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String codec;
+    private final int level;
+
+    public ExportCompression(@Value("${app.export.compression.codec:gzip}") String codec,
+                             @Value("${app.export.compression.level:6}") int level) {
+        this.codec = codec.trim().toLowerCase(Locale.ROOT);
+        if (!this.codec.equals("none") && !this.codec.equals(GZIP)) {
+            throw new IllegalArgumentException("Unsupported export compression codec: " + codec
+                    + " (supported: none, gzip)");
+        }
+        if (level < 1 || level > 9) {
+            throw new IllegalArgumentException("Export compression level must be between 1 and 9, was " + level);
+        }
+        this.level = level;
+    }
+
+    /**
+     * The suffix to append to a new export file's name, or "" when this
+     * format is stored as-is.
+     */
+    public String fileSuffix(String format) {
+        if (!codec.equals(GZIP)) {
+            return "";
+        }
+        return "CSV".equalsIgnoreCase(format) || "JSON".equalsIgnoreCase(format) ? GZIP_SUFFIX : "";
+    }
+
+    /**
+     * Opens a channel for writing the export at {@code path}, compressing if
+     * the name says so. Uncompressed files get a plain FileChannel.
+     */
+    public WritableByteChannel newChannel(Path path) throws IOException {
+        if (!isCompressed(path.getFileName().toString())) {
+            return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        return Channels.newChannel(newOutputStream(path));
+    }
+
+    /**
+     * Opens a buffered stream for writing the export at {@code path},
+     * compressing if the name says so.
+     */
+    public OutputStream newOutputStream(Path path) throws IOException {
+        OutputStream file = Files.newOutputStream(path);
+        if (!isCompressed(path.getFileName().toString())) {
+            return new BufferedOutputStream(file, BUFFER_SIZE);
+        }
+        return new LeveledGzipOutputStream(file, BUFFER_SIZE, level);
+    }
+
+    /**
+     * The Content-Encoding a stored file is already in, or null if it is
+     * stored uncompressed.
+     */
+    public String contentEncoding(String fileName) {
+        return isCompressed(fileName) ? GZIP : null;
+    }
+
+    /**
+     * The name the client should see, without the storage suffix.
+     */
+    public String downloadName(String fileName) {
+        return isCompressed(fileName) ? fileName.substring(0, fileName.length() - GZIP_SUFFIX.length()) : fileName;
+    }
+
+    public InputStream decompress(InputStream compressed) throws IOException {
+        return new GZIPInputStream(compressed, BUFFER_SIZE);
+    }
+
+    /**
+     * Appends the export at {@code source} to the one at {@code target},
+     * writing from byte {@code targetSize} on so anything past it, such as
+     * an append that was cut short, is overwritten. Compressed targets get
+     * the source as one more gzip member, which gunzip and HTTP clients read
+     * as part of the same stream. With {@code skipFirstLine} the source's
+     * first line (a CSV header) is left out. Returns the target's new size.
+     */
+    public long append(Path source, Path target, long targetSize, boolean skipFirstLine) throws IOException {
+        boolean sourceCompressed = isCompressed(source.getFileName().toString());
+        boolean targetCompressed = isCompressed(target.getFileName().toString());
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            out.truncate(targetSize);
+            out.position(targetSize);
+            if (sourceCompressed == targetCompressed && !skipFirstLine) {
+                // Same encoding: the bytes can go across as they are
+                try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = in.size();
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            } else {
+                InputStream file = new BufferedInputStream(Files.newInputStream(source), BUFFER_SIZE);
+                OutputStream channel = Channels.newOutputStream(out);
+                try (InputStream in = sourceCompressed ? decompress(file) : file;
+                     OutputStream encoded = targetCompressed
+                             ? new LeveledGzipOutputStream(channel, BUFFER_SIZE, level)
+                             : new BufferedOutputStream(channel, BUFFER_SIZE)) {
+                    if (skipFirstLine) {
+                        int b;
+                        do {
+                            b = in.read();
+                        } while (b != -1 && b != '\n');
+                    }
+                    in.transferTo(encoded);
+                }
+            }
+        }
+        return Files.size(target);
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows {@code encoding}, honouring
+     * q-values and the "*" wildcard.
+     */
+    public static boolean accepts(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] pieces = part.trim().split(";");
+            String name = pieces[0].trim();
+            boolean allowed = true;
+            for (int i = 1; i < pieces.length; i++) {
+                String param = pieces[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        allowed = Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        allowed = false;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(encoding)) {
+                return allowed;
+            }
+            if (name.equals("*")) {
+                wildcard = allowed;
+            }
+        }
+        return wildcard != null && wildcard;
+    }
+
+    private static boolean isCompressed(String fileName) {
+        return fileName != null && fileName.endsWith(GZIP_SUFFIX);
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        private LeveledGzipOutputStream(OutputStream out, int size, int level) throws IOException {
+            super(out, size);
+            def.setLevel(level);
+        }
+    }
+}
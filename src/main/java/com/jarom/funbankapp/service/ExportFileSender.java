@@ -0,0 +1,166 @@
+package com.jarom.funbankapp.service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends a stored export file, or one byte range of it, without copying it
+ * through the JVM where the container allows.
+ *
+ * Supports single "bytes=" ranges with If-Range, and If-None-Match. A
+ * request for several ranges gets the whole file, which HTTP permits. On
+ * Tomcat the body goes out with sendfile; elsewhere it is sent with
+ * {@link FileChannel#transferTo}.
+ */
+@Component
+public class ExportFileSender {
+
+    // Request attributes Tomcat's NIO connector reads to send a file itself
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Same cut-off as Tomcat's DefaultServlet; below this a copy is cheaper
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    /**
+     * Writes the status, validator and range headers and the body for
+     * {@code file}. Content-Type and the like are left to the caller.
+     *
+     * @param etag strong entity tag for this file, quotes included
+     */
+    public void send(HttpServletRequest request, HttpServletResponse response, Path file, String etag)
+            throws IOException {
+        long size = Files.size(file);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // A stale If-Range means the client's partial copy is of another file
+        if (range == null || (ifRange != null && !ifRange.trim().equals(etag))) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            transfer(request, response, file, 0, size);
+            return;
+        }
+
+        long[] bounds = parseRange(range, size);
+        if (bounds == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            transfer(request, response, file, 0, size);
+        } else if (bounds.length == 0) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + bounds[0] + "-" + bounds[1] + "/" + size);
+            transfer(request, response, file, bounds[0], bounds[1] - bounds[0] + 1);
+        }
+    }
+
+    /**
+     * Parses a Range header against a file of {@code size} bytes.
+     *
+     * @return {first, last} inclusive; an empty array if the range cannot be
+     *         satisfied; or null if the header should be ignored (malformed,
+     *         not in bytes, or asking for more than one range)
+     */
+    static long[] parseRange(String header, long size) {
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, "bytes=", 0, 6) || value.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = value.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the final N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || size == 0) {
+                    return new long[0];
+                }
+                return new long[] {Math.max(0, size - suffix), size - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= size) {
+                return new long[0];
+            }
+            return new long[] {start, Math.min(end, size - 1)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void transfer(HttpServletRequest request, HttpServletResponse response, Path file,
+                                 long start, long length) throws IOException {
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED)) && length >= SENDFILE_MIN_SIZE) {
+            request.setAttribute(SENDFILE_FILENAME, file.toFile().getCanonicalPath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    // The file got shorter than the length we already promised
+                    throw new IOException("Export file truncated while sending: " + file);
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.jarom.funbankapp.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.jarom.funbankapp.config.ExportSchedulerProperties;
+import com.jarom.funbankapp.exception.ServiceUnavailableException;
+import com.jarom.funbankapp.model.ExportJob;
+import com.jarom.funbankapp.model.ExportStatus;
+import com.jarom.funbankapp.repository.ExportJobRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs export jobs on a dedicated worker pool.
+ *
+ * Each user has their own priority queue (cheap formats first, then FIFO).
+ * Users with runnable work take turns in a round-robin ring, so one user
+ * queueing twenty PDFs can't starve everyone else, and nobody runs more than
+ * {@code perUserInFlight} jobs at once. Submissions beyond the global or
+ * per-user queue bounds are rejected with 503.
+ *
+ * On startup, every PENDING job is queued again, along with the PROCESSING
+ * jobs this node claimed before it stopped, which are reset to PENDING first.
+ * Jobs another node is running are left alone; a worker only runs a job it
+ * manages to claim, so a job queued on several nodes still runs once.
+ */
+@Component
+public class ExportJobScheduler implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobScheduler.class);
+
+    private static final Comparator<Task> TASK_ORDER =
+            Comparator.comparingInt((Task t) -> t.priority).thenComparingLong(t -> t.sequence);
+
+    private final ExportSchedulerProperties properties;
+    private final ExportJobRepository exportJobRepository;
+    private final LongConsumer processor;
+    private final String nodeId;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Map<Long, UserQueue> users = new HashMap<>();
+    private final ArrayDeque<UserQueue> ring = new ArrayDeque<>();
+    private final Map<Long, Task> queuedByJobId = new HashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private long sequence;
+    private volatile int queued;
+    private volatile int inFlight;
+    private volatile boolean running;
+
+    @Autowired
+    public ExportJobScheduler(ExportSchedulerProperties properties, ExportJobRepository exportJobRepository,
+                              ObjectProvider<ExportService> exportService, MeterRegistry meterRegistry) {
+        this(properties, exportJobRepository, jobId -> exportService.getObject().processExportJob(jobId));
+        Gauge.builder("export.queue.depth", this, s -> s.queued)
+                .description("Export jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("export.in.flight", this, s -> s.inFlight)
+                .description("Export jobs currently running")
+                .register(meterRegistry);
+    }
+
+    ExportJobScheduler(ExportSchedulerProperties properties, ExportJobRepository exportJobRepository,
+                       LongConsumer processor) {
+        this.properties = properties;
+        this.exportJobRepository = exportJobRepository;
+        this.processor = processor;
+        this.nodeId = properties.getNodeId() != null && !properties.getNodeId().isBlank()
+                ? properties.getNodeId()
+                : localHostName();
+    }
+
+    /**
+     * The name this node records on the jobs its workers claim.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Lower runs sooner. Small text formats go ahead of spreadsheet and PDF
+     * rendering, and full-account exports go last.
+     */
+    public static int priorityFor(String exportType, String format) {
+        int priority;
+        switch (format == null ? "" : format.toUpperCase()) {
+            case "CSV":
+            case "JSON":
+            case "PARQUET":
+                priority = 0;
+                break;
+            case "EXCEL":
+                priority = 1;
+                break;
+            default:
+                priority = 2;
+                break;
+        }
+        return "all".equalsIgnoreCase(exportType) ? priority + 2 : priority;
+    }
+
+    /**
+     * Queues a job, or throws ServiceUnavailableException if the global queue
+     * or the user's own queue is full.
+     */
+    public void submit(Long userId, Long jobId, int priority) {
+        enqueue(userId, jobId, priority, false);
+    }
+
+    /**
+     * Removes a job that hasn't started yet. Returns false if it was not
+     * queued (already running, finished, or unknown).
+     */
+    public boolean cancel(Long jobId) {
+        lock.lock();
+        try {
+            Task task = queuedByJobId.remove(jobId);
+            if (task == null) {
+                return false;
+            }
+            UserQueue queue = users.get(task.userId);
+            queue.tasks.remove(task);
+            queued--;
+            if (queue.tasks.isEmpty() && queue.inRing) {
+                ring.remove(queue);
+                queue.inRing = false;
+            }
+            dropIfIdle(queue);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueuedCount() {
+        return queued;
+    }
+
+    public int getInFlightCount() {
+        return inFlight;
+    }
+
+    @Override
+    public void start() {
+        lock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            running = true;
+        } finally {
+            lock.unlock();
+        }
+        if (properties.isRecoverOnStartup()) {
+            recoverUnfinishedJobs();
+        }
+        ThreadFactory factory = Thread.ofPlatform().name("export-worker-", 0).daemon(true).factory();
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            Thread worker = factory.newThread(this::workLoop);
+            workers.add(worker);
+            worker.start();
+        }
+        logger.info("Export scheduler started with {} workers", properties.getWorkers());
+    }
+
+    @Override
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        // Interrupted jobs stay PROCESSING and are picked up again on the next start
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void recoverUnfinishedJobs() {
+        List<ExportJob> unfinished = new ArrayList<>(exportJobRepository.findProcessingByNode(nodeId));
+        unfinished.addAll(exportJobRepository.findByStatus(ExportStatus.PENDING.getValue()));
+        unfinished.sort(Comparator.comparing(ExportJob::getId));
+        for (ExportJob job : unfinished) {
+            if (ExportStatus.PROCESSING.getValue().equals(job.getStatus())) {
+                exportJobRepository.updateStatus(job.getId(), ExportStatus.PENDING.getValue());
+            }
+            enqueue(job.getUserId(), job.getId(), priorityFor(job.getJobType(), job.getFormat()), true);
+        }
+        if (!unfinished.isEmpty()) {
+            logger.info("Re-queued {} export jobs left unfinished by a previous run", unfinished.size());
+        }
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    private void enqueue(Long userId, Long jobId, int priority, boolean force) {
+        lock.lock();
+        try {
+            if (!force && queued >= properties.getQueueCapacity()) {
+                throw new ServiceUnavailableException("Export queue is full, please try again later", 30);
+            }
+            UserQueue queue = users.computeIfAbsent(userId, UserQueue::new);
+            if (!force && queue.tasks.size() >= properties.getPerUserQueued()) {
+                dropIfIdle(queue);
+                throw new ServiceUnavailableException("Too many pending exports, please wait for some to finish", 30);
+            }
+            Task task = new Task(jobId, userId, priority, sequence++);
+            queue.tasks.add(task);
+            queuedByJobId.put(jobId, task);
+            queued++;
+            scheduleIfRunnable(queue);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void workLoop() {
+        while (true) {
+            Task task;
+            try {
+                task = take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task == null) {
+                return;
+            }
+            try {
+                processor.accept(task.jobId);
+            } catch (RuntimeException e) {
+                logger.error("Export job {} failed in scheduler", task.jobId, e);
+            } finally {
+                finish(task);
+            }
+        }
+    }
+
+    private Task take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running && ring.isEmpty()) {
+                workAvailable.await();
+            }
+            if (!running) {
+                return null;
+            }
+            UserQueue queue = ring.pollFirst();
+            queue.inRing = false;
+            Task task = queue.tasks.poll();
+            queuedByJobId.remove(task.jobId);
+            queued--;
+            queue.inFlight++;
+            inFlight++;
+            // Back of the ring, so other users get a turn before this one's next job
+            scheduleIfRunnable(queue);
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finish(Task task) {
+        lock.lock();
+        try {
+            UserQueue queue = users.get(task.userId);
+            queue.inFlight--;
+            inFlight--;
+            scheduleIfRunnable(queue);
+            dropIfIdle(queue);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleIfRunnable(UserQueue queue) {
+        if (!queue.inRing && !queue.tasks.isEmpty() && queue.inFlight < properties.getPerUserInFlight()) {
+            ring.addLast(queue);
+            queue.inRing = true;
+            workAvailable.signal();
+        }
+    }
+
+    private void dropIfIdle(UserQueue queue) {
+        if (queue.tasks.isEmpty() && queue.inFlight == 0) {
+            users.remove(queue.userId);
+        }
+    }
+
+    private static final class Task {
+        private final long jobId;
+        private final long userId;
+        private final int priority;
+        private final long sequence;
+
+        private Task(long jobId, long userId, int priority, long sequence) {
+            this.jobId = jobId;
+            this.userId = userId;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class UserQueue {
+        private final long userId;
+        private final PriorityQueue<Task> tasks = new PriorityQueue<>(TASK_ORDER);
+        private int inFlight;
+        private boolean inRing;
+
+        private UserQueue(long userId) {
+            this.userId = userId;
+        }
+    }
+}
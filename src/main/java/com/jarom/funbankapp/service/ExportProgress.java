@@ -0,0 +1,136 @@
+package com.jarom.funbankapp.service;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Rows written so far by one running export, against the number expected,
+ * and the export's cancellation token.
+ *
+ * The export's worker thread is the only writer. It counts in a plain field
+ * and publishes every {@link #PUBLISH_EVERY} rows, so the per-row cost is an
+ * increment; readers (progress polls, the persister) see a value that is at
+ * most that many rows behind. Cancellation is checked at the same points:
+ * once {@link #cancel()} is called, the writer's next publish throws a
+ * {@link CancellationException} out of its row loop, which closes the JDBC
+ * cursor on the way out.
+ */
+public class ExportProgress {
+
+    /** For exports that nobody is watching, e.g. benchmarks and tests. */
+    public static final ExportProgress NONE = new ExportProgress(null) {
+        @Override
+        public void expect(long moreRows) {
+        }
+
+        @Override
+        public void rowWritten() {
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private static final int PUBLISH_EVERY = 1024;
+
+    private final Long jobId;
+    private final long startedNanos = System.nanoTime();
+    private long rows;
+    private volatile long publishedRows;
+    private volatile long expectedRows;
+    private volatile boolean cancelled;
+
+    public ExportProgress(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    /**
+     * Adds to the number of rows this export will write. Called with a
+     * count taken before streaming, or a list size just before writing it.
+     */
+    public void expect(long moreRows) {
+        expectedRows += moreRows;
+    }
+
+    public void rowWritten() {
+        if ((++rows & (PUBLISH_EVERY - 1)) == 0) {
+            publishedRows = rows;
+            throwIfCancelled();
+        }
+    }
+
+    /**
+     * Asks the export to stop. Safe to call from any thread; the worker
+     * notices within {@link #PUBLISH_EVERY} rows.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws a {@link CancellationException} if the export was cancelled.
+     * For checks between rows, e.g. before a section or before saving.
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Export job " + jobId + " was cancelled");
+        }
+    }
+
+    /**
+     * Publishes the exact count; call once the last row has been written.
+     */
+    public void finish() {
+        publishedRows = rows;
+    }
+
+    public long getRowsWritten() {
+        return publishedRows;
+    }
+
+    public long getExpectedRows() {
+        return expectedRows;
+    }
+
+    /**
+     * Percent done, held at 99 until the job is marked complete since the
+     * file still has to be closed and recorded.
+     */
+    public int getPercent() {
+        long expected = expectedRows;
+        if (expected <= 0) {
+            return 0;
+        }
+        return (int) Math.min(99, publishedRows * 100 / expected);
+    }
+
+    public long getRowsPerSecond() {
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startedNanos) / 1_000_000);
+        return publishedRows * 1000 / elapsedMillis;
+    }
+
+    /**
+     * Seconds left at the current rate, or null until there is a rate and a
+     * total to work from.
+     */
+    public Long getEtaSeconds() {
+        long rate = getRowsPerSecond();
+        long remaining = expectedRows - publishedRows;
+        if (rate <= 0 || expectedRows <= 0) {
+            return null;
+        }
+        return Math.max(0, (remaining + rate - 1) / rate);
+    }
+}
@@ -0,0 +1,137 @@
+package com.jarom.funbankapp.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.jarom.funbankapp.repository.ExportJobRepository;
+
+/**
+ * Holds the progress of exports running on this instance.
+ *
+ * Polls are answered from memory. A single background thread copies the
+ * counts of running jobs to export_jobs every {@code persistIntervalMillis},
+ * skipping jobs that haven't moved, so other instances and restarts see
+ * roughly where a job got to without a database write per row or per poll.
+ * That write only applies to processing jobs, so when it finds nothing to
+ * update the job was cancelled (possibly on another instance) and the
+ * export here is told to stop.
+ */
+@Component
+public class ExportProgressTracker implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportProgressTracker.class);
+
+    private final ExportJobRepository exportJobRepository;
+    private final Map<Long, Tracked> running = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService persister;
+
+    public ExportProgressTracker(ExportJobRepository exportJobRepository,
+                                 @Value("${app.export.progress.persist-interval-millis:2000}") long persistIntervalMillis) {
+        this.exportJobRepository = exportJobRepository;
+        this.persister = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "export-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        persister.scheduleWithFixedDelay(this::persistRunning, persistIntervalMillis, persistIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public ExportProgress start(Long jobId) {
+        ExportProgress progress = new ExportProgress(jobId);
+        running.put(jobId, new Tracked(progress));
+        return progress;
+    }
+
+    /**
+     * The live progress of a job running here, or null.
+     */
+    public ExportProgress get(Long jobId) {
+        Tracked tracked = running.get(jobId);
+        return tracked != null ? tracked.progress : null;
+    }
+
+    /**
+     * Cancels a job running on this instance. Returns false if it is not
+     * running here.
+     */
+    public boolean cancel(Long jobId) {
+        Tracked tracked = running.get(jobId);
+        if (tracked == null) {
+            return false;
+        }
+        tracked.progress.cancel();
+        return true;
+    }
+
+    /**
+     * Stops tracking a job. Call before saving its final state: once this
+     * returns, the persister will not write progress for the job again.
+     */
+    public void stop(Long jobId) {
+        Tracked tracked = running.remove(jobId);
+        if (tracked != null) {
+            tracked.lock.lock();
+            try {
+                tracked.stopped = true;
+            } finally {
+                tracked.lock.unlock();
+            }
+        }
+    }
+
+    void persistRunning() {
+        for (Tracked tracked : running.values()) {
+            ExportProgress progress = tracked.progress;
+            long rows = progress.getRowsWritten();
+            long expected = progress.getExpectedRows();
+            if (rows == tracked.persistedRows && expected == tracked.persistedExpected) {
+                continue;
+            }
+            tracked.lock.lock();
+            try {
+                if (!tracked.stopped) {
+                    if (!exportJobRepository.updateProgress(progress.getJobId(), progress.getPercent(), rows, expected)) {
+                        logger.info("Export job {} is no longer processing; stopping it", progress.getJobId());
+                        progress.cancel();
+                    }
+                    tracked.persistedRows = rows;
+                    tracked.persistedExpected = expected;
+                }
+            } catch (RuntimeException e) {
+                // Best effort; the next tick tries again
+                logger.debug("Could not save progress for export job {}", progress.getJobId(), e);
+            } finally {
+                tracked.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        persister.shutdownNow();
+    }
+
+    private static final class Tracked {
+        private final ExportProgress progress;
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean stopped;
+        // Only touched by the persister thread
+        private long persistedRows = -1;
+        private long persistedExpected = -1;
+
+        private Tracked(ExportProgress progress) {
+            this.progress = progress;
+        }
+    }
+}
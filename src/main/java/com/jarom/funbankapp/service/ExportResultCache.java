@@ -0,0 +1,289 @@
+package com.jarom.funbankapp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jarom.funbankapp.config.ExportRetentionProperties;
+import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.model.ExportJob;
+import com.jarom.funbankapp.repository.DataVersionRepository;
+import com.jarom.funbankapp.repository.ExportJobRepository;
+
+/**
+ * Lets a new export reuse the file of an identical completed one.
+ *
+ * A job's cache key is a SHA-256 of its normalized request (type, format,
+ * dates, filters, JSON style and compression) and the user's data version
+ * for the tables that export reads. The version is taken when the job is
+ * created, before any data is read, so a write that lands mid-export only
+ * makes the key older than the file, never newer.
+ *
+ * Linked jobs keep their file past its own job's retention, so the files
+ * open for reuse are capped at {@code maxBytes}, least recently used going
+ * first. An evicted file is no longer reused and is removed by
+ * {@link ExportRetentionSweeper} once no job needs it.
+ *
+ * Only jobs still within retention are reused, and linking a new job and
+ * the sweeper picking files to delete take the same lock, so a file is
+ * never linked to after the sweeper has decided to delete it.
+ */
+@Component
+public class ExportResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportResultCache.class);
+
+    // Bump when export output changes so old files stop matching
+    private static final String KEY_VERSION = "1";
+
+    private final ExportJobRepository exportJobRepository;
+    private final DataVersionRepository dataVersionRepository;
+    private final ExportCompression exportCompression;
+    private final ExportRetentionProperties retentionProperties;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final ObjectMapper canonicalMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // File path -> size, in access order; guarded by lock
+    private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private boolean loaded;
+
+    public ExportResultCache(ExportJobRepository exportJobRepository,
+                             DataVersionRepository dataVersionRepository,
+                             ExportCompression exportCompression,
+                             ExportRetentionProperties retentionProperties,
+                             @Value("${app.export.cache.enabled:true}") boolean enabled,
+                             @Value("${app.export.cache.max-bytes:1073741824}") long maxBytes) {
+        this.exportJobRepository = exportJobRepository;
+        this.dataVersionRepository = dataVersionRepository;
+        this.exportCompression = exportCompression;
+        this.retentionProperties = retentionProperties;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * The cache key for this request against the user's current data, or
+     * null when the cache is off.
+     */
+    public String keyFor(Long userId, ExportRequest request) {
+        // An incremental export is read once, by the schedule that asked for it
+        if (!enabled || request.getAfterTransactionId() != null || request.getThroughTransactionId() != null) {
+            return null;
+        }
+
+        String format = request.getFormat().trim().toUpperCase();
+        String exportType = request.getExportType().trim().toLowerCase();
+        String jsonStyle = "";
+        if ("JSON".equals(format)) {
+            jsonStyle = request.getJsonStyle() != null ? request.getJsonStyle().toLowerCase() : "pretty";
+        }
+        String filters;
+        try {
+            filters = request.getFilters() == null || request.getFilters().isEmpty()
+                    ? "{}" : canonicalMapper.writeValueAsString(request.getFilters());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Export filters cannot be serialized", e);
+        }
+
+        String canonical = String.join("\n",
+                KEY_VERSION,
+                String.valueOf(userId),
+                exportType,
+                format,
+                String.valueOf(request.getStartDate()),
+                String.valueOf(request.getEndDate()),
+                jsonStyle,
+                filters,
+                exportCompression.fileSuffix(format),
+                dataVersionRepository.findDataVersion(userId, tablesFor(exportType)));
+        return sha256(canonical);
+    }
+
+    /**
+     * Links a new job to the file of a completed job of this user with the
+     * same key, if one within retention still has its file on disk.
+     * {@code link} is given that job and returns the saved new one; it runs
+     * under the lock, so the sweeper sees the new job when it checks which
+     * files are in use.
+     */
+    public Optional<ExportJob> reuse(Long userId, String cacheKey, UnaryOperator<ExportJob> link) {
+        if (cacheKey == null) {
+            return Optional.empty();
+        }
+        lock.lock();
+        try {
+            LocalDateTime retentionCutoff = LocalDateTime.now().minusDays(retentionProperties.getDays());
+            Optional<ExportJob> job = exportJobRepository.findLatestCompletedByCacheKey(userId, cacheKey,
+                    retentionCutoff);
+            if (job.isEmpty() || job.get().getFilePath() == null) {
+                return Optional.empty();
+            }
+
+            String filePath = job.get().getFilePath();
+            loadIfNeeded();
+            if (!Files.exists(Paths.get(filePath))) {
+                forgetLocked(filePath);
+                return Optional.empty();
+            }
+            // The lookup marks it most recently used
+            if (files.get(filePath) == null && job.get().getFileSize() != null) {
+                // Written by another instance since this one loaded
+                addLocked(filePath, job.get().getFileSize());
+            }
+            if (!files.containsKey(filePath)) {
+                return Optional.empty();
+            }
+            return Optional.of(link.apply(job.get()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a newly written export file, evicting older ones if that goes
+     * over budget.
+     */
+    public void add(String filePath, long size) {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            loadIfNeeded();
+            addLocked(filePath, size);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Of the given files, returns those that no job created since
+     * {@code createdSince} uses (no job at all, when it is null) and stops
+     * reusing them, for the caller to delete.
+     */
+    public Set<String> releaseUnused(Collection<String> filePaths, LocalDateTime createdSince) {
+        Set<String> unused = new HashSet<>(filePaths);
+        if (!enabled) {
+            unused.removeAll(exportJobRepository.findFilePathsInUse(filePaths, createdSince));
+            return unused;
+        }
+        lock.lock();
+        try {
+            unused.removeAll(exportJobRepository.findFilePathsInUse(filePaths, createdSince));
+            for (String filePath : unused) {
+                Long size = files.remove(filePath);
+                if (size != null) {
+                    totalBytes -= size;
+                }
+                // A manual sweep can go inside retention; the cleared key keeps the lookup off these
+                if (createdSince != null) {
+                    exportJobRepository.clearCacheKey(filePath);
+                }
+            }
+            return unused;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getTotalBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addLocked(String filePath, long size) {
+        Long previous = files.put(filePath, size);
+        totalBytes += size - (previous != null ? previous : 0);
+        evictOverBudget();
+    }
+
+    private void forgetLocked(String filePath) {
+        Long size = files.remove(filePath);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        exportJobRepository.clearCacheKey(filePath);
+    }
+
+    private void evictOverBudget() {
+        Iterator<Map.Entry<String, Long>> eldest = files.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            exportJobRepository.clearCacheKey(entry.getKey());
+            logger.debug("Evicted export {} from the result cache", entry.getKey());
+        }
+    }
+
+    private void loadIfNeeded() {
+        if (loaded) {
+            return;
+        }
+        // Oldest first, so the least recently completed is evicted first after a restart
+        List<ExportJob> completed = exportJobRepository.findCompletedWithCacheKey();
+        for (ExportJob job : completed) {
+            if (job.getFilePath() != null && job.getFileSize() != null && !files.containsKey(job.getFilePath())) {
+                files.put(job.getFilePath(), job.getFileSize());
+                totalBytes += job.getFileSize();
+            }
+        }
+        loaded = true;
+        evictOverBudget();
+    }
+
+    private static List<String> tablesFor(String exportType) {
+        switch (exportType) {
+            case "transactions":
+                return List.of(DataVersionRepository.TRANSACTIONS, DataVersionRepository.ACCOUNTS);
+            case "debts":
+                return List.of(DataVersionRepository.DEBTS);
+            case "budgets":
+                return List.of(DataVersionRepository.BUDGETS);
+            case "goals":
+                return List.of(DataVersionRepository.GOALS);
+            default:
+                return List.of(DataVersionRepository.TRANSACTIONS, DataVersionRepository.ACCOUNTS,
+                        DataVersionRepository.DEBTS, DataVersionRepository.BUDGETS, DataVersionRepository.GOALS);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
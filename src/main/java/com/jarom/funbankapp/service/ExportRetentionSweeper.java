@@ -0,0 +1,295 @@
+package com.jarom.funbankapp.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.jarom.funbankapp.config.ExportRetentionProperties;
+import com.jarom.funbankapp.model.ExportJob;
+import com.jarom.funbankapp.repository.ExportJobRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Removes finished export jobs past retention, with their files, and files
+ * in the export directory that no job refers to.
+ *
+ * Expired jobs are read a page at a time in (created_at, id) order. Each
+ * page's files are deleted on a small pool, then its rows go in one DELETE.
+ * A file that a newer job still uses (see {@link ExportResultCache}) is
+ * kept; a job whose file could not be deleted keeps its row so the next
+ * sweep tries again.
+ */
+@Component
+public class ExportRetentionSweeper implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportRetentionSweeper.class);
+
+    private static final LocalDateTime FIRST_PAGE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ExportRetentionProperties properties;
+    private final ExportJobRepository exportJobRepository;
+    private final ExportResultCache exportResultCache;
+    private final Path exportDir;
+    private final ExecutorService deleters;
+    private final ScheduledExecutorService scheduler;
+    // One sweep at a time, whether scheduled or called directly
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    private final Timer sweepTimer;
+    private final Counter expiredBytes;
+    private final Counter orphanedBytes;
+    private final Counter jobsDeleted;
+
+    public ExportRetentionSweeper(ExportRetentionProperties properties,
+                                  ExportJobRepository exportJobRepository,
+                                  ExportResultCache exportResultCache,
+                                  @Value("${app.export.storage.path:./exports}") String exportStoragePath,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.exportJobRepository = exportJobRepository;
+        this.exportResultCache = exportResultCache;
+        this.exportDir = Paths.get(exportStoragePath);
+        this.deleters = Executors.newFixedThreadPool(Math.max(1, properties.getDeleteConcurrency()),
+                Thread.ofPlatform().name("export-retention-delete-", 0).daemon(true).factory());
+
+        this.sweepTimer = Timer.builder("export.retention.sweep.duration")
+                .description("Time taken by export retention sweeps")
+                .register(meterRegistry);
+        this.expiredBytes = Counter.builder("export.retention.reclaimed")
+                .baseUnit("bytes")
+                .tag("reason", "expired")
+                .description("Disk space freed by deleting export files")
+                .register(meterRegistry);
+        this.orphanedBytes = Counter.builder("export.retention.reclaimed")
+                .baseUnit("bytes")
+                .tag("reason", "orphaned")
+                .description("Disk space freed by deleting export files")
+                .register(meterRegistry);
+        this.jobsDeleted = Counter.builder("export.retention.jobs.deleted")
+                .description("Expired export jobs removed")
+                .register(meterRegistry);
+
+        if (properties.isEnabled()) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("export-retention").daemon(true).factory());
+            long interval = properties.getSweepIntervalMinutes();
+            scheduler.scheduleWithFixedDelay(this::scheduledSweep, interval, interval, TimeUnit.MINUTES);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Runs a sweep now, removing finished jobs created more than
+     * {@code days} days ago.
+     */
+    public SweepResult sweep(int days) {
+        sweepLock.lock();
+        try {
+            long started = System.nanoTime();
+            SweepResult result = new SweepResult();
+            try {
+                deleteExpiredJobs(LocalDateTime.now().minusDays(days), result);
+                deleteOrphanedFiles(result);
+            } catch (InterruptedException e) {
+                // Shutting down; the next sweep carries on where this one stopped
+                Thread.currentThread().interrupt();
+            }
+            long elapsed = System.nanoTime() - started;
+            sweepTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Export retention sweep removed {} jobs and {} files ({} bytes) in {} ms",
+                    result.jobsDeleted, result.filesDeleted, result.bytesReclaimed, elapsed / 1_000_000);
+            return result;
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        deleters.shutdownNow();
+    }
+
+    private void scheduledSweep() {
+        try {
+            sweep(properties.getDays());
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; a later sweep retries
+            logger.error("Export retention sweep failed", e);
+        }
+    }
+
+    private void deleteExpiredJobs(LocalDateTime cutoff, SweepResult result) throws InterruptedException {
+        LocalDateTime afterCreatedAt = FIRST_PAGE;
+        long afterId = 0;
+        while (true) {
+            List<ExportJob> page = exportJobRepository.findExpiredJobs(cutoff, afterCreatedAt, afterId,
+                    properties.getBatchSize());
+            if (page.isEmpty()) {
+                return;
+            }
+            ExportJob last = page.get(page.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+
+            Set<String> filePaths = new HashSet<>();
+            for (ExportJob job : page) {
+                if (job.getFilePath() != null && !job.getFilePath().isEmpty()) {
+                    filePaths.add(job.getFilePath());
+                }
+            }
+            // Jobs still in retention that reused one of these files keep it
+            Set<String> unused = exportResultCache.releaseUnused(filePaths, cutoff);
+            Set<String> failed = deleteFiles(unused, expiredBytes, result);
+
+            List<Long> ids = new ArrayList<>(page.size());
+            for (ExportJob job : page) {
+                if (job.getFilePath() == null || !failed.contains(job.getFilePath())) {
+                    ids.add(job.getId());
+                }
+            }
+            int deleted = exportJobRepository.deleteByIds(ids);
+            result.jobsDeleted += deleted;
+            jobsDeleted.increment(deleted);
+
+            if (page.size() < properties.getBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    private void deleteOrphanedFiles(SweepResult result) throws InterruptedException {
+        if (!Files.isDirectory(exportDir)) {
+            return;
+        }
+        // Running exports write their file before the job records it, so only old files count
+        Instant graceCutoff = Instant.now().minusSeconds(properties.getOrphanGraceMinutes() * 60);
+        List<String> batch = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(exportDir)) {
+            for (Path file : files) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue; // Removed while listing
+                }
+                if (attributes.isRegularFile() && attributes.lastModifiedTime().toInstant().isBefore(graceCutoff)) {
+                    // Same form as the paths ExportServiceImpl records
+                    batch.add(file.toString());
+                }
+                if (batch.size() >= properties.getBatchSize()) {
+                    deleteUnreferenced(batch, result);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not list export directory {}", exportDir, e);
+        }
+        deleteUnreferenced(batch, result);
+    }
+
+    private void deleteUnreferenced(List<String> filePaths, SweepResult result) throws InterruptedException {
+        if (filePaths.isEmpty()) {
+            return;
+        }
+        deleteFiles(exportResultCache.releaseUnused(filePaths, null), orphanedBytes, result);
+    }
+
+    /**
+     * Deletes the files on the delete pool and returns the ones that could
+     * not be deleted. Files that are already gone count as deleted.
+     */
+    private Set<String> deleteFiles(Set<String> filePaths, Counter reclaimed, SweepResult result)
+            throws InterruptedException {
+        Map<String, Callable<Long>> tasks = new LinkedHashMap<>();
+        for (String filePath : filePaths) {
+            tasks.put(filePath, () -> deleteFile(Paths.get(filePath)));
+        }
+        List<Future<Long>> futures = deleters.invokeAll(tasks.values());
+
+        Set<String> failed = new HashSet<>();
+        int i = 0;
+        for (String filePath : tasks.keySet()) {
+            long bytes;
+            try {
+                bytes = futures.get(i++).get();
+            } catch (ExecutionException e) {
+                bytes = -1;
+            }
+            if (bytes < 0) {
+                failed.add(filePath);
+            } else {
+                result.filesDeleted++;
+                result.bytesReclaimed += bytes;
+                reclaimed.increment(bytes);
+            }
+        }
+        return failed;
+    }
+
+    private static long deleteFile(Path file) {
+        try {
+            long size = Files.size(file);
+            Files.delete(file);
+            return size;
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            logger.warn("Could not delete export file {}", file, e);
+            return -1;
+        }
+    }
+
+    /**
+     * What one sweep removed.
+     */
+    public static final class SweepResult {
+        private long jobsDeleted;
+        private long filesDeleted;
+        private long bytesReclaimed;
+
+        public long getJobsDeleted() {
+            return jobsDeleted;
+        }
+
+        public long getFilesDeleted() {
+            return filesDeleted;
+        }
+
+        public long getBytesReclaimed() {
+            return bytesReclaimed;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.jarom.funbankapp.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jarom.funbankapp.dto.ExportJobDTO;
+import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.model.ExportJob;
+import com.jarom.funbankapp.model.ExportSchedule;
+import com.jarom.funbankapp.model.ExportStatus;
+import com.jarom.funbankapp.repository.ExportJobRepository;
+import com.jarom.funbankapp.repository.ExportScheduleRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
+
+/**
+ * Starts recurring exports when they are due and folds finished incremental
+ * runs into their schedule's rolling file.
+ *
+ * A run is an ordinary export job. An incremental run exports the
+ * transactions with ids above the schedule's high-water mark, up to the
+ * highest id whose rows have all settled, i.e. were created more than
+ * {@code settleSeconds} ago; the first run has no lower bound, so it is a
+ * full export. An id is taken before its insert commits, so a newer row
+ * can show up below one already read; the settle window gives it time to
+ * commit before the mark passes it. Only a completed run moves the mark,
+ * so a failed or cancelled run's rows are picked up by the next one. A
+ * delta holds the rows added since the last successful run; edits to rows
+ * already exported are not sent again.
+ *
+ * Completed deltas are appended to the rolling file, CSV headers after the
+ * first left out, and the file's size is saved with the new mark. An append
+ * cut short is overwritten by the next one, and a rolling file that has gone
+ * missing is rebuilt by a full run. Due schedules are claimed with a
+ * compare-and-set on next_run_at, so each run starts once.
+ */
+@Component
+public class ExportScheduleRunner implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportScheduleRunner.class);
+
+    private final ExportScheduleRepository exportScheduleRepository;
+    private final ExportJobRepository exportJobRepository;
+    private final TransactionRepository transactionRepository;
+    private final ExportService exportService;
+    private final ExportCompression exportCompression;
+    private final Path rollingDir;
+    private final int batchSize;
+    private final long settleSeconds;
+    private final ScheduledExecutorService scheduler;
+    // One pass at a time, whether scheduled or called directly
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    public ExportScheduleRunner(ExportScheduleRepository exportScheduleRepository,
+                                ExportJobRepository exportJobRepository,
+                                TransactionRepository transactionRepository,
+                                ExportService exportService,
+                                ExportCompression exportCompression,
+                                @Value("${app.export.storage.path:./exports}") String exportStoragePath,
+                                @Value("${app.export.schedules.enabled:true}") boolean enabled,
+                                @Value("${app.export.schedules.poll-interval-seconds:60}") long pollIntervalSeconds,
+                                @Value("${app.export.schedules.batch-size:100}") int batchSize,
+                                @Value("${app.export.schedules.settle-seconds:60}") long settleSeconds) {
+        this.exportScheduleRepository = exportScheduleRepository;
+        this.exportJobRepository = exportJobRepository;
+        this.transactionRepository = transactionRepository;
+        this.exportService = exportService;
+        this.exportCompression = exportCompression;
+        // A subdirectory, so the retention sweep never takes rolling files for orphans
+        this.rollingDir = Paths.get(exportStoragePath).resolve("schedules");
+        this.batchSize = batchSize;
+        this.settleSeconds = settleSeconds;
+
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("export-schedules").daemon(true).factory());
+            scheduler.scheduleWithFixedDelay(this::scheduledPass, pollIntervalSeconds, pollIntervalSeconds,
+                    TimeUnit.SECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Settles finished runs and starts the schedules that are due. Returns
+     * the number of runs started.
+     */
+    public int runDueSchedules() {
+        runLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            int started = 0;
+            for (ExportSchedule schedule : exportScheduleRepository.findRunnable(now, batchSize)) {
+                try {
+                    if (schedule.getPendingJobId() != null) {
+                        settle(schedule);
+                    }
+                    if (schedule.getPendingJobId() == null && !schedule.getNextRunAt().isAfter(now)
+                            && start(schedule, now)) {
+                        started++;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // One schedule's trouble doesn't hold up the rest; the next pass retries it
+                    logger.error("Export schedule {} failed to run", schedule.getId(), e);
+                }
+            }
+            return started;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void scheduledPass() {
+        try {
+            runDueSchedules();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next pass retries
+            logger.error("Export schedule pass failed", e);
+        }
+    }
+
+    private boolean start(ExportSchedule schedule, LocalDateTime now) throws IOException {
+        LocalDateTime nextRunAt = nextRunAfter(schedule.getNextRunAt(), schedule.getIntervalMinutes(), now);
+        if (!exportScheduleRepository.claimRun(schedule.getId(), schedule.getNextRunAt(), nextRunAt, now)) {
+            return false;
+        }
+
+        ExportRequest request = objectMapper.readValue(schedule.getParameters(), ExportRequest.class);
+        Long throughId = null;
+        if (schedule.isIncremental()) {
+            throughId = transactionRepository.findSettledMaxId(schedule.getLastTransactionId(),
+                    LocalDateTime.now().minusSeconds(settleSeconds));
+            if (throughId <= schedule.getLastTransactionId()) {
+                logger.debug("Export schedule {} has no new transactions", schedule.getId());
+                return false;
+            }
+            if (schedule.getLastTransactionId() > 0) {
+                request.setAfterTransactionId(schedule.getLastTransactionId());
+            }
+            request.setThroughTransactionId(throughId);
+        }
+
+        ExportJobDTO job = exportService.createExportJob(schedule.getUserId(), request);
+        exportScheduleRepository.startRun(schedule.getId(), job.getId(), throughId);
+        schedule.setPendingJobId(job.getId());
+        logger.info("Export schedule {} started job {} (transactions {} to {})", schedule.getId(), job.getId(),
+                request.getAfterTransactionId(), throughId);
+        return true;
+    }
+
+    private void settle(ExportSchedule schedule) throws IOException {
+        Long jobId = schedule.getPendingJobId();
+        Optional<ExportJob> job = exportJobRepository.findById(jobId);
+        String status = job.map(ExportJob::getStatus).orElse(ExportStatus.FAILED.getValue());
+        if (ExportStatus.PENDING.getValue().equals(status) || ExportStatus.PROCESSING.getValue().equals(status)) {
+            return;
+        }
+
+        long lastTransactionId = schedule.getLastTransactionId();
+        String rollingFilePath = schedule.getRollingFilePath();
+        long rollingFileSize = schedule.getRollingFileSize();
+        boolean completed = ExportStatus.COMPLETED.getValue().equals(status)
+                && job.get().getFilePath() != null && Files.exists(Paths.get(job.get().getFilePath()));
+
+        if (completed && schedule.isIncremental()) {
+            Path rollingFile = rollingFilePath != null ? Paths.get(rollingFilePath) : rollingFileFor(schedule);
+            if (rollingFileSize > 0 && (!Files.exists(rollingFile) || Files.size(rollingFile) < rollingFileSize)) {
+                logger.warn("Rolling file {} of export schedule {} is missing or truncated; the next run rebuilds it",
+                        rollingFile, schedule.getId());
+                finish(schedule, jobId, 0, null, 0);
+                return;
+            }
+            Files.createDirectories(rollingFile.getParent());
+            boolean skipHeader = rollingFileSize > 0 && "CSV".equalsIgnoreCase(schedule.getFormat());
+            rollingFileSize = exportCompression.append(Paths.get(job.get().getFilePath()), rollingFile,
+                    rollingFileSize, skipHeader);
+            rollingFilePath = rollingFile.toString();
+            lastTransactionId = schedule.getPendingThroughId();
+            logger.info("Export schedule {} appended job {} to {} ({} bytes)", schedule.getId(), jobId,
+                    rollingFilePath, rollingFileSize);
+        } else if (!completed) {
+            logger.warn("Export schedule {} run {} ended {}; the next run covers the same rows", schedule.getId(),
+                    jobId, status);
+        }
+
+        if (!finish(schedule, jobId, lastTransactionId, rollingFilePath, rollingFileSize)
+                && rollingFilePath != null && exportScheduleRepository.findById(schedule.getId()).isEmpty()) {
+            // Deleted while this run was appended
+            Files.deleteIfExists(Paths.get(rollingFilePath));
+        }
+    }
+
+    private boolean finish(ExportSchedule schedule, Long jobId, long lastTransactionId, String rollingFilePath,
+                           long rollingFileSize) {
+        schedule.setPendingJobId(null);
+        return exportScheduleRepository.finishRun(schedule.getId(), jobId, lastTransactionId, rollingFilePath,
+                rollingFileSize);
+    }
+
+    private Path rollingFileFor(ExportSchedule schedule) {
+        String extension = "CSV".equalsIgnoreCase(schedule.getFormat()) ? "csv" : "ndjson";
+        return rollingDir.resolve("schedule_" + schedule.getId() + "." + extension
+                + exportCompression.fileSuffix(schedule.getFormat()));
+    }
+
+    /**
+     * The first run time on the schedule's cadence after {@code now}. Runs
+     * missed while the application was down are skipped, not replayed; an
+     * incremental run catches up on all of them at once.
+     */
+    static LocalDateTime nextRunAfter(LocalDateTime dueAt, int intervalMinutes, LocalDateTime now) {
+        long behind = Math.max(0, Duration.between(dueAt, now).toMinutes());
+        return dueAt.plusMinutes((behind / intervalMinutes + 1) * intervalMinutes);
+    }
+}
@@ -0,0 +1,33 @@
+package com.jarom.funbankapp.service;
+
+import com.jarom.funbankapp.dto.ExportScheduleDTO;
+import com.jarom.funbankapp.dto.ExportScheduleRequest;
+import org.springframework.core.io.Resource;
+import java.util.List;
+
+/**
+ * Service interface for recurring exports
+ */
+public interface ExportScheduleService {
+
+    /**
+     * Create a recurring export
+     */
+    ExportScheduleDTO createSchedule(Long userId, ExportScheduleRequest request);
+
+    /**
+     * Get all recurring exports for a user
+     */
+    List<ExportScheduleDTO> getUserSchedules(Long userId);
+
+    /**
+     * Delete a recurring export and its rolling file. Jobs it already
+     * started are kept.
+     */
+    boolean deleteSchedule(Long userId, Long scheduleId);
+
+    /**
+     * Download the rolling file of an incremental export
+     */
+    Resource downloadRollingFile(Long userId, Long scheduleId);
+}
@@ -0,0 +1,150 @@
+package com.jarom.funbankapp.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.dto.ExportScheduleDTO;
+import com.jarom.funbankapp.dto.ExportScheduleRequest;
+import com.jarom.funbankapp.exception.ResourceNotFoundException;
+import com.jarom.funbankapp.model.ExportSchedule;
+import com.jarom.funbankapp.repository.ExportScheduleRepository;
+
+/**
+ * Implementation of ExportScheduleService. Schedules are run by
+ * {@link ExportScheduleRunner}.
+ */
+@Service
+public class ExportScheduleServiceImpl implements ExportScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportScheduleServiceImpl.class);
+
+    private final ExportScheduleRepository exportScheduleRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    public ExportScheduleServiceImpl(ExportScheduleRepository exportScheduleRepository) {
+        this.exportScheduleRepository = exportScheduleRepository;
+    }
+
+    @Override
+    public ExportScheduleDTO createSchedule(Long userId, ExportScheduleRequest request) {
+        ExportRequest export = request.getExport();
+        String exportType = export.getExportType().trim().toLowerCase();
+        String format = export.getFormat().trim().toUpperCase();
+        logger.info("Creating export schedule for user {}: type={}, format={}, every {} minutes, incremental={}",
+                userId, exportType, format, request.getIntervalMinutes(), request.isIncremental());
+
+        if (export.getAfterTransactionId() != null || export.getThroughTransactionId() != null) {
+            throw new IllegalArgumentException("Transaction id bounds are set by the schedule on each run");
+        }
+        if (request.isIncremental()) {
+            // Deltas are appended to a rolling file, so the format must be one that concatenates
+            if (!"transactions".equals(exportType)) {
+                throw new IllegalArgumentException("Incremental exports support the transactions export type only");
+            }
+            boolean ndjson = "JSON".equals(format) && "ndjson".equalsIgnoreCase(export.getJsonStyle());
+            if (!"CSV".equals(format) && !ndjson) {
+                throw new IllegalArgumentException("Incremental exports must be CSV or JSON with the ndjson style");
+            }
+        }
+
+        ExportSchedule schedule = new ExportSchedule();
+        schedule.setUserId(userId);
+        schedule.setExportType(exportType);
+        schedule.setFormat(format);
+        schedule.setIntervalMinutes(request.getIntervalMinutes());
+        schedule.setIncremental(request.isIncremental());
+        // Whole seconds, so the runner's compare-and-set on next_run_at matches what the database stored
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime firstRunAt = request.getFirstRunAt() != null
+                ? request.getFirstRunAt().truncatedTo(ChronoUnit.SECONDS) : now;
+        schedule.setNextRunAt(firstRunAt);
+        schedule.setCreatedAt(now);
+        try {
+            schedule.setParameters(objectMapper.writeValueAsString(export));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Export request cannot be serialized", e);
+        }
+
+        ExportSchedule saved = exportScheduleRepository.save(schedule);
+        logger.info("Export schedule created: {}", saved.getId());
+        return convertToDTO(saved);
+    }
+
+    @Override
+    public List<ExportScheduleDTO> getUserSchedules(Long userId) {
+        return exportScheduleRepository.findByUserId(userId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean deleteSchedule(Long userId, Long scheduleId) {
+        ExportSchedule schedule = findOwned(userId, scheduleId);
+        if (!exportScheduleRepository.deleteById(scheduleId)) {
+            return false;
+        }
+        if (schedule.getRollingFilePath() != null) {
+            try {
+                Files.deleteIfExists(Paths.get(schedule.getRollingFilePath()));
+            } catch (IOException e) {
+                logger.warn("Could not delete rolling export file {}", schedule.getRollingFilePath(), e);
+            }
+        }
+        logger.info("Export schedule {} deleted", scheduleId);
+        return true;
+    }
+
+    @Override
+    public Resource downloadRollingFile(Long userId, Long scheduleId) {
+        ExportSchedule schedule = findOwned(userId, scheduleId);
+        if (schedule.getRollingFilePath() == null) {
+            throw new ResourceNotFoundException("Export schedule " + scheduleId + " has no rolling file yet");
+        }
+        File file = new File(schedule.getRollingFilePath());
+        if (!file.exists()) {
+            throw new ResourceNotFoundException("Rolling export file not found on disk");
+        }
+        return new FileSystemResource(file);
+    }
+
+    private ExportSchedule findOwned(Long userId, Long scheduleId) {
+        return exportScheduleRepository.findById(scheduleId)
+                .filter(schedule -> schedule.getUserId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Export schedule", "id", scheduleId));
+    }
+
+    private ExportScheduleDTO convertToDTO(ExportSchedule schedule) {
+        ExportScheduleDTO dto = new ExportScheduleDTO();
+        dto.setId(schedule.getId());
+        dto.setExportType(schedule.getExportType());
+        dto.setFormat(schedule.getFormat());
+        dto.setIntervalMinutes(schedule.getIntervalMinutes());
+        dto.setIncremental(schedule.isIncremental());
+        dto.setNextRunAt(schedule.getNextRunAt());
+        dto.setLastRunAt(schedule.getLastRunAt());
+        dto.setCreatedAt(schedule.getCreatedAt());
+        dto.setLastJobId(schedule.getLastJobId());
+        dto.setRunning(schedule.getPendingJobId() != null);
+        dto.setLastTransactionId(schedule.getLastTransactionId());
+        dto.setRollingFileSize(schedule.getRollingFileSize());
+        if (schedule.getRollingFilePath() != null) {
+            dto.setDownloadUrl("/api/export/schedules/" + schedule.getId() + "/download");
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,146 @@
+package com.jarom.funbankapp.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.jarom.funbankapp.model.Budget;
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.model.Goal;
+import com.jarom.funbankapp.repository.BudgetRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.GoalRepository;
+
+/**
+ * Loads the debts, budgets and goals sections of an "all" export in the
+ * background while the caller streams transactions, so a full export takes
+ * about as long as its transactions section alone.
+ *
+ * Queries run on a small pool shared by all exports, which bounds how many
+ * extra connections "all" exports take from the database pool. Loads for a
+ * job can be cancelled with {@link #cancel(Long)}; the export then fails
+ * with a {@link CancellationException} when it asks for a section.
+ */
+@Component
+public class ExportSectionLoader implements DisposableBean {
+
+    private final DebtRepository debtRepository;
+    private final BudgetRepository budgetRepository;
+    private final GoalRepository goalRepository;
+    private final ExecutorService executor;
+    private final Map<Long, Sections> running = new ConcurrentHashMap<>();
+
+    public ExportSectionLoader(DebtRepository debtRepository, BudgetRepository budgetRepository,
+                               GoalRepository goalRepository,
+                               @Value("${app.export.sections.threads:4}") int threads) {
+        this.debtRepository = debtRepository;
+        this.budgetRepository = budgetRepository;
+        this.goalRepository = goalRepository;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads),
+                Thread.ofPlatform().name("export-section-", 0).daemon(true).factory());
+    }
+
+    /**
+     * Starts loading the sections for this user. Close the result when the
+     * export is done with it.
+     */
+    public Sections load(Long userId, ExportProgress progress) {
+        Sections sections = new Sections(progress.getJobId(),
+                executor.submit(() -> debtRepository.findByUserId(userId)),
+                executor.submit(() -> budgetRepository.findByUserId(userId)),
+                executor.submit(() -> goalRepository.findByUserId(userId)));
+        if (sections.jobId != null) {
+            running.put(sections.jobId, sections);
+        }
+        return sections;
+    }
+
+    /**
+     * Cancels the section loads of a running export. Returns false if the
+     * job has none in progress.
+     */
+    public boolean cancel(Long jobId) {
+        Sections sections = running.get(jobId);
+        if (sections == null) {
+            return false;
+        }
+        sections.cancel();
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The sections of one export, loading or loaded. Each getter waits for
+     * its section.
+     */
+    public final class Sections implements AutoCloseable {
+        private final Long jobId;
+        private final Future<List<Debt>> debts;
+        private final Future<List<Budget>> budgets;
+        private final Future<List<Goal>> goals;
+
+        private Sections(Long jobId, Future<List<Debt>> debts, Future<List<Budget>> budgets,
+                         Future<List<Goal>> goals) {
+            this.jobId = jobId;
+            this.debts = debts;
+            this.budgets = budgets;
+            this.goals = goals;
+        }
+
+        public List<Debt> debts() {
+            return await(debts);
+        }
+
+        public List<Budget> budgets() {
+            return await(budgets);
+        }
+
+        public List<Goal> goals() {
+            return await(goals);
+        }
+
+        private void cancel() {
+            debts.cancel(true);
+            budgets.cancel(true);
+            goals.cancel(true);
+        }
+
+        /**
+         * Stops any loads the export no longer needs, e.g. after it failed.
+         */
+        @Override
+        public void close() {
+            cancel();
+            if (jobId != null) {
+                running.remove(jobId, this);
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> section) {
+        try {
+            return section.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while loading an export section");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Failed to load an export section", e.getCause());
+        }
+    }
+}
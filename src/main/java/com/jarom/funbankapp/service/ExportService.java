@@ -1,6 +1,7 @@
 package com.jarom.funbankapp.service;
 
 import com.jarom.funbankapp.dto.ExportJobDTO;
+import com.jarom.funbankapp.dto.ExportProgressDTO;
 import com.jarom.funbankapp.dto.ExportRequest;
 import org.springframework.core.io.Resource;
 import java.util.List;
@@ -36,7 +37,7 @@ public interface ExportService {
     Resource downloadExportFile(Long userId, Long jobId);
     
     /**
-     * Process export job asynchronously
+     * Process a queued export job (called from the export workers)
      */
     void processExportJob(Long jobId);
     
@@ -51,7 +52,7 @@ public interface ExportService {
     String getExportJobStatus(Long userId, Long jobId);
     
     /**
-     * Get export job progress
+     * Get export job progress: percent, rows written and, while running, rate and ETA
      */
-    Integer getExportJobProgress(Long userId, Long jobId);
+    ExportProgressDTO getExportJobProgress(Long userId, Long jobId);
 } 
\ No newline at end of file
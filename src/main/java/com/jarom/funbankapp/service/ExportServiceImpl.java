@@ -2,18 +2,22 @@ package com.jarom.funbankapp.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jarom.funbankapp.dto.ExportJobDTO;
+import com.jarom.funbankapp.dto.ExportProgressDTO;
 import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.exception.ResourceNotFoundException;
+import com.jarom.funbankapp.exception.ServiceUnavailableException;
 import com.jarom.funbankapp.model.ExportJob;
 import com.jarom.funbankapp.model.ExportStatus;
 import com.jarom.funbankapp.repository.ExportJobRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.File;
@@ -24,6 +28,7 @@ import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 
 /**
@@ -50,15 +55,38 @@ public class ExportServiceImpl implements ExportService {
     @Autowired
     private JSONExportService jsonExportService;
 
+    @Autowired
+    private ParquetExportService parquetExportService;
+
+    @Autowired
+    private ExportJobScheduler exportJobScheduler;
+
+    @Autowired
+    private ExportCompression exportCompression;
+
+    @Autowired
+    private ExportProgressTracker exportProgressTracker;
+
+    @Autowired
+    private ExportResultCache exportResultCache;
+
+    @Autowired
+    private ExportRetentionSweeper exportRetentionSweeper;
+
+    @Autowired
+    private ExportSectionLoader exportSectionLoader;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
     @Value("${app.export.storage.path:./exports}")
     private String exportStoragePath;
 
-    @Value("${app.export.retention.days:7}")
-    private int exportRetentionDays;
-
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // java.time support for the dates saved in job parameters
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // the job row must be committed before a worker can read it
     public ExportJobDTO createExportJob(Long userId, ExportRequest request) {
         logger.info("Creating export job for user {}: type={}, format={}", userId, request.getExportType(), request.getFormat());
 
@@ -69,6 +97,7 @@ public class ExportServiceImpl implements ExportService {
         ExportJob exportJob = new ExportJob(userId, request.getExportType(), request.getFormat());
         exportJob.setCreatedAt(LocalDateTime.now());
         exportJob.setStatus(ExportStatus.PENDING.getValue());
+        exportJob.setCacheKey(exportResultCache.keyFor(userId, request));
 
         // Store parameters as JSON
         try {
@@ -78,16 +107,39 @@ public class ExportServiceImpl implements ExportService {
             throw new RuntimeException("Failed to create export job", e);
         }
 
+        // Same request, same data: share the finished file instead of exporting again
+        Optional<ExportJob> linked = exportResultCache.reuse(userId, exportJob.getCacheKey(), source -> {
+            exportJob.setStatus(ExportStatus.COMPLETED.getValue());
+            exportJob.setFilePath(source.getFilePath());
+            exportJob.setFileSize(source.getFileSize());
+            exportJob.setCompletedAt(exportJob.getCreatedAt());
+            exportJob.setProgress(100);
+            exportJob.setRowsWritten(source.getRowsWritten());
+            exportJob.setRowsTotal(source.getRowsTotal());
+            ExportJob linkedJob = exportJobRepository.save(exportJob);
+            logger.info("Export job {} reuses the file of job {}", linkedJob.getId(), source.getId());
+            return linkedJob;
+        });
+        if (linked.isPresent()) {
+            return convertToDTO(linked.get());
+        }
+
         // Save to database
         ExportJob savedJob = exportJobRepository.save(exportJob);
 
         // Convert to DTO
         ExportJobDTO jobDTO = convertToDTO(savedJob);
 
-        // Start async processing
-        processExportJob(savedJob.getId());
+        // Hand off to the export workers; the request returns right away
+        try {
+            exportJobScheduler.submit(userId, savedJob.getId(),
+                    ExportJobScheduler.priorityFor(request.getExportType(), request.getFormat()));
+        } catch (ServiceUnavailableException e) {
+            exportJobRepository.updateStatus(savedJob.getId(), ExportStatus.FAILED.getValue());
+            throw e;
+        }
 
-        logger.info("Export job created successfully: {}", savedJob.getId());
+        logger.info("Export job queued: {}", savedJob.getId());
         return jobDTO;
     }
 
@@ -97,7 +149,7 @@ public class ExportServiceImpl implements ExportService {
 
         Optional<ExportJob> exportJob = exportJobRepository.findById(jobId);
         if (exportJob.isEmpty() || !exportJob.get().getUserId().equals(userId)) {
-            throw new RuntimeException("Export job not found or access denied");
+            throw new ResourceNotFoundException("Export job", "id", jobId);
         }
 
         return convertToDTO(exportJob.get());
@@ -122,13 +174,20 @@ public class ExportServiceImpl implements ExportService {
             return false;
         }
 
-        ExportJob job = exportJob.get();
-        if (job.getStatus().equals(ExportStatus.COMPLETED.getValue()) || 
-            job.getStatus().equals(ExportStatus.FAILED.getValue())) {
-            return false; // Cannot cancel completed or failed jobs
+        // Only queued or running jobs can be cancelled; the status check and update are one statement
+        // so a job finishing at the same moment keeps its own final state
+        boolean cancelled = exportJobRepository.transitionStatus(jobId, ExportStatus.CANCELLED.getValue(),
+                ExportStatus.PENDING.getValue(), ExportStatus.PROCESSING.getValue());
+        if (!cancelled) {
+            return false;
         }
 
-        return exportJobRepository.updateStatus(jobId, ExportStatus.CANCELLED.getValue());
+        // A running export stops within a few rows and deletes its partial file; one running on
+        // another instance finds out when it next saves progress
+        exportJobScheduler.cancel(jobId);
+        exportProgressTracker.cancel(jobId);
+        exportSectionLoader.cancel(jobId);
+        return true;
     }
 
     @Override
@@ -137,7 +196,7 @@ public class ExportServiceImpl implements ExportService {
 
         Optional<ExportJob> exportJob = exportJobRepository.findById(jobId);
         if (exportJob.isEmpty() || !exportJob.get().getUserId().equals(userId)) {
-            throw new RuntimeException("Export job not found or access denied");
+            throw new ResourceNotFoundException("Export job", "id", jobId);
         }
 
         ExportJob job = exportJob.get();
@@ -158,7 +217,7 @@ public class ExportServiceImpl implements ExportService {
     }
 
     @Override
-    @Async
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // status updates must be visible while the job runs
     public void processExportJob(Long jobId) {
         logger.info("Processing export job: {}", jobId);
 
@@ -169,15 +228,26 @@ public class ExportServiceImpl implements ExportService {
         }
 
         ExportJob exportJob = exportJobOpt.get();
+        if (!exportJobRepository.claimJob(jobId, exportJobScheduler.getNodeId())) {
+            logger.info("Skipping export job {} in status {}", jobId, exportJob.getStatus());
+            return;
+        }
 
+        String filePath = null;
+        ExportProgress progress = exportProgressTracker.start(jobId);
         try {
-            // Update status to processing
-            exportJobRepository.updateStatus(jobId, ExportStatus.PROCESSING.getValue());
-            exportJobRepository.updateProgress(jobId, 10);
-
             // Parse export request
             ExportRequest request = objectMapper.readValue(exportJob.getParameters(), ExportRequest.class);
 
+            // Transactions are the bulk of any export, so count them up front for the progress total;
+            // the smaller lists add themselves as they are loaded.
+            String exportType = request.getExportType().toLowerCase();
+            if (exportType.equals("transactions") || exportType.equals("all")) {
+                progress.expect(transactionRepository.countForExport(exportJob.getUserId(),
+                        request.getStartDate(), request.getEndDate(),
+                        request.getAfterTransactionId(), request.getThroughTransactionId()));
+            }
+
             // Create export directory if it doesn't exist
             Path exportDir = Paths.get(exportStoragePath);
             if (!Files.exists(exportDir)) {
@@ -186,89 +256,118 @@ public class ExportServiceImpl implements ExportService {
 
             // Generate filename
             String fileName = generateFileName(request, exportJob.getId());
-            String filePath = exportDir.resolve(fileName).toString();
+            filePath = exportDir.resolve(fileName).toString();
 
             // Process export based on format
             File exportFile = null;
             switch (request.getFormat().toUpperCase()) {
                 case "CSV":
-                    exportFile = csvExportService.exportData(exportJob.getUserId(), request, filePath);
+                    exportFile = csvExportService.exportData(exportJob.getUserId(), request, filePath, progress);
                     break;
                 case "PDF":
-                    exportFile = pdfExportService.exportData(exportJob.getUserId(), request, filePath);
+                    exportFile = pdfExportService.exportData(exportJob.getUserId(), request, filePath, progress);
                     break;
                 case "EXCEL":
-                    exportFile = excelExportService.exportData(exportJob.getUserId(), request, filePath);
+                    exportFile = excelExportService.exportData(exportJob.getUserId(), request, filePath, progress);
                     break;
                 case "JSON":
-                    exportFile = jsonExportService.exportData(exportJob.getUserId(), request, filePath);
+                    exportFile = jsonExportService.exportData(exportJob.getUserId(), request, filePath, progress);
+                    break;
+                case "PARQUET":
+                    exportFile = parquetExportService.exportData(exportJob.getUserId(), request, filePath, progress);
                     break;
                 default:
                     throw new RuntimeException("Unsupported export format: " + request.getFormat());
             }
 
-            // Update job with file information
-            exportJobRepository.updateFileInfo(jobId, filePath, exportFile.length());
-            exportJobRepository.updateStatus(jobId, ExportStatus.COMPLETED.getValue());
-            exportJobRepository.updateProgress(jobId, 100);
+            // Update job with file information, unless it was cancelled while the file was finished off
+            progress.throwIfCancelled();
+            progress.finish();
+            exportProgressTracker.stop(jobId);
+            if (!exportJobRepository.completeJob(jobId, filePath, exportFile.length(), progress.getRowsWritten())) {
+                throw new CancellationException("Export job " + jobId + " was cancelled");
+            }
+            if (exportJob.getCacheKey() != null) {
+                exportResultCache.add(filePath, exportFile.length());
+            }
 
             logger.info("Export job completed successfully: {}", jobId);
 
+        } catch (CancellationException e) {
+            // cancelExportJob has already marked the job; nothing here may overwrite that
+            exportProgressTracker.stop(jobId);
+            deletePartialFile(filePath);
+            logger.info("Export job {} was cancelled after {} rows", jobId, progress.getRowsWritten());
         } catch (Exception e) {
             logger.error("Failed to process export job: {}", jobId, e);
-            exportJobRepository.updateStatus(jobId, ExportStatus.FAILED.getValue());
+            exportProgressTracker.stop(jobId);
+            deletePartialFile(filePath);
+            exportJobRepository.transitionStatus(jobId, ExportStatus.FAILED.getValue(),
+                    ExportStatus.PROCESSING.getValue());
             // Note: Would need to add error_message column to update this
         }
     }
 
+    private static void deletePartialFile(String filePath) {
+        if (filePath == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(filePath));
+        } catch (IOException e) {
+            // The retention sweep removes it as an orphan later
+            logger.warn("Could not delete partial export file {}", filePath, e);
+        }
+    }
+
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // each page of deletes commits on its own
     public void cleanupOldExports(int daysOld) {
-        logger.info("Cleaning up export files older than {} days", daysOld);
-
-        List<ExportJob> oldJobs = exportJobRepository.findOldJobs(daysOld);
-        for (ExportJob job : oldJobs) {
-            if (job.getFilePath() != null && !job.getFilePath().isEmpty()) {
-                try {
-                    File file = new File(job.getFilePath());
-                    if (file.exists() && file.delete()) {
-                        logger.debug("Deleted old export file: {}", job.getFilePath());
-                    }
-                } catch (Exception e) {
-                    logger.warn("Failed to delete old export file: {}", job.getFilePath(), e);
-                }
-            }
-        }
+        logger.info("Cleaning up export jobs older than {} days", daysOld);
+        exportRetentionSweeper.sweep(daysOld);
     }
 
     @Override
     public String getExportJobStatus(Long userId, Long jobId) {
         Optional<ExportJob> exportJob = exportJobRepository.findById(jobId);
         if (exportJob.isEmpty() || !exportJob.get().getUserId().equals(userId)) {
-            throw new RuntimeException("Export job not found or access denied");
+            throw new ResourceNotFoundException("Export job", "id", jobId);
         }
         return exportJob.get().getStatus();
     }
 
     @Override
-    public Integer getExportJobProgress(Long userId, Long jobId) {
+    public ExportProgressDTO getExportJobProgress(Long userId, Long jobId) {
         Optional<ExportJob> exportJob = exportJobRepository.findById(jobId);
         if (exportJob.isEmpty() || !exportJob.get().getUserId().equals(userId)) {
-            throw new RuntimeException("Export job not found or access denied");
+            throw new ResourceNotFoundException("Export job", "id", jobId);
+        }
+        return progressOf(exportJob.get());
+    }
+
+    private ExportProgressDTO progressOf(ExportJob job) {
+        String status = job.getStatus();
+
+        // Running here: answer from memory, no database write involved
+        ExportProgress live = ExportStatus.PROCESSING.getValue().equals(status)
+                ? exportProgressTracker.get(job.getId()) : null;
+        if (live != null) {
+            ExportProgressDTO dto = new ExportProgressDTO(job.getId(), status, live.getPercent(),
+                    live.getRowsWritten(), live.getExpectedRows());
+            dto.setRowsPerSecond(live.getRowsPerSecond());
+            dto.setEtaSeconds(live.getEtaSeconds());
+            return dto;
         }
 
-        String status = exportJob.get().getStatus();
         switch (status) {
-            case "PENDING":
-                return 0;
             case "PROCESSING":
-                return 50; // Placeholder - would need progress column
+                // Running elsewhere, or interrupted: the last saved snapshot
+                return new ExportProgressDTO(job.getId(), status, job.getProgress(),
+                        job.getRowsWritten(), job.getRowsTotal());
             case "COMPLETED":
-                return 100;
-            case "FAILED":
-            case "CANCELLED":
-                return 0;
+                return new ExportProgressDTO(job.getId(), status, 100, job.getRowsWritten(), job.getRowsTotal());
             default:
-                return 0;
+                return new ExportProgressDTO(job.getId(), status, 0, 0, 0);
         }
     }
 
@@ -281,23 +380,57 @@ public class ExportServiceImpl implements ExportService {
             throw new RuntimeException("Export format is required");
         }
 
+        // A Parquet file has one schema, so only the transactions table fits
+        if ("PARQUET".equalsIgnoreCase(request.getFormat().trim())
+                && !"transactions".equalsIgnoreCase(request.getExportType().trim())) {
+            throw new RuntimeException("Parquet exports support the transactions export type only");
+        }
+
         // Validate date range if provided
         if (request.getStartDate() != null && request.getEndDate() != null) {
             if (request.getStartDate().isAfter(request.getEndDate())) {
                 throw new RuntimeException("Start date cannot be after end date");
             }
         }
+
+        if (request.getAfterTransactionId() != null && request.getThroughTransactionId() != null
+                && request.getAfterTransactionId() > request.getThroughTransactionId()) {
+            throw new RuntimeException("Invalid transaction id range: afterTransactionId is past throughTransactionId");
+        }
     }
 
     private String generateFileName(ExportRequest request, Long jobId) {
         String timestamp = LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
         String extension = request.getFormat().toLowerCase();
-        
-        if (request.getFileName() != null && !request.getFileName().trim().isEmpty()) {
-            return request.getFileName() + "_" + timestamp + "." + extension;
+        if ("EXCEL".equalsIgnoreCase(request.getFormat())) {
+            extension = "xlsx";
+        } else if ("JSON".equalsIgnoreCase(request.getFormat()) && "ndjson".equalsIgnoreCase(request.getJsonStyle())) {
+            extension = "ndjson";
         }
         
-        return request.getExportType() + "_" + timestamp + "_" + jobId + "." + extension;
+        extension += exportCompression.fileSuffix(request.getFormat());
+
+        // The job id keeps names unique: jobs run in parallel and the sweeper deletes files by path
+        String baseName = sanitizeFileName(request.getFileName());
+        if (baseName.isEmpty()) {
+            baseName = request.getExportType();
+        }
+        return baseName + "_" + timestamp + "_" + jobId + "." + extension;
+    }
+
+    /**
+     * Reduces a user-supplied name to a bare file name inside the export
+     * directory: anything but letters, digits, '-', '_' and single dots
+     * becomes '_', so separators and ".." can't leave the directory.
+     */
+    static String sanitizeFileName(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        String name = fileName.trim().replaceAll("[^A-Za-z0-9._-]", "_").replaceAll("\\.{2,}", "_");
+        // No hidden files, and room left for the timestamp, job id and extension
+        name = name.replaceAll("^[._]+", "");
+        return name.length() > 100 ? name.substring(0, 100) : name;
     }
 
     private ExportJobDTO convertToDTO(ExportJob exportJob) {
@@ -315,7 +448,7 @@ public class ExportServiceImpl implements ExportService {
         dto.setStartedAt(exportJob.getStartedAt());
         dto.setCompletedAt(exportJob.getCompletedAt());
         dto.setErrorMessage(exportJob.getErrorMessage());
-        dto.setProgress(getExportJobProgress(exportJob.getUserId(), exportJob.getId()));
+        dto.setProgress(progressOf(exportJob).getPercent());
 
         // Generate download URL if file exists
         if (exportJob.getFilePath() != null && !exportJob.getFilePath().isEmpty()) {
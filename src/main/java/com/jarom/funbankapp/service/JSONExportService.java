@@ -11,30 +11,30 @@ public interface JSONExportService {
     /**
      * Export data to JSON format
      */
-    File exportData(Long userId, ExportRequest request, String filePath);
+    File exportData(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export transactions to JSON
      */
-    File exportTransactions(Long userId, ExportRequest request, String filePath);
+    File exportTransactions(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export debts to JSON
      */
-    File exportDebts(Long userId, ExportRequest request, String filePath);
+    File exportDebts(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export budgets to JSON
      */
-    File exportBudgets(Long userId, ExportRequest request, String filePath);
+    File exportBudgets(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export goals to JSON
      */
-    File exportGoals(Long userId, ExportRequest request, String filePath);
+    File exportGoals(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export all financial data to JSON
      */
-    File exportAllData(Long userId, ExportRequest request, String filePath);
+    File exportAllData(Long userId, ExportRequest request, String filePath, ExportProgress progress);
 } 
\ No newline at end of file
@@ -1,263 +1,318 @@
 package com.jarom.funbankapp.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
 import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.model.Budget;
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.model.Goal;
+import com.jarom.funbankapp.repository.BudgetRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.GoalRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
- * Implementation of JSON export service
+ * Implementation of JSON export service. Records are written straight from
+ * the repositories through a Jackson {@link JsonGenerator}, so nothing is
+ * built up in memory first; transactions come off the export cursor one row
+ * at a time.
+ *
+ * {@link ExportRequest#getJsonStyle()} picks the layout: {@code pretty}
+ * (the default) and {@code compact} write one document with the records in
+ * arrays, while {@code ndjson} writes one record per line and tags each with
+ * its {@code recordType} so "all" exports can be split back apart.
  */
 @Service
 public class JSONExportServiceImpl implements JSONExportService {
 
     private static final Logger logger = LoggerFactory.getLogger(JSONExportServiceImpl.class);
-    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final TransactionRepository transactionRepository;
+    private final DebtRepository debtRepository;
+    private final BudgetRepository budgetRepository;
+    private final GoalRepository goalRepository;
+    private final ExportSectionLoader exportSectionLoader;
+    private final ExportCompression exportCompression;
+    private final int fetchSize;
+
+    public JSONExportServiceImpl(TransactionRepository transactionRepository, DebtRepository debtRepository,
+                                 BudgetRepository budgetRepository, GoalRepository goalRepository,
+                                 ExportSectionLoader exportSectionLoader, ExportCompression exportCompression,
+                                 @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.transactionRepository = transactionRepository;
+        this.debtRepository = debtRepository;
+        this.budgetRepository = budgetRepository;
+        this.goalRepository = goalRepository;
+        this.exportSectionLoader = exportSectionLoader;
+        this.exportCompression = exportCompression;
+        this.fetchSize = fetchSize;
+    }
 
     @Override
-    public File exportData(Long userId, ExportRequest request, String filePath) {
+    public File exportData(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting data to JSON for user {}: type={}", userId, request.getExportType());
 
         switch (request.getExportType().toLowerCase()) {
             case "transactions":
-                return exportTransactions(userId, request, filePath);
+                return exportTransactions(userId, request, filePath, progress);
             case "debts":
-                return exportDebts(userId, request, filePath);
+                return exportDebts(userId, request, filePath, progress);
             case "budgets":
-                return exportBudgets(userId, request, filePath);
+                return exportBudgets(userId, request, filePath, progress);
             case "goals":
-                return exportGoals(userId, request, filePath);
+                return exportGoals(userId, request, filePath, progress);
             case "all":
-                return exportAllData(userId, request, filePath);
+                return exportAllData(userId, request, filePath, progress);
             default:
                 throw new RuntimeException("Unsupported export type: " + request.getExportType());
         }
     }
 
     @Override
-    public File exportTransactions(Long userId, ExportRequest request, String filePath) {
+    public File exportTransactions(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting transactions to JSON for user {}", userId);
+        return write(filePath, "transactions", userId, request, progress,
+                json -> writeTransactions(json, userId, request));
+    }
 
-        try {
-            ObjectNode rootNode = objectMapper.createObjectNode();
-            rootNode.put("exportType", "transactions");
-            rootNode.put("userId", userId);
-            rootNode.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            rootNode.put("format", "json");
-
-            ArrayNode transactionsNode = rootNode.putArray("transactions");
-            
-            // Add sample transaction data
-            ObjectNode transaction1 = transactionsNode.addObject();
-            transaction1.put("date", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            transaction1.put("description", "Sample Transaction");
-            transaction1.put("amount", 100.00);
-            transaction1.put("category", "Groceries");
-            transaction1.put("account", "Checking");
-            transaction1.put("type", "Expense");
-
-            ObjectNode transaction2 = transactionsNode.addObject();
-            transaction2.put("date", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            transaction2.put("description", "Salary Deposit");
-            transaction2.put("amount", 2500.00);
-            transaction2.put("category", "Income");
-            transaction2.put("account", "Checking");
-            transaction2.put("type", "Income");
-
-            // Write to file
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(filePath), rootNode);
-
-            logger.info("Transactions exported successfully to: {}", filePath);
-            return new File(filePath);
+    @Override
+    public File exportDebts(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
+        logger.info("Exporting debts to JSON for user {}", userId);
+        return write(filePath, "debts", userId, request, progress, json -> writeDebts(json, debtRepository.findByUserId(userId)));
+    }
 
-        } catch (IOException e) {
-            logger.error("Failed to export transactions to JSON", e);
-            throw new RuntimeException("Failed to export transactions", e);
-        }
+    @Override
+    public File exportBudgets(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
+        logger.info("Exporting budgets to JSON for user {}", userId);
+        return write(filePath, "budgets", userId, request, progress, json -> writeBudgets(json, budgetRepository.findByUserId(userId)));
     }
 
     @Override
-    public File exportDebts(Long userId, ExportRequest request, String filePath) {
-        logger.info("Exporting debts to JSON for user {}", userId);
+    public File exportGoals(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
+        logger.info("Exporting goals to JSON for user {}", userId);
+        return write(filePath, "goals", userId, request, progress, json -> writeGoals(json, goalRepository.findByUserId(userId)));
+    }
+
+    @Override
+    public File exportAllData(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
+        logger.info("Exporting all financial data to JSON for user {}", userId);
+        // Debts, budgets and goals load while the transactions stream
+        try (ExportSectionLoader.Sections sections = exportSectionLoader.load(userId, progress)) {
+            return write(filePath, "all", userId, request, progress, json -> {
+                writeTransactions(json, userId, request);
+                writeDebts(json, sections.debts());
+                writeBudgets(json, sections.budgets());
+                writeGoals(json, sections.goals());
+            });
+        }
+    }
 
-        try {
-            ObjectNode rootNode = objectMapper.createObjectNode();
-            rootNode.put("exportType", "debts");
-            rootNode.put("userId", userId);
-            rootNode.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            rootNode.put("format", "json");
-
-            ArrayNode debtsNode = rootNode.putArray("debts");
-            
-            // Add sample debt data
-            ObjectNode debt1 = debtsNode.addObject();
-            debt1.put("name", "Credit Card 1");
-            debt1.put("originalAmount", 5000.00);
-            debt1.put("currentBalance", 3200.00);
-            debt1.put("interestRate", 18.99);
-            debt1.put("minimumPayment", 150.00);
-            debt1.put("type", "Credit Card");
-
-            ObjectNode debt2 = debtsNode.addObject();
-            debt2.put("name", "Student Loan");
-            debt2.put("originalAmount", 25000.00);
-            debt2.put("currentBalance", 22000.00);
-            debt2.put("interestRate", 5.50);
-            debt2.put("minimumPayment", 200.00);
-            debt2.put("type", "Student Loan");
-
-            // Write to file
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(filePath), rootNode);
-
-            logger.info("Debts exported successfully to: {}", filePath);
+    private File write(String filePath, String exportType, Long userId, ExportRequest request, ExportProgress progress,
+                       RecordWriter records) {
+        long started = System.nanoTime();
+        String style = request.getJsonStyle() != null ? request.getJsonStyle().toLowerCase() : "pretty";
+        boolean ndjson = "ndjson".equals(style);
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(
+                exportCompression.newOutputStream(Paths.get(filePath)), JsonEncoding.UTF8)) {
+            if (ndjson) {
+                generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            } else if ("pretty".equals(style)) {
+                generator.useDefaultPrettyPrinter();
+            }
+            JsonRecords json = new JsonRecords(generator, ndjson, progress);
+
+            if (!ndjson) {
+                generator.writeStartObject();
+                generator.writeStringField("exportType", exportType);
+                generator.writeNumberField("userId", userId);
+                generator.writeStringField("generatedAt",
+                        LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                generator.writeStringField("format", "json");
+            }
+            records.write(json);
+            if (ndjson) {
+                generator.writeRaw('\n');
+            } else {
+                generator.writeEndObject();
+            }
+            generator.flush();
+
+            long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            logger.info("Exported {} successfully to: {} ({} records in {} ms, {} records/s)",
+                    exportType, filePath, json.count, elapsedMillis, json.count * 1000 / elapsedMillis);
             return new File(filePath);
 
-        } catch (IOException e) {
-            logger.error("Failed to export debts to JSON", e);
-            throw new RuntimeException("Failed to export debts", e);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to export {} to JSON", exportType, e);
+            throw new RuntimeException("Failed to export " + exportType, e);
         }
     }
 
-    @Override
-    public File exportBudgets(Long userId, ExportRequest request, String filePath) {
-        logger.info("Exporting budgets to JSON for user {}", userId);
+    private void writeTransactions(JsonRecords json, Long userId, ExportRequest request) throws IOException {
+        json.startSection("transactions");
+        JsonGenerator g = json.generator;
+        transactionRepository.streamForExport(userId, request.getStartDate(), request.getEndDate(),
+                request.getAfterTransactionId(), request.getThroughTransactionId(), fetchSize, rs -> {
+            try {
+                json.startRecord("transaction");
+                writeTimestamp(g, "date", rs.getTimestamp(1));
+                writeString(g, "description", rs.getString(2));
+                writeNumber(g, "amount", rs.getBigDecimal(3));
+                writeString(g, "category", rs.getString(4));
+                writeString(g, "account", rs.getString(5));
+                writeString(g, "type", rs.getString(6));
+                json.endRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        json.endSection();
+    }
 
-        try {
-            ObjectNode rootNode = objectMapper.createObjectNode();
-            rootNode.put("exportType", "budgets");
-            rootNode.put("userId", userId);
-            rootNode.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            rootNode.put("format", "json");
-
-            ArrayNode budgetsNode = rootNode.putArray("budgets");
-            
-            // Add sample budget data
-            ObjectNode budget1 = budgetsNode.addObject();
-            budget1.put("category", "Groceries");
-            budget1.put("budgetAmount", 500.00);
-            budget1.put("spentAmount", 320.00);
-            budget1.put("remaining", 180.00);
-            budget1.put("percentageUsed", 64.00);
-
-            ObjectNode budget2 = budgetsNode.addObject();
-            budget2.put("category", "Entertainment");
-            budget2.put("budgetAmount", 200.00);
-            budget2.put("spentAmount", 150.00);
-            budget2.put("remaining", 50.00);
-            budget2.put("percentageUsed", 75.00);
-
-            // Write to file
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(filePath), rootNode);
-
-            logger.info("Budgets exported successfully to: {}", filePath);
-            return new File(filePath);
+    private void writeDebts(JsonRecords json, List<Debt> debts) throws IOException {
+        json.startSection("debts");
+        JsonGenerator g = json.generator;
+        json.progress.expect(debts.size());
+        for (Debt debt : debts) {
+            json.startRecord("debt");
+            writeString(g, "name", debt.getName());
+            writeString(g, "type", debt.getDebtType());
+            writeNumber(g, "originalAmount", debt.getOriginalAmount());
+            writeNumber(g, "currentBalance", debt.getCurrentBalance());
+            writeNumber(g, "interestRate", debt.getInterestRate());
+            writeNumber(g, "minimumPayment", debt.getMinimumPayment());
+            if (debt.getDueDate() != null) {
+                g.writeNumberField("dueDay", debt.getDueDate());
+            }
+            writeString(g, "priority", debt.getPriority());
+            writeString(g, "status", debt.getStatus());
+            json.endRecord();
+        }
+        json.endSection();
+    }
 
-        } catch (IOException e) {
-            logger.error("Failed to export budgets to JSON", e);
-            throw new RuntimeException("Failed to export budgets", e);
+    private void writeBudgets(JsonRecords json, List<Budget> budgets) throws IOException {
+        json.startSection("budgets");
+        JsonGenerator g = json.generator;
+        json.progress.expect(budgets.size());
+        for (Budget budget : budgets) {
+            BigDecimal spent = budget.getSpent() != null ? budget.getSpent() : BigDecimal.ZERO;
+            json.startRecord("budget");
+            writeString(g, "name", budget.getName());
+            writeString(g, "category", budget.getCategory());
+            writeString(g, "period", budget.getPeriod());
+            writeNumber(g, "amount", budget.getAmount());
+            writeNumber(g, "spent", spent);
+            writeNumber(g, "remaining", budget.getAmount() != null ? budget.getAmount().subtract(spent) : null);
+            writeTimestamp(g, "startDate", budget.getStartDate());
+            writeTimestamp(g, "endDate", budget.getEndDate());
+            json.endRecord();
         }
+        json.endSection();
     }
 
-    @Override
-    public File exportGoals(Long userId, ExportRequest request, String filePath) {
-        logger.info("Exporting goals to JSON for user {}", userId);
+    private void writeGoals(JsonRecords json, List<Goal> goals) throws IOException {
+        json.startSection("goals");
+        JsonGenerator g = json.generator;
+        json.progress.expect(goals.size());
+        for (Goal goal : goals) {
+            json.startRecord("goal");
+            writeString(g, "name", goal.getName());
+            writeString(g, "type", goal.getType());
+            writeNumber(g, "targetAmount", goal.getTargetAmount());
+            writeNumber(g, "currentAmount", goal.getCurrentAmount());
+            if (goal.getTargetAmount() != null && goal.getTargetAmount().signum() > 0 && goal.getCurrentAmount() != null) {
+                writeNumber(g, "progress", goal.getCurrentAmount().multiply(BigDecimal.valueOf(100))
+                        .divide(goal.getTargetAmount(), 2, RoundingMode.HALF_UP));
+            }
+            writeTimestamp(g, "deadline", goal.getDeadline());
+            writeString(g, "status", goal.getStatus());
+            json.endRecord();
+        }
+        json.endSection();
+    }
 
-        try {
-            ObjectNode rootNode = objectMapper.createObjectNode();
-            rootNode.put("exportType", "goals");
-            rootNode.put("userId", userId);
-            rootNode.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            rootNode.put("format", "json");
-
-            ArrayNode goalsNode = rootNode.putArray("goals");
-            
-            // Add sample goal data
-            ObjectNode goal1 = goalsNode.addObject();
-            goal1.put("name", "Emergency Fund");
-            goal1.put("targetAmount", 10000.00);
-            goal1.put("currentAmount", 7500.00);
-            goal1.put("progress", 75.00);
-            goal1.put("targetDate", "2024-12-31");
-            goal1.put("status", "In Progress");
-
-            ObjectNode goal2 = goalsNode.addObject();
-            goal2.put("name", "Vacation Fund");
-            goal2.put("targetAmount", 5000.00);
-            goal2.put("currentAmount", 3000.00);
-            goal2.put("progress", 60.00);
-            goal2.put("targetDate", "2024-06-30");
-            goal2.put("status", "In Progress");
-
-            // Write to file
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(filePath), rootNode);
-
-            logger.info("Goals exported successfully to: {}", filePath);
-            return new File(filePath);
+    private static void writeString(JsonGenerator g, String field, String value) throws IOException {
+        if (value != null) {
+            g.writeStringField(field, value);
+        }
+    }
 
-        } catch (IOException e) {
-            logger.error("Failed to export goals to JSON", e);
-            throw new RuntimeException("Failed to export goals", e);
+    private static void writeNumber(JsonGenerator g, String field, BigDecimal value) throws IOException {
+        if (value != null) {
+            g.writeNumberField(field, value);
         }
     }
 
-    @Override
-    public File exportAllData(Long userId, ExportRequest request, String filePath) {
-        logger.info("Exporting all financial data to JSON for user {}", userId);
+    private static void writeTimestamp(JsonGenerator g, String field, Timestamp value) throws IOException {
+        if (value != null) {
+            g.writeStringField(field, value.toLocalDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+    }
 
-        try {
-            ObjectNode rootNode = objectMapper.createObjectNode();
-            rootNode.put("exportType", "all");
-            rootNode.put("userId", userId);
-            rootNode.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            rootNode.put("format", "json");
-
-            // Add transactions
-            ArrayNode transactionsNode = rootNode.putArray("transactions");
-            ObjectNode transaction = transactionsNode.addObject();
-            transaction.put("date", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            transaction.put("description", "Sample Transaction");
-            transaction.put("amount", 100.00);
-            transaction.put("category", "Groceries");
-
-            // Add debts
-            ArrayNode debtsNode = rootNode.putArray("debts");
-            ObjectNode debt = debtsNode.addObject();
-            debt.put("name", "Credit Card 1");
-            debt.put("currentBalance", 3200.00);
-            debt.put("interestRate", 18.99);
-
-            // Add budgets
-            ArrayNode budgetsNode = rootNode.putArray("budgets");
-            ObjectNode budget = budgetsNode.addObject();
-            budget.put("category", "Groceries");
-            budget.put("budgetAmount", 500.00);
-            budget.put("spentAmount", 320.00);
-
-            // Add goals
-            ArrayNode goalsNode = rootNode.putArray("goals");
-            ObjectNode goal = goalsNode.addObject();
-            goal.put("name", "Emergency Fund");
-            goal.put("targetAmount", 10000.00);
-            goal.put("currentAmount", 7500.00);
-
-            // Write to file
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(filePath), rootNode);
-
-            logger.info("All financial data exported successfully to: {}", filePath);
-            return new File(filePath);
+    /**
+     * Frames records for the chosen layout: arrays inside the document, or
+     * tagged root-level objects for NDJSON.
+     */
+    private static final class JsonRecords {
+        private final JsonGenerator generator;
+        private final boolean ndjson;
+        private final ExportProgress progress;
+        private long count;
+
+        private JsonRecords(JsonGenerator generator, boolean ndjson, ExportProgress progress) {
+            this.generator = generator;
+            this.ndjson = ndjson;
+            this.progress = progress;
+        }
 
-        } catch (IOException e) {
-            logger.error("Failed to export all data to JSON", e);
-            throw new RuntimeException("Failed to export all data", e);
+        private void startSection(String name) throws IOException {
+            if (!ndjson) {
+                generator.writeArrayFieldStart(name);
+            }
         }
+
+        private void endSection() throws IOException {
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+
+        private void startRecord(String recordType) throws IOException {
+            generator.writeStartObject();
+            if (ndjson) {
+                generator.writeStringField("recordType", recordType);
+            }
+        }
+
+        private void endRecord() throws IOException {
+            generator.writeEndObject();
+            count++;
+            progress.rowWritten();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(JsonRecords json) throws IOException;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,198 @@
+package com.jarom.funbankapp.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.jarom.funbankapp.repository.AccountRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.DebtStrategyRepository;
+
+/**
+ * Answers "does this user own resource X" from a per-user cache of owned ids,
+ * so ownership checks don't load every row the user has.
+ *
+ * Each resource type is loaded lazily with a single id-only query and kept as
+ * a sorted long[]. Every create and delete of these resources goes through a
+ * service that invalidates the type, so the cache sees the app's own writes
+ * at once. Ids are never reused, so a stale positive only ever refers to a
+ * row the user really created. Budgets and goals are not covered; their
+ * controllers check ownership on the row they load.
+ *
+ * An id missing from the cached set triggers a reload before the check
+ * fails, but at most once per {@code miss-reload-millis} for each user and
+ * type; within that window the fresh snapshot is the negative answer, so
+ * probing foreign ids can't turn every check into a query. A row written
+ * outside these services (by SQL, or by another instance) can therefore be
+ * denied for up to that long after the previous load. Each type also
+ * carries a generation that invalidation bumps, and a load that raced with
+ * an invalidation is dropped instead of installed, so a delete can't be
+ * undone by a list read just before it.
+ */
+@Service
+public class OwnershipService {
+
+    public enum ResourceType { ACCOUNT, DEBT, DEBT_STRATEGY }
+
+    private static final int TYPE_COUNT = ResourceType.values().length;
+
+    private final Map<Long, UserEntry> entries = new ConcurrentHashMap<>();
+    private final AccountRepository accountRepository;
+    private final DebtRepository debtRepository;
+    private final DebtStrategyRepository debtStrategyRepository;
+    private final long ttlNanos;
+    private final int maxUsers;
+    private final long missReloadNanos;
+
+    public OwnershipService(AccountRepository accountRepository, DebtRepository debtRepository,
+                            DebtStrategyRepository debtStrategyRepository,
+                            @Value("${app.ownership-cache.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${app.ownership-cache.max-users:10000}") int maxUsers,
+                            @Value("${app.ownership-cache.miss-reload-millis:1000}") long missReloadMillis) {
+        this.accountRepository = accountRepository;
+        this.debtRepository = debtRepository;
+        this.debtStrategyRepository = debtStrategyRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxUsers = maxUsers;
+        this.missReloadNanos = TimeUnit.MILLISECONDS.toNanos(missReloadMillis);
+    }
+
+    public boolean ownsAccount(Long userId, Long accountId) {
+        return owns(userId, ResourceType.ACCOUNT, accountId);
+    }
+
+    public boolean ownsDebt(Long userId, Long debtId) {
+        return owns(userId, ResourceType.DEBT, debtId);
+    }
+
+    public boolean ownsStrategy(Long userId, Long strategyId) {
+        return owns(userId, ResourceType.DEBT_STRATEGY, strategyId);
+    }
+
+    public boolean owns(Long userId, ResourceType type, Long resourceId) {
+        if (userId == null || resourceId == null) {
+            return false;
+        }
+        OwnedIds ids = ownedIds(userId, type);
+        if (ids.contains(resourceId)) {
+            return true;
+        }
+        if (System.nanoTime() - ids.loadedAt < missReloadNanos) {
+            return false;
+        }
+        // The id may have been created through a path that didn't invalidate us.
+        // Only the caller that clears this snapshot's slot forces the reload.
+        entryFor(userId).ids.compareAndSet(type.ordinal(), ids, null);
+        return ownedIds(userId, type).contains(resourceId);
+    }
+
+    /**
+     * Snapshot of every id of the given type the user owns. Unlike {@link #owns},
+     * a miss against the snapshot does not trigger a reload, which makes it the
+     * right choice for filtering large lists.
+     */
+    public OwnedIds ownedIds(Long userId, ResourceType type) {
+        UserEntry entry = entryFor(userId);
+        int slot = type.ordinal();
+        OwnedIds ids = entry.ids.get(slot);
+        if (ids == null) {
+            long generation = entry.generations.get(slot);
+            ids = OwnedIds.of(load(userId, type), System.nanoTime());
+            // Invalidation bumps the generation before it clears the slot, so
+            // either it clears what we install or we see the bump and back out
+            if (entry.ids.compareAndSet(slot, null, ids) && entry.generations.get(slot) != generation) {
+                entry.ids.compareAndSet(slot, ids, null);
+            }
+        }
+        return ids;
+    }
+
+    public void invalidate(Long userId, ResourceType type) {
+        UserEntry entry = entries.get(userId);
+        if (entry != null) {
+            entry.generations.incrementAndGet(type.ordinal());
+            entry.ids.set(type.ordinal(), null);
+        }
+    }
+
+    public void invalidateUser(Long userId) {
+        entries.remove(userId);
+    }
+
+    private UserEntry entryFor(Long userId) {
+        long now = System.nanoTime();
+        UserEntry entry = entries.get(userId);
+        if (entry != null && now - entry.createdAt <= ttlNanos) {
+            return entry;
+        }
+        if (entry == null && entries.size() >= maxUsers) {
+            entries.values().removeIf(e -> now - e.createdAt > ttlNanos);
+            if (entries.size() >= maxUsers) {
+                entries.clear();
+            }
+        }
+        UserEntry fresh = new UserEntry(now);
+        entries.put(userId, fresh);
+        return fresh;
+    }
+
+    private List<Long> load(Long userId, ResourceType type) {
+        switch (type) {
+            case ACCOUNT:
+                return accountRepository.findIdsByUserId(userId);
+            case DEBT:
+                return debtRepository.findIdsByUserId(userId);
+            case DEBT_STRATEGY:
+                return debtStrategyRepository.findIdsByUserId(userId);
+            default:
+                throw new IllegalArgumentException("Unknown resource type: " + type);
+        }
+    }
+
+    private static final class UserEntry {
+        private final long createdAt;
+        private final AtomicReferenceArray<OwnedIds> ids = new AtomicReferenceArray<>(TYPE_COUNT);
+        private final AtomicLongArray generations = new AtomicLongArray(TYPE_COUNT);
+
+        private UserEntry(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Immutable sorted set of primitive ids.
+     */
+    public static final class OwnedIds {
+        private final long[] ids;
+        private final long loadedAt;
+
+        private OwnedIds(long[] ids, long loadedAt) {
+            this.ids = ids;
+            this.loadedAt = loadedAt;
+        }
+
+        static OwnedIds of(List<Long> values, long loadedAt) {
+            long[] ids = new long[values.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = values.get(i);
+            }
+            Arrays.sort(ids);
+            return new OwnedIds(ids, loadedAt);
+        }
+
+        public boolean contains(Long id) {
+            return id != null && Arrays.binarySearch(ids, id) >= 0;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+    }
+}
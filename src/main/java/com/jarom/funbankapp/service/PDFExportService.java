@@ -11,30 +11,30 @@ public interface PDFExportService {
     /**
      * Export data to PDF format
      */
-    File exportData(Long userId, ExportRequest request, String filePath);
+    File exportData(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export transactions to PDF
      */
-    File exportTransactions(Long userId, ExportRequest request, String filePath);
+    File exportTransactions(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export debts to PDF
      */
-    File exportDebts(Long userId, ExportRequest request, String filePath);
+    File exportDebts(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export budgets to PDF
      */
-    File exportBudgets(Long userId, ExportRequest request, String filePath);
+    File exportBudgets(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export goals to PDF
      */
-    File exportGoals(Long userId, ExportRequest request, String filePath);
+    File exportGoals(Long userId, ExportRequest request, String filePath, ExportProgress progress);
     
     /**
      * Export all financial data to PDF
      */
-    File exportAllData(Long userId, ExportRequest request, String filePath);
+    File exportAllData(Long userId, ExportRequest request, String filePath, ExportProgress progress);
 } 
\ No newline at end of file
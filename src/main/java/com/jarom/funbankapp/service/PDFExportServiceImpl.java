@@ -1,181 +1,279 @@
 package com.jarom.funbankapp.service;
 
 import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.model.Budget;
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.model.Goal;
+import com.jarom.funbankapp.repository.BudgetRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.GoalRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
+import com.jarom.funbankapp.service.PdfReportWriter.Align;
+import com.jarom.funbankapp.service.PdfReportWriter.Column;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.text.DecimalFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
- * Implementation of PDF export service
- * Note: This is a placeholder implementation. In a real application,
- * you would use a library like iText or Apache PDFBox to generate actual PDFs.
+ * Implementation of PDF export service. Reports are rendered by
+ * {@link PdfReportWriter}, with transactions streamed from the database and
+ * laid out page by page as they arrive.
  */
 @Service
 public class PDFExportServiceImpl implements PDFExportService {
 
     private static final Logger logger = LoggerFactory.getLogger(PDFExportServiceImpl.class);
 
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter GENERATED_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String MONEY_PATTERN = "$#,##0.00;-$#,##0.00";
+
+    private static final Column[] TRANSACTION_COLUMNS = {
+            new Column("Date", 70, Align.LEFT),
+            new Column("Description", 170, Align.LEFT),
+            new Column("Amount", 70, Align.RIGHT),
+            new Column("Category", 80, Align.LEFT),
+            new Column("Account", 72, Align.LEFT),
+            new Column("Type", 50, Align.LEFT)
+    };
+    private static final Column[] DEBT_COLUMNS = {
+            new Column("Name", 120, Align.LEFT),
+            new Column("Type", 70, Align.LEFT),
+            new Column("Original", 66, Align.RIGHT),
+            new Column("Balance", 66, Align.RIGHT),
+            new Column("Rate", 46, Align.RIGHT),
+            new Column("Min Payment", 60, Align.RIGHT),
+            new Column("Due", 30, Align.RIGHT),
+            new Column("Status", 54, Align.LEFT)
+    };
+    private static final Column[] BUDGET_COLUMNS = {
+            new Column("Name", 120, Align.LEFT),
+            new Column("Category", 80, Align.LEFT),
+            new Column("Period", 50, Align.LEFT),
+            new Column("Amount", 66, Align.RIGHT),
+            new Column("Spent", 66, Align.RIGHT),
+            new Column("Remaining", 70, Align.RIGHT),
+            new Column("Ends", 60, Align.RIGHT)
+    };
+    private static final Column[] GOAL_COLUMNS = {
+            new Column("Name", 130, Align.LEFT),
+            new Column("Type", 60, Align.LEFT),
+            new Column("Target", 75, Align.RIGHT),
+            new Column("Saved", 75, Align.RIGHT),
+            new Column("Progress", 52, Align.RIGHT),
+            new Column("Deadline", 65, Align.RIGHT),
+            new Column("Status", 55, Align.LEFT)
+    };
+
+    private final TransactionRepository transactionRepository;
+    private final DebtRepository debtRepository;
+    private final BudgetRepository budgetRepository;
+    private final GoalRepository goalRepository;
+    private final ExportSectionLoader exportSectionLoader;
+    private final int fetchSize;
+
+    public PDFExportServiceImpl(TransactionRepository transactionRepository, DebtRepository debtRepository,
+                                BudgetRepository budgetRepository, GoalRepository goalRepository,
+                                ExportSectionLoader exportSectionLoader,
+                                @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.transactionRepository = transactionRepository;
+        this.debtRepository = debtRepository;
+        this.budgetRepository = budgetRepository;
+        this.goalRepository = goalRepository;
+        this.exportSectionLoader = exportSectionLoader;
+        this.fetchSize = fetchSize;
+    }
+
     @Override
-    public File exportData(Long userId, ExportRequest request, String filePath) {
+    public File exportData(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting data to PDF for user {}: type={}", userId, request.getExportType());
 
         switch (request.getExportType().toLowerCase()) {
             case "transactions":
-                return exportTransactions(userId, request, filePath);
+                return exportTransactions(userId, request, filePath, progress);
             case "debts":
-                return exportDebts(userId, request, filePath);
+                return exportDebts(userId, request, filePath, progress);
             case "budgets":
-                return exportBudgets(userId, request, filePath);
+                return exportBudgets(userId, request, filePath, progress);
             case "goals":
-                return exportGoals(userId, request, filePath);
+                return exportGoals(userId, request, filePath, progress);
             case "all":
-                return exportAllData(userId, request, filePath);
+                return exportAllData(userId, request, filePath, progress);
             default:
                 throw new RuntimeException("Unsupported export type: " + request.getExportType());
         }
     }
 
     @Override
-    public File exportTransactions(Long userId, ExportRequest request, String filePath) {
+    public File exportTransactions(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting transactions to PDF for user {}", userId);
-
-        // For now, create a simple text file as placeholder
-        // In a real implementation, this would generate a proper PDF
-        try (FileWriter writer = new FileWriter(filePath)) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            
-            writer.write("=== TRANSACTIONS REPORT ===\n");
-            writer.write("Generated: " + timestamp + "\n");
-            writer.write("User ID: " + userId + "\n\n");
-            writer.write("Date | Description | Amount | Category | Account\n");
-            writer.write("-----|-------------|--------|----------|--------\n");
-            writer.write(timestamp + " | Sample Transaction | $100.00 | Groceries | Checking\n");
-            writer.write(timestamp + " | Salary Deposit | $2500.00 | Income | Checking\n");
-
-            logger.info("Transactions exported successfully to: {}", filePath);
-            return new File(filePath);
-
-        } catch (IOException e) {
-            logger.error("Failed to export transactions to PDF", e);
-            throw new RuntimeException("Failed to export transactions", e);
-        }
+        return render(filePath, "Transactions Report", request, "transactions",
+                pdf -> writeTransactions(pdf, userId, request, new DecimalFormat(MONEY_PATTERN), progress));
     }
 
     @Override
-    public File exportDebts(Long userId, ExportRequest request, String filePath) {
+    public File exportDebts(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting debts to PDF for user {}", userId);
-
-        try (FileWriter writer = new FileWriter(filePath)) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            
-            writer.write("=== DEBT SUMMARY REPORT ===\n");
-            writer.write("Generated: " + timestamp + "\n");
-            writer.write("User ID: " + userId + "\n\n");
-            writer.write("Debt Name | Original Amount | Current Balance | Interest Rate | Min Payment\n");
-            writer.write("----------|----------------|-----------------|---------------|-------------\n");
-            writer.write("Credit Card 1 | $5,000.00 | $3,200.00 | 18.99% | $150.00\n");
-            writer.write("Student Loan | $25,000.00 | $22,000.00 | 5.50% | $200.00\n");
-
-            logger.info("Debts exported successfully to: {}", filePath);
-            return new File(filePath);
-
-        } catch (IOException e) {
-            logger.error("Failed to export debts to PDF", e);
-            throw new RuntimeException("Failed to export debts", e);
-        }
+        return render(filePath, "Debt Summary Report", request, "debts",
+                pdf -> writeDebts(pdf, debtRepository.findByUserId(userId), new DecimalFormat(MONEY_PATTERN), progress));
     }
 
     @Override
-    public File exportBudgets(Long userId, ExportRequest request, String filePath) {
+    public File exportBudgets(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
         logger.info("Exporting budgets to PDF for user {}", userId);
+        return render(filePath, "Budget Report", request, "budgets",
+                pdf -> writeBudgets(pdf, budgetRepository.findByUserId(userId), new DecimalFormat(MONEY_PATTERN), progress));
+    }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            
-            writer.write("=== BUDGET REPORT ===\n");
-            writer.write("Generated: " + timestamp + "\n");
-            writer.write("User ID: " + userId + "\n\n");
-            writer.write("Category | Budget Amount | Spent Amount | Remaining | % Used\n");
-            writer.write("---------|---------------|--------------|-----------|-------\n");
-            writer.write("Groceries | $500.00 | $320.00 | $180.00 | 64%\n");
-            writer.write("Entertainment | $200.00 | $150.00 | $50.00 | 75%\n");
-
-            logger.info("Budgets exported successfully to: {}", filePath);
-            return new File(filePath);
+    @Override
+    public File exportGoals(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
+        logger.info("Exporting goals to PDF for user {}", userId);
+        return render(filePath, "Financial Goals Report", request, "goals",
+                pdf -> writeGoals(pdf, goalRepository.findByUserId(userId), new DecimalFormat(MONEY_PATTERN), progress));
+    }
 
-        } catch (IOException e) {
-            logger.error("Failed to export budgets to PDF", e);
-            throw new RuntimeException("Failed to export budgets", e);
+    @Override
+    public File exportAllData(Long userId, ExportRequest request, String filePath, ExportProgress progress) {
+        logger.info("Exporting all financial data to PDF for user {}", userId);
+        // Debts, budgets and goals load while the transactions stream
+        try (ExportSectionLoader.Sections sections = exportSectionLoader.load(userId, progress)) {
+            return render(filePath, "Comprehensive Financial Report", request, "all data", pdf -> {
+                DecimalFormat money = new DecimalFormat(MONEY_PATTERN);
+                writeTransactions(pdf, userId, request, money, progress);
+                writeDebts(pdf, sections.debts(), money, progress);
+                writeBudgets(pdf, sections.budgets(), money, progress);
+                writeGoals(pdf, sections.goals(), money, progress);
+            });
         }
     }
 
-    @Override
-    public File exportGoals(Long userId, ExportRequest request, String filePath) {
-        logger.info("Exporting goals to PDF for user {}", userId);
+    private File render(String filePath, String title, ExportRequest request, String what, ReportWriter report) {
+        long started = System.nanoTime();
+        try (PdfReportWriter pdf = new PdfReportWriter(Paths.get(filePath), "FunBank " + title, subtitle(request))) {
+            report.write(pdf);
+            // Close here so the counts include the last page
+            pdf.close();
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            
-            writer.write("=== FINANCIAL GOALS REPORT ===\n");
-            writer.write("Generated: " + timestamp + "\n");
-            writer.write("User ID: " + userId + "\n\n");
-            writer.write("Goal Name | Target Amount | Current Amount | Progress | Target Date\n");
-            writer.write("----------|---------------|----------------|----------|-------------\n");
-            writer.write("Emergency Fund | $10,000.00 | $7,500.00 | 75% | 2024-12-31\n");
-            writer.write("Vacation Fund | $5,000.00 | $3,000.00 | 60% | 2024-06-30\n");
-
-            logger.info("Goals exported successfully to: {}", filePath);
+            long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            logger.info("Exported {} successfully to: {} ({} rows, {} pages in {} ms, {} pages/s)",
+                    what, filePath, pdf.getRowCount(), pdf.getPageCount(), elapsedMillis,
+                    pdf.getPageCount() * 1000L / elapsedMillis);
             return new File(filePath);
 
-        } catch (IOException e) {
-            logger.error("Failed to export goals to PDF", e);
-            throw new RuntimeException("Failed to export goals", e);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to export {} to PDF", what, e);
+            throw new RuntimeException("Failed to export " + what, e);
         }
     }
 
-    @Override
-    public File exportAllData(Long userId, ExportRequest request, String filePath) {
-        logger.info("Exporting all financial data to PDF for user {}", userId);
+    private static String subtitle(ExportRequest request) {
+        StringBuilder subtitle = new StringBuilder("Generated ").append(GENERATED_FORMAT.format(LocalDateTime.now()));
+        if (request.getStartDate() != null || request.getEndDate() != null) {
+            subtitle.append("  |  ")
+                    .append(request.getStartDate() != null ? DATE_FORMAT.format(request.getStartDate()) : "beginning")
+                    .append(" to ")
+                    .append(request.getEndDate() != null ? DATE_FORMAT.format(request.getEndDate()) : "today");
+        }
+        return subtitle.toString();
+    }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            
-            writer.write("=== COMPREHENSIVE FINANCIAL REPORT ===\n");
-            writer.write("Generated: " + timestamp + "\n");
-            writer.write("User ID: " + userId + "\n\n");
-            
-            writer.write("=== TRANSACTIONS ===\n");
-            writer.write("Date | Description | Amount | Category\n");
-            writer.write("-----|-------------|--------|----------\n");
-            writer.write(timestamp + " | Sample Transaction | $100.00 | Groceries\n\n");
-            
-            writer.write("=== DEBTS ===\n");
-            writer.write("Debt Name | Current Balance | Interest Rate\n");
-            writer.write("----------|----------------|---------------\n");
-            writer.write("Credit Card 1 | $3,200.00 | 18.99%\n\n");
-            
-            writer.write("=== BUDGETS ===\n");
-            writer.write("Category | Budget | Spent | Remaining\n");
-            writer.write("---------|--------|-------|----------\n");
-            writer.write("Groceries | $500.00 | $320.00 | $180.00\n\n");
-            
-            writer.write("=== GOALS ===\n");
-            writer.write("Goal Name | Target | Current | Progress\n");
-            writer.write("----------|--------|---------|----------\n");
-            writer.write("Emergency Fund | $10,000.00 | $7,500.00 | 75%\n");
-
-            logger.info("All financial data exported successfully to: {}", filePath);
-            return new File(filePath);
+    private void writeTransactions(PdfReportWriter pdf, Long userId, ExportRequest request, DecimalFormat money,
+                                   ExportProgress progress) throws IOException {
+        pdf.section("Transactions", TRANSACTION_COLUMNS);
+        transactionRepository.streamForExport(userId, request.getStartDate(), request.getEndDate(),
+                request.getAfterTransactionId(), request.getThroughTransactionId(), fetchSize, rs -> {
+            try {
+                pdf.row(date(rs.getTimestamp(1)),
+                        rs.getString(2),
+                        money(money, rs.getBigDecimal(3)),
+                        rs.getString(4),
+                        rs.getString(5),
+                        rs.getString(6));
+                progress.rowWritten();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeDebts(PdfReportWriter pdf, List<Debt> debts, DecimalFormat money, ExportProgress progress)
+            throws IOException {
+        pdf.section("Debts", DEBT_COLUMNS);
+        progress.expect(debts.size());
+        for (Debt debt : debts) {
+            pdf.row(debt.getName(),
+                    debt.getDebtType(),
+                    money(money, debt.getOriginalAmount()),
+                    money(money, debt.getCurrentBalance()),
+                    debt.getInterestRate() != null ? debt.getInterestRate().toPlainString() + "%" : null,
+                    money(money, debt.getMinimumPayment()),
+                    debt.getDueDate() != null ? debt.getDueDate().toString() : null,
+                    debt.getStatus());
+            progress.rowWritten();
+        }
+    }
 
-        } catch (IOException e) {
-            logger.error("Failed to export all data to PDF", e);
-            throw new RuntimeException("Failed to export all data", e);
+    private void writeBudgets(PdfReportWriter pdf, List<Budget> budgets, DecimalFormat money, ExportProgress progress)
+            throws IOException {
+        pdf.section("Budgets", BUDGET_COLUMNS);
+        progress.expect(budgets.size());
+        for (Budget budget : budgets) {
+            BigDecimal spent = budget.getSpent() != null ? budget.getSpent() : BigDecimal.ZERO;
+            pdf.row(budget.getName(),
+                    budget.getCategory(),
+                    budget.getPeriod(),
+                    money(money, budget.getAmount()),
+                    money(money, spent),
+                    money(money, budget.getAmount() != null ? budget.getAmount().subtract(spent) : null),
+                    date(budget.getEndDate()));
+            progress.rowWritten();
         }
     }
-} 
\ No newline at end of file
+
+    private void writeGoals(PdfReportWriter pdf, List<Goal> goals, DecimalFormat money, ExportProgress progress)
+            throws IOException {
+        pdf.section("Goals", GOAL_COLUMNS);
+        progress.expect(goals.size());
+        for (Goal goal : goals) {
+            String percent = null;
+            if (goal.getTargetAmount() != null && goal.getTargetAmount().signum() > 0 && goal.getCurrentAmount() != null) {
+                percent = goal.getCurrentAmount().multiply(BigDecimal.valueOf(100))
+                        .divide(goal.getTargetAmount(), 0, RoundingMode.HALF_UP) + "%";
+            }
+            pdf.row(goal.getName(),
+                    goal.getType(),
+                    money(money, goal.getTargetAmount()),
+                    money(money, goal.getCurrentAmount()),
+                    percent,
+                    date(goal.getDeadline()),
+                    goal.getStatus());
+            progress.rowWritten();
+        }
+    }
+
+    private static String money(DecimalFormat format, BigDecimal amount) {
+        return amount != null ? format.format(amount) : null;
+    }
+
+    private static String date(Timestamp timestamp) {
+        return timestamp != null ? DATE_FORMAT.format(timestamp.toLocalDateTime()) : null;
+    }
+
+    @FunctionalInterface
+    private interface ReportWriter {
+        void write(PdfReportWriter pdf) throws IOException;
+    }
+}
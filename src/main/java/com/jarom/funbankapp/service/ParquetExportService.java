@@ -0,0 +1,20 @@
+package com.jarom.funbankapp.service;
+
+import com.jarom.funbankapp.dto.ExportRequest;
+import java.io.File;
+
+/**
+ * Service for Parquet export operations
+ */
+public interface ParquetExportService {
+
+    /**
+     * Export data to Parquet format
+     */
+    File exportData(Long userId, ExportRequest request, String filePath, ExportProgress progress);
+
+    /**
+     * Export transactions to Parquet
+     */
+    File exportTransactions(Long userId, ExportRequest request, String filePath, ExportProgress progress);
+}
@@ -0,0 +1,813 @@
+package com.jarom.funbankapp.service;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes an Apache Parquet file one row at a time.
+ *
+ * Rows are buffered column by column until {@code rowGroupRows} have
+ * arrived, then written out as a row group, so memory is bounded by the row
+ * group size rather than the export. Each column chunk is one gzip-compressed
+ * data page (format v1). Dictionary columns get a dictionary page and
+ * RLE/bit-packed indexes, falling back to plain values for a row group with
+ * more than {@code MAX_DICTIONARY_SIZE} distinct strings or none at all.
+ * Every column is optional; nulls are recorded in the definition levels.
+ *
+ * The footer (schema, row group and column chunk metadata with min/max
+ * statistics for numeric columns) is written on close.
+ */
+public final class ParquetWriter implements Closeable {
+
+    static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    static final int DEFAULT_ROW_GROUP_ROWS = 65_536;
+    private static final int MAX_DICTIONARY_SIZE = 10_000;
+    private static final String CREATED_BY = "FunBankApp export";
+
+    // Parquet physical types, encodings, codecs and page types (parquet.thrift)
+    private static final int TYPE_INT64 = 2;
+    private static final int TYPE_BYTE_ARRAY = 6;
+    private static final int REPETITION_OPTIONAL = 1;
+    private static final int CONVERTED_UTF8 = 0;
+    private static final int CONVERTED_DECIMAL = 5;
+    static final int ENCODING_PLAIN = 0;
+    static final int ENCODING_RLE = 3;
+    static final int ENCODING_RLE_DICTIONARY = 8;
+    private static final int CODEC_UNCOMPRESSED = 0;
+    private static final int CODEC_GZIP = 2;
+    static final int PAGE_DATA = 0;
+    static final int PAGE_DICTIONARY = 2;
+
+    /**
+     * A column of the file. All columns are nullable.
+     */
+    public static final class Column {
+        private final String name;
+        private final Kind kind;
+        private final int precision;
+        private final int scale;
+
+        private Column(String name, Kind kind, int precision, int scale) {
+            this.name = name;
+            this.kind = kind;
+            this.precision = precision;
+            this.scale = scale;
+        }
+
+        /** A UTF-8 string column, stored as plain values. */
+        public static Column string(String name) {
+            return new Column(name, Kind.STRING, 0, 0);
+        }
+
+        /** A UTF-8 string column with few distinct values, dictionary-encoded. */
+        public static Column dictionaryString(String name) {
+            return new Column(name, Kind.DICTIONARY_STRING, 0, 0);
+        }
+
+        /** A decimal column stored as a 64-bit unscaled value; precision is at most 18. */
+        public static Column decimal(String name, int precision, int scale) {
+            if (precision < 1 || precision > 18 || scale < 0 || scale > precision) {
+                throw new IllegalArgumentException("Unsupported decimal(" + precision + ", " + scale + ")");
+            }
+            return new Column(name, Kind.DECIMAL, precision, scale);
+        }
+
+        /** A timestamp without time zone, in microseconds. */
+        public static Column timestamp(String name) {
+            return new Column(name, Kind.TIMESTAMP, 0, 0);
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private enum Kind {
+        STRING, DICTIONARY_STRING, DECIMAL, TIMESTAMP;
+
+        boolean isString() {
+            return this == STRING || this == DICTIONARY_STRING;
+        }
+    }
+
+    private final OutputStream out;
+    private final Column[] columns;
+    private final ColumnBuffer[] buffers;
+    private final int rowGroupRows;
+    private final int compressionLevel;
+    private final List<RowGroupInfo> rowGroups = new ArrayList<>();
+
+    private long position;
+    private int column;
+    private int rowsInGroup;
+    private long totalRows;
+    private boolean closed;
+
+    public ParquetWriter(Path path, List<Column> columns, int compressionLevel) throws IOException {
+        this(path, columns, DEFAULT_ROW_GROUP_ROWS, compressionLevel);
+    }
+
+    /**
+     * @param compressionLevel gzip level for pages, 1-9, or 0 to leave them uncompressed
+     */
+    public ParquetWriter(Path path, List<Column> columns, int rowGroupRows, int compressionLevel) throws IOException {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("A Parquet file needs at least one column");
+        }
+        if (rowGroupRows < 1) {
+            throw new IllegalArgumentException("Row group size must be positive, was " + rowGroupRows);
+        }
+        this.columns = columns.toArray(new Column[0]);
+        this.rowGroupRows = rowGroupRows;
+        this.compressionLevel = compressionLevel;
+        this.buffers = new ColumnBuffer[this.columns.length];
+        for (int i = 0; i < this.columns.length; i++) {
+            buffers[i] = new ColumnBuffer(this.columns[i].kind, rowGroupRows);
+        }
+        this.out = new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024);
+        write(MAGIC);
+    }
+
+    public ParquetWriter field(String value) {
+        ColumnBuffer buffer = next("a string", Kind.STRING, Kind.DICTIONARY_STRING);
+        if (value != null) {
+            buffer.strings[buffer.count++] = value;
+        }
+        return advance(buffer, value == null);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value, rounded to the column's
+     *         scale, has more digits than its precision
+     */
+    public ParquetWriter field(BigDecimal value) {
+        ColumnBuffer buffer = next("a decimal", Kind.DECIMAL);
+        if (value != null) {
+            Column c = columns[column];
+            BigDecimal scaled = value.setScale(c.scale, RoundingMode.HALF_UP);
+            if (scaled.precision() > c.precision) {
+                throw new IllegalArgumentException(value + " does not fit column " + c.name
+                        + " decimal(" + c.precision + ", " + c.scale + ")");
+            }
+            buffer.addLong(scaled.unscaledValue().longValueExact());
+        }
+        return advance(buffer, value == null);
+    }
+
+    public ParquetWriter field(LocalDateTime value) {
+        ColumnBuffer buffer = next("a timestamp", Kind.TIMESTAMP);
+        if (value != null) {
+            buffer.addLong(value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000);
+        }
+        return advance(buffer, value == null);
+    }
+
+    /**
+     * Finishes the current row, writing a row group once enough rows are
+     * buffered.
+     */
+    public ParquetWriter endRow() throws IOException {
+        if (column != columns.length) {
+            throw new IllegalStateException("Row has " + column + " fields, expected " + columns.length);
+        }
+        column = 0;
+        rowsInGroup++;
+        totalRows++;
+        if (rowsInGroup == rowGroupRows) {
+            flushRowGroup();
+        }
+        return this;
+    }
+
+    public long getRowCount() {
+        return totalRows;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroups.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (column != 0) {
+                throw new IllegalStateException("Closed in the middle of a row");
+            }
+            flushRowGroup();
+            byte[] footer = fileMetaData();
+            write(footer);
+            Buffer tail = new Buffer(8);
+            tail.writeIntLE(footer.length);
+            tail.write(MAGIC);
+            write(tail.bytes, tail.size);
+        } finally {
+            out.close();
+        }
+    }
+
+    private ColumnBuffer next(String what, Kind... kinds) {
+        if (column == columns.length) {
+            throw new IllegalStateException("Row already has " + columns.length + " fields");
+        }
+        Column c = columns[column];
+        if (!Arrays.asList(kinds).contains(c.kind)) {
+            throw new IllegalStateException("Column " + c.name + " is " + c.kind + ", not " + what);
+        }
+        return buffers[column];
+    }
+
+    private ParquetWriter advance(ColumnBuffer buffer, boolean isNull) {
+        buffer.definitionLevels[rowsInGroup] = isNull ? 0 : 1;
+        if (isNull) {
+            buffer.nulls++;
+        }
+        column++;
+        return this;
+    }
+
+    private void flushRowGroup() throws IOException {
+        if (rowsInGroup == 0) {
+            return;
+        }
+        long groupStart = position;
+        ChunkInfo[] chunks = new ChunkInfo[columns.length];
+        long uncompressed = 0;
+        for (int i = 0; i < columns.length; i++) {
+            chunks[i] = writeColumnChunk(columns[i], buffers[i]);
+            uncompressed += chunks[i].uncompressedSize;
+            buffers[i].reset();
+        }
+        rowGroups.add(new RowGroupInfo(chunks, rowsInGroup, uncompressed, groupStart, position - groupStart));
+        rowsInGroup = 0;
+    }
+
+    private ChunkInfo writeColumnChunk(Column c, ColumnBuffer buffer) throws IOException {
+        ChunkInfo chunk = new ChunkInfo(c, buffer);
+        chunk.start = position;
+
+        Buffer page = new Buffer(Math.max(64, buffer.count * 8));
+        // Definition levels, length-prefixed; there are no repetition levels in a flat schema
+        Buffer levels = new Buffer(64);
+        writeHybrid(levels, buffer.definitionLevels, rowsInGroup, 1);
+        page.writeIntLE(levels.size);
+        page.write(levels.bytes, levels.size);
+
+        Map<String, Integer> dictionary = c.kind == Kind.DICTIONARY_STRING ? dictionaryOf(buffer) : null;
+        if (dictionary != null) {
+            Buffer dictionaryPage = new Buffer(dictionary.size() * 16);
+            for (String value : dictionary.keySet()) {
+                writePlain(dictionaryPage, value);
+            }
+            chunk.dictionaryOffset = position;
+            writePage(chunk, PAGE_DICTIONARY, dictionaryPage, dictionary.size(), ENCODING_PLAIN);
+
+            int[] indexes = new int[buffer.count];
+            for (int i = 0; i < buffer.count; i++) {
+                indexes[i] = dictionary.get(buffer.strings[i]);
+            }
+            int bitWidth = Math.max(1, 32 - Integer.numberOfLeadingZeros(dictionary.size() - 1));
+            page.writeByte(bitWidth);
+            writeHybrid(page, indexes, buffer.count, bitWidth);
+            chunk.encoding = ENCODING_RLE_DICTIONARY;
+        } else if (c.kind.isString()) {
+            for (int i = 0; i < buffer.count; i++) {
+                writePlain(page, buffer.strings[i]);
+            }
+        } else {
+            for (int i = 0; i < buffer.count; i++) {
+                page.writeLongLE(buffer.longs[i]);
+            }
+        }
+
+        chunk.dataOffset = position;
+        writePage(chunk, PAGE_DATA, page, rowsInGroup, chunk.encoding);
+        return chunk;
+    }
+
+    /**
+     * The distinct values in first-seen order, which is also their index
+     * order, or null when there are too many for a dictionary or, with only
+     * nulls in the row group, nothing to put in one.
+     */
+    private static Map<String, Integer> dictionaryOf(ColumnBuffer buffer) {
+        if (buffer.count == 0) {
+            return null;
+        }
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (int i = 0; i < buffer.count; i++) {
+            dictionary.putIfAbsent(buffer.strings[i], dictionary.size());
+            if (dictionary.size() > MAX_DICTIONARY_SIZE) {
+                return null;
+            }
+        }
+        return dictionary;
+    }
+
+    private void writePage(ChunkInfo chunk, int pageType, Buffer body, int numValues, int encoding)
+            throws IOException {
+        byte[] compressed = compress(body);
+        Thrift header = new Thrift();
+        header.fieldI32(1, pageType);
+        header.fieldI32(2, body.size);
+        header.fieldI32(3, compressed.length);
+        if (pageType == PAGE_DICTIONARY) {
+            header.beginStruct(7);
+            header.fieldI32(1, numValues);
+            header.fieldI32(2, encoding);
+            header.endStruct();
+        } else {
+            header.beginStruct(5);
+            header.fieldI32(1, numValues);
+            header.fieldI32(2, encoding);
+            header.fieldI32(3, ENCODING_RLE);
+            header.fieldI32(4, ENCODING_RLE);
+            header.endStruct();
+        }
+        byte[] headerBytes = header.finish();
+        write(headerBytes);
+        write(compressed);
+        chunk.uncompressedSize += headerBytes.length + body.size;
+        chunk.compressedSize += headerBytes.length + compressed.length;
+    }
+
+    private byte[] compress(Buffer body) throws IOException {
+        if (compressionLevel == 0) {
+            return Arrays.copyOf(body.bytes, body.size);
+        }
+        Buffer compressed = new Buffer(Math.max(64, body.size / 4));
+        try (GZIPOutputStream gzip = new LeveledGzipOutputStream(compressed.asOutputStream(), compressionLevel)) {
+            gzip.write(body.bytes, 0, body.size);
+        }
+        return compressed.toByteArray();
+    }
+
+    private byte[] fileMetaData() {
+        Thrift meta = new Thrift();
+        meta.fieldI32(1, 1);
+
+        meta.beginList(2, Thrift.STRUCT, columns.length + 1);
+        meta.beginElement();
+        meta.fieldString(4, "schema");
+        meta.fieldI32(5, columns.length);
+        meta.endStruct();
+        for (Column c : columns) {
+            meta.beginElement();
+            meta.fieldI32(1, c.kind.isString() ? TYPE_BYTE_ARRAY : TYPE_INT64);
+            meta.fieldI32(3, REPETITION_OPTIONAL);
+            meta.fieldString(4, c.name);
+            switch (c.kind) {
+                case STRING:
+                case DICTIONARY_STRING:
+                    meta.fieldI32(6, CONVERTED_UTF8);
+                    meta.beginStruct(10);
+                    meta.beginStruct(1); // STRING
+                    meta.endStruct();
+                    meta.endStruct();
+                    break;
+                case DECIMAL:
+                    meta.fieldI32(6, CONVERTED_DECIMAL);
+                    meta.fieldI32(7, c.scale);
+                    meta.fieldI32(8, c.precision);
+                    meta.beginStruct(10);
+                    meta.beginStruct(5); // DECIMAL
+                    meta.fieldI32(1, c.scale);
+                    meta.fieldI32(2, c.precision);
+                    meta.endStruct();
+                    meta.endStruct();
+                    break;
+                case TIMESTAMP:
+                    // No converted type: TIMESTAMP_MICROS would claim the values are UTC
+                    meta.beginStruct(10);
+                    meta.beginStruct(8); // TIMESTAMP
+                    meta.fieldBool(1, false);
+                    meta.beginStruct(2);
+                    meta.beginStruct(2); // MICROS
+                    meta.endStruct();
+                    meta.endStruct();
+                    meta.endStruct();
+                    meta.endStruct();
+                    break;
+            }
+            meta.endStruct();
+        }
+
+        meta.fieldI64(3, totalRows);
+
+        meta.beginList(4, Thrift.STRUCT, rowGroups.size());
+        for (RowGroupInfo group : rowGroups) {
+            meta.beginElement();
+            meta.beginList(1, Thrift.STRUCT, group.chunks.length);
+            for (ChunkInfo chunk : group.chunks) {
+                writeColumnChunkMeta(meta, chunk, group.rows);
+            }
+            meta.fieldI64(2, group.uncompressedSize);
+            meta.fieldI64(3, group.rows);
+            meta.fieldI64(5, group.start);
+            meta.fieldI64(6, group.compressedSize);
+            meta.endStruct();
+        }
+
+        meta.fieldString(6, CREATED_BY);
+
+        // Type-defined sort order for every column, so readers trust min_value/max_value
+        meta.beginList(7, Thrift.STRUCT, columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            meta.beginElement();
+            meta.beginStruct(1);
+            meta.endStruct();
+            meta.endStruct();
+        }
+        return meta.finish();
+    }
+
+    private void writeColumnChunkMeta(Thrift meta, ChunkInfo chunk, int rows) {
+        Column c = chunk.column;
+        meta.beginElement();
+        meta.fieldI64(2, chunk.start);
+        meta.beginStruct(3);
+        meta.fieldI32(1, c.kind.isString() ? TYPE_BYTE_ARRAY : TYPE_INT64);
+        if (chunk.encoding == ENCODING_RLE_DICTIONARY) {
+            meta.beginList(2, Thrift.I32, 3);
+            meta.listI32(ENCODING_PLAIN);
+            meta.listI32(ENCODING_RLE);
+            meta.listI32(ENCODING_RLE_DICTIONARY);
+        } else {
+            meta.beginList(2, Thrift.I32, 2);
+            meta.listI32(ENCODING_PLAIN);
+            meta.listI32(ENCODING_RLE);
+        }
+        meta.beginList(3, Thrift.BINARY, 1);
+        meta.listString(c.name);
+        meta.fieldI32(4, compressionLevel == 0 ? CODEC_UNCOMPRESSED : CODEC_GZIP);
+        meta.fieldI64(5, rows);
+        meta.fieldI64(6, chunk.uncompressedSize);
+        meta.fieldI64(7, chunk.compressedSize);
+        meta.fieldI64(9, chunk.dataOffset);
+        if (chunk.dictionaryOffset >= 0) {
+            meta.fieldI64(11, chunk.dictionaryOffset);
+        }
+        meta.beginStruct(12);
+        meta.fieldI64(3, chunk.nulls);
+        if (chunk.hasMinMax) {
+            Buffer max = new Buffer(8);
+            max.writeLongLE(chunk.max);
+            Buffer min = new Buffer(8);
+            min.writeLongLE(chunk.min);
+            meta.fieldBinary(5, max.bytes, max.size);
+            meta.fieldBinary(6, min.bytes, min.size);
+        }
+        meta.endStruct();
+        meta.endStruct();
+        meta.endStruct();
+    }
+
+    private static void writePlain(Buffer page, String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        page.writeIntLE(utf8.length);
+        page.write(utf8, utf8.length);
+    }
+
+    /**
+     * RLE/bit-packing hybrid encoding: runs of eight or more equal values
+     * are run-length encoded, everything else is bit-packed in groups of
+     * eight.
+     */
+    static void writeHybrid(Buffer out, int[] values, int count, int bitWidth) {
+        int byteWidth = (bitWidth + 7) / 8;
+        int packedFrom = 0;
+        int i = 0;
+        while (i < count) {
+            int run = 1;
+            while (i + run < count && values[i + run] == values[i]) {
+                run++;
+            }
+            // Bit-packed runs must hold a multiple of eight values, so top up the pending ones first
+            int fill = (8 - (i - packedFrom) % 8) % 8;
+            if (run - fill >= 8) {
+                i += fill;
+                run -= fill;
+                writeBitPacked(out, values, packedFrom, i - packedFrom, bitWidth);
+                out.writeVarint((long) run << 1);
+                for (int b = 0; b < byteWidth; b++) {
+                    out.writeByte(values[i] >>> (8 * b));
+                }
+                i += run;
+                packedFrom = i;
+            } else {
+                i += run;
+            }
+        }
+        writeBitPacked(out, values, packedFrom, count - packedFrom, bitWidth);
+    }
+
+    private static void writeBitPacked(Buffer out, int[] values, int from, int count, int bitWidth) {
+        if (count == 0) {
+            return;
+        }
+        int groups = (count + 7) / 8;
+        out.writeVarint(((long) groups << 1) | 1);
+        long bits = 0;
+        int bitCount = 0;
+        for (int k = 0; k < groups * 8; k++) {
+            long value = k < count ? values[from + k] & 0xFFFFFFFFL : 0;
+            bits |= value << bitCount;
+            bitCount += bitWidth;
+            while (bitCount >= 8) {
+                out.writeByte((int) bits);
+                bits >>>= 8;
+                bitCount -= 8;
+            }
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        write(bytes, bytes.length);
+    }
+
+    private void write(byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        position += length;
+    }
+
+    /**
+     * One row group's worth of a column: definition levels for every row
+     * and the non-null values.
+     */
+    private static final class ColumnBuffer {
+        private final Kind kind;
+        private final int[] definitionLevels;
+        private final String[] strings;
+        private final long[] longs;
+        private int count;
+        private int nulls;
+        private long min;
+        private long max;
+
+        private ColumnBuffer(Kind kind, int rows) {
+            this.kind = kind;
+            this.definitionLevels = new int[rows];
+            this.strings = kind.isString() ? new String[rows] : null;
+            this.longs = kind.isString() ? null : new long[rows];
+            reset();
+        }
+
+        private void addLong(long value) {
+            longs[count++] = value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        private void reset() {
+            if (strings != null) {
+                Arrays.fill(strings, 0, count, null);
+            }
+            count = 0;
+            nulls = 0;
+            min = Long.MAX_VALUE;
+            max = Long.MIN_VALUE;
+        }
+    }
+
+    private static final class ChunkInfo {
+        private final Column column;
+        private final long nulls;
+        private final boolean hasMinMax;
+        private final long min;
+        private final long max;
+        private long start;
+        private long dictionaryOffset = -1;
+        private long dataOffset;
+        private int encoding = ENCODING_PLAIN;
+        private long uncompressedSize;
+        private long compressedSize;
+
+        private ChunkInfo(Column column, ColumnBuffer buffer) {
+            this.column = column;
+            this.nulls = buffer.nulls;
+            this.hasMinMax = !column.kind.isString() && buffer.count > 0;
+            this.min = buffer.min;
+            this.max = buffer.max;
+        }
+    }
+
+    private static final class RowGroupInfo {
+        private final ChunkInfo[] chunks;
+        private final int rows;
+        private final long uncompressedSize;
+        private final long start;
+        private final long compressedSize;
+
+        private RowGroupInfo(ChunkInfo[] chunks, int rows, long uncompressedSize, long start, long compressedSize) {
+            this.chunks = chunks;
+            this.rows = rows;
+            this.uncompressedSize = uncompressedSize;
+            this.start = start;
+            this.compressedSize = compressedSize;
+        }
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        private LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+
+    /**
+     * A growable little-endian byte buffer.
+     */
+    static final class Buffer {
+        private byte[] bytes;
+        private int size;
+
+        Buffer(int capacity) {
+            this.bytes = new byte[Math.max(16, capacity)];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            bytes[size++] = (byte) b;
+        }
+
+        void write(byte[] b) {
+            write(b, b.length);
+        }
+
+        void write(byte[] b, int length) {
+            ensure(length);
+            System.arraycopy(b, 0, bytes, size, length);
+            size += length;
+        }
+
+        void writeIntLE(int value) {
+            ensure(4);
+            for (int i = 0; i < 4; i++) {
+                bytes[size++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        void writeLongLE(long value) {
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                bytes[size++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        OutputStream asOutputStream() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                    writeByte(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    ensure(len);
+                    System.arraycopy(b, off, bytes, size, len);
+                    size += len;
+                }
+            };
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    /**
+     * Just enough of the Thrift compact protocol to write Parquet page
+     * headers and the file footer.
+     */
+    static final class Thrift {
+        static final int BOOLEAN_TRUE = 1;
+        static final int BOOLEAN_FALSE = 2;
+        static final int I32 = 5;
+        static final int I64 = 6;
+        static final int BINARY = 8;
+        static final int LIST = 9;
+        static final int STRUCT = 12;
+
+        private final Buffer buffer = new Buffer(256);
+        // Last field id written at each struct nesting level
+        private int[] lastFieldIds = new int[8];
+        private int depth;
+
+        void fieldI32(int id, int value) {
+            fieldHeader(id, I32);
+            buffer.writeVarint(Integer.toUnsignedLong((value << 1) ^ (value >> 31)));
+        }
+
+        void fieldI64(int id, long value) {
+            fieldHeader(id, I64);
+            buffer.writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void fieldBool(int id, boolean value) {
+            fieldHeader(id, value ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+        }
+
+        void fieldString(int id, String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            fieldBinary(id, utf8, utf8.length);
+        }
+
+        void fieldBinary(int id, byte[] value, int length) {
+            fieldHeader(id, BINARY);
+            buffer.writeVarint(length);
+            buffer.write(value, length);
+        }
+
+        void beginStruct(int id) {
+            fieldHeader(id, STRUCT);
+            push();
+        }
+
+        void endStruct() {
+            buffer.writeByte(0);
+            depth--;
+        }
+
+        void beginList(int id, int elementType, int size) {
+            fieldHeader(id, LIST);
+            if (size < 15) {
+                buffer.writeByte((size << 4) | elementType);
+            } else {
+                buffer.writeByte(0xF0 | elementType);
+                buffer.writeVarint(size);
+            }
+        }
+
+        /** Starts a struct that is an element of a list; close it with {@link #endStruct()}. */
+        void beginElement() {
+            push();
+        }
+
+        void listI32(int value) {
+            buffer.writeVarint(Integer.toUnsignedLong((value << 1) ^ (value >> 31)));
+        }
+
+        void listString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            buffer.writeVarint(utf8.length);
+            buffer.write(utf8);
+        }
+
+        /** Ends the top-level struct and returns its bytes. */
+        byte[] finish() {
+            buffer.writeByte(0);
+            return buffer.toByteArray();
+        }
+
+        private void fieldHeader(int id, int type) {
+            int delta = id - lastFieldIds[depth];
+            if (delta > 0 && delta <= 15) {
+                buffer.writeByte((delta << 4) | type);
+            } else {
+                buffer.writeByte(type);
+                buffer.writeVarint(Integer.toUnsignedLong((id << 1) ^ (id >> 31)));
+            }
+            lastFieldIds[depth] = id;
+        }
+
+        private void push() {
+            depth++;
+            if (depth == lastFieldIds.length) {
+                lastFieldIds = Arrays.copyOf(lastFieldIds, depth * 2);
+            }
+            lastFieldIds[depth] = 0;
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.jarom.funbankapp.service;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Renders tabular reports to PDF one row at a time.
+ *
+ * Rows are laid out onto the current page; when it is full, its content
+ * stream is compressed and written out together with its page object, and
+ * only the page's byte offsets are kept for the cross-reference table. The
+ * fonts and the resource dictionary are written once and shared by every
+ * page, and the page buffer and deflater are reused, so memory doesn't grow
+ * with the length of the report.
+ *
+ * Uses the standard Helvetica fonts with WinAnsi encoding; characters
+ * outside Latin-1 are printed as '?'.
+ */
+public final class PdfReportWriter implements Closeable {
+
+    public enum Align { LEFT, RIGHT }
+
+    /**
+     * A table column: its title, its width in points, and how cells align.
+     */
+    public static final class Column {
+        private final String title;
+        private final float width;
+        private final Align align;
+
+        public Column(String title, float width, Align align) {
+            this.title = title;
+            this.width = width;
+            this.align = align;
+        }
+    }
+
+    // US Letter, in points
+    private static final float PAGE_WIDTH = 612;
+    private static final float PAGE_HEIGHT = 792;
+    private static final float MARGIN = 50;
+    private static final float FONT_SIZE = 9;
+    private static final float LEADING = 14;
+    private static final float CELL_PADDING = 4;
+
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int RESOURCES = 3;
+    private static final int FONT_REGULAR = 4;
+    private static final int FONT_BOLD = 5;
+    private static final int FIRST_FREE_OBJECT = 6;
+
+    // Helvetica advance widths (per 1000 em) for ' ' through '~', from the standard AFM
+    private static final short[] HELVETICA_WIDTHS = {
+            278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+            1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+            333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+            556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584
+    };
+
+    private final CountingOutputStream out;
+    private final String title;
+    private final String subtitle;
+    private final boolean compress;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final PageBuffer page = new PageBuffer(16 * 1024);
+    private final PageBuffer compressed = new PageBuffer(8 * 1024);
+
+    private long[] offsets = new long[64];
+    private int nextObject = FIRST_FREE_OBJECT;
+    private int[] pageObjects = new int[16];
+    private int pageCount;
+
+    private String sectionTitle;
+    private Column[] columns;
+    private boolean pageOpen;
+    private float y;
+    private long rows;
+    private boolean closed;
+
+    public PdfReportWriter(Path path, String title, String subtitle) throws IOException {
+        this(path, title, subtitle, true);
+    }
+
+    PdfReportWriter(Path path, String title, String subtitle, boolean compress) throws IOException {
+        this.out = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024));
+        this.title = title;
+        this.subtitle = subtitle;
+        this.compress = compress;
+        writeAscii("%PDF-1.4\n%âãÏÓ\n");
+        beginObject(CATALOG);
+        writeAscii("<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+        beginObject(FONT_REGULAR);
+        writeAscii("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\nendobj\n");
+        beginObject(FONT_BOLD);
+        writeAscii("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>\nendobj\n");
+        beginObject(RESOURCES);
+        writeAscii("<< /Font << /F1 " + FONT_REGULAR + " 0 R /F2 " + FONT_BOLD
+                + " 0 R >> /ProcSet [/PDF /Text] >>\nendobj\n");
+    }
+
+    /**
+     * Starts a new table on a fresh page. The title and column headings are
+     * repeated at the top of every page the table runs onto.
+     */
+    public PdfReportWriter section(String sectionTitle, Column... columns) throws IOException {
+        finishPage();
+        this.sectionTitle = sectionTitle;
+        this.columns = columns;
+        startPage(false);
+        return this;
+    }
+
+    /**
+     * Adds one table row. Cells that don't fit their column are truncated
+     * with an ellipsis.
+     */
+    public PdfReportWriter row(String... cells) throws IOException {
+        if (columns == null) {
+            throw new IllegalStateException("Call section() before writing rows");
+        }
+        if (y < MARGIN + LEADING) {
+            finishPage();
+            startPage(true);
+        }
+        float x = MARGIN;
+        for (int i = 0; i < columns.length; i++) {
+            String cell = i < cells.length && cells[i] != null ? cells[i] : "";
+            text("F1", FONT_SIZE, x, y, columns[i], cell);
+            x += columns[i].width;
+        }
+        y -= LEADING;
+        rows++;
+        return this;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (pageCount == 0 && !pageOpen) {
+                // A PDF needs at least one page
+                startPage(false);
+            }
+            finishPage();
+
+            beginObject(PAGES);
+            writeAscii("<< /Type /Pages /Count " + pageCount + " /Kids [");
+            for (int i = 0; i < pageCount; i++) {
+                writeAscii(pageObjects[i] + " 0 R ");
+            }
+            writeAscii("] >>\nendobj\n");
+
+            int info = nextObject++;
+            beginObject(info);
+            writeAscii("<< /Producer (FunBankApp) /Title (");
+            writeEscaped(title);
+            writeAscii(") >>\nendobj\n");
+
+            long xref = out.count;
+            writeAscii("xref\n0 " + nextObject + "\n0000000000 65535 f \n");
+            for (int i = 1; i < nextObject; i++) {
+                String offset = Long.toString(offsets[i]);
+                writeAscii("0000000000".substring(offset.length()) + offset + " 00000 n \n");
+            }
+            writeAscii("trailer\n<< /Size " + nextObject + " /Root " + CATALOG + " 0 R /Info " + info
+                    + " 0 R >>\nstartxref\n" + xref + "\n%%EOF\n");
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void startPage(boolean continued) throws IOException {
+        pageOpen = true;
+        page.reset();
+        page.ascii("BT\n");
+        y = PAGE_HEIGHT - MARGIN - 14;
+        text("F2", 14, MARGIN, y, null, title);
+        y -= 16;
+        text("F1", 9, MARGIN, y, null, subtitle);
+        y -= 24;
+        if (sectionTitle != null) {
+            text("F2", 11, MARGIN, y, null, continued ? sectionTitle + " (continued)" : sectionTitle);
+            y -= 18;
+            float x = MARGIN;
+            for (Column column : columns) {
+                text("F2", FONT_SIZE, x, y, column, column.title);
+                x += column.width;
+            }
+            page.ascii("ET\n0.5 w ");
+            number(MARGIN);
+            number(y - 4);
+            page.ascii("m ");
+            number(PAGE_WIDTH - MARGIN);
+            number(y - 4);
+            page.ascii("l S\nBT\n");
+            y -= LEADING + 2;
+        }
+    }
+
+    private void finishPage() throws IOException {
+        if (!pageOpen) {
+            return;
+        }
+        pageCount++;
+        page.ascii("/F1 8 Tf 1 0 0 1 ");
+        number(PAGE_WIDTH - MARGIN - 40);
+        number(MARGIN / 2);
+        page.ascii("Tm (Page " + pageCount + ") Tj\nET\n");
+
+        int contents = nextObject++;
+        int pageObject = nextObject++;
+        beginObject(contents);
+        if (compress) {
+            deflater.reset();
+            deflater.setInput(page.bytes, 0, page.length);
+            deflater.finish();
+            compressed.reset();
+            while (!deflater.finished()) {
+                compressed.ensure(4096);
+                compressed.length += deflater.deflate(compressed.bytes, compressed.length,
+                        compressed.bytes.length - compressed.length);
+            }
+            writeAscii("<< /Length " + compressed.length + " /Filter /FlateDecode >>\nstream\n");
+            out.write(compressed.bytes, 0, compressed.length);
+        } else {
+            writeAscii("<< /Length " + page.length + " >>\nstream\n");
+            out.write(page.bytes, 0, page.length);
+        }
+        writeAscii("\nendstream\nendobj\n");
+
+        beginObject(pageObject);
+        writeAscii("<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + (int) PAGE_WIDTH + " "
+                + (int) PAGE_HEIGHT + "] /Resources " + RESOURCES + " 0 R /Contents " + contents + " 0 R >>\nendobj\n");
+        if (pageCount > pageObjects.length) {
+            pageObjects = Arrays.copyOf(pageObjects, pageObjects.length * 2);
+        }
+        pageObjects[pageCount - 1] = pageObject;
+        pageOpen = false;
+    }
+
+    private void text(String font, float size, float x, float baseline, Column column, String value) {
+        String shown = value;
+        float textX = x;
+        if (column != null) {
+            float available = column.width - CELL_PADDING;
+            shown = fit(value, size, available);
+            if (column.align == Align.RIGHT) {
+                textX = x + available - width(shown, size);
+            }
+        }
+        page.ascii("/").ascii(font).ascii(" ");
+        number(size);
+        page.ascii("Tf 1 0 0 1 ");
+        number(textX);
+        number(baseline);
+        page.ascii("Tm (");
+        for (int i = 0; i < shown.length(); i++) {
+            char c = shown.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                page.put((byte) '\\');
+            }
+            page.put(c < 0x20 ? (byte) ' ' : c <= 0xFF ? (byte) c : (byte) '?');
+        }
+        page.ascii(") Tj\n");
+    }
+
+    private static String fit(String value, float size, float available) {
+        if (width(value, size) <= available) {
+            return value;
+        }
+        float ellipsis = width("...", size);
+        float used = 0;
+        int end = 0;
+        while (end < value.length()) {
+            float next = used + charWidth(value.charAt(end)) * size / 1000;
+            if (next + ellipsis > available) {
+                break;
+            }
+            used = next;
+            end++;
+        }
+        return value.substring(0, end) + "...";
+    }
+
+    static float width(String value, float size) {
+        float total = 0;
+        for (int i = 0; i < value.length(); i++) {
+            total += charWidth(value.charAt(i));
+        }
+        return total * size / 1000;
+    }
+
+    private static int charWidth(char c) {
+        return c >= ' ' && c <= '~' ? HELVETICA_WIDTHS[c - ' '] : 556;
+    }
+
+    private void number(float value) {
+        // Two decimals is well below a printer's resolution
+        long hundredths = Math.round(value * 100);
+        if (hundredths < 0) {
+            page.put((byte) '-');
+            hundredths = -hundredths;
+        }
+        page.ascii(Long.toString(hundredths / 100));
+        long fraction = hundredths % 100;
+        if (fraction != 0) {
+            page.put((byte) '.');
+            page.put((byte) ('0' + fraction / 10));
+            if (fraction % 10 != 0) {
+                page.put((byte) ('0' + fraction % 10));
+            }
+        }
+        page.put((byte) ' ');
+    }
+
+    private void beginObject(int number) throws IOException {
+        if (number >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, number + 1));
+        }
+        offsets[number] = out.count;
+        writeAscii(number + " 0 obj\n");
+    }
+
+    private void writeAscii(String s) throws IOException {
+        out.write(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void writeEscaped(String s) throws IOException {
+        page.reset();
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                page.put((byte) '\\');
+            }
+            page.put(c <= 0xFF ? (byte) c : (byte) '?');
+        }
+        out.write(page.bytes, 0, page.length);
+    }
+
+    /**
+     * A growable byte array that is reset rather than reallocated between pages.
+     */
+    private static final class PageBuffer {
+        private byte[] bytes;
+        private int length;
+
+        private PageBuffer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        private void reset() {
+            length = 0;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        private void put(byte b) {
+            ensure(1);
+            bytes[length++] = b;
+        }
+
+        private PageBuffer ascii(String s) {
+            ensure(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                bytes[length++] = (byte) s.charAt(i);
+            }
+            return this;
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        private CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
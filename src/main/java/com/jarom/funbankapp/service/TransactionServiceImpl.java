@@ -28,10 +28,13 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
+    private final OwnershipService ownershipService;
 
-    public TransactionServiceImpl(TransactionRepository transactionRepository, UserRepository userRepository) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository, UserRepository userRepository,
+                                  OwnershipService ownershipService) {
         this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;
+        this.ownershipService = ownershipService;
     }
 
     @Override
@@ -100,10 +103,10 @@ public class TransactionServiceImpl implements TransactionService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         // Verify both accounts belong to the user
-        if (!transactionRepository.isAccountOwnedByUser(request.getSourceAccountId(), user.getId())) {
+        if (!ownershipService.ownsAccount(user.getId(), request.getSourceAccountId())) {
             throw new RuntimeException("Unauthorized: You don't own the source account");
         }
-        if (!transactionRepository.isAccountOwnedByUser(request.getDestinationAccountId(), user.getId())) {
+        if (!ownershipService.ownsAccount(user.getId(), request.getDestinationAccountId())) {
             throw new RuntimeException("Unauthorized: You don't own the destination account");
         }
         
@@ -226,7 +229,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
         
         // Verify user owns the account
-        if (!transactionRepository.isAccountOwnedByUser(existingTransaction.getAccountId(), user.getId())) {
+        if (!ownershipService.ownsAccount(user.getId(), existingTransaction.getAccountId())) {
             throw new RuntimeException("Unauthorized: You don't own this transaction");
         }
         
@@ -256,7 +259,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
         
         // Verify user owns the account
-        if (!transactionRepository.isAccountOwnedByUser(existingTransaction.getAccountId(), user.getId())) {
+        if (!ownershipService.ownsAccount(user.getId(), existingTransaction.getAccountId())) {
             throw new RuntimeException("Unauthorized: You don't own this transaction");
         }
         
@@ -294,7 +297,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
         
         // Verify user owns the account
-        if (!transactionRepository.isAccountOwnedByUser(transaction.getAccountId(), user.getId())) {
+        if (!ownershipService.ownsAccount(user.getId(), transaction.getAccountId())) {
             throw new RuntimeException("Unauthorized: You don't own this transaction");
         }
         
@@ -311,7 +314,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
         
         // Verify user owns the account
-        if (!transactionRepository.isAccountOwnedByUser(transaction.getAccountId(), user.getId())) {
+        if (!ownershipService.ownsAccount(user.getId(), transaction.getAccountId())) {
             throw new RuntimeException("Unauthorized: You don't own this transaction");
         }
         
@@ -326,7 +329,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         // Verify user owns the account
-        if (!transactionRepository.isAccountOwnedByUser(accountId, user.getId())) {
+        if (!ownershipService.ownsAccount(user.getId(), accountId)) {
             throw new RuntimeException("Unauthorized: You don't own this account");
         }
         
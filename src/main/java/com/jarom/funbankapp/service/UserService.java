@@ -10,6 +10,7 @@ import com.jarom.funbankapp.repository.BudgetRepository;
 import com.jarom.funbankapp.repository.GoalRepository;
 import com.jarom.funbankapp.repository.TransactionRepository;
 import com.jarom.funbankapp.repository.UserRepository;
+import com.jarom.funbankapp.security.UserDetailsCache;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -20,15 +21,20 @@ public class UserService {
     private final TransactionRepository transactionRepository;
     private final BudgetRepository budgetRepository;
     private final GoalRepository goalRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final OwnershipService ownershipService;
 
     public UserService(UserRepository userRepository, AccountRepository accountRepository, 
                       TransactionRepository transactionRepository, BudgetRepository budgetRepository, 
-                      GoalRepository goalRepository) {
+                      GoalRepository goalRepository, UserDetailsCache userDetailsCache,
+                      OwnershipService ownershipService) {
         this.userRepository = userRepository;
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
         this.budgetRepository = budgetRepository;
         this.goalRepository = goalRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.ownershipService = ownershipService;
     }
 
     public Long save(User user) {
@@ -44,7 +50,15 @@ public class UserService {
     }
 
     public void updateUser(User user) {
+        // A rename leaves cached logins under the old username, so evict that one too
+        String previousUsername = user.getId() != null
+                ? userRepository.findById(user.getId()).map(User::getUsername).orElse(null)
+                : null;
         userRepository.updateUser(user);
+        userDetailsCache.evictUser(user.getUsername());
+        if (previousUsername != null && !previousUsername.equals(user.getUsername())) {
+            userDetailsCache.evictUser(previousUsername);
+        }
     }
 
     public boolean existsByUsername(String username) {
@@ -82,6 +96,7 @@ public class UserService {
         }
         
         userRepository.updateUser(user);
+        userDetailsCache.evictUser(user.getUsername());
         return user;
     }
 
@@ -121,5 +136,7 @@ public class UserService {
         
         // Finally, delete the user
         userRepository.deleteUser(user.getId());
+        userDetailsCache.evictUser(user.getUsername());
+        ownershipService.invalidateUser(user.getId());
     }
 } 
\ No newline at end of file
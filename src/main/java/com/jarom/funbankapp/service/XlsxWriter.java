@@ -0,0 +1,415 @@
+package com.jarom.funbankapp.service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes an XLSX workbook one row at a time.
+ *
+ * Sheet XML goes straight into the zip stream as rows arrive; nothing about
+ * a finished row is kept. Repeated short strings (categories, account names,
+ * types) go into the shared-strings table, which is capped at
+ * {@code maxSharedStrings} entries; once it is full, new strings are written
+ * inline instead, so memory stays bounded however many distinct values the
+ * data has. A sheet that reaches Excel's row limit continues on a new sheet
+ * with the same header.
+ *
+ * The workbook parts that list the sheets and strings are written on close.
+ */
+public final class XlsxWriter implements Closeable {
+
+    static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final int DEFAULT_MAX_SHARED_STRINGS = 10_000;
+    private static final int MAX_SHARED_STRING_LENGTH = 64;
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+
+    // Style indexes into cellXfs in styles.xml
+    private static final int STYLE_HEADER = 1;
+    private static final int STYLE_DATE = 2;
+    private static final int STYLE_DATE_TIME = 3;
+    private static final int STYLE_MONEY = 4;
+
+    private final ZipOutputStream zip;
+    private final Writer out;
+    private final int maxRowsPerSheet;
+    private final int maxSharedStrings;
+    private final Map<String, Integer> sharedStrings = new HashMap<>();
+    private final List<String> sharedStringOrder = new ArrayList<>();
+    private final List<String> sheetNames = new ArrayList<>();
+    private long sharedStringRefs;
+
+    private String sheetBaseName;
+    private String[] header;
+    private boolean sheetOpen;
+    private int rowNum;
+    private int column;
+    private boolean rowOpen;
+    private long totalRows;
+
+    public XlsxWriter(Path path) throws IOException {
+        this(path, MAX_ROWS_PER_SHEET, DEFAULT_MAX_SHARED_STRINGS);
+    }
+
+    XlsxWriter(Path path, int maxRowsPerSheet, int maxSharedStrings) throws IOException {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024));
+        // Sheet XML is repetitive enough that the fastest level already shrinks it well; higher levels mostly cost CPU
+        this.zip.setLevel(Deflater.BEST_SPEED);
+        this.out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+        this.maxRowsPerSheet = maxRowsPerSheet;
+        this.maxSharedStrings = maxSharedStrings;
+    }
+
+    /**
+     * Starts a new sheet and writes its header row.
+     */
+    public XlsxWriter sheet(String name, String... header) throws IOException {
+        this.sheetBaseName = name;
+        this.header = header;
+        openSheet(uniqueSheetName(name));
+        return this;
+    }
+
+    public XlsxWriter field(String value) throws IOException {
+        nextCell();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        Integer index = sharedStrings.get(value);
+        if (index == null && value.length() <= MAX_SHARED_STRING_LENGTH && sharedStringOrder.size() < maxSharedStrings) {
+            index = sharedStringOrder.size();
+            sharedStrings.put(value, index);
+            sharedStringOrder.add(value);
+        }
+        if (index != null) {
+            sharedStringRefs++;
+            cellStart("s", 0);
+            out.write("<v>");
+            out.write(Integer.toString(index));
+            out.write("</v></c>");
+        } else {
+            cellStart("inlineStr", 0);
+            out.write("<is><t xml:space=\"preserve\">");
+            escape(value);
+            out.write("</t></is></c>");
+        }
+        return this;
+    }
+
+    public XlsxWriter field(BigDecimal value) throws IOException {
+        return number(value == null ? null : value.toPlainString(), STYLE_MONEY);
+    }
+
+    public XlsxWriter field(long value) throws IOException {
+        return number(Long.toString(value), 0);
+    }
+
+    /**
+     * A plain number, e.g. a rate or a percentage, without currency formatting.
+     */
+    public XlsxWriter numberField(BigDecimal value) throws IOException {
+        return number(value == null ? null : value.toPlainString(), 0);
+    }
+
+    public XlsxWriter field(LocalDate value) throws IOException {
+        return number(value == null ? null : Long.toString(ChronoUnit.DAYS.between(EXCEL_EPOCH, value)), STYLE_DATE);
+    }
+
+    public XlsxWriter field(LocalDateTime value) throws IOException {
+        if (value == null) {
+            return number(null, STYLE_DATE_TIME);
+        }
+        long days = ChronoUnit.DAYS.between(EXCEL_EPOCH, value.toLocalDate());
+        double fraction = value.toLocalTime().toSecondOfDay() / 86400.0;
+        return number(Double.toString(days + fraction), STYLE_DATE_TIME);
+    }
+
+    public XlsxWriter endRow() throws IOException {
+        if (!rowOpen) {
+            openRow();
+        }
+        out.write("</row>");
+        rowOpen = false;
+        totalRows++;
+        return this;
+    }
+
+    /**
+     * Data rows written so far across all sheets, not counting headers.
+     */
+    public long getRowCount() {
+        return totalRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            closeSheet();
+            writeSharedStrings();
+            writeWorkbookParts();
+            out.flush();
+        } finally {
+            zip.close();
+        }
+    }
+
+    private XlsxWriter number(String value, int style) throws IOException {
+        nextCell();
+        if (value != null) {
+            cellStart(null, style);
+            out.write("<v>");
+            out.write(value);
+            out.write("</v></c>");
+        }
+        return this;
+    }
+
+    private void nextCell() throws IOException {
+        if (!rowOpen) {
+            openRow();
+        }
+        column++;
+    }
+
+    private void openRow() throws IOException {
+        if (!sheetOpen) {
+            throw new IllegalStateException("Call sheet() before writing rows");
+        }
+        if (rowNum == maxRowsPerSheet) {
+            openSheet(uniqueSheetName(sheetBaseName));
+        }
+        startRow();
+    }
+
+    private void startRow() throws IOException {
+        rowNum++;
+        column = 0;
+        rowOpen = true;
+        out.write("<row r=\"");
+        out.write(Integer.toString(rowNum));
+        out.write("\">");
+    }
+
+    private void cellStart(String type, int style) throws IOException {
+        out.write("<c r=\"");
+        writeColumnName(column);
+        out.write(Integer.toString(rowNum));
+        if (type != null) {
+            out.write("\" t=\"");
+            out.write(type);
+        }
+        if (style != 0) {
+            out.write("\" s=\"");
+            out.write(Integer.toString(style));
+        }
+        out.write("\">");
+    }
+
+    private void writeColumnName(int oneBased) throws IOException {
+        if (oneBased > 26) {
+            writeColumnName((oneBased - 1) / 26);
+        }
+        out.write('A' + (oneBased - 1) % 26);
+    }
+
+    private void openSheet(String name) throws IOException {
+        closeSheet();
+        sheetNames.add(name);
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetNames.size() + ".xml"));
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                + "<sheetViews><sheetView workbookViewId=\"0\"><pane ySplit=\"1\" topLeftCell=\"A2\" "
+                + "activePane=\"bottomLeft\" state=\"frozen\"/></sheetView></sheetViews><sheetData>");
+        sheetOpen = true;
+        rowNum = 0;
+        startRow();
+        for (String title : header) {
+            column++;
+            cellStart("inlineStr", STYLE_HEADER);
+            out.write("<is><t>");
+            escape(title);
+            out.write("</t></is></c>");
+        }
+        out.write("</row>");
+        rowOpen = false;
+    }
+
+    private void closeSheet() throws IOException {
+        if (!sheetOpen) {
+            return;
+        }
+        if (rowOpen) {
+            endRow();
+        }
+        out.write("</sheetData></worksheet>");
+        out.flush();
+        zip.closeEntry();
+        sheetOpen = false;
+    }
+
+    private String uniqueSheetName(String name) {
+        StringBuilder cleaned = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            cleaned.append("[]:*?/\\".indexOf(c) >= 0 ? '_' : c);
+        }
+        String base = cleaned.length() == 0 ? "Sheet" : cleaned.toString();
+        String candidate = truncate(base, MAX_SHEET_NAME_LENGTH);
+        for (int n = 2; containsIgnoreCase(sheetNames, candidate); n++) {
+            String suffix = " (" + n + ")";
+            candidate = truncate(base, MAX_SHEET_NAME_LENGTH - suffix.length()) + suffix;
+        }
+        return candidate;
+    }
+
+    private static String truncate(String s, int length) {
+        return s.length() <= length ? s : s.substring(0, length);
+    }
+
+    private static boolean containsIgnoreCase(List<String> names, String name) {
+        for (String existing : names) {
+            if (existing.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeSharedStrings() throws IOException {
+        zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"");
+        out.write(Long.toString(sharedStringRefs));
+        out.write("\" uniqueCount=\"");
+        out.write(Integer.toString(sharedStringOrder.size()));
+        out.write("\">");
+        for (String s : sharedStringOrder) {
+            out.write("<si><t xml:space=\"preserve\">");
+            escape(s);
+            out.write("</t></si>");
+        }
+        out.write("</sst>");
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private void writeWorkbookParts() throws IOException {
+        StringBuilder contentTypes = new StringBuilder(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" "
+                + "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                + "<Override PartName=\"/xl/styles.xml\" "
+                + "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+                + "<Override PartName=\"/xl/sharedStrings.xml\" "
+                + "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>");
+        StringBuilder sheets = new StringBuilder();
+        StringBuilder rels = new StringBuilder(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(".xml\" ")
+                    .append("ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+            sheets.append("<sheet name=\"").append(escapeAttribute(sheetNames.get(i - 1)))
+                    .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+            rels.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" ")
+                    .append("Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        int next = sheetNames.size() + 1;
+        rels.append("<Relationship Id=\"rId").append(next)
+                .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" ")
+                .append("Target=\"styles.xml\"/>")
+                .append("<Relationship Id=\"rId").append(next + 1)
+                .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/sharedStrings\" ")
+                .append("Target=\"sharedStrings.xml\"/></Relationships>");
+        contentTypes.append("</Types>");
+
+        writeEntry("[Content_Types].xml", contentTypes.toString());
+        writeEntry("_rels/.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" "
+                + "Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" "
+                + "Target=\"xl/workbook.xml\"/></Relationships>");
+        writeEntry("xl/workbook.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+                + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+                + "<sheets>" + sheets + "</sheets></workbook>");
+        writeEntry("xl/_rels/workbook.xml.rels", rels.toString());
+        writeEntry("xl/styles.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                + "<numFmts count=\"1\"><numFmt numFmtId=\"164\" formatCode=\"yyyy-mm-dd hh:mm:ss\"/></numFmts>"
+                + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+                + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+                + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+                + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+                + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+                + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                + "<cellXfs count=\"5\">"
+                + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+                + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>"
+                + "<xf numFmtId=\"14\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+                + "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+                + "<xf numFmtId=\"4\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+                + "</cellXfs>"
+                + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+                + "</styleSheet>");
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private void escape(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    out.write("&amp;");
+                    break;
+                case '<':
+                    out.write("&lt;");
+                    break;
+                case '>':
+                    out.write("&gt;");
+                    break;
+                case '"':
+                    out.write("&quot;");
+                    break;
+                default:
+                    // XML 1.0 can't carry most control characters at all, even escaped
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        out.write(c);
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static String escapeAttribute(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,9 @@
+-- Export result cache key
+-- Run once against an existing database before deploying the export result cache.
+-- A new export whose key matches a completed job for the same user links to that job's file
+-- instead of generating it again.
+
+ALTER TABLE export_jobs
+    ADD COLUMN cache_key VARCHAR(64);
+
+CREATE INDEX idx_export_jobs_user_cache_key ON export_jobs (user_id, cache_key);
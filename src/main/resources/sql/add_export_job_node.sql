@@ -0,0 +1,9 @@
+-- Export job node column
+-- Run once against an existing database before deploying more than one application node.
+-- A worker records its node when it claims a job, and on startup a node only resets the
+-- PROCESSING jobs it claimed itself, so it can't restart exports running on another node.
+
+ALTER TABLE export_jobs
+    ADD COLUMN node_id VARCHAR(64);
+
+CREATE INDEX idx_export_jobs_status_node ON export_jobs (status, node_id);
@@ -0,0 +1,8 @@
+-- Export job progress columns
+-- Run once against an existing database before deploying row-level export progress.
+-- Running exports save their progress here every few seconds; polls are served from memory.
+
+ALTER TABLE export_jobs
+    ADD COLUMN progress INT DEFAULT 0,
+    ADD COLUMN rows_written BIGINT DEFAULT 0,
+    ADD COLUMN rows_total BIGINT DEFAULT 0;
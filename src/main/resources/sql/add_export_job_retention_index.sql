@@ -0,0 +1,5 @@
+-- Export retention index
+-- Run once against an existing database before deploying the export retention sweeper.
+-- The sweeper pages through expired jobs in (created_at, id) order.
+
+CREATE INDEX idx_export_jobs_created_at ON export_jobs (created_at, id);
@@ -0,0 +1,20 @@
+-- Row version columns
+-- Run once against an existing database before deploying. Every repository UPDATE on these
+-- tables bumps row_version, and a user's data version sums it, so an edit always changes the
+-- version that export reuse and the debt comparison cache are keyed on, however close in time
+-- it comes to the previous one.
+
+ALTER TABLE transactions
+    ADD COLUMN row_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE accounts
+    ADD COLUMN row_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE debts
+    ADD COLUMN row_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE budgets
+    ADD COLUMN row_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE goals
+    ADD COLUMN row_version BIGINT NOT NULL DEFAULT 0;
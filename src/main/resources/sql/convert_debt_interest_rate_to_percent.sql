@@ -0,0 +1,13 @@
+-- Debt interest rates as percentages
+-- Run once against an existing database whose debts table came from an earlier
+-- create_debt_tables.sql or debt_management_schema.sql and holds its rates as fractions
+-- (0.1899 for 18.99%). The application, the API and the payoff simulations read
+-- interest_rate as an annual percentage (18.99), and reject rates between 0 and 1.
+
+ALTER TABLE debts
+    MODIFY COLUMN interest_rate DECIMAL(7,4) NOT NULL;
+
+UPDATE debts SET interest_rate = interest_rate * 100;
+
+ALTER TABLE debts
+    MODIFY COLUMN interest_rate DECIMAL(5,2) NOT NULL;
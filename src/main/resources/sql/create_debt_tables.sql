@@ -15,7 +15,7 @@ CREATE TABLE debts (
     debt_type VARCHAR(50) NOT NULL,
     original_balance DECIMAL(15,2) NOT NULL,
     current_balance DECIMAL(15,2) NOT NULL,
-    interest_rate DECIMAL(5,4) NOT NULL,
+    interest_rate DECIMAL(5,2) NOT NULL, -- Annual percentage rate (e.g., 18.99 for 18.99%)
     minimum_payment DECIMAL(10,2),
     payment_due_day INT,
     payment_frequency VARCHAR(20) DEFAULT 'MONTHLY',
@@ -29,6 +29,7 @@ CREATE TABLE debts (
     notes TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    row_version BIGINT NOT NULL DEFAULT 0, -- bumped by every UPDATE; part of the data version
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (account_id) REFERENCES accounts(id) ON DELETE SET NULL,
     INDEX idx_debts_user_id (user_id),
@@ -0,0 +1,26 @@
+-- Recurring export schedules
+-- Run once against an existing database before deploying recurring exports.
+-- Each schedule starts an export job every interval_minutes. Incremental schedules export only
+-- transactions with an id above last_transaction_id and append each delta to a rolling file.
+
+CREATE TABLE IF NOT EXISTS export_schedules (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    export_type VARCHAR(50) NOT NULL,
+    format VARCHAR(20) NOT NULL,
+    parameters TEXT,
+    interval_minutes INT NOT NULL,
+    incremental BOOLEAN DEFAULT FALSE,
+    next_run_at DATETIME NOT NULL,
+    last_run_at DATETIME NULL,
+    created_at DATETIME NULL,
+    last_transaction_id BIGINT DEFAULT 0,
+    pending_job_id BIGINT,
+    pending_through_id BIGINT,
+    last_job_id BIGINT,
+    rolling_file_path VARCHAR(255),
+    rolling_file_size BIGINT DEFAULT 0
+);
+
+CREATE INDEX idx_export_schedules_user_id ON export_schedules (user_id);
+CREATE INDEX idx_export_schedules_next_run_at ON export_schedules (next_run_at);
@@ -19,7 +19,7 @@ CREATE TABLE IF NOT EXISTS debts (
     debt_type VARCHAR(50) NOT NULL,
     original_balance DECIMAL(15,2) NOT NULL,
     current_balance DECIMAL(15,2) NOT NULL,
-    interest_rate DECIMAL(5,4) NOT NULL, -- Annual percentage rate (e.g., 0.1899 for 18.99%)
+    interest_rate DECIMAL(5,2) NOT NULL, -- Annual percentage rate (e.g., 18.99 for 18.99%)
     minimum_payment DECIMAL(10,2),
     payment_due_day INT, -- Day of month payment is due (1-31)
     payment_frequency VARCHAR(20) DEFAULT 'MONTHLY', -- MONTHLY, BIWEEKLY, WEEKLY
@@ -36,6 +36,7 @@ CREATE TABLE IF NOT EXISTS debts (
     notes TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    row_version BIGINT NOT NULL DEFAULT 0, -- bumped by every UPDATE; part of the data version
     
     -- Foreign Key Constraints
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
@@ -159,7 +160,7 @@ CREATE TABLE IF NOT EXISTS debt_reminders (
 INSERT INTO debts (user_id, name, description, debt_type, original_balance, current_balance, 
                    interest_rate, minimum_payment, payment_due_day, start_date, creditor_name)
 VALUES 
-(1, 'Chase Credit Card', 'Primary credit card', 'CREDIT_CARD', 5000.00, 4500.00, 0.1899, 150.00, 15, '2024-01-01', 'Chase Bank'),
-(1, 'Student Loan', 'Federal student loan', 'STUDENT_LOAN', 25000.00, 24000.00, 0.0450, 250.00, 1, '2023-06-01', 'Federal Student Aid'),
-(1, 'Car Loan', 'Auto loan for 2020 Honda', 'AUTO_LOAN', 15000.00, 12000.00, 0.0599, 300.00, 20, '2023-03-01', 'Honda Financial Services');
+(1, 'Chase Credit Card', 'Primary credit card', 'CREDIT_CARD', 5000.00, 4500.00, 18.99, 150.00, 15, '2024-01-01', 'Chase Bank'),
+(1, 'Student Loan', 'Federal student loan', 'STUDENT_LOAN', 25000.00, 24000.00, 4.50, 250.00, 1, '2023-06-01', 'Federal Student Aid'),
+(1, 'Car Loan', 'Auto loan for 2020 Honda', 'AUTO_LOAN', 15000.00, 12000.00, 5.99, 300.00, 20, '2023-03-01', 'Honda Financial Services');
 */ 
\ No newline at end of file
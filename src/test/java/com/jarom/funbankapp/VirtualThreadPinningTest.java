@@ -0,0 +1,125 @@
+package com.jarom.funbankapp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Drives the main request paths from many virtual threads while JFR records
+ * jdk.VirtualThreadPinned, and fails if any pinned park has our code on the
+ * stack. A pinned park means a carrier thread was blocked, typically by a
+ * synchronized block around blocking work; use ReentrantLock instead.
+ */
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class VirtualThreadPinningTest {
+
+    private static final String[] PATHS = {
+            "/api/accounts", "/api/budgets", "/api/goals", "/api/debts", "/api/users/profile", "/api/health"
+    };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String jwtToken;
+
+    @BeforeAll
+    public void registerUser() throws Exception {
+        String registerJson = "{" +
+                "\"username\":\"pinninguser\"," +
+                "\"email\":\"pinninguser@example.com\"," +
+                "\"password\":\"Pinning123!\"}";
+        MvcResult result = mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(registerJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        String response = result.getResponse().getContentAsString();
+        int tokenStart = response.indexOf("token\":\"") + 8;
+        int tokenEnd = response.indexOf('"', tokenStart);
+        jwtToken = response.substring(tokenStart, tokenEnd);
+    }
+
+    @Test
+    public void requestPathsDoNotPinCarrierThreads() throws Exception {
+        Path dump = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            runConcurrently(500);
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<String> pinned = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+            if (event.getStackTrace() == null) {
+                continue;
+            }
+            List<String> frames = event.getStackTrace().getFrames().stream()
+                    .map(VirtualThreadPinningTest::describe)
+                    .collect(Collectors.toList());
+            if (frames.stream().anyMatch(frame -> frame.startsWith("com.jarom.funbankapp.")
+                    && !frame.startsWith(VirtualThreadPinningTest.class.getName()))) {
+                pinned.add(String.join("\n    at ", frames));
+            }
+        }
+        Files.deleteIfExists(dump);
+
+        assertThat(pinned).as("virtual threads pinned on request paths").isEmpty();
+    }
+
+    private void runConcurrently(int requests) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                String path = PATHS[i % PATHS.length];
+                results.add(executor.submit(() -> mockMvc.perform(get(path)
+                                .header("Authorization", "Bearer " + jwtToken))
+                        .andReturn().getResponse().getStatus()));
+            }
+            // The test schema only covers part of the model, so some of these
+            // fail downstream; what matters is that they got past authentication
+            // and into the controllers and repositories.
+            for (int i = 0; i < requests; i++) {
+                assertThat(results.get(i).get()).as(PATHS[i % PATHS.length]).isNotIn(401, 403);
+            }
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,58 @@
+package com.jarom.funbankapp.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    private DataSource target;
+    private Connection connection;
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new ConcurrencyLimitedDataSource(target, 1, 50);
+    }
+
+    @Test
+    void testGetConnection_TimesOutWhenAllPermitsAreTaken() throws Exception {
+        Connection first = dataSource.getConnection();
+
+        assertEquals(1, dataSource.getActiveCount());
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+
+        first.close();
+        assertEquals(0, dataSource.getActiveCount());
+        verify(connection).close();
+    }
+
+    @Test
+    void testClose_ReleasesPermitOnlyOnce() throws Exception {
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        Connection second = dataSource.getConnection();
+        assertEquals(1, dataSource.getActiveCount());
+        second.close();
+    }
+
+    @Test
+    void testGetConnection_ReleasesPermitWhenTargetFails() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool down"));
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        assertEquals(0, dataSource.getActiveCount());
+    }
+}
@@ -22,11 +22,13 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jarom.funbankapp.dto.LoginRequest;
+import com.jarom.funbankapp.exception.ServiceUnavailableException;
 import com.jarom.funbankapp.model.User;
 import com.jarom.funbankapp.repository.UserRepository;
 import com.jarom.funbankapp.security.JwtAuthFilter;
@@ -180,6 +182,25 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.status").value("ERROR"));
     }
 
+    @Test
+    void login_WhenHashingPoolSaturated_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new ServiceUnavailableException("Authentication service is busy. Please try again shortly."));
+
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmail("test@example.com");
+        loginRequest.setPassword("password123");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value("ERROR"));
+    }
+
     @Test
     void validateToken_WithValidToken_ShouldReturnSuccess() throws Exception {
         // Arrange - Mock authentication context with proper authorities
@@ -0,0 +1,169 @@
+package com.jarom.funbankapp.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.model.Transaction;
+import com.jarom.funbankapp.repository.DataVersionRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
+
+/**
+ * Export reuse end to end, with the result cache on (the test profile turns
+ * it off for the other export tests). It runs on its own in-memory database:
+ * data.sql seeds fixed ids, so sharing one with the other contexts would mix
+ * this test's rows into theirs. It skips the seeds and adds its own rows.
+ */
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "app.export.cache.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:exportcache;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.sql.init.data-locations=optional:classpath:no-seed-data.sql"
+})
+@AutoConfigureMockMvc
+public class ExportCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DataVersionRepository dataVersionRepository;
+
+    private String jwtToken;
+    private Long transactionId;
+
+    @BeforeAll
+    public void registerUserWithOneTransaction() throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"cacheuser\",\"email\":\"cacheuser@example.com\"," +
+                        "\"password\":\"Export123!\",\"firstName\":\"Cache\",\"lastName\":\"User\"}"));
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"cacheuser@example.com\",\"password\":\"Export123!\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        jwtToken = objectMapper.readTree(login.getResponse().getContentAsString()).get("data").get("token").asText();
+
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'cacheuser'", Long.class);
+        jdbcTemplate.update("INSERT INTO accounts (user_id, name, type, balance, currency, created_at, updated_at) " +
+                "VALUES (?, 'Cache Checking', 'checking', 100.00, 'USD', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", userId);
+        Long accountId = jdbcTemplate.queryForObject("SELECT id FROM accounts WHERE user_id = ?", Long.class, userId);
+        jdbcTemplate.update("INSERT INTO transactions (user_id, account_id, amount, description, category, " +
+                "transaction_date, type, created_at) VALUES (?, ?, -12.50, 'Coffee Beans', 'food', '2024-03-01', " +
+                "'expense', TIMESTAMP '2024-03-01 08:00:00')", userId, accountId);
+        transactionId = jdbcTemplate.queryForObject("SELECT id FROM transactions WHERE account_id = ?",
+                Long.class, accountId);
+    }
+
+    @Test
+    public void testEditedTransactionIsNotServedFromAStaleFile() throws Exception {
+        JsonNode first = createCsvExport();
+        awaitStatus(first.get("id").asLong(), "COMPLETED");
+        assertThat(download(first.get("id").asLong())).contains("Coffee Beans");
+
+        // Nothing changed: the new job shares the finished file
+        JsonNode reused = createCsvExport();
+        assertThat(reused.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(filePathOf(reused.get("id").asLong())).isEqualTo(filePathOf(first.get("id").asLong()));
+
+        Transaction transaction = transactionRepository.findById(transactionId).orElseThrow();
+        transaction.setDescription("Espresso Beans");
+        transactionRepository.save(transaction);
+
+        JsonNode afterEdit = createCsvExport();
+        assertThat(afterEdit.get("status").asText()).isEqualTo("PENDING");
+        awaitStatus(afterEdit.get("id").asLong(), "COMPLETED");
+        assertThat(filePathOf(afterEdit.get("id").asLong())).isNotEqualTo(filePathOf(first.get("id").asLong()));
+        assertThat(download(afterEdit.get("id").asLong()))
+                .contains("Espresso Beans")
+                .doesNotContain("Coffee Beans");
+    }
+
+    @Test
+    public void testEditInTheSameClockTickStillChangesTheDataVersion() {
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'cacheuser'", Long.class);
+        // Pin updated_at, as a second-precision column would for two edits in the same second
+        String pinChangeTime = "UPDATE transactions SET updated_at = TIMESTAMP '2024-03-01 08:00:00' WHERE id = ?";
+        jdbcTemplate.update(pinChangeTime, transactionId);
+        String before = dataVersionRepository.findDataVersion(userId, List.of(DataVersionRepository.TRANSACTIONS));
+
+        Transaction transaction = transactionRepository.findById(transactionId).orElseThrow();
+        transaction.setAmount(transaction.getAmount().subtract(BigDecimal.ONE));
+        transactionRepository.save(transaction);
+        jdbcTemplate.update(pinChangeTime, transactionId);
+
+        assertThat(dataVersionRepository.findDataVersion(userId, List.of(DataVersionRepository.TRANSACTIONS)))
+                .isNotEqualTo(before);
+    }
+
+    private JsonNode createCsvExport() throws Exception {
+        ExportRequest request = new ExportRequest();
+        request.setExportType("transactions");
+        request.setFormat("CSV");
+        MvcResult result = mockMvc.perform(post("/api/export/transactions")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("data");
+    }
+
+    private String download(Long jobId) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/export/jobs/" + jobId + "/download")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        return new String(result.getResponse().getContentAsByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private String filePathOf(Long jobId) {
+        return jdbcTemplate.queryForObject("SELECT file_path FROM export_jobs WHERE id = ?", String.class, jobId);
+    }
+
+    private void awaitStatus(Long jobId, String expected) throws Exception {
+        String status = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            MvcResult result = mockMvc.perform(get("/api/export/jobs/" + jobId + "/status")
+                    .header("Authorization", "Bearer " + jwtToken))
+                    .andReturn();
+            status = objectMapper.readTree(result.getResponse().getContentAsString()).get("data").asText();
+            if (expected.equals(status)) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        assertThat(status).isEqualTo(expected);
+    }
+}
@@ -1,6 +1,18 @@
 package com.jarom.funbankapp.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItem;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import javax.sql.DataSource;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,17 +21,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.dto.ExportScheduleRequest;
+import com.jarom.funbankapp.service.ExportScheduleRunner;
 
 @ActiveProfiles("test")
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -33,6 +50,15 @@ public class ExportControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ExportScheduleRunner exportScheduleRunner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
     private String jwtToken;
 
     @BeforeAll
@@ -49,6 +75,41 @@ public class ExportControllerTest {
                     .content(registerJson))
                     .andExpect(status().isOk());
         } catch (Exception ignored) {}
+        copySeedDataTo("exportuser");
+    }
+
+    /**
+     * Exports are scoped to the caller, and data.sql seeds user 1, which is
+     * whoever registered first; give this test's user the same rows.
+     */
+    private void copySeedDataTo(String username) {
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+        Integer accounts = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts WHERE user_id = ?",
+                Integer.class, userId);
+        if (accounts > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO accounts (user_id, name, type, balance, currency, created_at, updated_at) " +
+                "SELECT ?, name, type, balance, currency, created_at, updated_at FROM accounts WHERE user_id = 1 ORDER BY id",
+                userId);
+        Long checkingId = jdbcTemplate.queryForObject(
+                "SELECT id FROM accounts WHERE user_id = ? AND name = 'Main Checking'", Long.class, userId);
+        jdbcTemplate.update("INSERT INTO transactions (user_id, account_id, amount, description, category, " +
+                "transaction_date, type, created_at, updated_at) " +
+                "SELECT ?, ?, amount, description, category, transaction_date, type, created_at, updated_at " +
+                "FROM transactions WHERE account_id = 1 ORDER BY id", userId, checkingId);
+        jdbcTemplate.update("INSERT INTO debts (user_id, name, amount, interest_rate, minimum_payment, due_date, " +
+                "debt_type, priority, status, created_at, updated_at) " +
+                "SELECT ?, name, amount, interest_rate, minimum_payment, due_date, debt_type, priority, status, " +
+                "created_at, updated_at FROM debts WHERE user_id = 1 ORDER BY id", userId);
+        jdbcTemplate.update("INSERT INTO budgets (user_id, name, amount, period, category, start_date, end_date, " +
+                "created_at, updated_at) " +
+                "SELECT ?, name, amount, period, category, start_date, end_date, created_at, updated_at " +
+                "FROM budgets WHERE user_id = 1 ORDER BY id", userId);
+        jdbcTemplate.update("INSERT INTO goals (user_id, name, target_amount, current_amount, target_date, category, " +
+                "priority, status, created_at, updated_at) " +
+                "SELECT ?, name, target_amount, current_amount, target_date, category, priority, status, " +
+                "created_at, updated_at FROM goals WHERE user_id = 1 ORDER BY id", userId);
     }
 
     @BeforeEach
@@ -153,6 +214,8 @@ public class ExportControllerTest {
                 .andReturn();
         String response = result.getResponse().getContentAsString();
         Long jobId = objectMapper.readTree(response).get("data").get("id").asLong();
+        // Jobs are queued and run on the export workers, not the request thread
+        assertThat(objectMapper.readTree(response).get("data").get("status").asText()).isEqualTo("PENDING");
 
         // Get job status
         mockMvc.perform(get("/api/export/jobs/" + jobId + "/status")
@@ -160,11 +223,21 @@ public class ExportControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("SUCCESS"));
 
-        // Cancel job (should fail since job is already completed)
+        // Cancel job (should fail once the job has completed)
+        awaitStatus(jobId, "COMPLETED");
         mockMvc.perform(delete("/api/export/jobs/" + jobId)
                 .header("Authorization", "Bearer " + jwtToken))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.status").value("ERROR"));
+
+        // Progress of a finished job comes from the saved row counts
+        mockMvc.perform(get("/api/export/jobs/" + jobId + "/progress")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.data.percent").value(100))
+                .andExpect(jsonPath("$.data.rowsWritten").value(5))
+                .andExpect(jsonPath("$.data.rowsTotal").value(5));
     }
 
     @Test
@@ -183,15 +256,385 @@ public class ExportControllerTest {
         String response = result.getResponse().getContentAsString();
         Long jobId = objectMapper.readTree(response).get("data").get("id").asLong();
 
-        // Wait for async job to complete (simulate)
-        Thread.sleep(2000);
+        awaitStatus(jobId, "COMPLETED");
 
-        // Download file
+        // Download file; stored gzipped, but this client did not ask for that
         MvcResult downloadResult = mockMvc.perform(get("/api/export/jobs/" + jobId + "/download")
                 .header("Authorization", "Bearer " + jwtToken))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
                 .andReturn();
         byte[] fileBytes = downloadResult.getResponse().getContentAsByteArray();
         assertThat(fileBytes.length).isGreaterThan(0);
+        assertThat(new String(fileBytes, StandardCharsets.UTF_8))
+                .startsWith("Date,Description,Amount,Category,Account,Type\r\n")
+                .contains("2024-01-16 00:00:00,Grocery Shopping,-75.50,food,Main Checking,expense\r\n");
+    }
+
+    @Test
+    public void testDownloadSendsGzipToClientsThatAcceptIt() throws Exception {
+        ExportRequest request = new ExportRequest();
+        request.setExportType("transactions");
+        request.setFormat("CSV");
+        String json = objectMapper.writeValueAsString(request);
+        MvcResult result = mockMvc.perform(post("/api/export/transactions")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long jobId = objectMapper.readTree(result.getResponse().getContentAsString()).get("data").get("id").asLong();
+
+        awaitStatus(jobId, "COMPLETED");
+
+        MvcResult downloadResult = mockMvc.perform(get("/api/export/jobs/" + jobId + "/download")
+                .header("Authorization", "Bearer " + jwtToken)
+                .header("Accept-Encoding", "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", endsWith(".csv\"")))
+                .andReturn();
+        byte[] fileBytes = downloadResult.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(fileBytes))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .startsWith("Date,Description,Amount,Category,Account,Type\r\n");
+        }
+    }
+
+    @Test
+    public void testDownloadResumesFromARange() throws Exception {
+        ExportRequest request = new ExportRequest();
+        request.setExportType("transactions");
+        request.setFormat("PDF");
+        String json = objectMapper.writeValueAsString(request);
+        MvcResult result = mockMvc.perform(post("/api/export/transactions")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long jobId = objectMapper.readTree(result.getResponse().getContentAsString()).get("data").get("id").asLong();
+
+        awaitStatus(jobId, "COMPLETED");
+
+        MvcResult full = mockMvc.perform(get("/api/export/jobs/" + jobId + "/download")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andReturn();
+        byte[] document = full.getResponse().getContentAsByteArray();
+        String etag = full.getResponse().getHeader("ETag");
+        assertThat(etag).isEqualTo("\"" + jobId + "-" + document.length + "\"");
+
+        MvcResult partial = mockMvc.perform(get("/api/export/jobs/" + jobId + "/download")
+                .header("Authorization", "Bearer " + jwtToken)
+                .header("Range", "bytes=100-")
+                .header("If-Range", etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 100-" + (document.length - 1) + "/" + document.length))
+                .andReturn();
+        assertThat(partial.getResponse().getContentAsByteArray())
+                .isEqualTo(Arrays.copyOfRange(document, 100, document.length));
+
+        // The client's copy is of some other file, so it gets this one whole
+        mockMvc.perform(get("/api/export/jobs/" + jobId + "/download")
+                .header("Authorization", "Bearer " + jwtToken)
+                .header("Range", "bytes=100-")
+                .header("If-Range", "\"" + jobId + "-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue("Content-Length", document.length));
+
+        mockMvc.perform(get("/api/export/jobs/" + jobId + "/download")
+                .header("Authorization", "Bearer " + jwtToken)
+                .header("Range", "bytes=" + document.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */" + document.length));
+
+        mockMvc.perform(get("/api/export/jobs/" + jobId + "/download")
+                .header("Authorization", "Bearer " + jwtToken)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void testExportTransactionsExcelDownloadsWorkbook() throws Exception {
+        ExportRequest request = new ExportRequest();
+        request.setExportType("transactions");
+        request.setFormat("EXCEL");
+        String json = objectMapper.writeValueAsString(request);
+        MvcResult result = mockMvc.perform(post("/api/export/transactions")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long jobId = objectMapper.readTree(result.getResponse().getContentAsString()).get("data").get("id").asLong();
+
+        awaitStatus(jobId, "COMPLETED");
+
+        MvcResult downloadResult = mockMvc.perform(get("/api/export/jobs/" + jobId + "/download")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type",
+                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .andReturn();
+        byte[] fileBytes = downloadResult.getResponse().getContentAsByteArray();
+        // Zip local file header
+        assertThat(fileBytes).startsWith('P', 'K', 3, 4);
+    }
+
+    @Test
+    public void testExportTransactionsPdfDownloadsDocument() throws Exception {
+        ExportRequest request = new ExportRequest();
+        request.setExportType("transactions");
+        request.setFormat("PDF");
+        String json = objectMapper.writeValueAsString(request);
+        MvcResult result = mockMvc.perform(post("/api/export/transactions")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long jobId = objectMapper.readTree(result.getResponse().getContentAsString()).get("data").get("id").asLong();
+
+        awaitStatus(jobId, "COMPLETED");
+
+        MvcResult downloadResult = mockMvc.perform(get("/api/export/jobs/" + jobId + "/download")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/pdf"))
+                .andReturn();
+        String document = new String(downloadResult.getResponse().getContentAsByteArray(), StandardCharsets.ISO_8859_1);
+        assertThat(document).startsWith("%PDF-1.4").endsWith("%%EOF\n");
+    }
+
+    @Test
+    public void testExportTransactionsNdjsonDownloadsOneRecordPerLine() throws Exception {
+        ExportRequest request = new ExportRequest();
+        request.setExportType("transactions");
+        request.setFormat("JSON");
+        request.setJsonStyle("ndjson");
+        String json = objectMapper.writeValueAsString(request);
+        MvcResult result = mockMvc.perform(post("/api/export/transactions")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long jobId = objectMapper.readTree(result.getResponse().getContentAsString()).get("data").get("id").asLong();
+
+        awaitStatus(jobId, "COMPLETED");
+
+        MvcResult downloadResult = mockMvc.perform(get("/api/export/jobs/" + jobId + "/download")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andReturn();
+        String[] lines = downloadResult.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(5);
+        assertThat(objectMapper.readTree(lines[1]).get("description").asText()).isEqualTo("Grocery Shopping");
+    }
+
+    @Test
+    public void testIncrementalScheduleBuildsARollingFile() throws Exception {
+        ExportRequest export = new ExportRequest();
+        export.setExportType("transactions");
+        export.setFormat("CSV");
+        ExportScheduleRequest request = new ExportScheduleRequest();
+        request.setExport(export);
+        request.setIncremental(true);
+        MvcResult result = mockMvc.perform(post("/api/export/schedules")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.incremental").value(true))
+                .andReturn();
+        Long scheduleId = objectMapper.readTree(result.getResponse().getContentAsString()).get("data").get("id").asLong();
+
+        // First run is due right away; a second pass folds the finished run into the rolling file
+        settleTransactions();
+        assertThat(exportScheduleRunner.runDueSchedules()).isEqualTo(1);
+        awaitStatus(lastJobIdOf(scheduleId), "COMPLETED");
+        assertThat(exportScheduleRunner.runDueSchedules()).isZero();
+
+        MvcResult downloadResult = mockMvc.perform(get("/api/export/schedules/" + scheduleId + "/download")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andReturn();
+        String[] lines = downloadResult.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines).hasSize(6);
+        assertThat(lines[0]).isEqualTo("Date,Description,Amount,Category,Account,Type");
+
+        mockMvc.perform(delete("/api/export/schedules/" + scheduleId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/export/schedules/" + scheduleId + "/download")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testIncrementalScheduleWaitsForALateCommit() throws Exception {
+        ExportRequest export = new ExportRequest();
+        export.setExportType("transactions");
+        export.setFormat("CSV");
+        ExportScheduleRequest request = new ExportScheduleRequest();
+        request.setExport(export);
+        request.setIncremental(true);
+        MvcResult result = mockMvc.perform(post("/api/export/schedules")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long scheduleId = objectMapper.readTree(result.getResponse().getContentAsString()).get("data").get("id").asLong();
+        settleTransactions();
+        assertThat(exportScheduleRunner.runDueSchedules()).isEqualTo(1);
+        awaitStatus(lastJobIdOf(scheduleId), "COMPLETED");
+        exportScheduleRunner.runDueSchedules();
+
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'exportuser'", Long.class);
+        Long accountId = jdbcTemplate.queryForObject(
+                "SELECT id FROM accounts WHERE user_id = ? AND name = 'Main Checking'", Long.class, userId);
+        String insert = "INSERT INTO transactions (user_id, account_id, amount, description, category, " +
+                "transaction_date, type, created_at) VALUES (?, ?, -9.99, ?, 'food', '2024-02-01', 'expense', " +
+                "CURRENT_TIMESTAMP)";
+        try (Connection late = dataSource.getConnection()) {
+            late.setAutoCommit(false);
+            try (PreparedStatement statement = late.prepareStatement(insert)) {
+                statement.setLong(1, userId);
+                statement.setLong(2, accountId);
+                statement.setString(3, "Late Commit");
+                statement.executeUpdate();
+            }
+            // A higher id commits first; the next run must not put the mark past the open insert
+            jdbcTemplate.update(insert, userId, accountId, "Early Commit");
+            makeDue(scheduleId);
+            assertThat(exportScheduleRunner.runDueSchedules()).isZero();
+            late.commit();
+        }
+
+        settleTransactions();
+        makeDue(scheduleId);
+        assertThat(exportScheduleRunner.runDueSchedules()).isEqualTo(1);
+        awaitStatus(lastJobIdOf(scheduleId), "COMPLETED");
+        exportScheduleRunner.runDueSchedules();
+
+        MvcResult downloadResult = mockMvc.perform(get("/api/export/schedules/" + scheduleId + "/download")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(downloadResult.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .contains("Late Commit")
+                .contains("Early Commit");
+
+        mockMvc.perform(delete("/api/export/schedules/" + scheduleId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testIncrementalScheduleRejectsFormatsThatCannotBeAppended() throws Exception {
+        ExportRequest export = new ExportRequest();
+        export.setExportType("transactions");
+        export.setFormat("PDF");
+        ExportScheduleRequest request = new ExportScheduleRequest();
+        request.setExport(export);
+        request.setIncremental(true);
+        mockMvc.perform(post("/api/export/schedules")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testJobsAreVisibleOnlyToTheirOwner() throws Exception {
+        ExportRequest request = new ExportRequest();
+        request.setExportType("transactions");
+        request.setFormat("CSV");
+        MvcResult result = mockMvc.perform(post("/api/export/transactions")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long jobId = objectMapper.readTree(result.getResponse().getContentAsString()).get("data").get("id").asLong();
+
+        String otherToken = registerAndLogin("exportother");
+        mockMvc.perform(get("/api/export/jobs/" + jobId)
+                .header("Authorization", "Bearer " + otherToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/export/jobs/" + jobId + "/progress")
+                .header("Authorization", "Bearer " + otherToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/export/jobs")
+                .header("Authorization", "Bearer " + otherToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(0));
+    }
+
+    private String registerAndLogin(String username) throws Exception {
+        String registerJson = "{" +
+                "\"username\":\"" + username + "\"," +
+                "\"email\":\"" + username + "@example.com\"," +
+                "\"password\":\"Export123!\"," +
+                "\"firstName\":\"Export\"," +
+                "\"lastName\":\"Other\"}";
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(registerJson));
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + username + "@example.com\",\"password\":\"Export123!\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("data").get("token").asText();
+    }
+
+    /**
+     * Incremental runs only take transactions older than the settle window;
+     * ages every row past it.
+     */
+    private void settleTransactions() {
+        jdbcTemplate.update("UPDATE transactions SET created_at = DATEADD('HOUR', -1, CURRENT_TIMESTAMP) " +
+                "WHERE created_at > DATEADD('HOUR', -1, CURRENT_TIMESTAMP)");
+    }
+
+    private void makeDue(Long scheduleId) {
+        jdbcTemplate.update("UPDATE export_schedules SET next_run_at = DATEADD('MINUTE', -1, CURRENT_TIMESTAMP) " +
+                "WHERE id = ?", scheduleId);
+    }
+
+    private Long lastJobIdOf(Long scheduleId) throws Exception {
+        MvcResult listed = mockMvc.perform(get("/api/export/schedules")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        for (JsonNode schedule : objectMapper.readTree(listed.getResponse().getContentAsString()).get("data")) {
+            if (schedule.get("id").asLong() == scheduleId) {
+                return schedule.get("lastJobId").asLong();
+            }
+        }
+        return null;
+    }
+
+    private void awaitStatus(Long jobId, String expected) throws Exception {
+        String status = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            MvcResult result = mockMvc.perform(get("/api/export/jobs/" + jobId + "/status")
+                    .header("Authorization", "Bearer " + jwtToken))
+                    .andReturn();
+            status = objectMapper.readTree(result.getResponse().getContentAsString()).get("data").asText();
+            if (expected.equals(status)) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        assertThat(status).isEqualTo(expected);
     }
-} 
\ No newline at end of file
+}
@@ -13,6 +13,8 @@ import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import jakarta.validation.ValidatorFactory;
 
+import com.jarom.funbankapp.dto.DebtStrategyDTO;
+
 public class ValidationTest {
 
     private static Validator validator;
@@ -120,4 +122,25 @@ public class ValidationTest {
         assertFalse(violations.isEmpty(), "Negative amount should have violations");
         assertTrue(violations.stream().anyMatch(v -> v.getPropertyPath().toString().equals("amount")));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testDebtStrategyValidation_OptimalType() {
+        DebtStrategyDTO strategy = new DebtStrategyDTO();
+        strategy.setName("Least interest");
+        strategy.setStrategyType("optimal");
+
+        Set<ConstraintViolation<DebtStrategyDTO>> violations = validator.validate(strategy);
+        assertTrue(violations.isEmpty(), "Optimal strategy type should have no violations");
+    }
+
+    @Test
+    void testDebtStrategyValidation_InvalidType() {
+        DebtStrategyDTO strategy = new DebtStrategyDTO();
+        strategy.setName("Least interest");
+        strategy.setStrategyType("cheapest");
+
+        Set<ConstraintViolation<DebtStrategyDTO>> violations = validator.validate(strategy);
+        assertFalse(violations.isEmpty(), "Unknown strategy type should have violations");
+        assertTrue(violations.stream().anyMatch(v -> v.getPropertyPath().toString().equals("strategyType")));
+    }
+}
@@ -0,0 +1,40 @@
+package com.jarom.funbankapp.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+
+class TransactionRepositoryImplTest {
+
+    @Test
+    void testMySqlWithoutCursorFetchStreamsRowByRow() throws SQLException {
+        assertEquals(Integer.MIN_VALUE, TransactionRepositoryImpl.streamingFetchSize(
+                connection("MySQL", "jdbc:mysql://db:3306/funbank?useSSL=false"), 1000));
+    }
+
+    @Test
+    void testMySqlWithCursorFetchUsesTheConfiguredSize() throws SQLException {
+        assertEquals(1000, TransactionRepositoryImpl.streamingFetchSize(
+                connection("MySQL", "jdbc:mysql://db:3306/funbank?useCursorFetch=true"), 1000));
+    }
+
+    @Test
+    void testOtherDatabasesUseTheConfiguredSize() throws SQLException {
+        assertEquals(1000, TransactionRepositoryImpl.streamingFetchSize(
+                connection("H2", "jdbc:h2:mem:testdb"), 1000));
+    }
+
+    private static Connection connection(String product, String url) throws SQLException {
+        DatabaseMetaData meta = mock(DatabaseMetaData.class);
+        when(meta.getDatabaseProductName()).thenReturn(product);
+        when(meta.getURL()).thenReturn(url);
+        Connection con = mock(Connection.class);
+        when(con.getMetaData()).thenReturn(meta);
+        return con;
+    }
+}
@@ -0,0 +1,134 @@
+package com.jarom.funbankapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.jarom.funbankapp.config.PasswordHashingProperties;
+import com.jarom.funbankapp.exception.GlobalExceptionHandler;
+import com.jarom.funbankapp.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void testEncodeAndMatchesRoundTripAtTheConfiguredStrength() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(properties.getStrength()),
+                2, 4, registry);
+
+        String encoded = encoder.encode("s3cret-pass");
+
+        assertTrue(encoded.startsWith("$2a$" + properties.getStrength() + "$"), encoded);
+        assertTrue(encoder.matches("s3cret-pass", encoded));
+        assertFalse(encoder.matches("wrong-pass", encoded));
+        assertFalse(encoder.upgradeEncoding(encoded));
+        assertEquals(1, registry.get("auth.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("auth.hashing.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testRejectsImmediatelyWhenThePoolAndQueueAreFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1, registry);
+
+        // One hash running, one waiting: the pool is saturated
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        awaitGauge("auth.hashing.active", 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        awaitGauge("auth.hashing.queue.depth", 1);
+
+        long start = System.nanoTime();
+        ServiceUnavailableException rejected = assertThrows(ServiceUnavailableException.class,
+                () -> encoder.matches("third", "encoded"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "rejection should not wait for a worker");
+        assertEquals(1.0, registry.get("auth.hashing.rejected").counter().count());
+
+        ResponseEntity<Map<String, Object>> response =
+                new GlobalExceptionHandler().handleServiceUnavailableException(rejected);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+
+        // The requests that got in still finish once the pool frees up
+        release.countDown();
+        assertEquals("encoded:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("encoded:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testDestroyShutsThePoolDown() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1, registry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("in-flight"));
+        awaitGauge("auth.hashing.active", 1);
+
+        encoder.destroy();
+
+        // No new work is accepted, but the hash already running completes
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("late"));
+        release.countDown();
+        assertEquals("encoded:in-flight", running.get(5, TimeUnit.SECONDS));
+        awaitGauge("auth.hashing.active", 0);
+    }
+
+    private void awaitGauge(String name, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get(name).gauge().value() != expected) {
+            if (System.nanoTime() > deadline) {
+                fail(name + " never reached " + expected);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /** Holds every call until the latch opens, standing in for a slow BCrypt. */
+    private static class BlockingEncoder implements PasswordEncoder {
+        private final CountDownLatch release;
+
+        BlockingEncoder(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return "encoded:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals("encoded:" + rawPassword);
+        }
+
+        private void await() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.jarom.funbankapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InMemoryRateLimitStoreTest {
+
+    private AtomicLong now;
+    private InMemoryRateLimitStore store;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(0);
+        store = new InMemoryRateLimitStore(10, 600, now::get);
+    }
+
+    @Test
+    void testTryConsume_AllowsUpToCapacityThenRejects() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(store.tryConsume("ip:1", 5, 60).isAllowed());
+        }
+
+        RateLimitStore.RateLimitDecision rejected = store.tryConsume("ip:1", 5, 60);
+
+        assertFalse(rejected.isAllowed());
+        assertEquals(0, rejected.getRemaining());
+        assertEquals(12, rejected.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testTryConsume_RefillsOverTime() {
+        for (int i = 0; i < 5; i++) {
+            store.tryConsume("ip:1", 5, 60);
+        }
+        assertFalse(store.tryConsume("ip:1", 5, 60).isAllowed());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(12));
+
+        assertTrue(store.tryConsume("ip:1", 5, 60).isAllowed());
+        assertFalse(store.tryConsume("ip:1", 5, 60).isAllowed());
+    }
+
+    @Test
+    void testTryConsume_KeysAreIndependent() {
+        for (int i = 0; i < 5; i++) {
+            store.tryConsume("ip:1", 5, 60);
+        }
+
+        assertFalse(store.tryConsume("ip:1", 5, 60).isAllowed());
+        assertTrue(store.tryConsume("ip:2", 5, 60).isAllowed());
+    }
+
+    @Test
+    void testTryConsume_StaysWithinKeyBound() {
+        for (int i = 0; i < 100; i++) {
+            now.addAndGet(1);
+            store.tryConsume("ip:" + i, 5, 60);
+        }
+
+        assertTrue(store.size() <= 10);
+    }
+
+    @Test
+    void testTryConsume_EvictsIdleKeysFirst() {
+        for (int i = 0; i < 10; i++) {
+            store.tryConsume("ip:" + i, 5, 60);
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(601));
+
+        store.tryConsume("ip:new", 5, 60);
+
+        assertEquals(1, store.size());
+    }
+}
@@ -0,0 +1,153 @@
+package com.jarom.funbankapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.jarom.funbankapp.config.RateLimitProperties;
+import com.jarom.funbankapp.config.RouteProperties;
+
+/**
+ * The production filter is off under the test profile (TestRateLimitFilter
+ * stands in for it), so it is exercised directly here with a frozen clock.
+ */
+class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.getRoutes().add(new RateLimitProperties.Route("/api/export/**", 2, 60));
+        filter = filterWith(new InMemoryRateLimitStore(properties.getMaxKeys(), properties.getKeyTtlSeconds(), () -> 0L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRejectsWith429OnceTheRouteBudgetIsSpent() throws Exception {
+        for (int i = 4; i >= 0; i--) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request("/api/auth/login", "10.0.0.1"), response, chain);
+
+            assertEquals(200, response.getStatus());
+            assertNotNull(chain.getRequest());
+            assertEquals("5", response.getHeader("X-RateLimit-Limit"));
+            assertEquals(String.valueOf(i), response.getHeader("X-RateLimit-Remaining"));
+            assertNull(response.getHeader("Retry-After"));
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("/api/auth/login", "10.0.0.1"), response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertNull(chain.getRequest(), "a limited request must not reach the controller");
+        assertEquals("5", response.getHeader("X-RateLimit-Limit"));
+        assertEquals("0", response.getHeader("X-RateLimit-Remaining"));
+        // 5 tokens per 60 seconds: the next one is 12 seconds away
+        assertEquals("12", response.getHeader("Retry-After"));
+        assertEquals("Too many requests. Please try again later.", response.getContentAsString());
+
+        // Budgets are per client
+        MockHttpServletResponse other = new MockHttpServletResponse();
+        filter.doFilter(request("/api/auth/login", "10.0.0.2"), other, new MockFilterChain());
+        assertEquals(200, other.getStatus());
+    }
+
+    @Test
+    void testRoutesWithoutAPolicyPassThroughWithoutHeaders() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/api/accounts", "10.0.0.1"), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertNull(response.getHeader("X-RateLimit-Limit"));
+    }
+
+    @Test
+    void testUserPolicyTakesPrecedenceOverTheRoutePolicy() throws Exception {
+        properties.getUsers().put("poweruser", new RateLimitProperties.Policy(3, 60));
+        authenticate("poweruser");
+
+        // The export route allows 2, but this user's own budget is 3 across every route
+        for (int i = 2; i >= 0; i--) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request(i == 0 ? "/api/accounts" : "/api/export/transactions", "10.0.0.1"),
+                    response, new MockFilterChain());
+
+            assertEquals(200, response.getStatus());
+            assertEquals("3", response.getHeader("X-RateLimit-Limit"));
+            assertEquals(String.valueOf(i), response.getHeader("X-RateLimit-Remaining"));
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("/api/export/transactions", "10.0.0.1"), response, new MockFilterChain());
+        assertEquals(429, response.getStatus());
+        assertEquals("20", response.getHeader("Retry-After"));
+
+        // Someone without an override still gets the route's limit
+        authenticate("regular");
+        for (int i = 0; i < 2; i++) {
+            filter.doFilter(request("/api/export/transactions", "10.0.0.1"), new MockHttpServletResponse(),
+                    new MockFilterChain());
+        }
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        filter.doFilter(request("/api/export/transactions", "10.0.0.1"), limited, new MockFilterChain());
+        assertEquals(429, limited.getStatus());
+        assertEquals("2", limited.getHeader("X-RateLimit-Limit"));
+    }
+
+    @Test
+    void testDisabledFilterLetsEverythingThrough() throws Exception {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request("/api/auth/login", "10.0.0.1"), response, new MockFilterChain());
+
+            assertEquals(200, response.getStatus());
+            assertNull(response.getHeader("X-RateLimit-Limit"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private RateLimitFilter filterWith(RateLimitStore store) {
+        ObjectProvider<RouteClassifier> classifierProvider = mock(ObjectProvider.class);
+        when(classifierProvider.getIfAvailable(any())).thenAnswer(
+                invocation -> ((Supplier<RouteClassifier>) invocation.getArgument(0)).get());
+        ObjectProvider<RateLimitStore> storeProvider = mock(ObjectProvider.class);
+        when(storeProvider.getIfAvailable(any())).thenReturn(store);
+        return new RateLimitFilter(properties, new RouteProperties(), classifierProvider, storeProvider);
+    }
+
+    private static MockHttpServletRequest request(String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.jarom.funbankapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jarom.funbankapp.config.RateLimitProperties;
+import com.jarom.funbankapp.config.RouteProperties;
+
+class RouteClassifierTest {
+
+    private RateLimitProperties.Route loginLimit;
+    private RateLimitProperties.Route exportLimit;
+    private RouteClassifier classifier;
+
+    @BeforeEach
+    void setUp() {
+        loginLimit = new RateLimitProperties.Route("/api/auth/login", 5, 60);
+        exportLimit = new RateLimitProperties.Route("/api/export/**", 20, 60);
+        classifier = new RouteClassifier(
+                List.of("/api/auth/login", "/api/health", "/swagger-ui.html", "/swagger-ui/**"),
+                List.of(loginLimit, exportLimit));
+    }
+
+    @Test
+    void testClassify_ExactPublicPath() {
+        RouteClassifier.RouteRule rule = classifier.classify("/api/health");
+
+        assertTrue(rule.isPublic());
+        assertFalse(rule.isRateLimited());
+    }
+
+    @Test
+    void testClassify_PublicAndRateLimited() {
+        RouteClassifier.RouteRule rule = classifier.classify("/api/auth/login");
+
+        assertTrue(rule.isPublic());
+        assertSame(loginLimit, rule.getRateLimit());
+    }
+
+    @Test
+    void testClassify_PrefixPatternMatchesPrefixAndDescendants() {
+        assertTrue(classifier.classify("/swagger-ui").isPublic());
+        assertTrue(classifier.classify("/swagger-ui/index.html").isPublic());
+        assertTrue(classifier.classify("/swagger-ui.html").isPublic());
+        assertFalse(classifier.classify("/swagger-uix").isPublic());
+    }
+
+    @Test
+    void testClassify_DefaultPublicPathsIncludeTheApiDocsFiles() {
+        RouteClassifier defaults = new RouteClassifier(new RouteProperties(), new RateLimitProperties());
+
+        assertTrue(defaults.classify("/v3/api-docs").isPublic());
+        assertTrue(defaults.classify("/v3/api-docs/swagger-config").isPublic());
+        // "/**" only matches whole segments, so the file variants are listed on their own
+        assertTrue(defaults.classify("/v3/api-docs.yaml").isPublic());
+        assertTrue(defaults.classify("/v3/api-docs.json").isPublic());
+        assertFalse(defaults.classify("/v3/api-docs.txt").isPublic());
+    }
+
+    @Test
+    void testClassify_AuthenticatedRateLimitedPrefix() {
+        RouteClassifier.RouteRule rule = classifier.classify("/api/export/jobs/1/download");
+
+        assertTrue(rule.isAuthenticated());
+        assertSame(exportLimit, rule.getRateLimit());
+    }
+
+    @Test
+    void testClassify_UnknownPathIsAuthenticated() {
+        RouteClassifier.RouteRule rule = classifier.classify("/api/accounts");
+
+        assertTrue(rule.isAuthenticated());
+        assertFalse(rule.isRateLimited());
+        assertFalse(classifier.classify("/api/auth/login/extra").isPublic());
+        assertFalse(classifier.classify("").isPublic());
+    }
+
+    @Test
+    void testClassify_ReturnsSharedRuleInstances() {
+        assertSame(classifier.classify("/api/accounts"), classifier.classify("/api/goals"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.model.Budget;
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.model.Goal;
+import com.jarom.funbankapp.repository.BudgetRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.GoalRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
+
+class CSVExportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DebtRepository debtRepository;
+    private BudgetRepository budgetRepository;
+    private GoalRepository goalRepository;
+    private CSVExportServiceImpl csvExportService;
+
+    @BeforeEach
+    void setUp() {
+        debtRepository = mock(DebtRepository.class);
+        budgetRepository = mock(BudgetRepository.class);
+        goalRepository = mock(GoalRepository.class);
+        csvExportService = new CSVExportServiceImpl(mock(TransactionRepository.class), debtRepository,
+                budgetRepository, goalRepository, null, new ExportCompression("none", 6), 500);
+    }
+
+    @Test
+    void testDebtsAreTheUsersOwn() throws Exception {
+        Debt debt = new Debt();
+        debt.setName("Car Loan, used");
+        debt.setDebtType("car_loan");
+        debt.setOriginalAmount(new BigDecimal("12000.00"));
+        debt.setCurrentBalance(new BigDecimal("8000.00"));
+        debt.setInterestRate(new BigDecimal("4.25"));
+        debt.setMinimumPayment(new BigDecimal("300.00"));
+        debt.setDueDate(10);
+        debt.setPriority("low");
+        debt.setStatus("active");
+        when(debtRepository.findByUserId(1L)).thenReturn(List.of(debt));
+        ExportProgress progress = new ExportProgress(7L);
+
+        List<String> lines = export("debts", progress);
+
+        assertEquals(List.of(
+                "Name,Type,Original Amount,Current Balance,Interest Rate (%),Minimum Payment,Due Day,Priority,Status",
+                "\"Car Loan, used\",car_loan,12000.00,8000.00,4.25,300.00,10,low,active"), lines);
+        progress.finish();
+        assertEquals(1, progress.getRowsWritten());
+        assertEquals(1, progress.getExpectedRows());
+    }
+
+    @Test
+    void testBudgetsShowWhatIsLeft() throws Exception {
+        Budget budget = new Budget();
+        budget.setName("Groceries");
+        budget.setCategory("food");
+        budget.setPeriod("monthly");
+        budget.setAmount(new BigDecimal("400.00"));
+        budget.setSpent(new BigDecimal("125.50"));
+        budget.setStartDate(Timestamp.valueOf("2024-01-01 00:00:00"));
+        when(budgetRepository.findByUserId(1L)).thenReturn(List.of(budget));
+
+        List<String> lines = export("budgets", ExportProgress.NONE);
+
+        assertEquals("Groceries,food,monthly,400.00,125.50,274.50,2024-01-01 00:00:00,", lines.get(1));
+        assertEquals(2, lines.size());
+    }
+
+    @Test
+    void testGoalsShowProgress() throws Exception {
+        Goal goal = new Goal();
+        goal.setName("Emergency Fund");
+        goal.setType("savings");
+        goal.setTargetAmount(new BigDecimal("10000.00"));
+        goal.setCurrentAmount(new BigDecimal("3500.00"));
+        goal.setStatus("active");
+        when(goalRepository.findByUserId(1L)).thenReturn(List.of(goal));
+
+        List<String> lines = export("goals", ExportProgress.NONE);
+
+        assertEquals("Name,Type,Target Amount,Current Amount,Progress (%),Deadline,Status", lines.get(0));
+        assertEquals("Emergency Fund,savings,10000.00,3500.00,35.00,,active", lines.get(1));
+    }
+
+    @Test
+    void testNoRowsWritesJustTheHeader() throws Exception {
+        when(goalRepository.findByUserId(1L)).thenReturn(List.of());
+
+        assertEquals(1, export("goals", ExportProgress.NONE).size());
+    }
+
+    private List<String> export(String exportType, ExportProgress progress) throws Exception {
+        Path file = tempDir.resolve(exportType + ".csv");
+        csvExportService.exportData(1L, new ExportRequest(exportType, "CSV"), file.toString(), progress);
+        return List.of(Files.readString(file, StandardCharsets.UTF_8).split("\r\n"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testQuotesOnlyFieldsThatNeedIt() throws Exception {
+        Path file = tempDir.resolve("out.csv");
+        try (CsvWriter csv = new CsvWriter(file)) {
+            csv.row("Description", "Amount");
+            csv.field("Coffee, large").field(new BigDecimal("-4.50")).endRow();
+            csv.field("The \"good\" cheese").field((BigDecimal) null).endRow();
+            csv.field("line one\nline two").field(new BigDecimal("1E+3")).endRow();
+            csv.field("Café ☕").field(7).endRow();
+            assertEquals(5, csv.getRowCount());
+        }
+
+        assertEquals("Description,Amount\r\n"
+                + "\"Coffee, large\",-4.50\r\n"
+                + "\"The \"\"good\"\" cheese\",\r\n"
+                + "\"line one\nline two\",1000\r\n"
+                + "Café ☕,7\r\n",
+                Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRowsLargerThanTheBuffersAreWrittenWhole() throws Exception {
+        Path file = tempDir.resolve("big.csv");
+        String wide = "x".repeat(5000);
+        try (CsvWriter csv = new CsvWriter(file, 1024)) {
+            for (int i = 0; i < 100; i++) {
+                csv.field(i).field(wide).endRow();
+            }
+        }
+
+        String[] lines = Files.readString(file, StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(100, lines.length);
+        assertEquals("99," + wide, lines[99]);
+    }
+}
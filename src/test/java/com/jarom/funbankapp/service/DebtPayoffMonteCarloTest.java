@@ -0,0 +1,155 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jarom.funbankapp.dto.PayoffRiskRequest;
+import com.jarom.funbankapp.model.Debt;
+
+class DebtPayoffMonteCarloTest {
+
+    private DebtPayoffMonteCarlo monteCarlo;
+    private DebtPayoffSimulator simulator;
+    private int[] order;
+    private int expectedMonths;
+
+    @BeforeEach
+    void setUp() {
+        monteCarlo = new DebtPayoffMonteCarlo(4);
+        simulator = new DebtPayoffSimulator(List.of(
+                debt(1L, "credit_card", "4000.00", "22.99", "120.00"),
+                debt(2L, "car_loan", "12000.00", "6.50", "300.00"),
+                debt(3L, "student_loan", "20000.00", "4.50", "210.00")));
+        order = simulator.avalancheOrder();
+        expectedMonths = simulator.run(100_000, order, false).getMonths();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monteCarlo.destroy();
+    }
+
+    @Test
+    void testWithoutShocksEveryPathFollowsThePlan() {
+        DebtPayoffMonteCarlo.Result result = monteCarlo.simulate(simulator, 100_000, order, calm(), 1L);
+
+        assertEquals(1000, result.getPaths());
+        assertEquals(1.0, result.getProbabilityPaidOff());
+        assertEquals(expectedMonths, result.getPayoffMonthPercentile(0.1));
+        assertEquals(expectedMonths, result.getPayoffMonthPercentile(0.9));
+        assertEquals(1.0, result.getProbabilityPaidOffBy(expectedMonths));
+        assertEquals(0.0, result.getProbabilityPaidOffBy(expectedMonths - 1));
+        assertEquals(simulator.run(100_000, order, false).getTotalInterest(), result.getInterestPercentile(0.5));
+    }
+
+    @Test
+    void testTheSameSeedGivesTheSameResultOnAnyPool() {
+        PayoffRiskRequest request = calm();
+        request.setPaths(5000);
+        request.setMissedPaymentProbability(0.05);
+        request.setIncomeShockProbability(0.02);
+        request.setRateChangeProbability(0.1);
+
+        DebtPayoffMonteCarlo serial = new DebtPayoffMonteCarlo(1);
+        try {
+            DebtPayoffMonteCarlo.Result first = monteCarlo.simulate(simulator, 100_000, order, request, 7L);
+            DebtPayoffMonteCarlo.Result second = serial.simulate(simulator, 100_000, order, request, 7L);
+            DebtPayoffMonteCarlo.Result other = monteCarlo.simulate(simulator, 100_000, order, request, 8L);
+
+            assertEquals(first.getAverageInterest(), second.getAverageInterest());
+            for (double percentile : new double[] {0.1, 0.5, 0.9}) {
+                assertEquals(first.getPayoffMonthPercentile(percentile), second.getPayoffMonthPercentile(percentile));
+                assertEquals(first.getInterestPercentile(percentile), second.getInterestPercentile(percentile));
+            }
+            assertNotEquals(first.getAverageInterest(), other.getAverageInterest());
+        } finally {
+            serial.destroy();
+        }
+    }
+
+    @Test
+    void testShocksDelayPayoff() {
+        PayoffRiskRequest request = calm();
+        request.setMissedPaymentProbability(0.1);
+        request.setIncomeShockProbability(0.05);
+
+        DebtPayoffMonteCarlo.Result result = monteCarlo.simulate(simulator, 100_000, order, request, 1L);
+
+        assertTrue(result.getPayoffMonthPercentile(0.5) > expectedMonths);
+        assertTrue(result.getProbabilityPaidOffBy(expectedMonths) < 0.5);
+        assertTrue(result.getPayoffMonthPercentile(0.1) <= result.getPayoffMonthPercentile(0.9));
+    }
+
+    @Test
+    void testOnlyVariableRateDebtsFollowTheMarket() {
+        PayoffRiskRequest request = calm();
+        request.setRateChangeProbability(1.0);
+        request.setRateChangeStdDev(5.0);
+        request.setVariableRateTypes(List.of("mortgage"));
+
+        DebtPayoffMonteCarlo.Result fixed = monteCarlo.simulate(simulator, 100_000, order, request, 1L);
+        request.setVariableRateTypes(List.of("credit_card"));
+        DebtPayoffMonteCarlo.Result variable = monteCarlo.simulate(simulator, 100_000, order, request, 1L);
+
+        assertEquals(expectedMonths, fixed.getPayoffMonthPercentile(0.9));
+        assertTrue(variable.getInterestPercentile(0.9) != variable.getInterestPercentile(0.1));
+    }
+
+    @Test
+    void testVariableRateTypesIgnoreCase() {
+        DebtPayoffSimulator stored = new DebtPayoffSimulator(List.of(
+                debt(1L, "CREDIT_CARD", "4000.00", "22.99", "120.00"),
+                debt(2L, "CAR_LOAN", "12000.00", "6.50", "300.00")));
+        PayoffRiskRequest request = calm();
+        request.setRateChangeProbability(1.0);
+        request.setRateChangeStdDev(5.0);
+
+        DebtPayoffMonteCarlo.Result result = monteCarlo.simulate(stored, 100_000, stored.avalancheOrder(), request, 1L);
+
+        assertTrue(result.getInterestPercentile(0.9) != result.getInterestPercentile(0.1));
+    }
+
+    @Test
+    void testPathsStillInDebtAtTheHorizonHaveNoPayoffMonth() {
+        PayoffRiskRequest request = calm();
+        request.setHorizonMonths(expectedMonths - 1);
+
+        DebtPayoffMonteCarlo.Result result = monteCarlo.simulate(simulator, 100_000, order, request, 1L);
+
+        assertEquals(0.0, result.getProbabilityPaidOff());
+        assertEquals(0, result.getPayoffMonthPercentile(0.5));
+    }
+
+    @Test
+    void testBudgetBelowMinimumsIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> monteCarlo.simulate(simulator, 50_000, order, calm(), 1L));
+    }
+
+    private static PayoffRiskRequest calm() {
+        PayoffRiskRequest request = new PayoffRiskRequest();
+        request.setMonthlyPaymentAmount(new BigDecimal("1000.00"));
+        request.setPaths(1000);
+        request.setRateChangeProbability(0);
+        request.setMissedPaymentProbability(0);
+        request.setIncomeShockProbability(0);
+        return request;
+    }
+
+    private static Debt debt(Long id, String type, String balance, String rate, String minimum) {
+        Debt debt = new Debt();
+        debt.setId(id);
+        debt.setName("Debt " + id);
+        debt.setDebtType(type);
+        debt.setCurrentBalance(new BigDecimal(balance));
+        debt.setInterestRate(new BigDecimal(rate));
+        debt.setMinimumPayment(new BigDecimal(minimum));
+        return debt;
+    }
+}
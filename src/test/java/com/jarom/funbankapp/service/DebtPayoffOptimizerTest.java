@@ -0,0 +1,116 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.jarom.funbankapp.model.Debt;
+
+class DebtPayoffOptimizerTest {
+
+    @Test
+    void testNoFixedOrderOwesLessInterest() {
+        Random random = new Random(42);
+        for (int instance = 0; instance < 20; instance++) {
+            DebtPayoffSimulator simulator = new DebtPayoffSimulator(randomDebts(random, 12));
+            long budget = simulator.totalMinimumPayment() + 20_000 + random.nextInt(100_000);
+
+            DebtPayoffSimulator.Result optimal = simulator.run(budget,
+                    DebtPayoffOptimizer.solve(simulator, budget, DebtPayoffOptimizer.Objective.INTEREST), false);
+
+            assertTrue(optimal.isPaidOff());
+            for (int[] order : candidateOrders(simulator, random)) {
+                DebtPayoffSimulator.Result other = simulator.run(budget, order, false);
+                assertTrue(optimal.getTotalInterest() <= other.getTotalInterest(),
+                        "instance " + instance + ": " + optimal.getTotalInterest() + " > " + other.getTotalInterest());
+            }
+        }
+    }
+
+    @Test
+    void testNoFixedOrderPaysOffSooner() {
+        Random random = new Random(7);
+        for (int instance = 0; instance < 20; instance++) {
+            DebtPayoffSimulator simulator = new DebtPayoffSimulator(randomDebts(random, 12));
+            long budget = simulator.totalMinimumPayment() + 20_000 + random.nextInt(100_000);
+
+            DebtPayoffSimulator.Result optimal = simulator.run(budget,
+                    DebtPayoffOptimizer.solve(simulator, budget, DebtPayoffOptimizer.Objective.TIME), false);
+
+            for (int[] order : candidateOrders(simulator, random)) {
+                assertTrue(optimal.getMonths() <= simulator.run(budget, order, false).getMonths());
+            }
+        }
+    }
+
+    @Test
+    void testHighestRateGetsTheExtra() {
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(List.of(
+                debt(1L, "500.00", "5.00", "25.00"),
+                debt(2L, "5000.00", "24.00", "150.00"),
+                debt(3L, "2000.00", "12.00", "50.00")));
+
+        int[] order = DebtPayoffOptimizer.solve(simulator, 50_000, DebtPayoffOptimizer.Objective.INTEREST);
+
+        assertArrayEquals(new int[] {1, 2, 0}, order);
+    }
+
+    @Test
+    void testBudgetBelowMinimumsIsRejected() {
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(List.of(debt(1L, "500.00", "5.00", "25.00")));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DebtPayoffOptimizer.solve(simulator, 2_000, DebtPayoffOptimizer.Objective.INTEREST));
+    }
+
+    @Test
+    void testObjectiveNames() {
+        assertEquals(DebtPayoffOptimizer.Objective.INTEREST, DebtPayoffOptimizer.objective(null));
+        assertEquals(DebtPayoffOptimizer.Objective.TIME, DebtPayoffOptimizer.objective("Time"));
+        assertThrows(IllegalArgumentException.class, () -> DebtPayoffOptimizer.objective("fastest"));
+    }
+
+    private static List<int[]> candidateOrders(DebtPayoffSimulator simulator, Random random) {
+        List<int[]> orders = new ArrayList<>(List.of(simulator.snowballOrder(), simulator.avalancheOrder(),
+                simulator.paymentRatioOrder(), simulator.priorityOrder()));
+        for (int i = 0; i < 10; i++) {
+            int[] shuffled = simulator.avalancheOrder();
+            for (int k = shuffled.length - 1; k > 0; k--) {
+                int j = random.nextInt(k + 1);
+                int swap = shuffled[k];
+                shuffled[k] = shuffled[j];
+                shuffled[j] = swap;
+            }
+            orders.add(shuffled);
+        }
+        return orders;
+    }
+
+    private static List<Debt> randomDebts(Random random, int count) {
+        List<Debt> debts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long balance = 10_000 + random.nextInt(2_000_000);
+            // Rates in quarter points, so some tie
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(100), 2).multiply(BigDecimal.valueOf(25));
+            long minimum = balance * (rate.longValue() + 3) / 1_200 + 1;
+            debts.add(debt((long) i, BigDecimal.valueOf(balance, 2).toPlainString(), rate.toPlainString(),
+                    BigDecimal.valueOf(minimum, 2).toPlainString()));
+        }
+        return debts;
+    }
+
+    private static Debt debt(Long id, String balance, String rate, String minimum) {
+        Debt debt = new Debt();
+        debt.setId(id);
+        debt.setName("Debt " + id);
+        debt.setCurrentBalance(new BigDecimal(balance));
+        debt.setInterestRate(new BigDecimal(rate));
+        debt.setMinimumPayment(new BigDecimal(minimum));
+        return debt;
+    }
+}
@@ -0,0 +1,127 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.jarom.funbankapp.model.Debt;
+
+class DebtPayoffSimulatorTest {
+
+    @Test
+    void testSingleDebtAccruesMonthlyInterest() {
+        // $1,000 at 12% is 1% a month; $100 a month clears it in 11 months
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(List.of(debt(1L, "1000.00", "12.00", "25.00")));
+
+        DebtPayoffSimulator.Result result = simulator.run(10_000, new int[] {0}, true);
+
+        assertTrue(result.isPaidOff());
+        assertEquals(11, result.getMonths());
+        assertEquals(1_000, result.getInterestForMonth(1));
+        assertEquals(5_898, result.getTotalInterest());
+        assertEquals(91_000, result.getBalanceAfter(1));
+        assertEquals(0, result.getBalanceAfter(11));
+    }
+
+    @Test
+    void testPaymentsCoverBalanceAndInterest() {
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(List.of(
+                debt(1L, "500.00", "18.99", "25.00"),
+                debt(2L, "2500.00", "6.99", "75.00"),
+                debt(3L, "10000.00", "4.50", "200.00")));
+
+        DebtPayoffSimulator.Result result = simulator.run(50_000, simulator.snowballOrder(), true);
+
+        long paid = 0;
+        for (int month = 1; month <= result.getMonths(); month++) {
+            paid += result.getPayment(month);
+        }
+        assertEquals(simulator.totalBalance() + result.getTotalInterest(), paid);
+        assertEquals(28, result.getMonths());
+        assertEquals(75_261, result.getTotalInterest());
+        assertEquals(3, result.getPayoffMonth(0));
+        assertEquals(11, result.getPayoffMonth(1));
+        assertEquals(28, result.getPayoffMonth(2));
+    }
+
+    @Test
+    void testAvalancheSavesInterestOverSnowball() {
+        // The small debt is cheap and the large one expensive, so the two orders differ
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(List.of(
+                debt(1L, "500.00", "5.00", "25.00"),
+                debt(2L, "5000.00", "24.00", "100.00")));
+        assertArrayEquals(new int[] {0, 1}, simulator.snowballOrder());
+        assertArrayEquals(new int[] {1, 0}, simulator.avalancheOrder());
+
+        DebtPayoffSimulator.Result snowball = simulator.run(40_000, simulator.snowballOrder(), false);
+        DebtPayoffSimulator.Result avalanche = simulator.run(40_000, simulator.avalancheOrder(), false);
+
+        assertEquals(17, snowball.getMonths());
+        assertEquals(98_130, snowball.getTotalInterest());
+        assertEquals(2, snowball.getPayoffMonth(0));
+        assertEquals(16, avalanche.getMonths());
+        assertEquals(89_585, avalanche.getTotalInterest());
+        assertFalse(snowball.hasSchedule());
+    }
+
+    @Test
+    void testZeroRateDebtIsPaidDownByTheBudget() {
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(List.of(debt(1L, "1050.00", null, null)));
+
+        DebtPayoffSimulator.Result result = simulator.run(10_000, new int[] {0}, false);
+
+        assertEquals(11, result.getMonths());
+        assertEquals(0, result.getTotalInterest());
+    }
+
+    @Test
+    void testBudgetBelowMinimumsIsRejected() {
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(List.of(
+                debt(1L, "500.00", "18.99", "25.00"),
+                debt(2L, "2500.00", "6.99", "75.00")));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> simulator.run(9_999, simulator.avalancheOrder(), false));
+        assertTrue(e.getMessage().startsWith("Invalid monthly payment"));
+    }
+
+    @Test
+    void testBudgetBelowInterestNeverPaysOff() {
+        // 24% on $10,000 is $200 a month, more than the $150 paid
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(List.of(debt(1L, "10000.00", "24.00", "50.00")));
+
+        DebtPayoffSimulator.Result result = simulator.run(15_000, new int[] {0}, false);
+        DebtPayoffSimulator.Result slow = simulator.run(20_001, new int[] {0}, false);
+
+        assertTrue(slow.isPaidOff());
+        assertFalse(result.isPaidOff());
+        assertTrue(result.getMonths() < DebtPayoffSimulator.MAX_MONTHS);
+        assertEquals(0, result.getPayoffMonth(0));
+        assertTrue(result.getRemainingBalance(0) > 100_000_000);
+    }
+
+    @Test
+    void testPaidOffAndEmptyDebtsAreLeftOut() {
+        DebtPayoffSimulator simulator = new DebtPayoffSimulator(List.of(
+                debt(1L, "0.00", "18.99", "25.00"),
+                debt(2L, null, "6.99", "75.00"),
+                debt(3L, "100.00", "6.99", "75.00")));
+
+        assertEquals(1, simulator.size());
+        assertEquals(3L, simulator.debt(0).getId());
+        assertEquals(7_500, simulator.totalMinimumPayment());
+    }
+
+    private static Debt debt(Long id, String balance, String rate, String minimum) {
+        Debt debt = new Debt();
+        debt.setId(id);
+        debt.setName("Debt " + id);
+        debt.setCurrentBalance(balance != null ? new BigDecimal(balance) : null);
+        debt.setInterestRate(rate != null ? new BigDecimal(rate) : null);
+        debt.setMinimumPayment(minimum != null ? new BigDecimal(minimum) : null);
+        return debt;
+    }
+}
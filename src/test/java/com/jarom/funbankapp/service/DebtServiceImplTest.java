@@ -0,0 +1,81 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.jarom.funbankapp.dto.PayoffRiskRequest;
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.model.User;
+import com.jarom.funbankapp.repository.DebtPaymentRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.UserRepository;
+
+class DebtServiceImplTest {
+
+    private DebtPayoffMonteCarlo monteCarlo;
+    private DebtServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("saver");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("saver")).thenReturn(Optional.of(user));
+        DebtRepository debtRepository = mock(DebtRepository.class);
+        when(debtRepository.findByUserId(7L)).thenReturn(List.of(
+                debt(1L, "CREDIT_CARD", "4000.00", "22.99", "120.00"),
+                debt(2L, "CAR_LOAN", "12000.00", "6.50", "300.00")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("saver", null, List.of()));
+
+        monteCarlo = new DebtPayoffMonteCarlo(2);
+        service = new DebtServiceImpl(debtRepository, mock(DebtPaymentRepository.class), userRepository,
+                mock(OwnershipService.class), monteCarlo);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        monteCarlo.destroy();
+    }
+
+    @Test
+    void testPayoffRiskWithoutASeedReportsTheOneItDrew() {
+        PayoffRiskRequest request = new PayoffRiskRequest();
+        request.setMonthlyPaymentAmount(new BigDecimal("1000.00"));
+        request.setPaths(200);
+
+        Map<String, Object> first = service.simulatePayoffRisk(request);
+        Map<String, Object> second = service.simulatePayoffRisk(request);
+        assertNotEquals(first.get("seed"), second.get("seed"));
+
+        // The reported seed repeats the run
+        request.setSeed((Long) first.get("seed"));
+        Map<String, Object> repeated = service.simulatePayoffRisk(request);
+        assertEquals(first.get("payoffDatePercentiles"), repeated.get("payoffDatePercentiles"));
+        assertEquals(first.get("averageTotalInterest"), repeated.get("averageTotalInterest"));
+    }
+
+    private static Debt debt(Long id, String type, String balance, String rate, String minimum) {
+        Debt debt = new Debt();
+        debt.setId(id);
+        debt.setName("Debt " + id);
+        debt.setDebtType(type);
+        debt.setCurrentBalance(new BigDecimal(balance));
+        debt.setInterestRate(new BigDecimal(rate));
+        debt.setMinimumPayment(new BigDecimal(minimum));
+        return debt;
+    }
+}
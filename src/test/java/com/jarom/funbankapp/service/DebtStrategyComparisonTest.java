@@ -0,0 +1,135 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.repository.DataVersionRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+
+class DebtStrategyComparisonTest {
+
+    private DebtRepository debtRepository;
+    private DataVersionRepository dataVersionRepository;
+    private DebtStrategyComparison comparison;
+
+    @BeforeEach
+    void setUp() {
+        debtRepository = mock(DebtRepository.class);
+        dataVersionRepository = mock(DataVersionRepository.class);
+        comparison = new DebtStrategyComparison(debtRepository, dataVersionRepository, new BigDecimal("9.99"), 2, 2);
+        when(dataVersionRepository.findDataVersion(eq(1L), any())).thenReturn("v1");
+        when(debtRepository.findByUserId(1L)).thenReturn(List.of(
+                debt(1L, "500.00", "5.00", "25.00", "low"),
+                debt(2L, "5000.00", "24.00", "150.00", "high")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        comparison.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEveryScenarioIsSimulatedAtTheSameBudget() {
+        Map<String, Object> result = comparison.compare(1L, new BigDecimal("400.00"), null);
+
+        Map<String, Object> snowball = (Map<String, Object>) result.get("snowball");
+        Map<String, Object> avalanche = (Map<String, Object>) result.get("avalanche");
+        assertEquals(17, snowball.get("monthsToPayoff"));
+        assertEquals(new BigDecimal("980.16"), snowball.get("totalInterest"));
+        assertEquals(16, avalanche.get("monthsToPayoff"));
+        assertEquals(new BigDecimal("895.85"), avalanche.get("totalInterest"));
+        assertEquals(List.of(2L, 1L), avalanche.get("debtOrder"));
+        // High priority first, which here is the avalanche order
+        assertEquals(avalanche.get("totalInterest"),
+                ((Map<String, Object>) result.get("customPriority")).get("totalInterest"));
+        assertNotNull(result.get("highestPaymentRatio"));
+
+        Map<String, Object> minimums = (Map<String, Object>) result.get("minimumPaymentsOnly");
+        assertEquals(56, minimums.get("monthsToPayoff"));
+        assertEquals(new BigDecimal("3345.33"), minimums.get("totalInterest"));
+        assertEquals(new BigDecimal("2449.48"), avalanche.get("interestSaved"));
+        assertEquals(40, avalanche.get("monthsSaved"));
+
+        // 9.99% on one loan beats every order of the 24% debt
+        Map<String, Object> consolidation = (Map<String, Object>) result.get("consolidation");
+        assertEquals(15, consolidation.get("monthsToPayoff"));
+        assertEquals(new BigDecimal("365.75"), consolidation.get("totalInterest"));
+        assertEquals("consolidation", result.get("lowestInterestStrategy"));
+
+        Map<String, Object> optimal = (Map<String, Object>) result.get("optimal");
+        assertEquals(new BigDecimal("895.85"), optimal.get("totalInterest"));
+        assertEquals(List.of(2L, 1L), optimal.get("debtOrder"));
+    }
+
+    @Test
+    void testComparisonsAreMemoizedPerDebtsVersionAndBudget() {
+        comparison.compare(1L, new BigDecimal("400.00"), null);
+        comparison.compare(1L, new BigDecimal("400.00"), null);
+        verify(debtRepository, times(1)).findByUserId(1L);
+
+        comparison.compare(1L, new BigDecimal("500.00"), null);
+        verify(debtRepository, times(2)).findByUserId(1L);
+
+        // Back to the first budget: still cached
+        comparison.compare(1L, new BigDecimal("400.00"), null);
+        verify(debtRepository, times(2)).findByUserId(1L);
+
+        // A debt changed
+        when(dataVersionRepository.findDataVersion(eq(1L), any())).thenReturn("v2");
+        comparison.compare(1L, new BigDecimal("400.00"), null);
+        verify(debtRepository, times(3)).findByUserId(1L);
+    }
+
+    @Test
+    void testLeastRecentlyUsedComparisonIsEvicted() {
+        comparison.compare(1L, new BigDecimal("400.00"), null);
+        comparison.compare(1L, new BigDecimal("500.00"), null);
+        comparison.compare(1L, new BigDecimal("400.00"), null);
+        comparison.compare(1L, new BigDecimal("600.00"), null);
+        verify(debtRepository, times(3)).findByUserId(1L);
+
+        // 500 was the least recently used of the two kept
+        comparison.compare(1L, new BigDecimal("400.00"), null);
+        verify(debtRepository, times(3)).findByUserId(1L);
+        comparison.compare(1L, new BigDecimal("500.00"), null);
+        verify(debtRepository, times(4)).findByUserId(1L);
+    }
+
+    @Test
+    void testBudgetBelowMinimumsIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> comparison.compare(1L, new BigDecimal("100.00"), null));
+        assertTrue(e.getMessage().startsWith("Invalid monthly payment"));
+    }
+
+    @Test
+    void testNoDebtsGivesAMessage() {
+        when(debtRepository.findByUserId(1L)).thenReturn(List.of());
+
+        Map<String, Object> result = comparison.compare(1L, new BigDecimal("400.00"), null);
+
+        assertEquals("No valid debts to compare strategies.", result.get("message"));
+    }
+
+    private static Debt debt(Long id, String balance, String rate, String minimum, String priority) {
+        Debt debt = new Debt();
+        debt.setId(id);
+        debt.setName("Debt " + id);
+        debt.setCurrentBalance(new BigDecimal(balance));
+        debt.setInterestRate(new BigDecimal(rate));
+        debt.setMinimumPayment(new BigDecimal(minimum));
+        debt.setPriority(priority);
+        return debt;
+    }
+}
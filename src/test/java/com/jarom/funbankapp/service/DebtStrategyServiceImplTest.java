@@ -0,0 +1,99 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.jarom.funbankapp.dto.DebtStrategyDTO;
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.model.DebtStrategy;
+import com.jarom.funbankapp.model.User;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.DebtStrategyRepository;
+import com.jarom.funbankapp.repository.UserRepository;
+
+class DebtStrategyServiceImplTest {
+
+    private DebtStrategyRepository debtStrategyRepository;
+    private UserRepository userRepository;
+    private DebtStrategyServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        debtStrategyRepository = mock(DebtStrategyRepository.class);
+        userRepository = mock(UserRepository.class);
+        service = new DebtStrategyServiceImpl(debtStrategyRepository, mock(DebtRepository.class),
+                userRepository, mock(OwnershipService.class), mock(DebtStrategyComparison.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testCreatesAnOptimalStrategy() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("saver");
+        when(userRepository.findByUsername("saver")).thenReturn(Optional.of(user));
+        when(debtStrategyRepository.save(any(DebtStrategy.class))).thenAnswer(invocation -> {
+            DebtStrategy saved = invocation.getArgument(0);
+            saved.setId(11L);
+            return saved;
+        });
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("saver", null, List.of()));
+
+        DebtStrategyDTO request = new DebtStrategyDTO();
+        request.setName("Least interest");
+        request.setStrategyType("optimal");
+        request.setMonthlyPaymentAmount(new BigDecimal("600.00"));
+
+        DebtStrategyDTO created = service.createStrategy(request);
+
+        assertEquals(11L, created.getId());
+        assertEquals("optimal", created.getStrategyType());
+        verify(debtStrategyRepository).save(argThat(s -> "optimal".equals(s.getStrategyType()) && s.getUserId() == 7L));
+    }
+
+    @Test
+    void testStrategiesForAGivenListUseTheSimulatedOrders() {
+        List<Debt> debts = List.of(
+                debt(1L, "5000.00", "24.00"),
+                debt(2L, "500.00", "5.00"),
+                debt(3L, "2000.00", "24.00"),
+                debt(4L, "0.00", "30.00")); // paid off
+
+        Map<String, Object> snowball = service.generateSnowballStrategy(debts);
+        assertEquals("snowball", snowball.get("strategyType"));
+        assertEquals(List.of(2L, 3L, 1L), snowball.get("debtOrder"));
+        assertEquals(3, snowball.get("totalDebts"));
+        assertEquals(new BigDecimal("7500.00"), snowball.get("totalBalance"));
+
+        // Equal rates go smaller balance first
+        Map<String, Object> avalanche = service.generateAvalancheStrategy(debts);
+        assertEquals("avalanche", avalanche.get("strategyType"));
+        assertEquals(List.of(3L, 1L, 2L), avalanche.get("debtOrder"));
+    }
+
+    private static Debt debt(Long id, String balance, String rate) {
+        Debt debt = new Debt();
+        debt.setId(id);
+        debt.setName("Debt " + id);
+        debt.setCurrentBalance(new BigDecimal(balance));
+        debt.setInterestRate(new BigDecimal(rate));
+        debt.setMinimumPayment(new BigDecimal("25.00"));
+        return debt;
+    }
+}
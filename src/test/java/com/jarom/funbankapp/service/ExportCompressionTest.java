@@ -0,0 +1,94 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExportCompressionTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAcceptsHonoursQValuesAndWildcards() {
+        assertTrue(ExportCompression.accepts("gzip, deflate, br", "gzip"));
+        assertTrue(ExportCompression.accepts("GZIP;q=0.5", "gzip"));
+        assertTrue(ExportCompression.accepts("br, *", "gzip"));
+        assertFalse(ExportCompression.accepts("gzip;q=0", "gzip"));
+        assertFalse(ExportCompression.accepts("*, gzip;q=0", "gzip"));
+        assertFalse(ExportCompression.accepts("identity", "gzip"));
+        assertFalse(ExportCompression.accepts(null, "gzip"));
+    }
+
+    @Test
+    void testOnlyTextFormatsAreCompressed() {
+        ExportCompression gzip = new ExportCompression("gzip", 6);
+        assertEquals(".gz", gzip.fileSuffix("CSV"));
+        assertEquals(".gz", gzip.fileSuffix("json"));
+        assertEquals("", gzip.fileSuffix("EXCEL"));
+        assertEquals("", gzip.fileSuffix("PDF"));
+        assertEquals("", new ExportCompression("none", 6).fileSuffix("CSV"));
+
+        assertEquals("gzip", gzip.contentEncoding("transactions_1.csv.gz"));
+        assertNull(gzip.contentEncoding("transactions_1.pdf"));
+        assertEquals("transactions_1.csv", gzip.downloadName("transactions_1.csv.gz"));
+    }
+
+    @Test
+    void testRejectsUnknownCodecsAndLevels() {
+        assertThrows(IllegalArgumentException.class, () -> new ExportCompression("zstd", 3));
+        assertThrows(IllegalArgumentException.class, () -> new ExportCompression("gzip", 0));
+    }
+
+    @Test
+    void testCompressedCsvRoundTripsAndShrinks() throws Exception {
+        ExportCompression compression = new ExportCompression("gzip", 6);
+        Path plain = tempDir.resolve("out.csv");
+        Path compressed = tempDir.resolve("out.csv.gz");
+        for (Path file : new Path[] {plain, compressed}) {
+            try (CsvWriter csv = new CsvWriter(compression.newChannel(file))) {
+                csv.row("Date", "Description", "Amount", "Category", "Account", "Type");
+                for (int i = 0; i < 20_000; i++) {
+                    csv.field("2024-01-16 00:00:00").field("Payment " + (i % 50))
+                            .field(BigDecimal.valueOf(-i, 2)).field("food").field("Main Checking")
+                            .field("expense").endRow();
+                }
+            }
+        }
+
+        assertTrue(Files.size(compressed) * 4 < Files.size(plain));
+        try (InputStream in = compression.decompress(Files.newInputStream(compressed))) {
+            assertEquals(Files.readString(plain, StandardCharsets.UTF_8),
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testAppendAddsAGzipMemberAndOverwritesAnAppendCutShort() throws Exception {
+        ExportCompression compression = new ExportCompression("gzip", 6);
+        Path rolling = tempDir.resolve("rolling.csv.gz");
+        Path first = tempDir.resolve("first.csv");
+        Path second = tempDir.resolve("second.csv");
+        Files.writeString(first, "Date,Amount\r\n2024-01-15,1500.00\r\n");
+        Files.writeString(second, "Date,Amount\r\n2024-01-16,-75.50\r\n");
+
+        long size = compression.append(first, rolling, 0, false);
+        // Leftovers of an interrupted append past the recorded size
+        Files.write(rolling, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+        long grown = compression.append(second, rolling, size, true);
+
+        assertEquals(Files.size(rolling), grown);
+        try (InputStream in = compression.decompress(Files.newInputStream(rolling))) {
+            assertEquals("Date,Amount\r\n2024-01-15,1500.00\r\n2024-01-16,-75.50\r\n",
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ExportFileSenderTest {
+
+    @Test
+    void testParsesSingleByteRanges() {
+        assertArrayEquals(new long[] {0, 99}, ExportFileSender.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[] {500, 999}, ExportFileSender.parseRange("bytes=500-", 1000));
+        assertArrayEquals(new long[] {900, 999}, ExportFileSender.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[] {0, 999}, ExportFileSender.parseRange("bytes=-5000", 1000));
+        assertArrayEquals(new long[] {990, 999}, ExportFileSender.parseRange("bytes=990-2000", 1000));
+    }
+
+    @Test
+    void testUnsatisfiableRangesAreEmpty() {
+        assertEquals(0, ExportFileSender.parseRange("bytes=1000-", 1000).length);
+        assertEquals(0, ExportFileSender.parseRange("bytes=-0", 1000).length);
+        assertEquals(0, ExportFileSender.parseRange("bytes=0-10", 0).length);
+    }
+
+    @Test
+    void testMalformedAndMultipleRangesAreIgnored() {
+        assertNull(ExportFileSender.parseRange("bytes=0-10,20-30", 1000));
+        assertNull(ExportFileSender.parseRange("bytes=20-10", 1000));
+        assertNull(ExportFileSender.parseRange("bytes=abc", 1000));
+        assertNull(ExportFileSender.parseRange("lines=0-10", 1000));
+    }
+}
@@ -0,0 +1,138 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jarom.funbankapp.config.ExportSchedulerProperties;
+import com.jarom.funbankapp.exception.ServiceUnavailableException;
+import com.jarom.funbankapp.model.ExportJob;
+import com.jarom.funbankapp.repository.ExportJobRepository;
+
+class ExportJobSchedulerTest {
+
+    private ExportSchedulerProperties properties;
+    private ExportJobRepository repository;
+    private List<Long> processed;
+    private CountDownLatch done;
+    private ExportJobScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ExportSchedulerProperties();
+        properties.setWorkers(1);
+        properties.setPerUserInFlight(1);
+        properties.setPerUserQueued(3);
+        properties.setQueueCapacity(5);
+        properties.setNodeId("node-a");
+        repository = mock(ExportJobRepository.class);
+        processed = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    private void createScheduler(int expectedJobs) {
+        done = new CountDownLatch(expectedJobs);
+        scheduler = new ExportJobScheduler(properties, repository, jobId -> {
+            processed.add(jobId);
+            done.countDown();
+        });
+    }
+
+    @Test
+    void testUsersTakeTurns() throws Exception {
+        createScheduler(4);
+        scheduler.submit(1L, 10L, 0);
+        scheduler.submit(1L, 11L, 0);
+        scheduler.submit(1L, 12L, 0);
+        scheduler.submit(2L, 20L, 0);
+
+        scheduler.start();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(10L, 20L, 11L, 12L), processed);
+    }
+
+    @Test
+    void testCheaperFormatsRunFirstWithinAUser() throws Exception {
+        createScheduler(3);
+        scheduler.submit(1L, 10L, ExportJobScheduler.priorityFor("all", "PDF"));
+        scheduler.submit(1L, 11L, ExportJobScheduler.priorityFor("transactions", "PDF"));
+        scheduler.submit(1L, 12L, ExportJobScheduler.priorityFor("transactions", "CSV"));
+
+        scheduler.start();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(12L, 11L, 10L), processed);
+    }
+
+    @Test
+    void testSubmitRejectsBeyondPerUserAndGlobalBounds() {
+        createScheduler(0);
+        scheduler.submit(1L, 10L, 0);
+        scheduler.submit(1L, 11L, 0);
+        scheduler.submit(1L, 12L, 0);
+
+        assertThrows(ServiceUnavailableException.class, () -> scheduler.submit(1L, 13L, 0));
+
+        scheduler.submit(2L, 20L, 0);
+        scheduler.submit(2L, 21L, 0);
+        assertThrows(ServiceUnavailableException.class, () -> scheduler.submit(3L, 30L, 0));
+        assertEquals(5, scheduler.getQueuedCount());
+    }
+
+    @Test
+    void testCancelRemovesQueuedJob() throws Exception {
+        createScheduler(1);
+        scheduler.submit(1L, 10L, 0);
+        scheduler.submit(1L, 11L, 0);
+
+        assertTrue(scheduler.cancel(10L));
+        assertFalse(scheduler.cancel(10L));
+        scheduler.start();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(11L), processed);
+    }
+
+    @Test
+    void testStartRequeuesUnfinishedJobs() throws Exception {
+        ExportJob stuck = new ExportJob(1L, "transactions", "CSV");
+        stuck.setId(7L);
+        stuck.setStatus("PROCESSING");
+        ExportJob pending = new ExportJob(2L, "goals", "JSON");
+        pending.setId(8L);
+        when(repository.findProcessingByNode("node-a")).thenReturn(List.of(stuck));
+        when(repository.findByStatus("PENDING")).thenReturn(List.of(pending));
+        createScheduler(2);
+
+        scheduler.start();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(7L, 8L), processed);
+        verify(repository).updateStatus(7L, "PENDING");
+        verify(repository, never()).updateStatus(8L, "PENDING");
+        verify(repository, never()).findByStatus("PROCESSING");
+    }
+
+    @Test
+    void testNodeIdDefaultsToTheHostName() {
+        properties.setNodeId(" ");
+        createScheduler(0);
+
+        assertFalse(scheduler.getNodeId().isBlank());
+    }
+}
@@ -0,0 +1,124 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jarom.funbankapp.repository.ExportJobRepository;
+
+class ExportProgressTrackerTest {
+
+    private ExportJobRepository repository;
+    private ExportProgressTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ExportJobRepository.class);
+        when(repository.updateProgress(anyLong(), anyInt(), anyLong(), anyLong())).thenReturn(true);
+        // Long interval so only the explicit persistRunning() calls below write anything
+        tracker = new ExportProgressTracker(repository, 3_600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.destroy();
+    }
+
+    @Test
+    void testRowsArePublishedInBatchesAndPercentWaitsForCompletion() {
+        ExportProgress progress = tracker.start(7L);
+        progress.expect(2000);
+
+        for (int i = 0; i < 1500; i++) {
+            progress.rowWritten();
+        }
+        assertEquals(1024, progress.getRowsWritten());
+        assertEquals(51, progress.getPercent());
+
+        for (int i = 0; i < 500; i++) {
+            progress.rowWritten();
+        }
+        progress.finish();
+        assertEquals(2000, progress.getRowsWritten());
+        assertEquals(99, progress.getPercent());
+        assertEquals(0L, progress.getEtaSeconds());
+        assertSame(progress, tracker.get(7L));
+    }
+
+    @Test
+    void testPersistsOnlyJobsThatMoved() {
+        ExportProgress progress = tracker.start(7L);
+        progress.expect(100);
+
+        tracker.persistRunning();
+        tracker.persistRunning();
+        verify(repository, times(1)).updateProgress(7L, 0, 0L, 100L);
+
+        for (int i = 0; i < 50; i++) {
+            progress.rowWritten();
+        }
+        progress.finish();
+        tracker.persistRunning();
+        verify(repository).updateProgress(7L, 50, 50L, 100L);
+    }
+
+    @Test
+    void testStoppedJobsAreNeitherReportedNorPersisted() {
+        ExportProgress progress = tracker.start(7L);
+        progress.expect(10);
+        tracker.stop(7L);
+
+        tracker.persistRunning();
+        assertNull(tracker.get(7L));
+        verify(repository, never()).updateProgress(anyLong(), anyInt(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testCancelledExportStopsAtTheNextBatchOfRows() {
+        ExportProgress progress = tracker.start(7L);
+        for (int i = 0; i < 1000; i++) {
+            progress.rowWritten();
+        }
+
+        assertTrue(tracker.cancel(7L));
+        assertFalse(tracker.cancel(8L));
+        assertThrows(CancellationException.class, () -> {
+            for (int i = 0; i < 1000; i++) {
+                progress.rowWritten();
+            }
+        });
+        assertEquals(1024, progress.getRowsWritten());
+        assertThrows(CancellationException.class, progress::throwIfCancelled);
+    }
+
+    @Test
+    void testJobCancelledElsewhereIsStoppedWhenItsProgressIsSaved() {
+        // The job is no longer PROCESSING in the database, so the progress update matches nothing
+        when(repository.updateProgress(anyLong(), anyInt(), anyLong(), anyLong())).thenReturn(false);
+        ExportProgress progress = tracker.start(7L);
+        progress.expect(10);
+
+        tracker.persistRunning();
+
+        assertTrue(progress.isCancelled());
+    }
+
+    @Test
+    void testFailedSaveIsRetriedOnTheNextTick() {
+        when(repository.updateProgress(anyLong(), anyInt(), anyLong(), anyLong()))
+                .thenThrow(new RuntimeException("database busy"))
+                .thenReturn(true);
+        tracker.start(7L).expect(10);
+
+        tracker.persistRunning();
+        tracker.persistRunning();
+        tracker.persistRunning();
+        verify(repository, times(2)).updateProgress(7L, 0, 0L, 10L);
+    }
+}
@@ -0,0 +1,204 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import com.jarom.funbankapp.config.ExportRetentionProperties;
+import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.model.ExportJob;
+import com.jarom.funbankapp.repository.DataVersionRepository;
+import com.jarom.funbankapp.repository.ExportJobRepository;
+
+class ExportResultCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ExportJobRepository exportJobRepository;
+    private DataVersionRepository dataVersionRepository;
+    private ExportResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        exportJobRepository = mock(ExportJobRepository.class);
+        dataVersionRepository = mock(DataVersionRepository.class);
+        when(dataVersionRepository.findDataVersion(anyLong(), anyCollection())).thenReturn("v1");
+        when(exportJobRepository.findCompletedWithCacheKey()).thenReturn(List.of());
+        cache = new ExportResultCache(exportJobRepository, dataVersionRepository,
+                new ExportCompression("gzip", 6), new ExportRetentionProperties(), true, 100);
+    }
+
+    @Test
+    void testEquivalentRequestsShareAKey() {
+        ExportRequest first = request("transactions", "CSV");
+        first.setFilters(new LinkedHashMap<>(Map.of("category", "food")));
+        first.getFilters().put("account", 1);
+        first.setFileName("mine");
+        ExportRequest second = request(" Transactions", "csv");
+        second.setFilters(new LinkedHashMap<>(Map.of("account", 1)));
+        second.getFilters().put("category", "food");
+
+        assertEquals(cache.keyFor(1L, first), cache.keyFor(1L, second));
+        assertEquals(64, cache.keyFor(1L, first).length());
+    }
+
+    @Test
+    void testKeyChangesWithRequestUserAndData() {
+        ExportRequest request = request("transactions", "CSV");
+        String key = cache.keyFor(1L, request);
+
+        assertNotEquals(key, cache.keyFor(2L, request));
+        assertNotEquals(key, cache.keyFor(1L, request("transactions", "JSON")));
+        ExportRequest dated = request("transactions", "CSV");
+        dated.setEndDate(LocalDate.of(2024, 1, 31));
+        assertNotEquals(key, cache.keyFor(1L, dated));
+
+        when(dataVersionRepository.findDataVersion(anyLong(), anyCollection())).thenReturn("v2");
+        assertNotEquals(key, cache.keyFor(1L, request));
+    }
+
+    @Test
+    void testOnlyTheTablesAnExportReadsAreVersioned() {
+        cache.keyFor(1L, request("goals", "JSON"));
+        verify(dataVersionRepository).findDataVersion(1L, List.of(DataVersionRepository.GOALS));
+    }
+
+    @Test
+    void testFindsCompletedJobWhileItsFileExists() throws Exception {
+        Path file = Files.write(tempDir.resolve("export.csv.gz"), new byte[40]);
+        ExportJob job = completedJob(5L, file, 40);
+        when(exportJobRepository.findLatestCompletedByCacheKey(eq(1L), eq("key"), any())).thenReturn(Optional.of(job));
+        cache.add(file.toString(), 40);
+
+        assertSame(job, cache.reuse(1L, "key", source -> source).orElseThrow());
+
+        Files.delete(file);
+        assertTrue(cache.reuse(1L, "key", source -> source).isEmpty());
+        verify(exportJobRepository).clearCacheKey(file.toString());
+        assertEquals(0, cache.getTotalBytes());
+    }
+
+    @Test
+    void testLeastRecentlyUsedFileIsEvictedOverBudget() throws Exception {
+        Path older = Files.write(tempDir.resolve("older.csv.gz"), new byte[40]);
+        Path newer = Files.write(tempDir.resolve("newer.csv.gz"), new byte[40]);
+        when(exportJobRepository.findLatestCompletedByCacheKey(eq(1L), eq("older"), any()))
+                .thenReturn(Optional.of(completedJob(1L, older, 40)));
+        cache.add(older.toString(), 40);
+        cache.add(newer.toString(), 40);
+
+        // Using the older file makes the newer one the eviction candidate
+        assertTrue(cache.reuse(1L, "older", source -> source).isPresent());
+        cache.add(tempDir.resolve("third.csv.gz").toString(), 40);
+
+        verify(exportJobRepository).clearCacheKey(newer.toString());
+        verify(exportJobRepository, never()).clearCacheKey(older.toString());
+        assertEquals(80, cache.getTotalBytes());
+    }
+
+    @Test
+    void testOnlyJobsWithinRetentionAreReused() {
+        cache.reuse(1L, "key", source -> source);
+
+        ArgumentCaptor<LocalDateTime> createdSince = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(exportJobRepository).findLatestCompletedByCacheKey(eq(1L), eq("key"), createdSince.capture());
+        LocalDateTime retentionCutoff = LocalDateTime.now().minusDays(new ExportRetentionProperties().getDays());
+        assertTrue(Duration.between(createdSince.getValue(), retentionCutoff).abs().toSeconds() < 5);
+    }
+
+    @Test
+    void testReleasingFilesWaitsForAJobBeingLinked() throws Exception {
+        Path file = Files.write(tempDir.resolve("shared.csv.gz"), new byte[40]);
+        when(exportJobRepository.findLatestCompletedByCacheKey(eq(1L), eq("key"), any()))
+                .thenReturn(Optional.of(completedJob(5L, file, 40)));
+        Set<String> linkedPaths = ConcurrentHashMap.newKeySet();
+        when(exportJobRepository.findFilePathsInUse(anyCollection(), any())).thenAnswer(invocation -> Set.copyOf(linkedPaths));
+        cache.add(file.toString(), 40);
+
+        CountDownLatch linking = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        ExecutorService sweeper = Executors.newSingleThreadExecutor();
+        try {
+            Future<Set<String>> unused = sweeper.submit(() -> {
+                linking.await();
+                Set<String> result = cache.releaseUnused(List.of(file.toString()), LocalDateTime.now());
+                released.countDown();
+                return result;
+            });
+            cache.reuse(1L, "key", source -> {
+                linking.countDown();
+                try {
+                    // The sweeper cannot decide until the new job is saved
+                    assertFalse(released.await(200, TimeUnit.MILLISECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                linkedPaths.add(source.getFilePath());
+                return source;
+            });
+
+            assertTrue(unused.get(5, TimeUnit.SECONDS).isEmpty());
+            verify(exportJobRepository, never()).clearCacheKey(file.toString());
+        } finally {
+            sweeper.shutdownNow();
+        }
+    }
+
+    @Test
+    void testReleasedFilesAreNoLongerTracked() throws Exception {
+        Path file = Files.write(tempDir.resolve("expired.csv.gz"), new byte[40]);
+        when(exportJobRepository.findFilePathsInUse(anyCollection(), any())).thenReturn(Set.of());
+        cache.add(file.toString(), 40);
+
+        assertEquals(Set.of(file.toString()), cache.releaseUnused(List.of(file.toString()), LocalDateTime.now()));
+
+        verify(exportJobRepository).clearCacheKey(file.toString());
+        assertEquals(0, cache.getTotalBytes());
+    }
+
+    @Test
+    void testDisabledCacheHasNoKeys() {
+        ExportResultCache disabled = new ExportResultCache(exportJobRepository, dataVersionRepository,
+                new ExportCompression("gzip", 6), new ExportRetentionProperties(), false, 100);
+
+        assertNull(disabled.keyFor(1L, request("transactions", "CSV")));
+        assertTrue(disabled.reuse(1L, null, source -> source).isEmpty());
+        verifyNoInteractions(dataVersionRepository);
+    }
+
+    private static ExportRequest request(String exportType, String format) {
+        return new ExportRequest(exportType, format);
+    }
+
+    private static ExportJob completedJob(Long id, Path file, long size) {
+        ExportJob job = new ExportJob(1L, "transactions", "CSV");
+        job.setId(id);
+        job.setStatus("COMPLETED");
+        job.setFilePath(file.toString());
+        job.setFileSize(size);
+        return job;
+    }
+}
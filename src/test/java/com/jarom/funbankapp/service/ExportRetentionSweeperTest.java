@@ -0,0 +1,146 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.jarom.funbankapp.config.ExportRetentionProperties;
+import com.jarom.funbankapp.model.ExportJob;
+import com.jarom.funbankapp.repository.DataVersionRepository;
+import com.jarom.funbankapp.repository.ExportJobRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExportRetentionSweeperTest {
+
+    @TempDir
+    Path exportDir;
+
+    private ExportJobRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private ExportRetentionSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ExportJobRepository.class);
+        when(repository.findExpiredJobs(any(), any(), anyLong(), anyInt())).thenReturn(List.of());
+        when(repository.findFilePathsInUse(anyCollection(), any())).thenReturn(Set.of());
+        when(repository.deleteByIds(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        ExportRetentionProperties properties = new ExportRetentionProperties();
+        properties.setEnabled(false); // sweeps only when the test calls sweep()
+        properties.setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        ExportResultCache cache = new ExportResultCache(repository, mock(DataVersionRepository.class),
+                new ExportCompression("gzip", 6), properties, true, 1024);
+        sweeper = new ExportRetentionSweeper(properties, repository, cache, exportDir.toString(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sweeper.destroy();
+    }
+
+    @Test
+    void testExpiredJobsArePagedAndDeletedWithTheirFiles() throws Exception {
+        Path first = Files.write(exportDir.resolve("first.csv.gz"), new byte[100]);
+        Path second = Files.write(exportDir.resolve("second.pdf"), new byte[50]);
+        ExportJob job1 = job(1L, first);
+        ExportJob job2 = job(2L, second);
+        ExportJob job3 = job(3L, null); // failed before writing anything
+        when(repository.findExpiredJobs(any(), any(), eq(0L), eq(2))).thenReturn(List.of(job1, job2));
+        when(repository.findExpiredJobs(any(), eq(job2.getCreatedAt()), eq(2L), eq(2))).thenReturn(List.of(job3));
+
+        ExportRetentionSweeper.SweepResult result = sweeper.sweep(7);
+
+        assertFalse(Files.exists(first));
+        assertFalse(Files.exists(second));
+        verify(repository).deleteByIds(List.of(1L, 2L));
+        verify(repository).deleteByIds(List.of(3L));
+        assertEquals(3, result.getJobsDeleted());
+        assertEquals(150, result.getBytesReclaimed());
+        assertEquals(150.0, meterRegistry.get("export.retention.reclaimed").tag("reason", "expired")
+                .counter().count());
+        assertEquals(1, meterRegistry.get("export.retention.sweep.duration").timer().count());
+    }
+
+    @Test
+    void testFileReusedByANewerJobIsKept() throws Exception {
+        Path shared = Files.write(exportDir.resolve("shared.csv.gz"), new byte[10]);
+        when(repository.findExpiredJobs(any(), any(), eq(0L), eq(2))).thenReturn(List.of(job(1L, shared)));
+        when(repository.findFilePathsInUse(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Set.of(shared.toString()));
+
+        sweeper.sweep(7);
+
+        assertTrue(Files.exists(shared));
+        verify(repository).deleteByIds(List.of(1L));
+        verify(repository, never()).clearCacheKey(shared.toString());
+    }
+
+    @Test
+    void testDeletedFilesStopBeingReused() throws Exception {
+        Path expired = Files.write(exportDir.resolve("expired.csv.gz"), new byte[10]);
+        when(repository.findExpiredJobs(any(), any(), eq(0L), eq(2))).thenReturn(List.of(job(1L, expired)));
+
+        sweeper.sweep(7);
+
+        assertFalse(Files.exists(expired));
+        verify(repository).clearCacheKey(expired.toString());
+    }
+
+    @Test
+    void testJobKeepsItsRowWhenItsFileCannotBeDeleted() throws Exception {
+        // A non-empty directory where the file should be makes the delete fail
+        Path stuck = Files.createDirectory(exportDir.resolve("stuck.csv.gz"));
+        Files.write(stuck.resolve("inner"), new byte[1]);
+        when(repository.findExpiredJobs(any(), any(), eq(0L), eq(2))).thenReturn(List.of(job(1L, stuck)));
+
+        ExportRetentionSweeper.SweepResult result = sweeper.sweep(7);
+
+        verify(repository).deleteByIds(List.of());
+        assertEquals(0, result.getJobsDeleted());
+    }
+
+    @Test
+    void testOnlyOldUnreferencedFilesAreOrphans() throws Exception {
+        Path orphan = Files.write(exportDir.resolve("orphan.csv.gz"), new byte[30]);
+        Path referenced = Files.write(exportDir.resolve("referenced.csv.gz"), new byte[30]);
+        Path fresh = Files.write(exportDir.resolve("in_progress.csv.gz"), new byte[30]);
+        FileTime old = FileTime.from(Instant.now().minusSeconds(2 * 3600));
+        Files.setLastModifiedTime(orphan, old);
+        Files.setLastModifiedTime(referenced, old);
+        when(repository.findFilePathsInUse(anyCollection(), isNull())).thenReturn(Set.of(referenced.toString()));
+
+        ExportRetentionSweeper.SweepResult result = sweeper.sweep(7);
+
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(referenced));
+        assertTrue(Files.exists(fresh));
+        assertEquals(30, result.getBytesReclaimed());
+        assertEquals(30.0, meterRegistry.get("export.retention.reclaimed").tag("reason", "orphaned")
+                .counter().count());
+    }
+
+    private static ExportJob job(Long id, Path file) {
+        ExportJob job = new ExportJob(1L, "transactions", "CSV");
+        job.setId(id);
+        job.setStatus("COMPLETED");
+        job.setCreatedAt(LocalDateTime.now().minusDays(30).plusMinutes(id));
+        job.setFilePath(file != null ? file.toString() : null);
+        return job;
+    }
+}
@@ -0,0 +1,219 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import com.jarom.funbankapp.dto.ExportJobDTO;
+import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.model.ExportJob;
+import com.jarom.funbankapp.model.ExportSchedule;
+import com.jarom.funbankapp.repository.ExportJobRepository;
+import com.jarom.funbankapp.repository.ExportScheduleRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
+
+class ExportScheduleRunnerTest {
+
+    @TempDir
+    Path exportDir;
+
+    private ExportScheduleRepository scheduleRepository;
+    private ExportJobRepository jobRepository;
+    private TransactionRepository transactionRepository;
+    private ExportService exportService;
+    private ExportCompression compression;
+    private ExportScheduleRunner runner;
+    private ExportSchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        scheduleRepository = mock(ExportScheduleRepository.class);
+        jobRepository = mock(ExportJobRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        exportService = mock(ExportService.class);
+        compression = new ExportCompression("gzip", 6);
+        runner = new ExportScheduleRunner(scheduleRepository, jobRepository, transactionRepository, exportService,
+                compression, exportDir.toString(), false, 60, 100, 60);
+
+        schedule = new ExportSchedule();
+        schedule.setId(7L);
+        schedule.setUserId(1L);
+        schedule.setExportType("transactions");
+        schedule.setFormat("CSV");
+        schedule.setParameters("{\"exportType\":\"transactions\",\"format\":\"CSV\"}");
+        schedule.setIntervalMinutes(1440);
+        schedule.setIncremental(true);
+        schedule.setNextRunAt(LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS));
+        when(scheduleRepository.findRunnable(any(), anyInt())).thenReturn(List.of(schedule));
+        when(scheduleRepository.claimRun(anyLong(), any(), any(), any())).thenReturn(true);
+        when(scheduleRepository.finishRun(anyLong(), anyLong(), anyLong(), any(), anyLong())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.destroy();
+    }
+
+    @Test
+    void testDeltasStartAfterTheLastSuccessfulRunAndAppendToTheRollingFile() throws Exception {
+        // First run: everything so far
+        when(transactionRepository.findSettledMaxId(anyLong(), any())).thenReturn(10L);
+        when(exportService.createExportJob(eq(1L), any())).thenReturn(job(100L));
+        assertEquals(1, runner.runDueSchedules());
+        ExportRequest first = capturedRequest(1);
+        assertNull(first.getAfterTransactionId());
+        assertEquals(10L, first.getThroughTransactionId());
+        verify(scheduleRepository).startRun(7L, 100L, 10L);
+
+        // It completes and is settled into a new rolling file
+        settleCompleted(100L, 10L, "Date,Amount\r\n2024-01-15,1500.00\r\n");
+        String rollingPath = captureFinish(100L, 10L);
+        assertEquals(exportDir.resolve("schedules").resolve("schedule_7.csv.gz").toString(), rollingPath);
+
+        // Second run: only rows after the mark, appended without the header
+        schedule.setNextRunAt(LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS));
+        when(transactionRepository.findSettledMaxId(anyLong(), any())).thenReturn(12L);
+        when(exportService.createExportJob(eq(1L), any())).thenReturn(job(101L));
+        assertEquals(1, runner.runDueSchedules());
+        ExportRequest second = capturedRequest(2);
+        assertEquals(10L, second.getAfterTransactionId());
+        assertEquals(12L, second.getThroughTransactionId());
+
+        settleCompleted(101L, 12L, "Date,Amount\r\n2024-01-16,-75.50\r\n");
+        captureFinish(101L, 12L);
+
+        try (InputStream in = compression.decompress(Files.newInputStream(Path.of(rollingPath)))) {
+            assertEquals("Date,Amount\r\n2024-01-15,1500.00\r\n2024-01-16,-75.50\r\n",
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(Files.size(Path.of(rollingPath)), schedule.getRollingFileSize());
+    }
+
+    @Test
+    void testFailedRunKeepsTheHighWaterMark() throws Exception {
+        schedule.setLastTransactionId(10L);
+        schedule.setPendingJobId(100L);
+        schedule.setPendingThroughId(12L);
+        schedule.setNextRunAt(LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS));
+        ExportJob failed = new ExportJob(1L, "transactions", "CSV");
+        failed.setStatus("FAILED");
+        when(jobRepository.findById(100L)).thenReturn(Optional.of(failed));
+
+        assertEquals(0, runner.runDueSchedules());
+
+        verify(scheduleRepository).finishRun(7L, 100L, 10L, null, 0L);
+    }
+
+    @Test
+    void testRunningJobIsLeftAlone() {
+        schedule.setPendingJobId(100L);
+        ExportJob running = new ExportJob(1L, "transactions", "CSV");
+        running.setStatus("PROCESSING");
+        when(jobRepository.findById(100L)).thenReturn(Optional.of(running));
+
+        assertEquals(0, runner.runDueSchedules());
+
+        verify(scheduleRepository, never()).finishRun(anyLong(), anyLong(), anyLong(), any(), anyLong());
+        verify(scheduleRepository, never()).claimRun(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void testNoNewTransactionsStartsNoJob() {
+        schedule.setLastTransactionId(10L);
+        when(transactionRepository.findSettledMaxId(anyLong(), any())).thenReturn(10L);
+
+        assertEquals(0, runner.runDueSchedules());
+
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void testMarkOnlyCoversTransactionsOlderThanTheSettleWindow() {
+        schedule.setLastTransactionId(10L);
+        when(transactionRepository.findSettledMaxId(anyLong(), any())).thenReturn(12L);
+        when(exportService.createExportJob(eq(1L), any())).thenReturn(job(100L));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(1, runner.runDueSchedules());
+
+        ArgumentCaptor<LocalDateTime> createdBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(transactionRepository).findSettledMaxId(eq(10L), createdBefore.capture());
+        assertFalse(createdBefore.getValue().isBefore(before.minusSeconds(60)));
+        assertFalse(createdBefore.getValue().isAfter(LocalDateTime.now().minusSeconds(60)));
+        assertEquals(12L, capturedRequest(1).getThroughTransactionId());
+    }
+
+    @Test
+    void testRunClaimedElsewhereIsNotStarted() {
+        when(scheduleRepository.claimRun(anyLong(), any(), any(), any())).thenReturn(false);
+
+        assertEquals(0, runner.runDueSchedules());
+
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void testNextRunKeepsToTheCadence() {
+        LocalDateTime due = LocalDateTime.of(2024, 1, 1, 2, 0);
+        assertEquals(LocalDateTime.of(2024, 1, 2, 2, 0),
+                ExportScheduleRunner.nextRunAfter(due, 1440, due.plusSeconds(30)));
+        // Down for three days: one run catches up, then back on the 02:00 cadence
+        assertEquals(LocalDateTime.of(2024, 1, 5, 2, 0),
+                ExportScheduleRunner.nextRunAfter(due, 1440, LocalDateTime.of(2024, 1, 4, 9, 0)));
+    }
+
+    private void settleCompleted(Long jobId, long throughId, String csv) throws Exception {
+        Path delta = exportDir.resolve("transactions_" + jobId + ".csv.gz");
+        try (OutputStream out = compression.newOutputStream(delta)) {
+            out.write(csv.getBytes(StandardCharsets.UTF_8));
+        }
+        ExportJob completed = new ExportJob(1L, "transactions", "CSV");
+        completed.setId(jobId);
+        completed.setStatus("COMPLETED");
+        completed.setFilePath(delta.toString());
+        when(jobRepository.findById(jobId)).thenReturn(Optional.of(completed));
+        schedule.setPendingJobId(jobId);
+        schedule.setPendingThroughId(throughId);
+        schedule.setNextRunAt(LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS));
+        runner.runDueSchedules();
+    }
+
+    private String captureFinish(Long jobId, long throughId) {
+        ArgumentCaptor<String> path = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Long> size = ArgumentCaptor.forClass(Long.class);
+        verify(scheduleRepository).finishRun(eq(7L), eq(jobId), eq(throughId), path.capture(), size.capture());
+        // What the repository would now load
+        schedule.setLastTransactionId(throughId);
+        schedule.setRollingFilePath(path.getValue());
+        schedule.setRollingFileSize(size.getValue());
+        schedule.setPendingJobId(null);
+        schedule.setPendingThroughId(null);
+        return path.getValue();
+    }
+
+    private ExportRequest capturedRequest(int calls) {
+        ArgumentCaptor<ExportRequest> request = ArgumentCaptor.forClass(ExportRequest.class);
+        verify(exportService, times(calls)).createExportJob(eq(1L), request.capture());
+        return request.getValue();
+    }
+
+    private static ExportJobDTO job(Long id) {
+        return new ExportJobDTO(id, 1L, "transactions", "CSV", "PENDING");
+    }
+}
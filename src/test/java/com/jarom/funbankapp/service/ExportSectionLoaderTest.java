@@ -0,0 +1,101 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jarom.funbankapp.model.Budget;
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.model.Goal;
+import com.jarom.funbankapp.repository.BudgetRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.GoalRepository;
+
+class ExportSectionLoaderTest {
+
+    private DebtRepository debtRepository;
+    private BudgetRepository budgetRepository;
+    private GoalRepository goalRepository;
+    private ExportSectionLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        debtRepository = mock(DebtRepository.class);
+        budgetRepository = mock(BudgetRepository.class);
+        goalRepository = mock(GoalRepository.class);
+        loader = new ExportSectionLoader(debtRepository, budgetRepository, goalRepository, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loader.destroy();
+    }
+
+    @Test
+    void testSectionsLoadConcurrently() throws Exception {
+        // Each query waits until all three have started, so this only finishes if they overlap
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(debtRepository.findByUserId(1L)).thenAnswer(invocation -> {
+            awaitOthers(allStarted);
+            return List.of(new Debt());
+        });
+        when(budgetRepository.findByUserId(1L)).thenAnswer(invocation -> {
+            awaitOthers(allStarted);
+            return List.of(new Budget(), new Budget());
+        });
+        when(goalRepository.findByUserId(1L)).thenAnswer(invocation -> {
+            awaitOthers(allStarted);
+            return List.of();
+        });
+
+        try (ExportSectionLoader.Sections sections = loader.load(1L, new ExportProgress(7L))) {
+            assertEquals(1, sections.debts().size());
+            assertEquals(2, sections.budgets().size());
+            assertTrue(sections.goals().isEmpty());
+        }
+        assertFalse(loader.cancel(7L)); // closed sections are no longer tracked
+    }
+
+    @Test
+    void testCancellingTheJobStopsItsLoads() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(debtRepository.findByUserId(1L)).thenAnswer(invocation -> {
+            started.countDown();
+            Thread.sleep(60_000);
+            return List.of();
+        });
+        when(budgetRepository.findByUserId(1L)).thenReturn(List.of());
+        when(goalRepository.findByUserId(1L)).thenReturn(List.<Goal>of());
+
+        try (ExportSectionLoader.Sections sections = loader.load(1L, new ExportProgress(9L))) {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(loader.cancel(9L));
+            assertThrows(CancellationException.class, sections::debts);
+        }
+    }
+
+    @Test
+    void testQueryFailureSurfacesFromTheGetter() {
+        when(debtRepository.findByUserId(1L)).thenReturn(List.of());
+        when(budgetRepository.findByUserId(1L)).thenThrow(new IllegalStateException("db down"));
+        when(goalRepository.findByUserId(1L)).thenReturn(List.of());
+
+        try (ExportSectionLoader.Sections sections = loader.load(1L, ExportProgress.NONE)) {
+            IllegalStateException e = assertThrows(IllegalStateException.class, sections::budgets);
+            assertEquals("db down", e.getMessage());
+        }
+    }
+
+    private static void awaitOthers(CountDownLatch allStarted) throws InterruptedException {
+        allStarted.countDown();
+        assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,192 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.jarom.funbankapp.model.ExportJob;
+import com.jarom.funbankapp.repository.ExportJobRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceImplTest {
+
+    @TempDir
+    Path exportDir;
+
+    @Mock
+    private ExportJobRepository exportJobRepository;
+
+    @Mock
+    private CSVExportService csvExportService;
+
+    @Mock
+    private ExportJobScheduler exportJobScheduler;
+
+    @Mock
+    private ExportCompression exportCompression;
+
+    @Mock
+    private ExportProgressTracker exportProgressTracker;
+
+    @Mock
+    private ExportResultCache exportResultCache;
+
+    @Mock
+    private ExportSectionLoader exportSectionLoader;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @InjectMocks
+    private ExportServiceImpl exportService;
+
+    private ExportProgress progress;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportService, "exportStoragePath", exportDir.toString());
+        progress = new ExportProgress(7L);
+    }
+
+    @Test
+    void testCancelledExportDeletesItsPartialFileAndStaysCancelled() {
+        startJob();
+        AtomicReference<String> written = new AtomicReference<>();
+        when(csvExportService.exportData(eq(1L), any(), anyString(), same(progress))).thenAnswer(invocation -> {
+            String filePath = invocation.getArgument(2);
+            Files.write(Paths.get(filePath), new byte[100]);
+            written.set(filePath);
+            // Cancelled mid-stream: the writer's next row check throws
+            progress.cancel();
+            for (int i = 0; i < 2048; i++) {
+                progress.rowWritten();
+            }
+            return new File(filePath);
+        });
+
+        exportService.processExportJob(7L);
+
+        assertFalse(Files.exists(Paths.get(written.get())));
+        assertEquals(1024, progress.getRowsWritten());
+        verify(exportJobRepository, never()).completeJob(anyLong(), anyString(), anyLong(), anyLong());
+        verify(exportJobRepository, never()).transitionStatus(eq(7L), eq("FAILED"), any());
+        verify(exportProgressTracker).stop(7L);
+    }
+
+    @Test
+    void testJobCancelledWhileFinishingIsNotMarkedCompleted() throws Exception {
+        startJob();
+        AtomicReference<String> written = new AtomicReference<>();
+        when(csvExportService.exportData(eq(1L), any(), anyString(), same(progress))).thenAnswer(invocation -> {
+            String filePath = invocation.getArgument(2);
+            Files.write(Paths.get(filePath), new byte[100]);
+            written.set(filePath);
+            return new File(filePath);
+        });
+        // Cancelled between the last row and saving the result
+        when(exportJobRepository.completeJob(eq(7L), anyString(), eq(100L), anyLong())).thenReturn(false);
+
+        exportService.processExportJob(7L);
+
+        assertFalse(Files.exists(Paths.get(written.get())));
+        verify(exportJobRepository, never()).transitionStatus(eq(7L), eq("FAILED"), any());
+        verifyNoInteractions(exportResultCache);
+    }
+
+    @Test
+    void testCancelledJobIsNotStarted() {
+        when(exportJobRepository.findById(7L)).thenReturn(Optional.of(job()));
+        when(exportJobRepository.claimJob(eq(7L), any())).thenReturn(false);
+
+        exportService.processExportJob(7L);
+
+        verifyNoInteractions(csvExportService, exportProgressTracker);
+    }
+
+    @Test
+    void testCancellingARunningJobSignalsItsWorker() {
+        when(exportJobRepository.findById(7L)).thenReturn(Optional.of(job()));
+        when(exportJobRepository.transitionStatus(7L, "CANCELLED", "PENDING", "PROCESSING")).thenReturn(true);
+
+        assertTrue(exportService.cancelExportJob(1L, 7L));
+
+        verify(exportJobScheduler).cancel(7L);
+        verify(exportProgressTracker).cancel(7L);
+        verify(exportSectionLoader).cancel(7L);
+    }
+
+    @Test
+    void testFinishedJobCannotBeCancelled() {
+        when(exportJobRepository.findById(7L)).thenReturn(Optional.of(job()));
+        when(exportJobRepository.transitionStatus(7L, "CANCELLED", "PENDING", "PROCESSING")).thenReturn(false);
+
+        assertFalse(exportService.cancelExportJob(1L, 7L));
+
+        verifyNoInteractions(exportJobScheduler, exportProgressTracker, exportSectionLoader);
+    }
+
+    @Test
+    void testCustomFileNameStaysInTheExportDirAndCarriesTheJobId() {
+        ExportJob job = job();
+        job.setParameters("{\"exportType\":\"transactions\",\"format\":\"CSV\",\"fileName\":\"../../etc/x\"}");
+        when(exportJobRepository.findById(7L)).thenReturn(Optional.of(job));
+        when(exportJobRepository.claimJob(eq(7L), any())).thenReturn(true);
+        when(exportProgressTracker.start(7L)).thenReturn(progress);
+        when(exportCompression.fileSuffix("CSV")).thenReturn(".gz");
+        AtomicReference<String> written = new AtomicReference<>();
+        when(csvExportService.exportData(eq(1L), any(), anyString(), same(progress))).thenAnswer(invocation -> {
+            String filePath = invocation.getArgument(2);
+            Files.write(Paths.get(filePath), new byte[100]);
+            written.set(filePath);
+            return new File(filePath);
+        });
+
+        exportService.processExportJob(7L);
+
+        Path path = Paths.get(written.get());
+        assertEquals(exportDir, path.getParent());
+        assertTrue(path.getFileName().toString().matches("etc_x_\\d{8}_\\d{6}_7\\.csv\\.gz"), path.toString());
+    }
+
+    @Test
+    void testFileNameSanitizing() {
+        assertEquals("etc_passwd", ExportServiceImpl.sanitizeFileName("../../etc/passwd"));
+        assertEquals("a_b_c", ExportServiceImpl.sanitizeFileName("a\\b/c"));
+        assertEquals("report_2024.v2", ExportServiceImpl.sanitizeFileName(" report 2024.v2 "));
+        assertEquals("x_y", ExportServiceImpl.sanitizeFileName("x...y"));
+        assertEquals("", ExportServiceImpl.sanitizeFileName(".."));
+        assertEquals("", ExportServiceImpl.sanitizeFileName(null));
+    }
+
+    private void startJob() {
+        when(exportJobRepository.findById(7L)).thenReturn(Optional.of(job()));
+        when(exportJobRepository.claimJob(eq(7L), any())).thenReturn(true);
+        when(exportProgressTracker.start(7L)).thenReturn(progress);
+        when(exportCompression.fileSuffix("CSV")).thenReturn(".gz");
+    }
+
+    private static ExportJob job() {
+        ExportJob job = new ExportJob(1L, "transactions", "CSV");
+        job.setId(7L);
+        job.setStatus("PENDING");
+        job.setParameters("{\"exportType\":\"transactions\",\"format\":\"CSV\"}");
+        return job;
+    }
+}
@@ -0,0 +1,121 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jarom.funbankapp.dto.ExportRequest;
+import com.jarom.funbankapp.model.Debt;
+import com.jarom.funbankapp.repository.BudgetRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.GoalRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
+
+class JSONExportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TransactionRepository transactionRepository;
+    private DebtRepository debtRepository;
+    private ExportSectionLoader exportSectionLoader;
+    private JSONExportServiceImpl jsonExportService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        transactionRepository = mock(TransactionRepository.class);
+        debtRepository = mock(DebtRepository.class);
+        BudgetRepository budgetRepository = mock(BudgetRepository.class);
+        GoalRepository goalRepository = mock(GoalRepository.class);
+        exportSectionLoader = new ExportSectionLoader(debtRepository, budgetRepository, goalRepository, 2);
+        jsonExportService = new JSONExportServiceImpl(transactionRepository, debtRepository, budgetRepository,
+                goalRepository, exportSectionLoader, new ExportCompression("gzip", 6), 500);
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getTimestamp(1)).thenReturn(Timestamp.valueOf("2024-01-16 00:00:00"));
+        when(rs.getString(2)).thenReturn("Grocery \"Shopping\"");
+        when(rs.getBigDecimal(3)).thenReturn(new BigDecimal("-75.50"));
+        when(rs.getString(4)).thenReturn("food");
+        when(rs.getString(5)).thenReturn("Main Checking");
+        when(rs.getString(6)).thenReturn("expense");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(6);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(transactionRepository).streamForExport(eq(1L), any(), any(), any(), any(), eq(500), any());
+
+        Debt debt = new Debt();
+        debt.setName("Car Loan");
+        debt.setCurrentBalance(new BigDecimal("8000.00"));
+        when(debtRepository.findByUserId(1L)).thenReturn(List.of(debt));
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportSectionLoader.destroy();
+    }
+
+    @Test
+    void testPrettyIsTheDefaultAndKeepsTheDocumentShape() throws Exception {
+        String content = export("transactions", null);
+
+        assertTrue(content.contains("\n  \"exportType\" : \"transactions\""));
+        JsonNode root = objectMapper.readTree(content);
+        assertEquals(1, root.get("userId").asLong());
+        assertEquals(2, root.get("transactions").size());
+        JsonNode first = root.get("transactions").get(0);
+        assertEquals("2024-01-16T00:00:00", first.get("date").asText());
+        assertEquals("Grocery \"Shopping\"", first.get("description").asText());
+        assertTrue(content.contains("\"amount\" : -75.50,"));
+    }
+
+    @Test
+    void testCompactWritesOneLine() throws Exception {
+        String content = export("debts", "compact");
+
+        assertFalse(content.contains("\n"));
+        JsonNode root = objectMapper.readTree(content);
+        assertEquals("Car Loan", root.get("debts").get(0).get("name").asText());
+        assertFalse(root.get("debts").get(0).has("interestRate"));
+    }
+
+    @Test
+    void testNdjsonWritesOneTaggedRecordPerLine() throws Exception {
+        String content = export("all", "ndjson");
+
+        assertTrue(content.endsWith("\n"));
+        String[] lines = content.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("transaction", objectMapper.readTree(lines[0]).get("recordType").asText());
+        assertEquals("transaction", objectMapper.readTree(lines[1]).get("recordType").asText());
+        JsonNode debt = objectMapper.readTree(lines[2]);
+        assertEquals("debt", debt.get("recordType").asText());
+        assertTrue(lines[2].contains("\"currentBalance\":8000.00"));
+    }
+
+    private String export(String exportType, String style) throws Exception {
+        ExportRequest request = new ExportRequest(exportType, "JSON");
+        request.setJsonStyle(style);
+        Path file = tempDir.resolve(exportType + ".json");
+        jsonExportService.exportData(1L, request, file.toString(), ExportProgress.NONE);
+        return Files.readString(file, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,114 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.jarom.funbankapp.repository.AccountRepository;
+import com.jarom.funbankapp.repository.DebtRepository;
+import com.jarom.funbankapp.repository.DebtStrategyRepository;
+
+@ExtendWith(MockitoExtension.class)
+class OwnershipServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private DebtRepository debtRepository;
+
+    @Mock
+    private DebtStrategyRepository debtStrategyRepository;
+
+    private OwnershipService ownershipService;
+
+    @BeforeEach
+    void setUp() {
+        ownershipService = new OwnershipService(accountRepository, debtRepository, debtStrategyRepository, 300, 100, 0);
+    }
+
+    @Test
+    void testOwnsAccount_LoadsIdsOnce() {
+        when(accountRepository.findIdsByUserId(1L)).thenReturn(List.of(30L, 10L, 20L));
+
+        assertTrue(ownershipService.ownsAccount(1L, 10L));
+        assertTrue(ownershipService.ownsAccount(1L, 30L));
+        assertTrue(ownershipService.ownsAccount(1L, 20L));
+
+        verify(accountRepository, times(1)).findIdsByUserId(1L);
+    }
+
+    @Test
+    void testOwnsAccount_MissReloadsBeforeDenying() {
+        when(accountRepository.findIdsByUserId(1L))
+                .thenReturn(List.of(10L))
+                .thenReturn(List.of(10L, 11L));
+
+        assertTrue(ownershipService.ownsAccount(1L, 10L));
+        assertTrue(ownershipService.ownsAccount(1L, 11L));
+        assertFalse(ownershipService.ownsAccount(1L, null));
+    }
+
+    @Test
+    void testOwnedIds_DoesNotReloadOnMiss() {
+        when(debtRepository.findIdsByUserId(1L)).thenReturn(List.of(5L));
+
+        OwnershipService.OwnedIds ids = ownershipService.ownedIds(1L, OwnershipService.ResourceType.DEBT);
+
+        assertTrue(ids.contains(5L));
+        assertFalse(ids.contains(6L));
+        assertEquals(1, ids.size());
+        verify(debtRepository, times(1)).findIdsByUserId(1L);
+    }
+
+    @Test
+    void testInvalidate_ForcesReloadOfThatTypeOnly() {
+        when(accountRepository.findIdsByUserId(1L)).thenReturn(List.of(10L));
+        when(debtRepository.findIdsByUserId(1L)).thenReturn(List.of(7L));
+
+        ownershipService.ownsAccount(1L, 10L);
+        ownershipService.ownsDebt(1L, 7L);
+        ownershipService.invalidate(1L, OwnershipService.ResourceType.ACCOUNT);
+        ownershipService.ownsAccount(1L, 10L);
+        ownershipService.ownsDebt(1L, 7L);
+
+        verify(accountRepository, times(2)).findIdsByUserId(1L);
+        verify(debtRepository, times(1)).findIdsByUserId(1L);
+    }
+
+    @Test
+    void testOwns_MissesReloadAtMostOncePerWindow() {
+        ownershipService = new OwnershipService(accountRepository, debtRepository, debtStrategyRepository, 300, 100, 60_000);
+        when(accountRepository.findIdsByUserId(1L)).thenReturn(List.of(10L));
+
+        for (long id = 100; id < 200; id++) {
+            assertFalse(ownershipService.ownsAccount(1L, id));
+        }
+
+        verify(accountRepository, times(1)).findIdsByUserId(1L);
+    }
+
+    @Test
+    void testInvalidate_DuringLoadDropsTheLoadedIds() {
+        // A delete commits and invalidates while the list is being read
+        when(accountRepository.findIdsByUserId(1L))
+                .thenAnswer(invocation -> {
+                    ownershipService.invalidate(1L, OwnershipService.ResourceType.ACCOUNT);
+                    return List.of(10L, 11L);
+                })
+                .thenReturn(List.of(10L));
+
+        ownershipService.ownedIds(1L, OwnershipService.ResourceType.ACCOUNT);
+        OwnershipService.OwnedIds ids = ownershipService.ownedIds(1L, OwnershipService.ResourceType.ACCOUNT);
+
+        assertFalse(ids.contains(11L));
+        verify(accountRepository, times(2)).findIdsByUserId(1L);
+    }
+}
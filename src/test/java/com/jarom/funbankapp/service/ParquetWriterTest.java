@@ -0,0 +1,399 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParquetWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final List<ParquetWriter.Column> COLUMNS = List.of(
+            ParquetWriter.Column.timestamp("transaction_date"),
+            ParquetWriter.Column.decimal("amount", 18, 2),
+            ParquetWriter.Column.dictionaryString("category"));
+
+    @Test
+    void testFooterDescribesTypedColumnsAndRowGroups() throws Exception {
+        Path file = tempDir.resolve("out.parquet");
+        try (ParquetWriter parquet = new ParquetWriter(file, COLUMNS, 2, 6)) {
+            for (int i = 0; i < 5; i++) {
+                parquet.field(LocalDateTime.of(2024, 1, 1 + i, 12, 0))
+                        .field(new BigDecimal("10.5").add(BigDecimal.valueOf(i)))
+                        .field(i % 2 == 0 ? "food" : "rent")
+                        .endRow();
+            }
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        Map<Integer, Object> meta = footer(bytes);
+        assertEquals(5L, meta.get(3));
+        List<Map<Integer, Object>> schema = structs(meta.get(2));
+        assertEquals(4, schema.size());
+        assertEquals(3L, schema.get(0).get(5));
+        assertEquals("transaction_date", string(schema.get(1).get(4)));
+        assertEquals(2L, schema.get(2).get(1)); // INT64
+        assertEquals(2L, schema.get(2).get(7)); // scale
+        assertEquals(18L, schema.get(2).get(8)); // precision
+        assertEquals(6L, schema.get(3).get(1)); // BYTE_ARRAY
+
+        List<Map<Integer, Object>> rowGroups = structs(meta.get(4));
+        assertEquals(3, rowGroups.size());
+        assertEquals(List.of(2L, 2L, 1L), rowGroups.stream().map(group -> group.get(3)).toList());
+
+        // Timestamps are micros since the epoch of the local date-time; min/max are in the chunk statistics
+        Map<Integer, Object> dateChunk = chunkMeta(rowGroups.get(0), 0);
+        Map<Integer, Object> statistics = struct(dateChunk.get(12));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 12, 0).toEpochSecond(java.time.ZoneOffset.UTC) * 1_000_000L,
+                littleEndianLong((byte[]) statistics.get(6)));
+        assertEquals(0L, statistics.get(3));
+    }
+
+    @Test
+    void testDictionaryColumnAndDecimalValuesRoundTrip() throws Exception {
+        Path file = tempDir.resolve("dictionary.parquet");
+        try (ParquetWriter parquet = new ParquetWriter(file, COLUMNS, 100, 6)) {
+            String[] categories = {"food", "rent", "food", null, "food", "travel"};
+            for (int i = 0; i < categories.length; i++) {
+                parquet.field((LocalDateTime) null)
+                        .field(i == 1 ? null : new BigDecimal("-75.50").add(BigDecimal.valueOf(i)))
+                        .field(categories[i])
+                        .endRow();
+            }
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        Map<Integer, Object> rowGroup = structs(footer(bytes).get(4)).get(0);
+
+        Map<Integer, Object> categoryChunk = chunkMeta(rowGroup, 2);
+        assertTrue(((List<?>) categoryChunk.get(2)).contains((long) ParquetWriter.ENCODING_RLE_DICTIONARY));
+        Page dictionary = page(bytes, (Long) categoryChunk.get(11));
+        assertEquals(ParquetWriter.PAGE_DICTIONARY, dictionary.type);
+        assertEquals(List.of("food", "rent", "travel"), plainStrings(dictionary.body, 0, 3));
+
+        Page categories = page(bytes, (Long) categoryChunk.get(9));
+        Reader data = new Reader(categories.body);
+        int[] levels = data.definitionLevels(6);
+        assertArrayEquals(new int[] {1, 1, 1, 0, 1, 1}, levels);
+        int bitWidth = data.bytes[data.pos++];
+        assertArrayEquals(new int[] {0, 1, 0, 0, 2}, data.hybrid(bitWidth, 5));
+
+        Page amounts = page(bytes, (Long) chunkMeta(rowGroup, 1).get(9));
+        Reader amountData = new Reader(amounts.body);
+        assertArrayEquals(new int[] {1, 0, 1, 1, 1, 1}, amountData.definitionLevels(6));
+        ByteBuffer values = ByteBuffer.wrap(amountData.bytes, amountData.pos, 5 * 8).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(-7550L, values.getLong());
+        assertEquals(-7350L, values.getLong());
+
+        Map<Integer, Object> dateChunk = chunkMeta(rowGroup, 0);
+        assertEquals(6L, struct(dateChunk.get(12)).get(3));
+        assertFalse(struct(dateChunk.get(12)).containsKey(5)); // no values, no min/max
+    }
+
+    @Test
+    void testHybridEncodingRoundTrips() {
+        int[] values = new int[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 13 ? i % 5 : (i < 60 ? 3 : i % 7);
+        }
+        ParquetWriter.Buffer buffer = new ParquetWriter.Buffer(64);
+        ParquetWriter.writeHybrid(buffer, values, values.length, 3);
+
+        assertArrayEquals(values, new Reader(buffer.toByteArray()).hybrid(3, values.length));
+    }
+
+    @Test
+    void testRowMustMatchTheColumns() throws Exception {
+        Path file = tempDir.resolve("checked.parquet");
+        try (ParquetWriter parquet = new ParquetWriter(file, COLUMNS, 6)) {
+            assertThrows(IllegalStateException.class, () -> parquet.field("not a timestamp"));
+            parquet.field((LocalDateTime) null).field(BigDecimal.ONE);
+            assertThrows(IllegalStateException.class, parquet::endRow);
+            parquet.field("food").endRow();
+            assertEquals(1, parquet.getRowCount());
+        }
+        assertEquals(1L, footer(Files.readAllBytes(file)).get(3));
+    }
+
+    @Test
+    void testAllNullDictionaryColumnIsWrittenPlain() throws Exception {
+        Path file = tempDir.resolve("no-categories.parquet");
+        try (ParquetWriter parquet = new ParquetWriter(file, COLUMNS, 6)) {
+            for (int i = 0; i < 3; i++) {
+                parquet.field((LocalDateTime) null).field(BigDecimal.TEN).field((String) null).endRow();
+            }
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        Map<Integer, Object> categoryChunk = chunkMeta(structs(footer(bytes).get(4)).get(0), 2);
+        assertEquals(List.of((long) ParquetWriter.ENCODING_PLAIN, (long) ParquetWriter.ENCODING_RLE),
+                categoryChunk.get(2));
+        assertFalse(categoryChunk.containsKey(11)); // no dictionary page
+        Page categories = page(bytes, (Long) categoryChunk.get(9));
+        Reader data = new Reader(categories.body);
+        assertArrayEquals(new int[] {0, 0, 0}, data.definitionLevels(3));
+        assertEquals(categories.body.length, data.pos);
+    }
+
+    @Test
+    void testDecimalMustFitItsPrecision() throws Exception {
+        List<ParquetWriter.Column> columns = List.of(ParquetWriter.Column.decimal("amount", 5, 2));
+        try (ParquetWriter parquet = new ParquetWriter(tempDir.resolve("decimal.parquet"), columns, 6)) {
+            parquet.field(new BigDecimal("999.99")).endRow();
+            assertThrows(IllegalArgumentException.class, () -> parquet.field(new BigDecimal("1000.00")));
+            // Rounding to the scale can carry into another digit
+            assertThrows(IllegalArgumentException.class, () -> parquet.field(new BigDecimal("999.995")));
+        }
+        try (ParquetWriter parquet = new ParquetWriter(tempDir.resolve("wide.parquet"), COLUMNS, 6)) {
+            parquet.field((LocalDateTime) null);
+            parquet.field(new BigDecimal("9999999999999999.99"));
+            parquet.field((String) null).endRow();
+            parquet.field((LocalDateTime) null);
+            assertThrows(IllegalArgumentException.class, () -> parquet.field(new BigDecimal("10000000000000000")));
+            parquet.field(BigDecimal.ONE).field((String) null).endRow();
+        }
+    }
+
+    /**
+     * parquet/transactions.parquet has been read with pyarrow by
+     * parquet/check_fixture.py, which CI runs. If an intended change breaks
+     * this test, replace the fixture with the file written here and run
+     * the script against it.
+     */
+    @Test
+    void testOutputMatchesTheReaderCheckedFixture() throws Exception {
+        Path file = tempDir.resolve("transactions.parquet");
+        List<ParquetWriter.Column> columns = List.of(
+                ParquetWriter.Column.timestamp("transaction_date"),
+                ParquetWriter.Column.decimal("amount", 18, 2),
+                ParquetWriter.Column.dictionaryString("category"),
+                ParquetWriter.Column.dictionaryString("account"),
+                ParquetWriter.Column.string("description"));
+        // Uncompressed, so the bytes do not depend on the JDK's zlib
+        try (ParquetWriter parquet = new ParquetWriter(file, columns, 3, 0)) {
+            parquet.field(LocalDateTime.of(2024, 1, 15, 0, 0)).field(new BigDecimal("1500.00"))
+                    .field("income").field((String) null).field("Salary Deposit").endRow();
+            parquet.field(LocalDateTime.of(2024, 1, 16, 9, 30, 15, 123_456_000)).field(new BigDecimal("-75.5"))
+                    .field("food").field((String) null).field("Grocery Shopping").endRow();
+            parquet.field((LocalDateTime) null).field((BigDecimal) null)
+                    .field((String) null).field((String) null).field((String) null).endRow();
+            parquet.field(LocalDateTime.of(2024, 1, 18, 0, 0)).field(new BigDecimal("-120"))
+                    .field("utilities").field((String) null).field("Caf\u00e9 \u2615").endRow();
+            parquet.field(LocalDateTime.of(2024, 1, 19, 23, 59, 59)).field(new BigDecimal("9999999999999999.99"))
+                    .field("food").field((String) null).field("Largest amount").endRow();
+        }
+
+        byte[] fixture;
+        try (InputStream in = ParquetWriterTest.class.getResourceAsStream("/parquet/transactions.parquet")) {
+            assertNotNull(in, "parquet/transactions.parquet is missing from the test resources");
+            fixture = in.readAllBytes();
+        }
+        assertArrayEquals(fixture, Files.readAllBytes(file));
+    }
+
+    private static Map<Integer, Object> footer(byte[] bytes) {
+        assertArrayEquals(ParquetWriter.MAGIC, Arrays.copyOfRange(bytes, 0, 4));
+        assertArrayEquals(ParquetWriter.MAGIC, Arrays.copyOfRange(bytes, bytes.length - 4, bytes.length));
+        int length = ByteBuffer.wrap(bytes, bytes.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        Reader reader = new Reader(bytes);
+        reader.pos = bytes.length - 8 - length;
+        Map<Integer, Object> meta = reader.struct();
+        assertEquals(bytes.length - 8, reader.pos);
+        assertEquals(1L, meta.get(1));
+        return meta;
+    }
+
+    private static Map<Integer, Object> chunkMeta(Map<Integer, Object> rowGroup, int column) {
+        return struct(structs(rowGroup.get(1)).get(column).get(3));
+    }
+
+    private static Page page(byte[] bytes, long offset) throws IOException {
+        Reader reader = new Reader(bytes);
+        reader.pos = (int) offset;
+        Map<Integer, Object> header = reader.struct();
+        int compressedSize = ((Long) header.get(3)).intValue();
+        byte[] compressed = Arrays.copyOfRange(bytes, reader.pos, reader.pos + compressedSize);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] body = gzip.readAllBytes();
+            assertEquals(((Long) header.get(2)).intValue(), body.length);
+            return new Page(((Long) header.get(1)).intValue(), body);
+        }
+    }
+
+    private static List<String> plainStrings(byte[] body, int pos, int count) {
+        ByteBuffer buffer = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(pos);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] utf8 = new byte[buffer.getInt()];
+            buffer.get(utf8);
+            values.add(new String(utf8, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static long littleEndianLong(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Object> struct(Object value) {
+        return (Map<Integer, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<Integer, Object>> structs(Object value) {
+        return (List<Map<Integer, Object>>) value;
+    }
+
+    private static String string(Object value) {
+        return new String((byte[]) value, StandardCharsets.UTF_8);
+    }
+
+    private static final class Page {
+        private final int type;
+        private final byte[] body;
+
+        private Page(int type, byte[] body) {
+            this.type = type;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Decodes Thrift compact structs (field id to value) and RLE/bit-packed
+     * hybrid runs.
+     */
+    private static final class Reader {
+        private final byte[] bytes;
+        private int pos;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        Map<Integer, Object> struct() {
+            Map<Integer, Object> fields = new HashMap<>();
+            int lastId = 0;
+            while (true) {
+                int header = bytes[pos++] & 0xFF;
+                if (header == 0) {
+                    return fields;
+                }
+                int delta = header >>> 4;
+                int id = delta != 0 ? lastId + delta : (int) zigzag(varint());
+                lastId = id;
+                fields.put(id, value(header & 0x0F));
+            }
+        }
+
+        private Object value(int type) {
+            switch (type) {
+                case 1:
+                    return true;
+                case 2:
+                    return false;
+                case 5:
+                case 6:
+                    return zigzag(varint());
+                case 8:
+                    int length = (int) varint();
+                    byte[] value = Arrays.copyOfRange(bytes, pos, pos + length);
+                    pos += length;
+                    return value;
+                case 9:
+                    int header = bytes[pos++] & 0xFF;
+                    int size = header >>> 4 == 15 ? (int) varint() : header >>> 4;
+                    List<Object> list = new ArrayList<>();
+                    for (int i = 0; i < size; i++) {
+                        list.add(value(header & 0x0F));
+                    }
+                    return list;
+                case 12:
+                    return struct();
+                default:
+                    throw new IllegalStateException("Unexpected Thrift type " + type);
+            }
+        }
+
+        int[] definitionLevels(int count) {
+            int length = ByteBuffer.wrap(bytes, pos, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+            pos += 4;
+            int end = pos + length;
+            int[] levels = hybrid(1, count);
+            pos = end;
+            return levels;
+        }
+
+        int[] hybrid(int bitWidth, int count) {
+            int[] values = new int[count];
+            int n = 0;
+            while (n < count) {
+                long header = varint();
+                if ((header & 1) == 0) {
+                    int run = (int) (header >>> 1);
+                    int value = 0;
+                    for (int b = 0; b < (bitWidth + 7) / 8; b++) {
+                        value |= (bytes[pos++] & 0xFF) << (8 * b);
+                    }
+                    for (int i = 0; i < run; i++) {
+                        values[n++] = value;
+                    }
+                } else {
+                    int total = (int) (header >>> 1) * 8;
+                    long bits = 0;
+                    int bitCount = 0;
+                    for (int i = 0; i < total; i++) {
+                        while (bitCount < bitWidth) {
+                            bits |= (long) (bytes[pos++] & 0xFF) << bitCount;
+                            bitCount += 8;
+                        }
+                        int value = (int) (bits & ((1L << bitWidth) - 1));
+                        bits >>>= bitWidth;
+                        bitCount -= bitWidth;
+                        if (n < count) {
+                            values[n++] = value;
+                        }
+                    }
+                }
+            }
+            return values;
+        }
+
+        private long varint() {
+            long value = 0;
+            int shift = 0;
+            while (true) {
+                int b = bytes[pos++] & 0xFF;
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+                shift += 7;
+            }
+        }
+
+        private static long zigzag(long n) {
+            return (n >>> 1) ^ -(n & 1);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.jarom.funbankapp.service.PdfReportWriter.Align;
+import com.jarom.funbankapp.service.PdfReportWriter.Column;
+
+class PdfReportWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLongTablesFlowOntoContinuationPages() throws Exception {
+        Path file = tempDir.resolve("report.pdf");
+        int pages;
+        try (PdfReportWriter pdf = new PdfReportWriter(file, "FunBank Report", "Generated today", false)) {
+            pdf.section("Transactions", new Column("Description", 100, Align.LEFT), new Column("Amount", 60, Align.RIGHT));
+            for (int i = 0; i < 120; i++) {
+                pdf.row("Row " + i, "$" + i + ".00");
+            }
+            pdf.section("Goals", new Column("Name", 100, Align.LEFT));
+            pdf.row("Emergency (fund)");
+            pdf.close();
+            pages = pdf.getPageCount();
+            assertEquals(121, pdf.getRowCount());
+        }
+
+        String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertTrue(pages >= 3, "expected the transactions to span pages, got " + pages);
+        assertTrue(content.startsWith("%PDF-1.4\n"));
+        assertTrue(content.endsWith("%%EOF\n"));
+        assertTrue(content.contains("/Type /Pages /Count " + pages + " "));
+        assertTrue(content.contains("(Transactions \\(continued\\)) Tj"));
+        assertTrue(content.contains("(Emergency \\(fund\\)) Tj"));
+        assertTrue(content.contains("(Row 119) Tj"));
+        // Every page shares the one resource dictionary
+        assertEquals(pages, count(content, "/Resources 3 0 R"));
+        assertEquals(1, count(content, "/BaseFont /Helvetica "));
+    }
+
+    @Test
+    void testCrossReferenceTablePointsAtEveryObject() throws Exception {
+        Path file = tempDir.resolve("xref.pdf");
+        try (PdfReportWriter pdf = new PdfReportWriter(file, "FunBank Report", "Generated today")) {
+            pdf.section("Debts", new Column("Name", 100, Align.LEFT));
+            for (int i = 0; i < 200; i++) {
+                pdf.row("Debt " + i);
+            }
+        }
+
+        String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        Matcher startxref = Pattern.compile("startxref\n(\\d+)\n%%EOF\n$").matcher(content);
+        assertTrue(startxref.find());
+        int xref = Integer.parseInt(startxref.group(1));
+        assertTrue(content.startsWith("xref\n0 ", xref));
+
+        Matcher entry = Pattern.compile("(\\d{10}) 00000 n \n").matcher(content.substring(xref));
+        int object = 1;
+        while (entry.find()) {
+            int offset = Integer.parseInt(entry.group(1));
+            assertTrue(content.startsWith(object + " 0 obj\n", offset), "object " + object);
+            object++;
+        }
+        Matcher size = Pattern.compile("/Size (\\d+)").matcher(content);
+        assertTrue(size.find());
+        assertEquals(Integer.parseInt(size.group(1)), object);
+    }
+
+    @Test
+    void testCellsThatDoNotFitAreTruncated() throws Exception {
+        Path file = tempDir.resolve("fit.pdf");
+        try (PdfReportWriter pdf = new PdfReportWriter(file, "FunBank Report", "Generated today", false)) {
+            pdf.section("Transactions", new Column("Description", 40, Align.LEFT));
+            pdf.row("A very long description that cannot possibly fit");
+        }
+
+        String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        Matcher shown = Pattern.compile("\\((A very[^)]*\\.\\.\\.)\\) Tj").matcher(content);
+        assertTrue(shown.find());
+        assertTrue(PdfReportWriter.width(shown.group(1), 9) <= 36);
+    }
+
+    private static int count(String haystack, String needle) {
+        int count = 0;
+        for (int i = haystack.indexOf(needle); i >= 0; i = haystack.indexOf(needle, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -35,6 +35,9 @@ class TransactionServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private OwnershipService ownershipService;
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
@@ -0,0 +1,66 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jarom.funbankapp.model.User;
+import com.jarom.funbankapp.repository.AccountRepository;
+import com.jarom.funbankapp.repository.BudgetRepository;
+import com.jarom.funbankapp.repository.GoalRepository;
+import com.jarom.funbankapp.repository.TransactionRepository;
+import com.jarom.funbankapp.repository.UserRepository;
+import com.jarom.funbankapp.security.UserDetailsCache;
+
+class UserServiceTest {
+
+    private UserRepository userRepository;
+    private UserDetailsCache userDetailsCache;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userDetailsCache = new UserDetailsCache(60, 100);
+        userService = new UserService(userRepository, mock(AccountRepository.class),
+                mock(TransactionRepository.class), mock(BudgetRepository.class), mock(GoalRepository.class),
+                userDetailsCache, mock(OwnershipService.class));
+    }
+
+    @Test
+    void testRenameEvictsTheOldUsername() {
+        User stored = user("alice");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(stored));
+        userDetailsCache.put("alice", "alice", "hash");
+        userDetailsCache.put("alice@example.com", "alice", "hash");
+
+        userService.updateUser(user("alicia"));
+
+        assertNull(userDetailsCache.get("alice"));
+        assertNull(userDetailsCache.get("alice@example.com"));
+    }
+
+    @Test
+    void testUpdateEvictsTheCurrentUsername() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user("alice")));
+        userDetailsCache.put("alice", "alice", "hash");
+        userDetailsCache.put("bob", "bob", "hash");
+
+        userService.updateUser(user("alice"));
+
+        assertNull(userDetailsCache.get("alice"));
+        assertNotNull(userDetailsCache.get("bob"));
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return user;
+    }
+}
@@ -0,0 +1,94 @@
+package com.jarom.funbankapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class XlsxWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWritesOneSheetPerCallWithSharedAndEscapedStrings() throws Exception {
+        Path file = tempDir.resolve("book.xlsx");
+        try (XlsxWriter xlsx = new XlsxWriter(file)) {
+            xlsx.sheet("Transactions", "Date", "Description", "Amount");
+            xlsx.field(LocalDateTime.of(2024, 1, 16, 12, 0)).field("Fish & <Chips>").field(new BigDecimal("-75.50")).endRow();
+            xlsx.field((LocalDateTime) null).field("Fish & <Chips>").field(new BigDecimal("10")).endRow();
+            xlsx.sheet("Goals: 2024/25", "Name");
+            xlsx.field("Emergency Fund").endRow();
+            assertEquals(3, xlsx.getRowCount());
+        }
+
+        Map<String, String> parts = readParts(file);
+        assertTrue(parts.keySet().containsAll(java.util.List.of("[Content_Types].xml", "_rels/.rels", "xl/workbook.xml",
+                "xl/_rels/workbook.xml.rels", "xl/styles.xml", "xl/sharedStrings.xml",
+                "xl/worksheets/sheet1.xml", "xl/worksheets/sheet2.xml")));
+        assertTrue(parts.get("xl/workbook.xml").contains("<sheet name=\"Transactions\" sheetId=\"1\" r:id=\"rId1\"/>"));
+        assertTrue(parts.get("xl/workbook.xml").contains("<sheet name=\"Goals_ 2024_25\" sheetId=\"2\" r:id=\"rId2\"/>"));
+
+        String sheet1 = parts.get("xl/worksheets/sheet1.xml");
+        assertTrue(sheet1.contains("<row r=\"2\"><c r=\"A2\" s=\"3\"><v>45307.5</v></c><c r=\"B2\" t=\"s\"><v>0</v></c>"
+                + "<c r=\"C2\" s=\"4\"><v>-75.50</v></c></row>"));
+        assertTrue(sheet1.contains("<row r=\"3\"><c r=\"B3\" t=\"s\"><v>0</v></c>"));
+        assertTrue(parts.get("xl/sharedStrings.xml").contains("count=\"3\" uniqueCount=\"2\">"
+                + "<si><t xml:space=\"preserve\">Fish &amp; &lt;Chips&gt;</t></si>"));
+    }
+
+    @Test
+    void testFullSharedStringTableFallsBackToInlineStrings() throws Exception {
+        Path file = tempDir.resolve("inline.xlsx");
+        try (XlsxWriter xlsx = new XlsxWriter(file, XlsxWriter.MAX_ROWS_PER_SHEET, 1)) {
+            xlsx.sheet("Sheet", "Name");
+            xlsx.field("first").endRow();
+            xlsx.field("second").endRow();
+            xlsx.field("first").endRow();
+        }
+
+        Map<String, String> parts = readParts(file);
+        assertTrue(parts.get("xl/sharedStrings.xml").contains("count=\"2\" uniqueCount=\"1\""));
+        assertTrue(parts.get("xl/worksheets/sheet1.xml")
+                .contains("<c r=\"A3\" t=\"inlineStr\"><is><t xml:space=\"preserve\">second</t></is></c>"));
+    }
+
+    @Test
+    void testFullSheetContinuesOnANewSheetWithTheSameHeader() throws Exception {
+        Path file = tempDir.resolve("rollover.xlsx");
+        try (XlsxWriter xlsx = new XlsxWriter(file, 3, 100)) {
+            xlsx.sheet("Transactions", "Id");
+            for (int i = 1; i <= 5; i++) {
+                xlsx.field(i).endRow();
+            }
+        }
+
+        Map<String, String> parts = readParts(file);
+        assertTrue(parts.get("xl/workbook.xml").contains("<sheet name=\"Transactions (2)\" sheetId=\"2\""));
+        assertTrue(parts.get("xl/workbook.xml").contains("<sheet name=\"Transactions (3)\" sheetId=\"3\""));
+        String second = parts.get("xl/worksheets/sheet2.xml");
+        assertTrue(second.contains("<row r=\"1\"><c r=\"A1\" t=\"inlineStr\" s=\"1\"><is><t>Id</t></is></c></row>"
+                + "<row r=\"2\"><c r=\"A2\"><v>3</v></c></row><row r=\"3\"><c r=\"A3\"><v>4</v></c></row>"));
+    }
+
+    private static Map<String, String> readParts(Path file) throws IOException {
+        Map<String, String> parts = new HashMap<>();
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            for (ZipEntry entry : Collections.list(zip.entries())) {
+                parts.put(entry.getName(), new String(zip.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,61 @@
+"""Reads transactions.parquet, written by ParquetWriter, with pyarrow and
+checks every value, type and the row group statistics.
+
+ParquetWriterTest pins ParquetWriter's output to this fixture byte for byte,
+so a reader accepting the fixture covers the writer too.
+
+    pip install pyarrow
+    python src/test/resources/parquet/check_fixture.py
+"""
+from datetime import datetime
+from decimal import Decimal
+from pathlib import Path
+
+import pyarrow as pa
+import pyarrow.parquet as pq
+
+FIXTURE = Path(__file__).with_name("transactions.parquet")
+
+EXPECTED_SCHEMA = pa.schema([
+    ("transaction_date", pa.timestamp("us")),
+    ("amount", pa.decimal128(18, 2)),
+    ("category", pa.string()),
+    ("account", pa.string()),
+    ("description", pa.string()),
+])
+
+EXPECTED_ROWS = [
+    (datetime(2024, 1, 15, 0, 0), Decimal("1500.00"), "income", None, "Salary Deposit"),
+    (datetime(2024, 1, 16, 9, 30, 15, 123456), Decimal("-75.50"), "food", None, "Grocery Shopping"),
+    (None, None, None, None, None),
+    (datetime(2024, 1, 18, 0, 0), Decimal("-120.00"), "utilities", None, "Café ☕"),
+    (datetime(2024, 1, 19, 23, 59, 59), Decimal("9999999999999999.99"), "food", None, "Largest amount"),
+]
+
+
+def main():
+    parquet = pq.ParquetFile(FIXTURE)
+    assert parquet.schema_arrow.equals(EXPECTED_SCHEMA), parquet.schema_arrow
+    assert parquet.metadata.num_rows == len(EXPECTED_ROWS)
+    assert parquet.metadata.num_row_groups == 2
+
+    table = parquet.read()
+    rows = list(zip(*(table.column(name).to_pylist() for name in EXPECTED_SCHEMA.names)))
+    assert rows == EXPECTED_ROWS, rows
+
+    amount = parquet.metadata.row_group(0).column(1)
+    assert amount.statistics.null_count == 1
+    # Unscaled INT64 values
+    assert amount.statistics.has_min_max
+    assert amount.statistics.min_raw == -7550, amount.statistics.min_raw
+    assert amount.statistics.max_raw == 150000, amount.statistics.max_raw
+
+    account = parquet.metadata.row_group(1).column(3)
+    assert account.statistics.null_count == 2
+    assert not account.has_dictionary_page
+
+    print("OK: %d rows in %d row groups" % (parquet.metadata.num_rows, parquet.metadata.num_row_groups))
+
+
+if __name__ == "__main__":
+    main()
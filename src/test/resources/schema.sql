@@ -12,13 +12,15 @@ CREATE TABLE IF NOT EXISTS users (
 CREATE TABLE IF NOT EXISTS transactions (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     user_id BIGINT NOT NULL,
+    account_id BIGINT,
     amount DECIMAL(10,2) NOT NULL,
     description VARCHAR(255),
     category VARCHAR(50),
     transaction_date DATE,
     type VARCHAR(20),
     created_at TIMESTAMP NULL,
-    updated_at TIMESTAMP NULL
+    updated_at TIMESTAMP NULL,
+    row_version BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS debts (
@@ -33,7 +35,8 @@ CREATE TABLE IF NOT EXISTS debts (
     priority VARCHAR(20),
     status VARCHAR(20),
     created_at TIMESTAMP NULL,
-    updated_at TIMESTAMP NULL
+    updated_at TIMESTAMP NULL,
+    row_version BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS budgets (
@@ -46,7 +49,8 @@ CREATE TABLE IF NOT EXISTS budgets (
     start_date DATE,
     end_date DATE,
     created_at TIMESTAMP NULL,
-    updated_at TIMESTAMP NULL
+    updated_at TIMESTAMP NULL,
+    row_version BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS goals (
@@ -60,7 +64,8 @@ CREATE TABLE IF NOT EXISTS goals (
     priority VARCHAR(20),
     status VARCHAR(20),
     created_at TIMESTAMP NULL,
-    updated_at TIMESTAMP NULL
+    updated_at TIMESTAMP NULL,
+    row_version BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS accounts (
@@ -71,7 +76,8 @@ CREATE TABLE IF NOT EXISTS accounts (
     balance DECIMAL(10,2) DEFAULT 0.00,
     currency VARCHAR(3) DEFAULT 'USD',
     created_at TIMESTAMP NULL,
-    updated_at TIMESTAMP NULL
+    updated_at TIMESTAMP NULL,
+    row_version BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS export_jobs (
@@ -86,5 +92,28 @@ CREATE TABLE IF NOT EXISTS export_jobs (
     started_at TIMESTAMP NULL,
     completed_at TIMESTAMP NULL,
     error_message TEXT,
-    parameters TEXT
-); 
\ No newline at end of file
+    parameters TEXT,
+    progress INT DEFAULT 0,
+    rows_written BIGINT DEFAULT 0,
+    rows_total BIGINT DEFAULT 0,
+    cache_key VARCHAR(64),
+    node_id VARCHAR(64)
+); 
+CREATE TABLE IF NOT EXISTS export_schedules (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    export_type VARCHAR(50) NOT NULL,
+    format VARCHAR(20) NOT NULL,
+    parameters TEXT,
+    interval_minutes INT NOT NULL,
+    incremental BOOLEAN DEFAULT FALSE,
+    next_run_at TIMESTAMP NOT NULL,
+    last_run_at TIMESTAMP NULL,
+    created_at TIMESTAMP NULL,
+    last_transaction_id BIGINT DEFAULT 0,
+    pending_job_id BIGINT,
+    pending_through_id BIGINT,
+    last_job_id BIGINT,
+    rolling_file_path VARCHAR(255),
+    rolling_file_size BIGINT DEFAULT 0
+);